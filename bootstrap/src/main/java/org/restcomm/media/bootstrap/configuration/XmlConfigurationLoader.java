@@ -90,6 +90,9 @@ public class XmlConfigurationLoader implements ConfigurationLoader {
         dst.setNetwork(src.getString("network", NetworkConfiguration.NETWORK));
         dst.setSubnet(src.getString("subnet", NetworkConfiguration.SUBNET));
         dst.setSbc(src.getBoolean("sbc", NetworkConfiguration.SBC));
+        dst.setBatchSize(src.getInt("batchSize", NetworkConfiguration.BATCH_SIZE));
+        dst.setTransport(src.getString("transport", NetworkConfiguration.TRANSPORT));
+        dst.setReusePortChannels(src.getInt("transport[@reusePortChannels]", NetworkConfiguration.REUSE_PORT_CHANNELS));
     }
 
     private static void configureController(HierarchicalConfiguration<ImmutableNode> src, MgcpControllerConfiguration dst) {
@@ -114,6 +117,10 @@ public class XmlConfigurationLoader implements ConfigurationLoader {
         dst.setLowPort(src.getInt("lowPort", MediaConfiguration.LOW_PORT));
         dst.setHighPort(src.getInt("highPort", MediaConfiguration.HIGH_PORT));
         dst.setJitterBufferSize(src.getInt("jitterBuffer[@size]", MediaConfiguration.JITTER_BUFFER_SIZE));
+        dst.setJitterBufferAdaptive(src.getBoolean("jitterBuffer[@adaptive]", MediaConfiguration.JITTER_BUFFER_ADAPTIVE));
+        dst.setSchedulerType(src.getString("scheduler[@type]", MediaConfiguration.SCHEDULER_TYPE));
+        dst.setSchedulerShards(src.getInt("scheduler[@shards]", MediaConfiguration.SCHEDULER_SHARDS));
+        dst.setMixerSpeakers(src.getInt("mixer[@speakers]", MediaConfiguration.MIXER_SPEAKERS));
 
         // Iterate over codec configuration
         List<HierarchicalConfiguration<ImmutableNode>> codecs = src.childConfigurationsAt("codecs");
@@ -137,21 +144,41 @@ public class XmlConfigurationLoader implements ConfigurationLoader {
         dst.setCertificatePath(src.getString("certificate[@path]", DtlsConfiguration.CERTIFICATE_PATH));
         dst.setKeyPath(src.getString("certificate[@key]", DtlsConfiguration.KEY_PATH));
         dst.setAlgorithmCertificate(src.getString("certificate[@algorithm]", DtlsConfiguration.ALGORITHM_CERTIFICATE));
+        dst.setHandshakeThreads(src.getInt("handshake[@threads]", DtlsConfiguration.HANDSHAKE_THREADS));
+        dst.setHandshakeQueueSize(src.getInt("handshake[@queue]", DtlsConfiguration.HANDSHAKE_QUEUE_SIZE));
+        dst.setSrtpCryptoProvider(src.getString("srtp[@provider]", DtlsConfiguration.SRTP_CRYPTO_PROVIDER));
     }
 
     private static void configurePlayer(HierarchicalConfiguration<ImmutableNode> src, ResourcesConfiguration dst) {
         HierarchicalConfiguration<ImmutableNode> player = src.configurationAt("player");
+        dst.setPlayerIoThreads(player.getInt("io[@threads]", ResourcesConfiguration.PLAYER_IO_THREADS));
+        dst.setPlayerIoQueueSize(player.getInt("io[@queue]", ResourcesConfiguration.PLAYER_IO_QUEUE_SIZE));
+        dst.setPlayerConnectTimeout(player.getInt("io[@connectTimeout]", ResourcesConfiguration.PLAYER_CONNECT_TIMEOUT));
+        dst.setPlayerReadTimeout(player.getInt("io[@readTimeout]", ResourcesConfiguration.PLAYER_READ_TIMEOUT));
+        dst.setTtsCacheSize(player.getInt("tts[@cacheSize]", ResourcesConfiguration.TTS_CACHE_SIZE));
+
         HierarchicalConfiguration<ImmutableNode> cache;
         try {
             cache = player.configurationAt("cache");
+            dst.setPlayerCache(
+                    cache.getBoolean("cacheEnabled", ResourcesConfiguration.PLAYER_CACHE_ENABLED),
+                    cache.getInt("cacheSize", ResourcesConfiguration.PLAYER_CACHE_SIZE)
+            );
         } catch (ConfigurationRuntimeException exception) {
             log.info("No cache was specified for player");
+        }
+
+        HierarchicalConfiguration<ImmutableNode> promptCache;
+        try {
+            promptCache = player.configurationAt("promptCache");
+        } catch (ConfigurationRuntimeException exception) {
+            log.info("No prompt cache was specified for player");
             return;
         }
-        dst.setPlayerCache(
-                cache.getBoolean("cacheEnabled", ResourcesConfiguration.PLAYER_CACHE_ENABLED),
-                cache.getInt("cacheSize", ResourcesConfiguration.PLAYER_CACHE_SIZE)
+        dst.setPromptCache(
+                promptCache.getBoolean("cacheEnabled", ResourcesConfiguration.PROMPT_CACHE_ENABLED),
+                promptCache.getInt("cacheSize", ResourcesConfiguration.PROMPT_CACHE_SIZE),
+                promptCache.getString("warmUpDirectory", ResourcesConfiguration.PROMPT_CACHE_WARM_UP_DIRECTORY)
         );
-
     }
 }
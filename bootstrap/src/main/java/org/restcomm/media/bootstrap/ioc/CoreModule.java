@@ -33,7 +33,10 @@ import org.restcomm.media.bootstrap.ioc.provider.DtmfDetectorPoolProvider;
 import org.restcomm.media.bootstrap.ioc.provider.DtmfGeneratorFactoryProvider;
 import org.restcomm.media.bootstrap.ioc.provider.DtmfGeneratorPoolProvider;
 import org.restcomm.media.bootstrap.ioc.provider.MediaSchedulerProvider;
+import org.restcomm.media.bootstrap.ioc.provider.PromptCacheProvider;
+import org.restcomm.media.bootstrap.ioc.provider.SpeechCacheProvider;
 import org.restcomm.media.bootstrap.ioc.provider.TaskSchedulerProvider;
+import org.restcomm.media.bootstrap.ioc.provider.TrackLoaderProvider;
 import org.restcomm.media.bootstrap.ioc.provider.UdpManagerProvider;
 import org.restcomm.media.bootstrap.ioc.provider.WallClockProvider;
 import org.restcomm.media.bootstrap.ioc.provider.AudioPlayerFactoryProvider.AudioPlayerFactoryType;
@@ -48,6 +51,9 @@ import org.restcomm.media.bootstrap.ioc.provider.mgcp.Mgcp2ControllerProvider;
 import org.restcomm.media.core.configuration.MediaServerConfiguration;
 import org.restcomm.media.network.deprecated.UdpManager;
 import org.restcomm.media.resource.player.audio.RemoteStreamProvider;
+import org.restcomm.media.resource.player.audio.async.TrackLoader;
+import org.restcomm.media.resource.player.audio.prompt.PromptCache;
+import org.restcomm.media.resource.player.audio.tts.SpeechCache;
 import org.restcomm.media.rtp.crypto.DtlsSrtpServerProvider;
 import org.restcomm.media.scheduler.Clock;
 import org.restcomm.media.scheduler.PriorityQueueScheduler;
@@ -94,6 +100,9 @@ public class CoreModule extends AbstractModule {
             remoteStreamProvider = DirectRemoteStreamProvider.class;
         }
         bind(RemoteStreamProvider.class).toProvider(remoteStreamProvider).in(Singleton.class);
+        bind(PromptCache.class).toProvider(PromptCacheProvider.class).in(Singleton.class);
+        bind(TrackLoader.class).toProvider(TrackLoaderProvider.class).in(Singleton.class);
+        bind(SpeechCache.class).toProvider(SpeechCacheProvider.class).in(Singleton.class);
     }
 
 }
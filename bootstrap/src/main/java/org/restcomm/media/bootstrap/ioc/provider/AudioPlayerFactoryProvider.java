@@ -24,6 +24,9 @@ package org.restcomm.media.bootstrap.ioc.provider;
 import org.restcomm.media.resource.player.audio.AudioPlayerFactory;
 import org.restcomm.media.resource.player.audio.AudioPlayerImpl;
 import org.restcomm.media.resource.player.audio.RemoteStreamProvider;
+import org.restcomm.media.resource.player.audio.async.TrackLoader;
+import org.restcomm.media.resource.player.audio.prompt.PromptCache;
+import org.restcomm.media.resource.player.audio.tts.SpeechCache;
 import org.restcomm.media.scheduler.PriorityQueueScheduler;
 import org.restcomm.media.spi.dsp.DspFactory;
 import org.restcomm.media.spi.pooling.PooledObjectFactory;
@@ -41,17 +44,23 @@ public class AudioPlayerFactoryProvider implements Provider<AudioPlayerFactory>
     private final PriorityQueueScheduler mediaScheduler;
     private final DspFactory dspFactory;
     private final RemoteStreamProvider remoteStreamProvider;
+    private final PromptCache promptCache;
+    private final TrackLoader trackLoader;
+    private final SpeechCache speechCache;
 
     @Inject
-    public AudioPlayerFactoryProvider(PriorityQueueScheduler mediaScheduler, DspFactory dspFactory, RemoteStreamProvider remoteStreamProvider) {
+    public AudioPlayerFactoryProvider(PriorityQueueScheduler mediaScheduler, DspFactory dspFactory, RemoteStreamProvider remoteStreamProvider, PromptCache promptCache, TrackLoader trackLoader, SpeechCache speechCache) {
         this.mediaScheduler = mediaScheduler;
         this.dspFactory = dspFactory;
         this.remoteStreamProvider = remoteStreamProvider;
+        this.promptCache = promptCache;
+        this.trackLoader = trackLoader;
+        this.speechCache = speechCache;
     }
 
     @Override
     public AudioPlayerFactory get() {
-        return new AudioPlayerFactory(mediaScheduler, dspFactory, remoteStreamProvider);
+        return new AudioPlayerFactory(mediaScheduler, dspFactory, remoteStreamProvider, promptCache, trackLoader, speechCache);
     }
 
     public static final class AudioPlayerFactoryType extends TypeLiteral<PooledObjectFactory<AudioPlayerImpl>> {
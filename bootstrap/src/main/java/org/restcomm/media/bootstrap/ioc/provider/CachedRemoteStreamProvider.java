@@ -1,6 +1,7 @@
 package org.restcomm.media.bootstrap.ioc.provider;
 
 import org.restcomm.media.core.configuration.MediaServerConfiguration;
+import org.restcomm.media.core.configuration.ResourcesConfiguration;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
@@ -14,7 +15,8 @@ public class CachedRemoteStreamProvider implements Provider<org.restcomm.media.r
 
     @Inject
     public CachedRemoteStreamProvider(MediaServerConfiguration config) {
-        instance = new org.restcomm.media.resource.player.audio.CachedRemoteStreamProvider(config.getResourcesConfiguration().getPlayerCacheSize());
+        ResourcesConfiguration resources = config.getResourcesConfiguration();
+        instance = new org.restcomm.media.resource.player.audio.CachedRemoteStreamProvider(resources.getPlayerCacheSize(), resources.getPlayerConnectTimeout(), resources.getPlayerReadTimeout());
     }
 
     @Override
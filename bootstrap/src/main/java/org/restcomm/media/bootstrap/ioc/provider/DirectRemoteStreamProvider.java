@@ -1,5 +1,9 @@
 package org.restcomm.media.bootstrap.ioc.provider;
 
+import org.restcomm.media.core.configuration.MediaServerConfiguration;
+import org.restcomm.media.core.configuration.ResourcesConfiguration;
+
+import com.google.inject.Inject;
 import com.google.inject.Provider;
 
 /**
@@ -9,8 +13,10 @@ public class DirectRemoteStreamProvider implements Provider<org.restcomm.media.r
 
     private org.restcomm.media.resource.player.audio.DirectRemoteStreamProvider instance;
 
-    public DirectRemoteStreamProvider() {
-        instance = new org.restcomm.media.resource.player.audio.DirectRemoteStreamProvider();
+    @Inject
+    public DirectRemoteStreamProvider(MediaServerConfiguration config) {
+        ResourcesConfiguration resources = config.getResourcesConfiguration();
+        instance = new org.restcomm.media.resource.player.audio.DirectRemoteStreamProvider(resources.getPlayerConnectTimeout(), resources.getPlayerReadTimeout());
     }
 
     @Override
@@ -21,7 +21,9 @@
 
 package org.restcomm.media.bootstrap.ioc.provider;
 
+import org.restcomm.media.core.configuration.DtlsConfiguration;
 import org.restcomm.media.core.configuration.MediaServerConfiguration;
+import org.restcomm.media.rtp.crypto.DtlsHandshakeExecutor;
 import org.restcomm.media.rtp.crypto.DtlsSrtpServerProvider;
 
 import com.google.inject.Inject;
@@ -41,10 +43,12 @@ public class DtlsSrtpServerProviderProvider implements Provider<DtlsSrtpServerPr
 
     @Override
     public DtlsSrtpServerProvider get() {
-        return new DtlsSrtpServerProvider(config.getDtlsConfiguration().getMinVersion(), config.getDtlsConfiguration()
-                .getMaxVersion(), config.getDtlsConfiguration().getCipherSuites(), config.getDtlsConfiguration()
-                .getCertificatePath(), config.getDtlsConfiguration().getKeyPath(), config.getDtlsConfiguration()
-                .getAlgorithmCertificate());
+        DtlsConfiguration dtls = config.getDtlsConfiguration();
+        DtlsHandshakeExecutor handshakeExecutor = new DtlsHandshakeExecutor(dtls.getHandshakeThreads(),
+                dtls.getHandshakeQueueSize());
+        return new DtlsSrtpServerProvider(dtls.getMinVersion(), dtls.getMaxVersion(), dtls.getCipherSuites(),
+                dtls.getCertificatePath(), dtls.getKeyPath(), dtls.getAlgorithmCertificate(), handshakeExecutor,
+                dtls.getSrtpCryptoProvider());
     }
 
 }
@@ -21,8 +21,11 @@
 
 package org.restcomm.media.bootstrap.ioc.provider;
 
+import org.restcomm.media.core.configuration.MediaConfiguration;
+import org.restcomm.media.core.configuration.MediaServerConfiguration;
 import org.restcomm.media.scheduler.Clock;
 import org.restcomm.media.scheduler.PriorityQueueScheduler;
+import org.restcomm.media.scheduler.WorkStealingScheduler;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
@@ -33,15 +36,26 @@ import com.google.inject.Provider;
  */
 public class MediaSchedulerProvider implements Provider<PriorityQueueScheduler> {
 
+    private static final String WORK_STEALING = "work-stealing";
+
     private final Clock clock;
+    private final MediaConfiguration config;
     
     @Inject
-    public MediaSchedulerProvider(Clock clock) {
+    public MediaSchedulerProvider(Clock clock, MediaServerConfiguration config) {
         this.clock = clock;
+        this.config = config.getMediaConfiguration();
     }
     
     @Override
     public PriorityQueueScheduler get() {
+        if (WORK_STEALING.equals(this.config.getSchedulerType())) {
+            int shards = this.config.getSchedulerShards();
+            if (shards == 0) {
+                return new WorkStealingScheduler(this.clock);
+            }
+            return new WorkStealingScheduler(this.clock, shards);
+        }
         return new PriorityQueueScheduler(this.clock);
     }
 
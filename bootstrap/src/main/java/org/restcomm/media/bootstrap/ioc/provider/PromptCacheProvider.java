@@ -0,0 +1,62 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.bootstrap.ioc.provider;
+
+import java.io.File;
+
+import org.restcomm.media.core.configuration.MediaServerConfiguration;
+import org.restcomm.media.core.configuration.ResourcesConfiguration;
+import org.restcomm.media.resource.player.audio.RemoteStreamProvider;
+import org.restcomm.media.resource.player.audio.prompt.PromptCache;
+import org.restcomm.media.spi.dsp.DspFactory;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+/**
+ * Provides the cache of packetized announcements, optionally warmed up with the prompts of a directory.
+ */
+public class PromptCacheProvider implements Provider<PromptCache> {
+
+    private final MediaServerConfiguration config;
+    private final RemoteStreamProvider remoteStreamProvider;
+    private final DspFactory dspFactory;
+
+    @Inject
+    public PromptCacheProvider(MediaServerConfiguration config, RemoteStreamProvider remoteStreamProvider, DspFactory dspFactory) {
+        this.config = config;
+        this.remoteStreamProvider = remoteStreamProvider;
+        this.dspFactory = dspFactory;
+    }
+
+    @Override
+    public PromptCache get() {
+        ResourcesConfiguration resources = this.config.getResourcesConfiguration();
+        PromptCache cache = new PromptCache(resources.getPromptCacheSize(), this.remoteStreamProvider, this.dspFactory);
+        String warmUpDirectory = resources.getPromptCacheWarmUpDirectory();
+        if (cache.isEnabled() && !warmUpDirectory.isEmpty()) {
+            cache.warmUp(new File(warmUpDirectory), PromptCache.LINEAR, 20);
+        }
+        return cache;
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.bootstrap.ioc.provider;
+
+import org.restcomm.media.core.configuration.MediaServerConfiguration;
+import org.restcomm.media.resource.player.audio.async.TrackLoader;
+import org.restcomm.media.resource.player.audio.tts.SpeechCache;
+import org.restcomm.media.resource.player.audio.tts.VoicesCache;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+/**
+ * Provides the cache of synthesized phrases, which synthesizes new phrases on the player I/O pool.
+ */
+public class SpeechCacheProvider implements Provider<SpeechCache> {
+
+    private final MediaServerConfiguration config;
+    private final TrackLoader trackLoader;
+
+    @Inject
+    public SpeechCacheProvider(MediaServerConfiguration config, TrackLoader trackLoader) {
+        this.config = config;
+        this.trackLoader = trackLoader;
+    }
+
+    @Override
+    public SpeechCache get() {
+        int size = this.config.getResourcesConfiguration().getTtsCacheSize();
+        return new SpeechCache(size, new VoicesCache(), this.trackLoader);
+    }
+
+}
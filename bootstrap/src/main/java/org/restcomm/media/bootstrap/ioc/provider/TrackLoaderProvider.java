@@ -0,0 +1,49 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.bootstrap.ioc.provider;
+
+import org.restcomm.media.core.configuration.MediaServerConfiguration;
+import org.restcomm.media.core.configuration.ResourcesConfiguration;
+import org.restcomm.media.resource.player.audio.async.TrackLoader;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+/**
+ * Provides the I/O pool shared by all audio players.
+ */
+public class TrackLoaderProvider implements Provider<TrackLoader> {
+
+    private final MediaServerConfiguration config;
+
+    @Inject
+    public TrackLoaderProvider(MediaServerConfiguration config) {
+        this.config = config;
+    }
+
+    @Override
+    public TrackLoader get() {
+        ResourcesConfiguration resources = this.config.getResourcesConfiguration();
+        return new TrackLoader(resources.getPlayerIoThreads(), resources.getPlayerIoQueueSize());
+    }
+
+}
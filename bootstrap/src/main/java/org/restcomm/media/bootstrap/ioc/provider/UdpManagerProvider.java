@@ -22,8 +22,8 @@
 package org.restcomm.media.bootstrap.ioc.provider;
 
 import org.restcomm.media.core.configuration.MediaServerConfiguration;
+import org.restcomm.media.network.deprecated.BitmapPortManager;
 import org.restcomm.media.network.deprecated.PortManager;
-import org.restcomm.media.network.deprecated.RtpPortManager;
 import org.restcomm.media.network.deprecated.UdpManager;
 import org.restcomm.media.scheduler.Scheduler;
 
@@ -45,8 +45,8 @@ public class UdpManagerProvider implements Provider<UdpManager> {
     public UdpManagerProvider(MediaServerConfiguration config, Scheduler scheduler) {
         this.scheduler = scheduler;
         this.config = config;
-        this.portManager = new RtpPortManager(config.getMediaConfiguration().getLowPort(), config.getMediaConfiguration().getHighPort());
-        this.localPortManager = new RtpPortManager();
+        this.portManager = new BitmapPortManager(config.getMediaConfiguration().getLowPort(), config.getMediaConfiguration().getHighPort());
+        this.localPortManager = new BitmapPortManager();
     }
     
     @Override
@@ -59,6 +59,7 @@ public class UdpManagerProvider implements Provider<UdpManager> {
         udpManager.setLocalSubnet(config.getNetworkConfiguration().getSubnet());
         udpManager.setUseSbc(config.getNetworkConfiguration().isSbc());
         udpManager.setRtpTimeout(config.getMediaConfiguration().getTimeout());
+        udpManager.setBatchSize(config.getNetworkConfiguration().getBatchSize());
         return udpManager;
     }
 
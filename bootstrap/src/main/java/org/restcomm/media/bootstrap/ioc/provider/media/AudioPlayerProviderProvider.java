@@ -23,6 +23,9 @@ package org.restcomm.media.bootstrap.ioc.provider.media;
 
 import org.restcomm.media.resource.player.audio.AudioPlayerProvider;
 import org.restcomm.media.resource.player.audio.RemoteStreamProvider;
+import org.restcomm.media.resource.player.audio.async.TrackLoader;
+import org.restcomm.media.resource.player.audio.prompt.PromptCache;
+import org.restcomm.media.resource.player.audio.tts.SpeechCache;
 import org.restcomm.media.scheduler.PriorityQueueScheduler;
 import org.restcomm.media.spi.dsp.DspFactory;
 
@@ -38,18 +41,24 @@ public class AudioPlayerProviderProvider implements Provider<AudioPlayerProvider
     private final PriorityQueueScheduler scheduler;
     private final RemoteStreamProvider streamProvider;
     private final DspFactory dsp;
+    private final PromptCache promptCache;
+    private final TrackLoader trackLoader;
+    private final SpeechCache speechCache;
 
     @Inject
-    public AudioPlayerProviderProvider(PriorityQueueScheduler scheduler, RemoteStreamProvider streamProvider, DspFactory dsp) {
+    public AudioPlayerProviderProvider(PriorityQueueScheduler scheduler, RemoteStreamProvider streamProvider, DspFactory dsp, PromptCache promptCache, TrackLoader trackLoader, SpeechCache speechCache) {
         super();
         this.scheduler = scheduler;
         this.streamProvider = streamProvider;
         this.dsp = dsp;
+        this.promptCache = promptCache;
+        this.trackLoader = trackLoader;
+        this.speechCache = speechCache;
     }
 
     @Override
     public AudioPlayerProvider get() {
-        return new AudioPlayerProvider(scheduler, streamProvider, dsp);
+        return new AudioPlayerProvider(scheduler, streamProvider, dsp, promptCache, trackLoader, speechCache);
     }
 
 }
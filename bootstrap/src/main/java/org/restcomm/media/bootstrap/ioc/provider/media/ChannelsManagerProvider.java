@@ -75,6 +75,7 @@ public class ChannelsManagerProvider implements Provider<ChannelsManager> {
         ChannelsManager channelsManager = new ChannelsManager(this.udpManager, this.supportedCodecs, this.dtlsServerProvider);
         channelsManager.setScheduler(mediaScheduler);
         channelsManager.setJitterBufferSize(config.getMediaConfiguration().getJitterBufferSize());
+        channelsManager.setAdaptiveJitterBuffer(config.getMediaConfiguration().isJitterBufferAdaptive());
         return channelsManager;
     }
 
@@ -21,8 +21,12 @@
 
 package org.restcomm.media.bootstrap.ioc.provider.mgcp;
 
+import org.apache.log4j.Logger;
 import org.restcomm.media.control.mgcp.network.netty.MgcpChannelInitializer;
 import org.restcomm.media.control.mgcp.network.netty.MgcpNetworkManager;
+import org.restcomm.media.core.configuration.MediaServerConfiguration;
+import org.restcomm.media.core.configuration.NetworkConfiguration;
+import org.restcomm.media.network.netty.NettyTransport;
 
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import com.google.inject.Inject;
@@ -30,8 +34,6 @@ import com.google.inject.Provider;
 
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioDatagramChannel;
 
 /**
  * @author Henrique Rosa (henrique.rosa@telestax.com)
@@ -39,20 +41,34 @@ import io.netty.channel.socket.nio.NioDatagramChannel;
  */
 public class MgcpNetworkManagerProvider implements Provider<MgcpNetworkManager> {
 
+    private static final Logger log = Logger.getLogger(MgcpNetworkManagerProvider.class);
+
     private final Bootstrap bootstrap;
     private final EventLoopGroup eventLoopGroup;
     private final MgcpChannelInitializer initializer;
+    private final int fanOut;
 
     @Inject
-    public MgcpNetworkManagerProvider(ListeningScheduledExecutorService executor, MgcpChannelInitializer initializer) {
-        this.eventLoopGroup = new NioEventLoopGroup(Runtime.getRuntime().availableProcessors(), executor);
-        this.bootstrap = new Bootstrap().channel(NioDatagramChannel.class).group(eventLoopGroup);
+    public MgcpNetworkManagerProvider(MediaServerConfiguration config, ListeningScheduledExecutorService executor, MgcpChannelInitializer initializer) {
+        NetworkConfiguration network = config.getNetworkConfiguration();
+        NettyTransport transport = NettyTransport.select(network.getTransport());
+
+        int channels = network.getReusePortChannels();
+        if (channels > 1 && !transport.isReusePortSupported()) {
+            log.warn("Transport " + transport.getName() + " does not support SO_REUSEPORT. MGCP will be served by a single channel.");
+            channels = 1;
+        }
+        this.fanOut = channels;
+
+        int threads = Math.max(Runtime.getRuntime().availableProcessors(), this.fanOut);
+        this.eventLoopGroup = transport.newEventLoopGroup(threads, executor);
+        this.bootstrap = transport.newBootstrap(this.eventLoopGroup, this.fanOut > 1);
         this.initializer = initializer;
     }
 
     @Override
     public MgcpNetworkManager get() {
-        return new MgcpNetworkManager(bootstrap, initializer);
+        return new MgcpNetworkManager(bootstrap, initializer, fanOut);
     }
 
 }
@@ -32,6 +32,7 @@ import org.restcomm.media.scheduler.Task;
 import org.restcomm.media.spi.ControlProtocol;
 import org.restcomm.media.spi.MediaServer;
 import org.restcomm.media.spi.ServerManager;
+import org.restcomm.media.spi.memory.Memory;
 
 import com.google.inject.Inject;
 
@@ -158,6 +159,11 @@ public class RestCommMediaServer implements MediaServer {
             ttl--;
             if (ttl == 0) {
                 log.info("Global hearbeat is still alive");
+                int released = Memory.trim();
+                if (log.isDebugEnabled()) {
+                    log.debug("Frame pool released " + released + " idle frames. Footprint=" + Memory.getFootprint()
+                            + " bytes, hits=" + Memory.getHitCount() + ", misses=" + Memory.getMissCount());
+                }
                 restart();
             } else {
                 mediaScheduler.submitHeatbeat(this);
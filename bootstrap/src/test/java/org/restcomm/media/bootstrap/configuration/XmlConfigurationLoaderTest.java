@@ -34,6 +34,7 @@ import org.restcomm.media.core.configuration.MgcpControllerConfiguration;
 import org.restcomm.media.core.configuration.MgcpEndpointConfiguration;
 import org.restcomm.media.core.configuration.NetworkConfiguration;
 import org.restcomm.media.core.configuration.ResourcesConfiguration;
+import org.restcomm.media.rtp.crypto.SRTPCryptoProvider;
 import org.restcomm.media.spi.RelayType;
 
 /**
@@ -62,6 +63,9 @@ public class XmlConfigurationLoaderTest {
         Assert.assertEquals("192.168.1.0", network.getNetwork());
         Assert.assertEquals("255.255.255.255", network.getSubnet());
         Assert.assertTrue(network.isSbc());
+        Assert.assertEquals(32, network.getBatchSize());
+        Assert.assertEquals("epoll", network.getTransport());
+        Assert.assertEquals(4, network.getReusePortChannels());
 
         MgcpControllerConfiguration controller = config.getControllerConfiguration();
         Assert.assertEquals("198.162.1.175", controller.getAddress());
@@ -81,6 +85,10 @@ public class XmlConfigurationLoaderTest {
         Assert.assertEquals(54534, media.getLowPort());
         Assert.assertEquals(64534, media.getHighPort());
         Assert.assertEquals(60, media.getJitterBufferSize());
+        Assert.assertTrue(media.isJitterBufferAdaptive());
+        Assert.assertEquals("work-stealing", media.getSchedulerType());
+        Assert.assertEquals(4, media.getSchedulerShards());
+        Assert.assertEquals(3, media.getMixerSpeakers());
         Assert.assertTrue(media.hasCodec("l16"));
         Assert.assertTrue(media.hasCodec("PCMU"));
         Assert.assertTrue(media.hasCodec("pcma"));
@@ -104,9 +112,20 @@ public class XmlConfigurationLoaderTest {
         Assert.assertEquals(DtlsConfiguration.KEY_PATH, dtls.getKeyPath());
         Assert.assertEquals(SignatureAlgorithm.ecdsa, dtls.getAlgorithmCertificate().getSignatureAlgorithm());
         Assert.assertEquals(ClientCertificateType.ecdsa_sign, dtls.getAlgorithmCertificate().getClientCertificate());
+        Assert.assertEquals(4, dtls.getHandshakeThreads());
+        Assert.assertEquals(200, dtls.getHandshakeQueueSize());
+        Assert.assertEquals(SRTPCryptoProvider.JCE, dtls.getSrtpCryptoProvider());
 
         Assert.assertEquals(100, resources.getPlayerCacheSize());
         Assert.assertEquals(true, resources.getPlayerCacheEnabled());
+        Assert.assertEquals(50, resources.getPromptCacheSize());
+        Assert.assertEquals(true, resources.getPromptCacheEnabled());
+        Assert.assertEquals("../prompts", resources.getPromptCacheWarmUpDirectory());
+        Assert.assertEquals(4, resources.getPlayerIoThreads());
+        Assert.assertEquals(200, resources.getPlayerIoQueueSize());
+        Assert.assertEquals(1000, resources.getPlayerConnectTimeout());
+        Assert.assertEquals(3000, resources.getPlayerReadTimeout());
+        Assert.assertEquals(4, resources.getTtsCacheSize());
     }
 
     /**
@@ -129,6 +148,9 @@ public class XmlConfigurationLoaderTest {
         Assert.assertEquals(NetworkConfiguration.NETWORK, network.getNetwork());
         Assert.assertEquals(NetworkConfiguration.SUBNET, network.getSubnet());
         Assert.assertEquals(NetworkConfiguration.SBC, network.isSbc());
+        Assert.assertEquals(NetworkConfiguration.BATCH_SIZE, network.getBatchSize());
+        Assert.assertEquals(NetworkConfiguration.TRANSPORT, network.getTransport());
+        Assert.assertEquals(NetworkConfiguration.REUSE_PORT_CHANNELS, network.getReusePortChannels());
 
         MgcpControllerConfiguration controller = config.getControllerConfiguration();
         Assert.assertEquals(MgcpControllerConfiguration.ADDRESS, controller.getAddress());
@@ -140,12 +162,21 @@ public class XmlConfigurationLoaderTest {
         Assert.assertEquals(MediaConfiguration.LOW_PORT, media.getLowPort());
         Assert.assertEquals(MediaConfiguration.HIGH_PORT, media.getHighPort());
         Assert.assertEquals(MediaConfiguration.JITTER_BUFFER_SIZE, media.getJitterBufferSize());
+        Assert.assertEquals(MediaConfiguration.JITTER_BUFFER_ADAPTIVE, media.isJitterBufferAdaptive());
+        Assert.assertEquals(MediaConfiguration.SCHEDULER_TYPE, media.getSchedulerType());
+        Assert.assertEquals(MediaConfiguration.SCHEDULER_SHARDS, media.getSchedulerShards());
+        Assert.assertEquals(MediaConfiguration.MIXER_SPEAKERS, media.getMixerSpeakers());
         Assert.assertEquals(0, media.countCodecs());
 
         ResourcesConfiguration resources = config.getResourcesConfiguration();
         Assert.assertEquals(ResourcesConfiguration.DTMF_DETECTOR_DBI, resources.getDtmfDetectorDbi());
         Assert.assertEquals(ResourcesConfiguration.DTMF_GENERATOR_TONE_DURATION, resources.getDtmfGeneratorToneDuration());
         Assert.assertEquals(ResourcesConfiguration.DTMF_GENERATOR_TONE_VOLUME, resources.getDtmfGeneratorToneVolume());
+        Assert.assertEquals(ResourcesConfiguration.PLAYER_IO_THREADS, resources.getPlayerIoThreads());
+        Assert.assertEquals(ResourcesConfiguration.PLAYER_IO_QUEUE_SIZE, resources.getPlayerIoQueueSize());
+        Assert.assertEquals(ResourcesConfiguration.PLAYER_CONNECT_TIMEOUT, resources.getPlayerConnectTimeout());
+        Assert.assertEquals(ResourcesConfiguration.PLAYER_READ_TIMEOUT, resources.getPlayerReadTimeout());
+        Assert.assertEquals(ResourcesConfiguration.TTS_CACHE_SIZE, resources.getTtsCacheSize());
 
         DtlsConfiguration dtls = config.getDtlsConfiguration();
         Assert.assertEquals(ProtocolVersion.DTLSv10, dtls.getMinVersion());
@@ -159,6 +190,9 @@ public class XmlConfigurationLoaderTest {
         Assert.assertEquals(DtlsConfiguration.KEY_PATH, dtls.getKeyPath());
         Assert.assertEquals(SignatureAlgorithm.ecdsa, dtls.getAlgorithmCertificate().getSignatureAlgorithm());
         Assert.assertEquals(ClientCertificateType.ecdsa_sign, dtls.getAlgorithmCertificate().getClientCertificate());
+        Assert.assertEquals(DtlsConfiguration.HANDSHAKE_THREADS, dtls.getHandshakeThreads());
+        Assert.assertEquals(DtlsConfiguration.HANDSHAKE_QUEUE_SIZE, dtls.getHandshakeQueueSize());
+        Assert.assertEquals(SRTPCryptoProvider.BOUNCYCASTLE, dtls.getSrtpCryptoProvider());
     }
 
     @Test(expected = Exception.class)
@@ -188,12 +222,18 @@ public class XmlConfigurationLoaderTest {
         Assert.assertEquals(MediaConfiguration.LOW_PORT, media.getLowPort());
         Assert.assertEquals(MediaConfiguration.HIGH_PORT, media.getHighPort());
         Assert.assertEquals(MediaConfiguration.JITTER_BUFFER_SIZE, media.getJitterBufferSize());
+        Assert.assertEquals(MediaConfiguration.JITTER_BUFFER_ADAPTIVE, media.isJitterBufferAdaptive());
         Assert.assertEquals(0, media.countCodecs());
         
         ResourcesConfiguration resources = config.getResourcesConfiguration();
         Assert.assertEquals(ResourcesConfiguration.DTMF_DETECTOR_DBI, resources.getDtmfDetectorDbi());
         Assert.assertEquals(ResourcesConfiguration.DTMF_GENERATOR_TONE_DURATION, resources.getDtmfGeneratorToneDuration());
         Assert.assertEquals(ResourcesConfiguration.DTMF_GENERATOR_TONE_VOLUME, resources.getDtmfGeneratorToneVolume());
+        Assert.assertEquals(ResourcesConfiguration.PLAYER_IO_THREADS, resources.getPlayerIoThreads());
+        Assert.assertEquals(ResourcesConfiguration.PLAYER_IO_QUEUE_SIZE, resources.getPlayerIoQueueSize());
+        Assert.assertEquals(ResourcesConfiguration.PLAYER_CONNECT_TIMEOUT, resources.getPlayerConnectTimeout());
+        Assert.assertEquals(ResourcesConfiguration.PLAYER_READ_TIMEOUT, resources.getPlayerReadTimeout());
+        Assert.assertEquals(ResourcesConfiguration.TTS_CACHE_SIZE, resources.getTtsCacheSize());
         
         DtlsConfiguration dtls = config.getDtlsConfiguration();
         Assert.assertEquals(ProtocolVersion.DTLSv10, dtls.getMinVersion());
@@ -207,6 +247,9 @@ public class XmlConfigurationLoaderTest {
         Assert.assertEquals(DtlsConfiguration.KEY_PATH, dtls.getKeyPath());
         Assert.assertEquals(SignatureAlgorithm.ecdsa, dtls.getAlgorithmCertificate().getSignatureAlgorithm());
         Assert.assertEquals(ClientCertificateType.ecdsa_sign, dtls.getAlgorithmCertificate().getClientCertificate());
+        Assert.assertEquals(DtlsConfiguration.HANDSHAKE_THREADS, dtls.getHandshakeThreads());
+        Assert.assertEquals(DtlsConfiguration.HANDSHAKE_QUEUE_SIZE, dtls.getHandshakeQueueSize());
+        Assert.assertEquals(SRTPCryptoProvider.BOUNCYCASTLE, dtls.getSrtpCryptoProvider());
     }
 
 }
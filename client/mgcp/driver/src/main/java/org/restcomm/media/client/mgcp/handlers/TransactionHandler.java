@@ -49,8 +49,6 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
 import java.text.ParseException;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -59,6 +57,7 @@ import org.restcomm.media.client.mgcp.parser.SplitDetails;
 import org.restcomm.media.client.mgcp.parser.StringFunctions;
 import org.restcomm.media.client.mgcp.stack.JainMgcpStackImpl;
 import org.restcomm.media.client.mgcp.utils.PacketRepresentation;
+import org.restcomm.media.client.mgcp.utils.TimingWheel;
 
 /**
  * Implements the base gateway control interface.
@@ -113,6 +112,9 @@ public abstract class TransactionHandler {
 	public final static int LONGTRAN_TIMER_TIMEOUT = 5000; // 5secs
 
 	public static final int THIST_TIMER_TIMEOUT = 30000; // 30 sec
+
+	private static final int TIMER_TICK = 10; // 10 ms
+	private static final int TIMER_WHEEL_SIZE = 1024;
 	/** Is this a transaction on a command sent or received? */
 	protected boolean sent;
 	/** Transaction handle sent from application to the MGCP provider. */
@@ -134,15 +136,16 @@ public abstract class TransactionHandler {
 	protected JainMgcpResponseEvent responseEvent;
 
 	/** Expiration timer */
-	protected static Timer transactionHandlerTimer = new Timer("TransactionHandlerTimer");
-	private LongtranTimerTask longtranTimerTask;
+	protected static TimingWheel transactionHandlerTimer = new TimingWheel("TransactionHandlerTimer", TIMER_TICK, TIMER_WHEEL_SIZE);
+	private final TimingWheel.Timeout longtranTimerTask;
 
 	/** Flag to check if this is Command or Response event * */
 	private boolean isCommand = false;
 
-	private ReTransmissionTimerTask reTransmissionTimer;
+	private final TimingWheel.Timeout reTransmissionTimer;
 
-	private THISTTimerTask tHISTTimerTask;
+	private final TimingWheel.Timeout tHISTTimerTask;
+	private volatile boolean tHISTResponseSent;
 
 	private int A = 0;
 	private int D = 2;
@@ -174,6 +177,9 @@ public abstract class TransactionHandler {
 	 */
 	public TransactionHandler(JainMgcpStackImpl stack) {
 		this.stack = stack;		
+		this.longtranTimerTask = new TimingWheel.Timeout(new LongtranTimerTask());
+		this.reTransmissionTimer = new TimingWheel.Timeout(new ReTransmissionTimerTask());
+		this.tHISTTimerTask = new TimingWheel.Timeout(new THISTTimerTask());
 		this.localTID = (int) (((long)GENERATOR.incrementAndGet()-(long)Integer.MIN_VALUE)%MAX_TRANSACTION_HANDLE_ID + 1L);
 		stack.getLocalTransactions().put(Integer.valueOf(localTID), this);		
 	}
@@ -199,6 +205,15 @@ public abstract class TransactionHandler {
 		}
 	}
 
+	/**
+	 * Gets the timer shared by all transactions, which reports the timer lag.
+	 * 
+	 * @return the transaction timer
+	 */
+	public static TimingWheel getTransactionTimer() {
+		return transactionHandlerTimer;
+	}
+
 	private void processTxTimeout() {
 		try {
 			// releases the tx
@@ -219,7 +234,7 @@ public abstract class TransactionHandler {
 		}
 	}
 
-	private class LongtranTimerTask extends TimerTask {
+	private class LongtranTimerTask implements Runnable {
 
 		public void run() {
 			if (logger.isDebugEnabled()) {
@@ -229,7 +244,7 @@ public abstract class TransactionHandler {
 		}
 	}
 
-	private class ReTransmissionTimerTask extends TimerTask {
+	private class ReTransmissionTimerTask implements Runnable {
 
 		public void run() {
 			try {
@@ -248,17 +263,11 @@ public abstract class TransactionHandler {
 		}
 	}
 
-	private class THISTTimerTask extends TimerTask {
-
-		boolean responseSent = false;
-
-		THISTTimerTask(boolean responseSent) {
-			this.responseSent = responseSent;
-		}
+	private class THISTTimerTask implements Runnable {
 
 		public void run() {
 
-			if (!responseSent) {
+			if (!tHISTResponseSent) {
 				if (logger.isDebugEnabled()) {
 					logger.debug("T-HIST timeout processTxTimeout ");
 				}
@@ -503,28 +512,18 @@ public abstract class TransactionHandler {
 	}
 
 	private void cancelLongtranTimer() {
-		if (longtranTimerTask != null) {
-			longtranTimerTask.cancel();
-			longtranTimerTask = null;
-		}
+		transactionHandlerTimer.cancel(longtranTimerTask);
 	}
 
 	private void resetLongtranTimer() {
-
-		longtranTimerTask = new LongtranTimerTask();
 		transactionHandlerTimer.schedule(longtranTimerTask, LONGTRAN_TIMER_TIMEOUT);
 	}
 
 	private void cancelReTransmissionTimer() {
-		if (reTransmissionTimer != null) {
-			reTransmissionTimer.cancel();
-			reTransmissionTimer = null;
-		}
+		transactionHandlerTimer.cancel(reTransmissionTimer);
 	}
 
 	private void resetReTransmissionTimer() {
-		cancelReTransmissionTimer();
-		reTransmissionTimer = new ReTransmissionTimerTask();
 		transactionHandlerTimer.schedule(reTransmissionTimer, calculateReTransmissionTimeout());
 	}
 
@@ -536,15 +535,11 @@ public abstract class TransactionHandler {
 	}
 
 	private void cancelTHISTTimerTask() {
-		if (tHISTTimerTask != null) {
-			tHISTTimerTask.cancel();
-			tHISTTimerTask = null;
-		}
+		transactionHandlerTimer.cancel(tHISTTimerTask);
 	}
 
 	private void resetTHISTTimerTask(boolean responseSent) {
-		cancelTHISTTimerTask();
-		tHISTTimerTask = new THISTTimerTask(responseSent);
+		tHISTResponseSent = responseSent;
 		transactionHandlerTimer.schedule(tHISTTimerTask, THIST_TIMER_TIMEOUT);
 	}
 
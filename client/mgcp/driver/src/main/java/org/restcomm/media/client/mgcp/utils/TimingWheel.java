@@ -0,0 +1,367 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.client.mgcp.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Hashed timing wheel that runs the transaction timers of the MGCP stack.
+ * <p>
+ * Timeouts are hashed by their deadline tick into a fixed number of buckets, each one an intrusive doubly linked list, so
+ * scheduling and cancelling a timeout are O(1) and cancelled timeouts leave the wheel at once. A single worker thread
+ * advances the wheel every tick and runs the expired timeouts, hence timers fire up to one tick late.
+ * </p>
+ * <p>
+ * A {@link Timeout} is created once and can be scheduled again any number of times, which re-arms it. The wheel measures
+ * the lag between the deadline of a timeout and the moment it actually ran.
+ * </p>
+ */
+public class TimingWheel {
+
+	private static final Logger logger = Logger.getLogger(TimingWheel.class);
+
+	private final String name;
+	private final long tickNanos;
+	private final Timeout[] buckets;
+	private final int mask;
+	private final Object lock;
+
+	private volatile Thread worker;
+	private volatile boolean running;
+	private long startTime;
+	// last tick processed by the worker, guarded by lock
+	private long tick;
+
+	// Statistics
+	private final AtomicLong scheduled;
+	private final AtomicLong cancelled;
+	private final AtomicLong expired;
+	private final AtomicLong totalLag;
+	private final AtomicLong maxLag;
+	private volatile int pending;
+
+	/**
+	 * Creates a new timing wheel. The worker thread is started on the first schedule.
+	 * 
+	 * @param name the name of the worker thread
+	 * @param tickDuration the duration of a tick in milliseconds
+	 * @param wheelSize the number of buckets, rounded up to a power of two
+	 */
+	public TimingWheel(String name, long tickDuration, int wheelSize) {
+		if (tickDuration <= 0) {
+			throw new IllegalArgumentException("Tick duration must be positive: " + tickDuration);
+		}
+		if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+			throw new IllegalArgumentException("Wheel size must be between 1 and 2^30: " + wheelSize);
+		}
+
+		int size = 1;
+		while (size < wheelSize) {
+			size <<= 1;
+		}
+
+		this.name = name;
+		this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickDuration);
+		this.buckets = new Timeout[size];
+		this.mask = size - 1;
+		this.lock = new Object();
+
+		this.scheduled = new AtomicLong(0);
+		this.cancelled = new AtomicLong(0);
+		this.expired = new AtomicLong(0);
+		this.totalLag = new AtomicLong(0);
+		this.maxLag = new AtomicLong(0);
+	}
+
+	/**
+	 * Schedules a timeout. If the timeout is already scheduled it is re-armed with the new delay.
+	 * 
+	 * @param timeout the timeout
+	 * @param delay the delay in milliseconds
+	 */
+	public void schedule(Timeout timeout, long delay) {
+		if (timeout.wheel != null && timeout.wheel != this) {
+			throw new IllegalArgumentException("Timeout is scheduled on another wheel");
+		}
+		ensureStarted();
+
+		final long now = System.nanoTime();
+		synchronized (this.lock) {
+			if (timeout.scheduled) {
+				unlink(timeout);
+			}
+
+			// round the deadline up to the next tick, so the timeout never runs early
+			final long delayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay));
+			long deadlineTick = (now - this.startTime + delayNanos + this.tickNanos - 1) / this.tickNanos;
+			if (deadlineTick <= this.tick) {
+				deadlineTick = this.tick + 1;
+			}
+
+			timeout.wheel = this;
+			timeout.generation++;
+			timeout.deadline = now + delayNanos;
+			timeout.deadlineTick = deadlineTick;
+			link(timeout);
+		}
+		this.scheduled.incrementAndGet();
+	}
+
+	/**
+	 * Cancels a timeout.
+	 * 
+	 * @param timeout the timeout
+	 * @return true if the timeout was scheduled, false otherwise.
+	 */
+	public boolean cancel(Timeout timeout) {
+		synchronized (this.lock) {
+			// a timeout that is about to run is not linked anymore, so bump the generation to discard it
+			timeout.generation++;
+			if (!timeout.scheduled) {
+				return false;
+			}
+			unlink(timeout);
+		}
+		this.cancelled.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Stops the worker thread. Pending timeouts are discarded.
+	 */
+	public void stop() {
+		this.running = false;
+		Thread thread = this.worker;
+		if (thread != null) {
+			LockSupport.unpark(thread);
+		}
+	}
+
+	/**
+	 * Gets the number of timeouts waiting to expire.
+	 * 
+	 * @return the number of pending timeouts
+	 */
+	public int getPending() {
+		return this.pending;
+	}
+
+	public long getScheduled() {
+		return this.scheduled.get();
+	}
+
+	public long getCancelled() {
+		return this.cancelled.get();
+	}
+
+	public long getExpired() {
+		return this.expired.get();
+	}
+
+	/**
+	 * Gets the average delay between the deadline of a timeout and the moment it ran.
+	 * 
+	 * @return the average lag in nanoseconds
+	 */
+	public long getAverageLag() {
+		final long count = this.expired.get();
+		return count == 0 ? 0 : this.totalLag.get() / count;
+	}
+
+	/**
+	 * Gets the longest delay between the deadline of a timeout and the moment it ran.
+	 * 
+	 * @return the maximum lag in nanoseconds
+	 */
+	public long getMaxLag() {
+		return this.maxLag.get();
+	}
+
+	private void ensureStarted() {
+		if (this.worker == null) {
+			synchronized (this.lock) {
+				if (this.worker == null) {
+					this.startTime = System.nanoTime();
+					this.tick = 0;
+					this.running = true;
+					Thread thread = new Thread(new Worker(), this.name);
+					this.worker = thread;
+					thread.start();
+				}
+			}
+		}
+	}
+
+	private void link(Timeout timeout) {
+		final int index = (int) (timeout.deadlineTick & this.mask);
+		final Timeout head = this.buckets[index];
+		timeout.bucket = index;
+		timeout.previous = null;
+		timeout.next = head;
+		if (head != null) {
+			head.previous = timeout;
+		}
+		this.buckets[index] = timeout;
+		timeout.scheduled = true;
+		this.pending++;
+	}
+
+	private void unlink(Timeout timeout) {
+		if (timeout.previous != null) {
+			timeout.previous.next = timeout.next;
+		} else {
+			this.buckets[timeout.bucket] = timeout.next;
+		}
+		if (timeout.next != null) {
+			timeout.next.previous = timeout.previous;
+		}
+		timeout.previous = null;
+		timeout.next = null;
+		timeout.scheduled = false;
+		this.pending--;
+	}
+
+	/**
+	 * Unlinks the timeouts of a bucket that expire on a tick, chaining them for execution.
+	 * 
+	 * @return the first expired timeout, or null if none expired
+	 */
+	private Timeout expire(long tick) {
+		Timeout expired = null;
+		Timeout timeout = this.buckets[(int) (tick & this.mask)];
+		while (timeout != null) {
+			final Timeout next = timeout.next;
+			if (timeout.deadlineTick <= tick) {
+				unlink(timeout);
+				timeout.expiredGeneration = timeout.generation;
+				timeout.nextExpired = expired;
+				expired = timeout;
+			}
+			timeout = next;
+		}
+		return expired;
+	}
+
+	private void run(Timeout timeout) {
+		final long lag = System.nanoTime() - timeout.deadline;
+		this.expired.incrementAndGet();
+		this.totalLag.addAndGet(Math.max(0, lag));
+		long max = this.maxLag.get();
+		while (lag > max && !this.maxLag.compareAndSet(max, lag)) {
+			max = this.maxLag.get();
+		}
+
+		try {
+			timeout.task.run();
+		} catch (Exception e) {
+			logger.error("Timer " + this.name + " failed to run timeout", e);
+		}
+	}
+
+	private final class Worker implements Runnable {
+
+		@Override
+		public void run() {
+			while (running) {
+				final long nextTick;
+				synchronized (lock) {
+					nextTick = tick + 1;
+				}
+
+				// wait for the next tick
+				final long deadline = startTime + nextTick * tickNanos;
+				long now = System.nanoTime();
+				while (running && now < deadline) {
+					LockSupport.parkNanos(deadline - now);
+					now = System.nanoTime();
+				}
+				if (!running) {
+					break;
+				}
+
+				Timeout expired;
+				synchronized (lock) {
+					tick = nextTick;
+					expired = expire(nextTick);
+				}
+
+				while (expired != null) {
+					final Timeout timeout = expired;
+					expired = timeout.nextExpired;
+					timeout.nextExpired = null;
+					// skip timeouts re-armed or cancelled since they expired
+					if (timeout.expiredGeneration == timeout.generation) {
+						TimingWheel.this.run(timeout);
+					}
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Task that can be scheduled on a {@link TimingWheel} any number of times.
+	 */
+	public static final class Timeout {
+
+		private final Runnable task;
+
+		// wheel state, guarded by the lock of the wheel
+		private TimingWheel wheel;
+		private boolean scheduled;
+		private long deadline;
+		private long deadlineTick;
+		private int bucket;
+		private Timeout previous;
+		private Timeout next;
+		private volatile int generation;
+
+		// expiry state, owned by the worker thread
+		private Timeout nextExpired;
+		private int expiredGeneration;
+
+		public Timeout(Runnable task) {
+			this.task = task;
+		}
+
+		/**
+		 * Tells whether the timeout is waiting to expire.
+		 * 
+		 * @return true if scheduled, false otherwise
+		 */
+		public boolean isScheduled() {
+			final TimingWheel wheel = this.wheel;
+			if (wheel == null) {
+				return false;
+			}
+			synchronized (wheel.lock) {
+				return this.scheduled;
+			}
+		}
+
+	}
+
+}
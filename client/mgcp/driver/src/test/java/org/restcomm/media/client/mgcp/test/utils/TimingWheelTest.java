@@ -0,0 +1,196 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.client.mgcp.test.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.restcomm.media.client.mgcp.utils.TimingWheel;
+
+public class TimingWheelTest {
+
+	private TimingWheel wheel;
+
+	@After
+	public void after() {
+		if (wheel != null) {
+			wheel.stop();
+			wheel = null;
+		}
+	}
+
+	@Test
+	public void testExpire() throws InterruptedException {
+		// given
+		wheel = new TimingWheel("test-timer", 10, 8);
+		final CountDownLatch latch = new CountDownLatch(1);
+		final TimingWheel.Timeout timeout = new TimingWheel.Timeout(new Runnable() {
+
+			@Override
+			public void run() {
+				latch.countDown();
+			}
+
+		});
+		final long start = System.nanoTime();
+
+		// when
+		wheel.schedule(timeout, 50);
+
+		// then
+		assertTrue(timeout.isScheduled());
+		assertTrue(latch.await(1, TimeUnit.SECONDS));
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+		assertFalse(timeout.isScheduled());
+		assertEquals(1, wheel.getExpired());
+		assertEquals(0, wheel.getPending());
+		assertTrue(wheel.getMaxLag() >= 0);
+	}
+
+	@Test
+	public void testDeadlineBeyondOneRound() throws InterruptedException {
+		// given
+		wheel = new TimingWheel("test-timer", 10, 4);
+		final CountDownLatch latch = new CountDownLatch(1);
+		final TimingWheel.Timeout timeout = new TimingWheel.Timeout(new Runnable() {
+
+			@Override
+			public void run() {
+				latch.countDown();
+			}
+
+		});
+		final long start = System.nanoTime();
+
+		// when
+		wheel.schedule(timeout, 120);
+
+		// then
+		assertTrue(latch.await(1, TimeUnit.SECONDS));
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(120));
+	}
+
+	@Test
+	public void testCancel() throws InterruptedException {
+		// given
+		wheel = new TimingWheel("test-timer", 10, 8);
+		final AtomicInteger runs = new AtomicInteger(0);
+		final TimingWheel.Timeout timeout = new TimingWheel.Timeout(new Runnable() {
+
+			@Override
+			public void run() {
+				runs.incrementAndGet();
+			}
+
+		});
+		wheel.schedule(timeout, 30);
+
+		// when
+		final boolean cancelled = wheel.cancel(timeout);
+		Thread.sleep(100);
+
+		// then
+		assertTrue(cancelled);
+		assertFalse(wheel.cancel(timeout));
+		assertEquals(0, runs.get());
+		assertEquals(0, wheel.getPending());
+		assertEquals(1, wheel.getCancelled());
+	}
+
+	@Test
+	public void testReschedule() throws InterruptedException {
+		// given
+		wheel = new TimingWheel("test-timer", 10, 8);
+		final AtomicInteger runs = new AtomicInteger(0);
+		final TimingWheel.Timeout timeout = new TimingWheel.Timeout(new Runnable() {
+
+			@Override
+			public void run() {
+				runs.incrementAndGet();
+			}
+
+		});
+
+		// when
+		wheel.schedule(timeout, 30);
+		wheel.schedule(timeout, 150);
+		Thread.sleep(100);
+
+		// then
+		assertEquals(0, runs.get());
+		assertEquals(1, wheel.getPending());
+
+		// when
+		Thread.sleep(150);
+
+		// then
+		assertEquals(1, runs.get());
+
+		// when reused after expiring
+		wheel.schedule(timeout, 20);
+		Thread.sleep(100);
+
+		// then
+		assertEquals(2, runs.get());
+	}
+
+	@Test
+	public void testManyTimeouts() throws InterruptedException {
+		// given
+		wheel = new TimingWheel("test-timer", 10, 16);
+		final int count = 10000;
+		final CountDownLatch latch = new CountDownLatch(count / 2);
+		final TimingWheel.Timeout[] timeouts = new TimingWheel.Timeout[count];
+		for (int i = 0; i < count; i++) {
+			timeouts[i] = new TimingWheel.Timeout(new Runnable() {
+
+				@Override
+				public void run() {
+					latch.countDown();
+				}
+
+			});
+		}
+
+		// when
+		for (int i = 0; i < count; i++) {
+			wheel.schedule(timeouts[i], 20 + (i % 200));
+		}
+		for (int i = 0; i < count; i += 2) {
+			wheel.cancel(timeouts[i]);
+		}
+
+		// then
+		assertTrue(latch.await(2, TimeUnit.SECONDS));
+		assertEquals(0, wheel.getPending());
+		assertEquals(count / 2, wheel.getExpired());
+		assertEquals(count / 2, wheel.getCancelled());
+	}
+
+}
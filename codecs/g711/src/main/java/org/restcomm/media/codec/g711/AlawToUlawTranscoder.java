@@ -0,0 +1,42 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.codec.g711;
+
+import org.restcomm.media.spi.format.Format;
+import org.restcomm.media.spi.format.FormatFactory;
+
+/**
+ * Converts G.711 A-law straight to µ-law with one table lookup per sample.
+ */
+public class AlawToUlawTranscoder extends TableTranscoder {
+
+    private final static Format alaw = FormatFactory.createAudioFormat("pcma", 8000, 8, 1);
+    private final static Format ulaw = FormatFactory.createAudioFormat("pcmu", 8000, 8, 1);
+
+    private final static byte[] TABLE = buildTable(new org.restcomm.media.codec.g711.alaw.Decoder(),
+            new org.restcomm.media.codec.g711.ulaw.Encoder());
+
+    public AlawToUlawTranscoder() {
+        super(alaw, ulaw, TABLE);
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.codec.g711;
+
+import org.restcomm.media.spi.dsp.Codec;
+import org.restcomm.media.spi.format.Format;
+import org.restcomm.media.spi.memory.Frame;
+import org.restcomm.media.spi.memory.Memory;
+
+/**
+ * Converts between the two G.711 companding laws with a single 256 entries lookup.
+ * <p>
+ * The table is built by running every code through the decoder of the source law and the encoder of the destination law,
+ * so the result is exactly the same as decoding to linear and encoding again, without the intermediate frame.
+ * </p>
+ */
+abstract class TableTranscoder implements Codec {
+
+    private final Format input;
+    private final Format output;
+    private final byte[] table;
+
+    protected TableTranscoder(Format input, Format output, byte[] table) {
+        this.input = input;
+        this.output = output;
+        this.table = table;
+    }
+
+    protected static byte[] buildTable(Codec decoder, Codec encoder) {
+        Frame codes = Memory.allocate(256);
+        byte[] data = codes.getData();
+        for (int i = 0; i < 256; i++) {
+            data[i] = (byte) i;
+        }
+        codes.setOffset(0);
+        codes.setLength(256);
+
+        Frame linear = decoder.process(codes);
+        Frame converted = encoder.process(linear);
+
+        byte[] table = new byte[256];
+        System.arraycopy(converted.getData(), converted.getOffset(), table, 0, table.length);
+
+        codes.recycle();
+        linear.recycle();
+        converted.recycle();
+        return table;
+    }
+
+    @Override
+    public Format getSupportedInputFormat() {
+        return this.input;
+    }
+
+    @Override
+    public Format getSupportedOutputFormat() {
+        return this.output;
+    }
+
+    @Override
+    public Frame process(Frame frame) {
+        int length = frame.getLength();
+        Frame res = Memory.allocate(length);
+
+        byte[] data = frame.getData();
+        byte[] resData = res.getData();
+        int offset = frame.getOffset();
+        for (int i = 0; i < length; i++) {
+            resData[i] = this.table[data[offset + i] & 0xff];
+        }
+
+        res.setOffset(0);
+        res.setLength(length);
+        res.setTimestamp(frame.getTimestamp());
+        res.setDuration(frame.getDuration());
+        res.setSequenceNumber(frame.getSequenceNumber());
+        res.setEOM(frame.isEOM());
+        res.setFormat(this.output);
+        res.setHeader(frame.getHeader());
+        return res;
+    }
+
+}
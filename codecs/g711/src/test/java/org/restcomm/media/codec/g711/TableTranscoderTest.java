@@ -0,0 +1,111 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.codec.g711;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.restcomm.media.spi.dsp.Codec;
+import org.restcomm.media.spi.memory.Frame;
+import org.restcomm.media.spi.memory.Memory;
+
+public class TableTranscoderTest {
+
+    private static Frame allCodes() {
+        // pad the frame so the transcoder has to honour the offset
+        Frame frame = Memory.allocate(256 + 4);
+        byte[] data = frame.getData();
+        for (int i = 0; i < 256; i++) {
+            data[4 + i] = (byte) i;
+        }
+        frame.setOffset(4);
+        frame.setLength(256);
+        return frame;
+    }
+
+    private static Frame viaLinear(Codec decoder, Codec encoder) {
+        Frame codes = Memory.allocate(256);
+        byte[] data = codes.getData();
+        for (int i = 0; i < 256; i++) {
+            data[i] = (byte) i;
+        }
+        codes.setOffset(0);
+        codes.setLength(256);
+        return encoder.process(decoder.process(codes));
+    }
+
+    private static void assertSameCodes(Frame expected, Frame actual) {
+        assertEquals(expected.getLength(), actual.getLength());
+        for (int i = 0; i < expected.getLength(); i++) {
+            assertEquals("code " + i, expected.getData()[expected.getOffset() + i], actual.getData()[actual.getOffset() + i]);
+        }
+    }
+
+    @Test
+    public void testAlawToUlawMatchesLinearPath() {
+        // given
+        Codec transcoder = new AlawToUlawTranscoder();
+        Frame expected = viaLinear(new org.restcomm.media.codec.g711.alaw.Decoder(), new org.restcomm.media.codec.g711.ulaw.Encoder());
+
+        // when
+        Frame res = transcoder.process(allCodes());
+
+        // then
+        assertSameCodes(expected, res);
+        assertEquals(transcoder.getSupportedOutputFormat(), res.getFormat());
+    }
+
+    @Test
+    public void testUlawToAlawMatchesLinearPath() {
+        // given
+        Codec transcoder = new UlawToAlawTranscoder();
+        Frame expected = viaLinear(new org.restcomm.media.codec.g711.ulaw.Decoder(), new org.restcomm.media.codec.g711.alaw.Encoder());
+
+        // when
+        Frame res = transcoder.process(allCodes());
+
+        // then
+        assertSameCodes(expected, res);
+        assertEquals(transcoder.getSupportedOutputFormat(), res.getFormat());
+    }
+
+    @Test
+    public void testKeepsFrameMetadata() {
+        // given
+        Codec transcoder = new AlawToUlawTranscoder();
+        Frame frame = allCodes();
+        frame.setTimestamp(160);
+        frame.setDuration(20000000L);
+        frame.setSequenceNumber(7);
+        frame.setEOM(true);
+
+        // when
+        Frame res = transcoder.process(frame);
+
+        // then
+        assertEquals(160, res.getTimestamp());
+        assertEquals(20000000L, res.getDuration());
+        assertEquals(7, res.getSequenceNumber());
+        assertEquals(true, res.isEOM());
+    }
+
+}
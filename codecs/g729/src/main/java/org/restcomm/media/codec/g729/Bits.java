@@ -54,19 +54,53 @@ public class Bits {
 			                                    bits[1] = 80 */
 			)
 			{
-        dst[0] = (byte)(anau[0] & 255);
-        dst[1] = (byte)((anau[1] & 0x3ff) >> 2);
-        dst[2] = (byte)(((anau[1] & 3) << 6) | ((anau[2]>>2)&0x3f));
-        dst[3] = (byte)(((anau[2] & 3) << 6) | ((anau[3] & 1) << 5) | ((anau[4] & 8191) >> 8));
-        dst[4] = (byte)(anau[4] & 255);
-        dst[5] = (byte)(((anau[5] & 15)<<4) | ((anau[6] & 127) >> 3));
-        dst[6] = (byte)(((anau[6] & 7)<< 5) | (anau[7] & 31));
-        dst[7] = (byte)((anau[8] & 8191) >> 5);
-        dst[8] = (byte)(((anau[8] & 31) << 3) | ((anau[9] & 15) >> 1));
-        dst[9] = (byte)(((anau[9] & 1) << 7) | (anau[10] & 127));
+			   prm2bits_ld8k_b(anau, dst, 0);
+			}
+
+	/*----------------------------------------------------------------------------
+	 * prm2bits_ld8k_b - packs the encoder parameter vector straight into the
+	 *                   10 bytes of the RTP payload, starting at dsts
+	 *----------------------------------------------------------------------------
+	 */
+	public static void prm2bits_ld8k_b(
+			 int   anau[],         /* input : encoded parameters  (PRM_SIZE parameters)  */
+			 byte dst[], int dsts  /* output: packed frame (10 bytes) */
+			)
+			{
+        dst[dsts+0] = (byte)(anau[0] & 255);
+        dst[dsts+1] = (byte)((anau[1] & 0x3ff) >> 2);
+        dst[dsts+2] = (byte)(((anau[1] & 3) << 6) | ((anau[2]>>2)&0x3f));
+        dst[dsts+3] = (byte)(((anau[2] & 3) << 6) | ((anau[3] & 1) << 5) | ((anau[4] & 8191) >> 8));
+        dst[dsts+4] = (byte)(anau[4] & 255);
+        dst[dsts+5] = (byte)(((anau[5] & 15)<<4) | ((anau[6] & 127) >> 3));
+        dst[dsts+6] = (byte)(((anau[6] & 7)<< 5) | (anau[7] & 31));
+        dst[dsts+7] = (byte)((anau[8] & 8191) >> 5);
+        dst[dsts+8] = (byte)(((anau[8] & 31) << 3) | ((anau[9] & 15) >> 1));
+        dst[dsts+9] = (byte)(((anau[9] & 1) << 7) | (anau[10] & 127));
 
 			   return;
 			}
+
+	/*----------------------------------------------------------------------------
+	 * bits2prm_ld8k_b - unpacks the 10 bytes of the RTP payload, starting at srcs,
+	 *                   into the encoder parameter vector
+	 *----------------------------------------------------------------------------
+	 */
+	public static void bits2prm_ld8k_b(
+			 byte src[], int srcs, /* input : packed frame (10 bytes) */
+			 int prm[], int ps     /* output: decoded parameters (11 parameters) */
+			)
+			{
+        int i, b, value, bit = 0;
+
+        for (i = 0; i < LD8KConstants.PRM_SIZE; i++)
+        {
+            value = 0;
+            for (b = 0; b < TabLD8k.bitsno[i]; b++, bit++)
+                value = (value << 1) | ((src[srcs + (bit >> 3)] >> (7 - (bit & 7))) & 1);
+            prm[ps+i] = value;
+        }
+			}
 	
 	public static void prm2bits_ld8k(
 	 int   prm[],         /* input : encoded parameters  (PRM_SIZE parameters)  */
@@ -24,6 +24,11 @@ package org.restcomm.media.codec.g729;
 
 public class CelpCo {
 
+	/* scratch memory, reused across subframes */
+	private final float dn[] = new float[LD8KConstants.L_SUBFR];
+	private final float rr[] = new float[LD8KConstants.DIM_RR];
+	private final float p_sign[] = new float[LD8KConstants.L_SUBFR];
+
 	int ACELP_codebook(     /* (o)     :index of pulses positions    */
 	  float x[],            /* (i)     :Target vector                */
 	  float h[],            /* (i)     :Impulse response of filters  */
@@ -36,8 +41,6 @@ public class CelpCo {
 	)
 	{
 	  int i, index;
-	  float dn[] = new float[LD8KConstants.L_SUBFR];
-	  float rr[] = new float[LD8KConstants.DIM_RR];
 
 	    /*----------------------------------------------------------------*
 	    * Include fixed-gain pitch contribution into impulse resp. h[]    *
@@ -388,7 +391,6 @@ public class CelpCo {
 	    float ps0, ps1, ps2, ps3, alp0, alp1, alp2, alp3;
 	    float ps3c, psc, alpha;
 	    float average, max0, max1, max2, thres;
-	    float p_sign[] = new float[LD8KConstants.L_SUBFR];
 
 	    int rri0i0, rri1i1, rri2i2, rri3i3, rri4i4;
 	    int rri0i1, rri0i2, rri0i3, rri0i4;
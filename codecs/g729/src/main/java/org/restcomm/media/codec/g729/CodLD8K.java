@@ -89,6 +89,47 @@ public class CodLD8K {
 	Taming tamingFunc = new Taming();
 	CelpCo acelp = new CelpCo();
 	QuaGain quaGain = new QuaGain();
+	LpcFunc lpcFunc = new LpcFunc();
+	Filter filter = new Filter();
+	Pitch pitch = new Pitch();
+
+	/* Work vectors of coder_ld8k, preallocated so that no frame allocates */
+
+	/* LPC coefficients */
+	float[] r = new float[LD8KConstants.MP1];                /* Autocorrelations low and hi          */
+	float[] A_t = new float[(LD8KConstants.MP1)*2];          /* A(z) unquantized for the 2 subframes */
+	float[] Aq_t = new float[(LD8KConstants.MP1)*2];         /* A(z)   quantized for the 2 subframes */
+	float[] Ap1 = new float[LD8KConstants.MP1];              /* A(z) with spectral expansion         */
+	float[] Ap2 = new float[LD8KConstants.MP1];              /* A(z) with spectral expansion         */
+
+	/* LSP coefficients */
+	float[] lsp_new = new float[LD8KConstants.M];
+	float[] lsp_new_q = new float[LD8KConstants.M]; /* LSPs at 2th subframe                 */
+	float[] lsf_int = new float[LD8KConstants.M];               /* Interpolated LSF 1st subframe.       */
+	float[] lsf_new = new float[LD8KConstants.M];
+
+	/* Variable added for adaptive gamma1 and gamma2 of the PWF */
+
+	float[] rc = new float[LD8KConstants.M];                        /* Reflection coefficients */
+	float[] gamma1 = new float[2];             /* Gamma1 for 1st and 2nd subframes */
+	float[] gamma2 = new float[2];             /* Gamma2 for 1st and 2nd subframes */
+
+	/* Other vectors */
+	float[] synth = new float[LD8KConstants.L_FRAME];        /* Buffer for synthesis speech        */
+	float[] h1 = new float[LD8KConstants.L_SUBFR];           /* Impulse response h1[]              */
+	float[] xn = new float[LD8KConstants.L_SUBFR];           /* Target vector for pitch search     */
+	float[] xn2 = new float[LD8KConstants.L_SUBFR];          /* Target vector for codebook search  */
+	float[] code = new float[LD8KConstants.L_SUBFR];         /* Fixed codebook excitation          */
+	float[] y1 = new float[LD8KConstants.L_SUBFR];           /* Filtered adaptive excitation       */
+	float[] y2 = new float[LD8KConstants.L_SUBFR];           /* Filtered fixed codebook excitation */
+	float[] g_coeff = new float[5];            /* Correlations between xn, y1, & y2:
+	                                <y1,y1>, <xn,y1>, <y2,y2>, <xn,y2>,<y1,y2>*/
+
+	IntegerPointer t0_frac = new IntegerPointer();
+	IntegerPointer t0_min = new IntegerPointer();
+	IntegerPointer t0_max = new IntegerPointer();
+	IntegerPointer sign = new IntegerPointer();
+	FloatPointer quant_gain_pit = new FloatPointer(), quant_gain_code = new FloatPointer();
 
 	/*----------------------------------------------------------------------------
 	 * init_coder_ld8k - initialization of variables for the encoder
@@ -160,45 +201,11 @@ public class CodLD8K {
 	 int[] ana_array, int ana             /* output: analysis parameters */
 	)
 	{
-	  
-	  /* LPC coefficients */
-	  float[] r = new float[LD8KConstants.MP1];                /* Autocorrelations low and hi          */
-	  float[] A_t = new float[(LD8KConstants.MP1)*2];          /* A(z) unquantized for the 2 subframes */
-	  float[] Aq_t = new float[(LD8KConstants.MP1)*2];         /* A(z)   quantized for the 2 subframes */
-	  float[] Ap1 = new float[LD8KConstants.MP1];              /* A(z) with spectral expansion         */
-	  float[] Ap2 = new float[LD8KConstants.MP1];              /* A(z) with spectral expansion         */
-	  int A, Aq;               /* Pointer on A_t and Aq_t              */
-
-	  /* LSP coefficients */
-	  float[] lsp_new = new float[LD8KConstants.M];
-	  float[] lsp_new_q = new float[LD8KConstants.M]; /* LSPs at 2th subframe                 */
-	  float[] lsf_int = new float[LD8KConstants.M];               /* Interpolated LSF 1st subframe.       */
-	  float[] lsf_new = new float[LD8KConstants.M];
-
-	  /* Variable added for adaptive gamma1 and gamma2 of the PWF */
-
-	  float[] rc = new float[LD8KConstants.M];                        /* Reflection coefficients */
-	  float[] gamma1 = new float[2];             /* Gamma1 for 1st and 2nd subframes */
-	  float[] gamma2 = new float[2];             /* Gamma2 for 1st and 2nd subframes */
-
-	  /* Other vectors */
-	  float[] synth = new float[LD8KConstants.L_FRAME];        /* Buffer for synthesis speech        */
-	  float[] h1 = new float[LD8KConstants.L_SUBFR];           /* Impulse response h1[]              */
-	  float[] xn = new float[LD8KConstants.L_SUBFR];           /* Target vector for pitch search     */
-	  float[] xn2 = new float[LD8KConstants.L_SUBFR];          /* Target vector for codebook search  */
-	  float[] code = new float[LD8KConstants.L_SUBFR];         /* Fixed codebook excitation          */
-	  float[] y1 = new float[LD8KConstants.L_SUBFR];           /* Filtered adaptive excitation       */
-	  float[] y2 = new float[LD8KConstants.L_SUBFR];           /* Filtered fixed codebook excitation */
-	  float[] g_coeff = new float[5];            /* Correlations between xn, y1, & y2:
-	                                  <y1,y1>, <xn,y1>, <y2,y2>, <xn,y2>,<y1,y2>*/
-
 	  /* Scalars */
 
+	  int   A, Aq;               /* Pointer on A_t and Aq_t              */
 	  int   i, j, i_gamma, i_subfr;
 	  int   T_op, t0;
-	  IntegerPointer t0_frac = new IntegerPointer();
-	  IntegerPointer t0_min = new IntegerPointer();
-	  IntegerPointer t0_max = new IntegerPointer();
 	  int   index, taming;
 	  float gain_pit, gain_code=0;
 
@@ -214,15 +221,11 @@ public class CodLD8K {
 
 	  /* LP analysis */
 
-	  lpc.autocorr(ArrayUtils.subArray(old_speech_array, p_window), LD8KConstants.M, r);                     /* Autocorrelations */
+	  lpc.autocorr(old_speech_array, p_window, LD8KConstants.M, r);                     /* Autocorrelations */
 	  lpc.lag_window(LD8KConstants.M, r);                             /* Lag windowing    */
 	  
-	  float[] tmp = ArrayUtils.subArray(A_t, LD8KConstants.MP1);
-	  lpc.levinson(r, tmp, rc);                   /* Levinson Durbin  */
-	  ArrayUtils.replace(A_t, LD8KConstants.MP1, tmp); 
-	  
-	  lpc.az_lsp(tmp, lsp_new, lsp_old);          /* From A(z) to lsp */
-	  ArrayUtils.replace(A_t, LD8KConstants.MP1, tmp); 
+	  lpc.levinson(r, A_t, LD8KConstants.MP1, rc);                   /* Levinson Durbin  */
+	  lpc.az_lsp(A_t, LD8KConstants.MP1, lsp_new, lsp_old);          /* From A(z) to lsp */
 	  /* LSP quantization */
 
 	  quaLsp.qua_lsp(lsp_new, lsp_new_q, ana_array);
@@ -235,8 +238,8 @@ public class CodLD8K {
 	   * and the quantized interpolated parameters are in array Aq_t[]      *
 	   *--------------------------------------------------------------------*/
 
-	  LpcFunc.int_lpc(lsp_old, lsp_new, lsf_int, lsf_new,  A_t);
-	  LpcFunc.int_qlpc(lsp_old_q, lsp_new_q, Aq_t);
+	  lpcFunc.int_lpc(lsp_old, lsp_new, lsf_int, lsf_new,  A_t);
+	  lpcFunc.int_qlpc(lsp_old_q, lsp_new_q, Aq_t);
 
 	  /* update the LSPs for the next frame */
 
@@ -263,16 +266,16 @@ public class CodLD8K {
 	  LpcFunc.weight_az(A_t, 0, gamma2[0], LD8KConstants.M, Ap2, 0);
 	  
 	  Filter.residu(Ap1, 0, old_speech_array, speech, old_wsp_array, wsp, LD8KConstants.L_SUBFR);
-	  Filter.syn_filt(Ap2, 0, old_wsp_array, wsp, old_wsp_array, wsp, LD8KConstants.L_SUBFR, mem_w, 0, 1);
+	  filter.syn_filt(Ap2, 0, old_wsp_array, wsp, old_wsp_array, wsp, LD8KConstants.L_SUBFR, mem_w, 0, 1);
 	  
 	  LpcFunc.weight_az(A_t, LD8KConstants.MP1, gamma1[1], LD8KConstants.M, Ap1, 0);
 	  LpcFunc.weight_az(A_t, LD8KConstants.MP1, gamma2[1], LD8KConstants.M, Ap2, 0);
 	  Filter.residu(Ap1, 0, old_speech_array, speech + LD8KConstants.L_SUBFR, old_wsp_array, wsp + LD8KConstants.L_SUBFR, LD8KConstants.L_SUBFR);
-	  Filter.syn_filt(Ap2, 0, old_wsp_array, wsp + LD8KConstants.L_SUBFR, old_wsp_array, wsp + LD8KConstants.L_SUBFR, LD8KConstants.L_SUBFR, mem_w, 0, 1);
+	  filter.syn_filt(Ap2, 0, old_wsp_array, wsp + LD8KConstants.L_SUBFR, old_wsp_array, wsp + LD8KConstants.L_SUBFR, LD8KConstants.L_SUBFR, mem_w, 0, 1);
 	  
 	  /* Find open loop pitch lag for whole speech frame */
 
-	  T_op = Pitch.pitch_ol(old_wsp_array, wsp, LD8KConstants.PIT_MIN, LD8KConstants.PIT_MAX, LD8KConstants.L_FRAME);
+	  T_op = pitch.pitch_ol(old_wsp_array, wsp, LD8KConstants.PIT_MIN, LD8KConstants.PIT_MAX, LD8KConstants.L_FRAME);
 
 	  /* range for closed loop pitch search in 1st subframe */
 
@@ -325,8 +328,8 @@ public class CodLD8K {
 	    *---------------------------------------------------------------*/
 
 	    for (i = 0; i <= LD8KConstants.M; i++) ai_zero_array[ai_zero+i] = Ap1[i];
-	    Filter.syn_filt(Aq_t, Aq, ai_zero_array, ai_zero, h1, 0, LD8KConstants.L_SUBFR, ai_zero_array, zero, 0);
-	    Filter.syn_filt(Ap2, 0, h1, 0, h1, 0, LD8KConstants.L_SUBFR, ai_zero_array, zero, 0);
+	    filter.syn_filt(Aq_t, Aq, ai_zero_array, ai_zero, h1, 0, LD8KConstants.L_SUBFR, ai_zero_array, zero, 0);
+	    filter.syn_filt(Ap2, 0, h1, 0, h1, 0, LD8KConstants.L_SUBFR, ai_zero_array, zero, 0);
 
 	   /*------------------------------------------------------------------------*
 	    *                                                                        *
@@ -357,17 +360,17 @@ public class CodLD8K {
 
 	    Filter.residu(Aq_t, Aq, old_speech_array, speech + i_subfr, old_exc_array, exc + i_subfr, LD8KConstants.L_SUBFR);   /* LPC residual */
 
-	    Filter.syn_filt(Aq_t, Aq, old_exc_array, exc+i_subfr, mem_err_array, error,	LD8KConstants.L_SUBFR, mem_err_array, mem_err, 0);
+	    filter.syn_filt(Aq_t, Aq, old_exc_array, exc+i_subfr, mem_err_array, error,	LD8KConstants.L_SUBFR, mem_err_array, mem_err, 0);
 
 	    Filter.residu(Ap1, 0, mem_err_array, error, xn, 0, LD8KConstants.L_SUBFR);
 
-	    Filter.syn_filt(Ap2, 0, xn, 0, xn, 0, LD8KConstants.L_SUBFR, mem_w0, 0, 0);    /* target signal xn[]*/
+	    filter.syn_filt(Ap2, 0, xn, 0, xn, 0, LD8KConstants.L_SUBFR, mem_w0, 0, 0);    /* target signal xn[]*/
 
 	   /*----------------------------------------------------------------------*
 	    *                 Closed-loop fractional pitch search                  *
 	    *----------------------------------------------------------------------*/
 
-	    t0 = Pitch.pitch_fr3(old_exc_array,exc+i_subfr, xn, 0, h1, 0, LD8KConstants.L_SUBFR, t0_min.value, t0_max.value,
+	    t0 = pitch.pitch_fr3(old_exc_array,exc+i_subfr, xn, 0, h1, 0, LD8KConstants.L_SUBFR, t0_min.value, t0_max.value,
 	                              i_subfr, t0_frac);
 
 
@@ -409,9 +412,9 @@ public class CodLD8K {
 	    * - Innovative codebook search.                       *
 	    *-----------------------------------------------------*/
 
-	    IntegerPointer tmpi = new IntegerPointer(i);
-	    index = acelp.ACELP_codebook(xn2, h1, t0, sharp, i_subfr, code, y2, tmpi);
-	    i = tmpi.value;
+	    sign.value = i;
+	    index = acelp.ACELP_codebook(xn2, h1, t0, sharp, i_subfr, code, y2, sign);
+	    i = sign.value;
 	    ana_array[ana++] = index;        /* Positions index */
 	    ana_array[ana++] = i;            /* Signs index     */
 
@@ -421,9 +424,9 @@ public class CodLD8K {
 	    *-----------------------------------------------------*/
 	    CorFunc.corr_xy2(xn, y1, y2, g_coeff);
 
-	    FloatPointer tmpgain_pit = new FloatPointer(gain_pit), tmpgain_code = new FloatPointer(gain_code);
-	    ana_array[ana++] = quaGain.qua_gain(code, g_coeff, LD8KConstants.L_SUBFR, tmpgain_pit, tmpgain_code, taming );
-	    gain_pit = tmpgain_pit.value; gain_code = tmpgain_code.value;
+	    quant_gain_pit.value = gain_pit; quant_gain_code.value = gain_code;
+	    ana_array[ana++] = quaGain.qua_gain(code, g_coeff, LD8KConstants.L_SUBFR, quant_gain_pit, quant_gain_code, taming );
+	    gain_pit = quant_gain_pit.value; gain_code = quant_gain_code.value;
 	    
 	   /*------------------------------------------------------------*
 	    * - Update pitch sharpening "sharp" with quantized gain_pit  *
@@ -446,7 +449,7 @@ public class CodLD8K {
 
 	    tamingFunc.update_exc_err(gain_pit, t0);
 
-	    Filter.syn_filt(Aq_t, Aq, old_exc_array, exc+i_subfr, synth, i_subfr, LD8KConstants.L_SUBFR, mem_syn, 0, 1);
+	    filter.syn_filt(Aq_t, Aq, old_exc_array, exc+i_subfr, synth, i_subfr, LD8KConstants.L_SUBFR, mem_syn, 0, 1);
 
 	    for (i = LD8KConstants.L_SUBFR-LD8KConstants.M, j = 0; i < LD8KConstants.L_SUBFR; i++, j++)
 	      {
@@ -24,6 +24,7 @@ package org.restcomm.media.codec.g729;
 
 public class DecGain {
 	float past_qua_en[]=new float[]{(float)-14.0,(float)-14.0,(float)-14.0,(float)-14.0};
+	private final FloatPointer gcode0 = new FloatPointer();
 	public void dec_gain(
 	 int index,             /* input : quantizer index              */
 	 float code[],          /* input : fixed code book vector       */
@@ -37,7 +38,6 @@ public class DecGain {
 
 	   int    index1,index2;
 	   float  g_code;
-	   FloatPointer gcode0 = new FloatPointer();
 
 	   /*----------------- Test erasure ---------------*/
 	   if (bfi != 0)
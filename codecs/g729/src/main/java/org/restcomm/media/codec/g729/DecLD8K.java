@@ -62,6 +62,14 @@ public class DecLD8K {
 	FloatPointer gain_pitch = new FloatPointer();       /* adaptive codebook gain */
 	LspDec lspDec = new LspDec();
 	DecGain decGain = new DecGain();
+	DecAcelp decAcelp = new DecAcelp();
+	LpcFunc lpcFunc = new LpcFunc();
+	Filter filter = new Filter();
+
+	        /* Work vectors of decod_ld8k */
+	float lsp_new[] = new float[LD8KConstants.M];           /* LSPs                               */
+	float code[] = new float[LD8KConstants.L_SUBFR];        /* algebraic codevector               */
+	IntegerPointer t0 = new IntegerPointer(), t0_frac = new IntegerPointer();
 
 	/*--------------------------------------------------------------------------
 	 * init_decod_ld8k - Initialization of variables for the decoder section.
@@ -99,14 +107,11 @@ public class DecLD8K {
 	)
 	{
 	   int Az;                  /* Pointer to A_t (LPC coefficients)  */
-	   float lsp_new[] = new float[LD8KConstants.M];           /* LSPs                               */
-	   float code[] = new float[LD8KConstants.L_SUBFR];        /* algebraic codevector               */
 
 	  /* Scalars */
 	  int   i, i_subfr;
 	  int   index;
 
-	  IntegerPointer t0 = new IntegerPointer(), t0_frac = new IntegerPointer();
 	  int bfi;
 	  int bad_pitch;
 
@@ -121,7 +126,7 @@ public class DecLD8K {
 
 	  /* Interpolation of LPC for the 2 subframes */
 
-	  LpcFunc.int_qlpc(lsp_old, lsp_new, A_t);
+	  lpcFunc.int_qlpc(lsp_old, lsp_new, A_t);
 
 	  /* update the LSFs for the next frame */
 
@@ -198,7 +203,7 @@ public class DecLD8K {
 	     parm[parms+1]= (int) (Util.random_g729() & 0x000f);      /*  4 bits random */
 	   }
 
-	   DecAcelp.decod_ACELP(parm[parms+1], parm[parms+0], code);
+	   decAcelp.decod_ACELP(parm[parms+1], parm[parms+0], code);
 	   parms +=2;
 	   for (i = t0.value; i < LD8KConstants.L_SUBFR; i++)   code[i] += sharp * code[i-t0.value];
 
@@ -241,7 +246,7 @@ public class DecLD8K {
 	     * - Find synthesis speech corresponding to exc[].       *
 	     *-------------------------------------------------------*/
 
-	    Filter.syn_filt(A_t, Az, old_exc_array, exc+i_subfr, synth, ss+i_subfr, LD8KConstants.L_SUBFR, mem_syn, 0, 1);
+	    filter.syn_filt(A_t, Az, old_exc_array, exc+i_subfr, synth, ss+i_subfr, LD8KConstants.L_SUBFR, mem_syn, 0, 1);
 
 	    Az  += LD8KConstants.MP1;        /* interpolated LPC parameters for next subframe */
 	  }
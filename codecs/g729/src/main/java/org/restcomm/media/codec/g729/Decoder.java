@@ -33,8 +33,10 @@ public class Decoder implements Codec {
     private final static Format g729 = FormatFactory.createAudioFormat("g729", 8000);
     private final static Format linear = FormatFactory.createAudioFormat("linear", 8000, 16, 1);
 
+    private final static int FRAME_SIZE = 2 * LD8KConstants.L_FRAME;
+    private final static int PAYLOAD_SIZE = 10;
+
     int frame = 0;
-    CircularBuffer circular = new CircularBuffer(16000);
     float synth_buf[] = new float[LD8KConstants.L_FRAME + LD8KConstants.M]; /* Synthesis */
 
     int synth;
@@ -43,8 +45,6 @@ public class Decoder implements Codec {
      * BFI
      */
 
-    short serial[] = new short[LD8KConstants.SERIAL_SIZE]; /* Serial stream */
-
     float Az_dec[] = new float[2 * LD8KConstants.MP1];
     int ptr_Az; /* Decoded Az for post-filter */
 
@@ -59,9 +59,6 @@ public class Decoder implements Codec {
     PostFil postFil = new PostFil();
     PostPro postPro = new PostPro();
 
-    private byte[][] subFrames=new byte[10][10];
-    private int framesCount;
-    
     public Decoder() {
         for (int i = 0; i < LD8KConstants.M; i++) {
             synth_buf[i] = (float) 0.0;
@@ -83,40 +80,22 @@ public class Decoder implements Codec {
     }
 
     public Frame process(Frame frame) {
-        Frame res = null;
         byte[] data = frame.getData();
-        
-        if(data.length==0 || data.length>100 || data.length%10!=0)
-        	throw new RuntimeException("Invalid frame size!");
-        
-        circular.addData(data);
+        int offset = frame.getOffset();
+        int length = frame.getLength();
 
-        byte[] speechWindow = circular.getData(data.length);
+        if(length==0 || length>100 || length%PAYLOAD_SIZE!=0)
+        	throw new RuntimeException("Invalid frame size!");
 
-        // Process two frames at time, 20ms
-        byte[] resultBytes = null,transcodedBytes=null;
-        if (speechWindow != null) {
-            for (int q = 0; q < speechWindow.length; q++) {
-            	subFrames[q/10][q%10]=speechWindow[q];
-            }
-            
-            res = Memory.allocate(speechWindow.length*16);
-            res.setLength(speechWindow.length*16);
-            resultBytes = res.getData();
-            
-            framesCount=speechWindow.length/10;
-            for(int q=0;q<framesCount;q++)
-            {
-            	transcodedBytes=process(subFrames[q]);
-            	for(int k=0;k<transcodedBytes.length;k++)
-            		resultBytes[q*160 + k] = transcodedBytes[k];            	
-            }                        
-        } else {
-            res = Memory.allocate(frame.getLength());
-            res.setLength(0);
-            resultBytes = new byte[0];
+        int count = length / PAYLOAD_SIZE;
+        Frame res = Memory.allocate(count * FRAME_SIZE);
+        byte[] resultBytes = res.getData();
+        for (int q = 0; q < count; q++) {
+            decode(data, offset + q * PAYLOAD_SIZE, resultBytes, q * FRAME_SIZE);
         }
+
         res.setOffset(0);
+        res.setLength(count * FRAME_SIZE);
         res.setTimestamp(frame.getTimestamp());
         res.setDuration(frame.getDuration());
         res.setSequenceNumber(frame.getSequenceNumber());
@@ -126,30 +105,34 @@ public class Decoder implements Codec {
     }
 
     /**
-     * Perform compression.
+     * Perform decompression.
      * 
      * @param input
      *            media
-     * @return compressed media.
+     * @return decompressed media.
      */
     public byte[] process(byte[] media) {
-        serial = Bits.fromRealBits(media);
-        // serial = Util.byteArrayToShortArray(media);
+        byte[] res = new byte[FRAME_SIZE];
+        decode(media, 0, res, 0);
+        return res;
+    }
+
+    /**
+     * Decompresses a G.729 frame into 10ms of linear speech, without allocating.
+     * 
+     * @param src the compressed media
+     * @param srcOffset where the 10 bytes of the compressed frame start in src
+     * @param dst the array receiving the linear speech, little endian
+     * @param dstOffset where the 160 bytes of speech start in dst
+     */
+    public void decode(byte[] src, int srcOffset, byte[] dst, int dstOffset) {
         frame++;
-        Bits.bits2prm_ld8k(serial, 2, parm, 1);
+        Bits.bits2prm_ld8k_b(src, srcOffset, parm, 1);
 
         /*
-         * the hardware detects frame erasures by checking if all bits are set
-         * to zero
+         * the payload carries no erasure information, lost frames never reach the decoder
          */
         parm[0] = 0; /* No frame erasure */
-        for (int i = 2; i < LD8KConstants.SERIAL_SIZE; i++) {
-            if (serial[i] == 0) {
-                parm[0] = 1; /* frame erased */
-
-            /* check parity and put 1 in parm[4] if parity error */
-            }
-        }
         parm[4] = PParity.check_parity_pitch(parm[3], parm[4]);
 
         decLD.decod_ld8k(parm, 0, voicing, synth_buf, synth, Az_dec, t0_first); /* Decoder */
@@ -170,7 +153,7 @@ public class Decoder implements Codec {
 
         postPro.post_process(pst_out, LD8KConstants.L_FRAME);
 
-        return Util.floatArrayToByteArray(pst_out, LD8KConstants.L_FRAME);
+        Util.floatArrayToByteArray(pst_out, LD8KConstants.L_FRAME, dst, dstOffset);
     }
 
 }
@@ -36,12 +36,18 @@ public class Encoder implements Codec {
     private final static Format g729 = FormatFactory.createAudioFormat("g729", 8000);
     private final static Format linear = FormatFactory.createAudioFormat("linear", 8000, 16, 1);
 
+    private final static int FRAME_SIZE = 2 * LD8KConstants.L_FRAME;
+    private final static int PAYLOAD_SIZE = 10;
+
     int frame = 0;
     CodLD8K encoder = new CodLD8K();
     PreProc preProc = new PreProc();
-    CircularBuffer circularBuffer = new CircularBuffer(32000);
     int prm[] = new int[LD8KConstants.PRM_SIZE];
-    short serial[] = new short[LD8KConstants.SERIAL_SIZE];
+
+    // Scratch state reused by every frame
+    private final float[] newSpeech = new float[LD8KConstants.L_FRAME];
+    private final byte[] pending = new byte[FRAME_SIZE];
+    private int pendingLength = 0;
 
     /* For Debugging Only */
     FileInputStream testData = null;
@@ -69,42 +75,42 @@ public class Encoder implements Codec {
     }
 
     public Frame process(Frame frame) {
-        Frame res = null;
         byte[] data = frame.getData();
-
-        circularBuffer.addData(data);
-
-        int frameSize = 2 * LD8KConstants.L_FRAME;
-        byte[] speechWindow = circularBuffer.getData(2 * frameSize);
-        byte[] resultingBytes = null;
-
-        if (speechWindow == null) {
-            resultingBytes = new byte[0]; // No data available right now, send
-        // empty buffer
-        } else {
-            // Process two frames = 20ms
-            byte[] one = new byte[frameSize];
-            byte[] two = new byte[frameSize];
-            for (int q = 0; q < frameSize; q++) {
-                one[q] = speechWindow[q];
-                two[q] = speechWindow[q + frameSize];
+        int position = frame.getOffset();
+        int end = position + frame.getLength();
+
+        // Speech is encoded in 10ms blocks, an incomplete block waits for the next frame
+        int count = (pendingLength + frame.getLength()) / FRAME_SIZE;
+        Frame res = Memory.allocate(count * PAYLOAD_SIZE);
+        byte[] resultBytes = res.getData();
+        int resultLength = 0;
+
+        if (pendingLength > 0) {
+            int length = Math.min(FRAME_SIZE - pendingLength, end - position);
+            System.arraycopy(data, position, pending, pendingLength, length);
+            pendingLength += length;
+            position += length;
+
+            if (pendingLength == FRAME_SIZE) {
+                encode(pending, 0, resultBytes, resultLength);
+                resultLength += PAYLOAD_SIZE;
+                pendingLength = 0;
             }
-            one = process(one);
-            two = process(two);
+        }
 
-            if (one.length != two.length) {
-                throw new RuntimeException(
-                        "The two frames are not equal in size!");
-            }
-            res = Memory.allocate(one.length + two.length);
-            res.setLength(one.length + two.length);
-            byte[] resultBytes = res.getData();
-            for (int q = 0; q < one.length; q++) {
-            	resultBytes[q] = one[q];            	
-            	resultBytes[q + one.length] = two[q];
-            }
+        while (end - position >= FRAME_SIZE) {
+            encode(data, position, resultBytes, resultLength);
+            resultLength += PAYLOAD_SIZE;
+            position += FRAME_SIZE;
         }
+
+        if (position < end) {
+            System.arraycopy(data, position, pending, pendingLength, end - position);
+            pendingLength += end - position;
+        }
+
         res.setOffset(0);
+        res.setLength(resultLength);
         res.setTimestamp(frame.getTimestamp());
         res.setDuration(frame.getDuration());
         res.setSequenceNumber(frame.getSequenceNumber());
@@ -121,22 +127,31 @@ public class Encoder implements Codec {
      * @return compressed media.
      */
     public byte[] process(byte[] media) {
+        byte[] res = new byte[PAYLOAD_SIZE];
+        encode(media, 0, res, 0);
+        return res;
+    }
+
+    /**
+     * Compresses 10ms of linear speech into a G.729 frame, without allocating.
+     * 
+     * @param src the linear speech, little endian
+     * @param srcOffset where the 160 bytes of speech start in src
+     * @param dst the array receiving the compressed frame
+     * @param dstOffset where the 10 bytes of the compressed frame start in dst
+     */
+    public void encode(byte[] src, int srcOffset, byte[] dst, int dstOffset) {
         frame++;
 
-        float[] new_speech = new float[media.length];
-        short[] shortMedia = Util.byteArrayToShortArray(media);
-        for (int i = 0; i < LD8KConstants.L_FRAME; i++) {
-            new_speech[i] = (float) shortMedia[i];
+        for (int i = 0, j = srcOffset; i < LD8KConstants.L_FRAME; i++, j += 2) {
+            newSpeech[i] = (float) Util.bytesToShort(src[j], src[j + 1]);
         }
-        preProc.pre_process(new_speech, LD8KConstants.L_FRAME);
+        preProc.pre_process(newSpeech, LD8KConstants.L_FRAME);
 
-        encoder.loadSpeech(new_speech);
+        encoder.loadSpeech(newSpeech);
         encoder.coder_ld8k(prm, 0);
 
-        //byte[] a = new byte[10];
-        Bits.prm2bits_ld8k(prm, serial);
-        // return a;
-        return Bits.toRealBits(serial);
+        Bits.prm2bits_ld8k_b(prm, dst, dstOffset);
     }
 
     /* These methods are just for debugging */
@@ -24,6 +24,8 @@ package org.restcomm.media.codec.g729;
 
 public class Filter {
 
+	/* Filter state for syn_filt, reused across calls (l+m) */
+	private final float yy_b[] = new float[LD8KConstants.L_SUBFR+LD8KConstants.M];
 
 	/*-----------------------------------------------------------*
 	 * convolve - convolve vectors x and h and put result in y   *
@@ -54,7 +56,7 @@ public class Filter {
 	 * syn_filt - filter with synthesis filter 1/A(z)            *
 	 *-----------------------------------------------------------*/
 
-	public static void syn_filt(
+	public void syn_filt(
 	 float a[],int as,     /* input : predictor coefficients a[0:m]    */
 	 float x[],int xs,     /* input : excitation signal                */
 	 float y[],int ys,     /* output: filtered output signal           */
@@ -65,8 +67,6 @@ public class Filter {
 	{
 	   int  i,j;
 
-	   /* This is usually done by memory allocation (l+m) */
-	   float yy_b[] = new float[LD8KConstants.L_SUBFR+LD8KConstants.M];
 	   double s;
 	   int yy, py, pa;
 
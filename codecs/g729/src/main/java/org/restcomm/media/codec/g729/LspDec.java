@@ -32,8 +32,11 @@ public class LspDec {
 	};     /* PI*(float)(j+1)/(float)(M+1) */
 
 	/* static memory for frame erase operation */
-	static int prev_ma;                  /* previous MA prediction coef.*/
-	static float prev_lsp[] = new float[LD8KConstants.M];            /* previous LSP vector         */
+	int prev_ma;                  /* previous MA prediction coef.*/
+	float prev_lsp[] = new float[LD8KConstants.M];            /* previous LSP vector         */
+
+	/* scratch vector */
+	private final float buf[] = new float[LD8KConstants.M];
 
 
 	/*----------------------------------------------------------------------------
@@ -69,8 +72,6 @@ public class LspDec {
 	   int  code0;
 	   int  code1;
 	   int  code2;
-	   float buf[] = new float[LD8KConstants.M];
-
 
 	   if(erase==0)                 /* Not frame erasure */
 	     {
@@ -80,7 +81,7 @@ public class LspDec {
 	        code2 = prm[prms+1] & (short)(LD8KConstants.NC1 - 1);
 
 	        LspGetq.lsp_get_quant(TabLD8k.lspcb1, TabLD8k.lspcb2, code0, code1, code2, TabLD8k.fg[mode_index],
-	              freq_prev, lsp_q, TabLD8k.fg_sum[mode_index]);
+	              freq_prev, lsp_q, TabLD8k.fg_sum[mode_index], buf);
 
 	        Util.copy(lsp_q, prev_lsp, LD8KConstants.M );
 	        prev_ma = mode_index;
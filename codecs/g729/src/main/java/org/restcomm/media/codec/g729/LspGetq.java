@@ -38,12 +38,11 @@ public class LspGetq {
 	 float  fg[][],        /*input : MA prediction coef.          */
 	 float  freq_prev[][], /*input : previous LSP vector          */
 	 float  lspq[],         /*output: quantized LSP parameters     */
-	 float  fg_sum[]        /*input : present MA prediction coef.  */
+	 float  fg_sum[],       /*input : present MA prediction coef.  */
+	 float  buf[]           /*scratch: M floats                    */
 	)
 	{
 	   int  j;
-	   float  buf[] = new float[LD8KConstants.M];
-
 
 	   for(j=0; j<LD8KConstants.NC; j++)
 	     buf[j] = lspcb1[code0][j] + lspcb2[code1][j];
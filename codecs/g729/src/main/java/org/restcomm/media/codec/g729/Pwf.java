@@ -27,6 +27,7 @@ public class Pwf {
 
 	int     smooth = 1;
 	float   lar_old[] = new float[]{(float)0.0, (float)0.0};
+	private final float lar[] = new float[4];
 
 	/*----------------------------------------------------------------------------
 	 * perc_var -adaptive bandwidth expansion for perceptual weighting filter
@@ -40,7 +41,6 @@ public class Pwf {
 	 float []r_c             /* input : Reflection coefficients */
 	)
 	{
-	    float    lar[] = new float[4];
 	    int   lar_new;
 	    float   []lsf;
 	    float    critlar0, critlar1;
@@ -92,16 +92,31 @@ public class Util {
 			int length         /* input: length of data array */
 	)
 	{
-		int  i;
-		short sp16[] = new short[LD8KConstants.L_FRAME];
-		byte[] ret;
-		float temp;
-
 		if (length > LD8KConstants.L_FRAME) {
 			throw new RuntimeException("error in fwrite16\n");
 
 		}
 
+		byte[] ret = new byte[2*LD8KConstants.L_FRAME];
+		floatArrayToByteArray(data, length, ret, 0);
+		return ret;
+
+	}
+
+	/*-----------------------------------------------------------*
+	 * floatArrayToByteArray - rounds and clips a float array to *
+	 * 16 bit little endian samples written at dst[dsts]         *
+	 *-----------------------------------------------------------*/
+	public static void floatArrayToByteArray(
+			float []data,           /* input: inputdata */
+			int length,        /* input: length of data array */
+			byte []dst, int dsts    /* output: 2*length bytes */
+	)
+	{
+		int  i;
+		short sample;
+		float temp;
+
 		for(i=0; i<length; i++)
 		{
 			/* round and convert to int  */
@@ -111,14 +126,12 @@ public class Util {
 			else  temp -= (float)0.5;
 			if (temp >  (float)32767.0 ) temp =  (float)32767.0;
 			if (temp < (float)-32768.0 ) temp = (float)-32768.0;
-			sp16[i] = (short) temp;
-			
-			
+			sample = (short) temp;
+			dst[dsts++] = (byte) sample;
+			dst[dsts++] = (byte) (sample >> 8);
 		}
-		ret = shortArrayToByteArray(sp16);
-		return ret;
-
 	}
+
 	/*-----------------------------------------------------------*
 	 * fwrite16 - writes a float array as a Short to a a file    *
 	 *-----------------------------------------------------------*/
@@ -0,0 +1,184 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.codec.g729;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+import org.restcomm.media.spi.memory.Frame;
+import org.restcomm.media.spi.memory.Memory;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Bit-exactness tests of the G.729 codec.
+ * <p>
+ * The reference vectors are 2 seconds of synthetic voiced speech (test-vector.inp), the bitstream the encoder produces for
+ * it (test-vector.bit) and the speech the decoder synthesizes from that bitstream (test-vector.out).
+ * </p>
+ */
+public class CodecTest {
+
+    private static byte[] load(String name) throws IOException {
+        InputStream in = CodecTest.class.getResourceAsStream(name);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static Frame frame(byte[] data, int offset, int length) {
+        // pad the frame so the codec has to honour offset and length
+        Frame frame = Memory.allocate(length + 3);
+        System.arraycopy(data, offset, frame.getData(), 3, length);
+        frame.setOffset(3);
+        frame.setLength(length);
+        return frame;
+    }
+
+    private static byte[] encode(byte[] speech, int chunk) {
+        Encoder encoder = new Encoder();
+        ByteArrayOutputStream bitstream = new ByteArrayOutputStream();
+        for (int i = 0; i < speech.length; i += chunk) {
+            Frame res = encoder.process(frame(speech, i, Math.min(chunk, speech.length - i)));
+            bitstream.write(res.getData(), res.getOffset(), res.getLength());
+        }
+        return bitstream.toByteArray();
+    }
+
+    @Test
+    public void testEncode() throws Exception {
+        // given
+        byte[] speech = load("/test-vector.inp");
+        byte[] expected = load("/test-vector.bit");
+
+        // when
+        byte[] bitstream = encode(speech, 320);
+
+        // then
+        assertArrayEquals(expected, bitstream);
+    }
+
+    @Test
+    public void testEncodeUnalignedFrames() throws Exception {
+        // given
+        byte[] speech = load("/test-vector.inp");
+        byte[] expected = load("/test-vector.bit");
+
+        // when
+        byte[] bitstream = encode(speech, 250);
+
+        // then
+        assertArrayEquals(expected, bitstream);
+    }
+
+    @Test
+    public void testDecode() throws Exception {
+        // given
+        byte[] bitstream = load("/test-vector.bit");
+        byte[] expected = load("/test-vector.out");
+        Decoder decoder = new Decoder();
+        ByteArrayOutputStream speech = new ByteArrayOutputStream();
+
+        // when
+        for (int i = 0; i < bitstream.length; i += 20) {
+            Frame res = decoder.process(frame(bitstream, i, 20));
+            assertEquals(320, res.getLength());
+            speech.write(res.getData(), res.getOffset(), res.getLength());
+        }
+
+        // then
+        assertArrayEquals(expected, speech.toByteArray());
+    }
+
+    @Test
+    public void testDecodeMultipleFramesPerPacket() throws Exception {
+        // given
+        byte[] bitstream = load("/test-vector.bit");
+        byte[] expected = load("/test-vector.out");
+        Decoder decoder = new Decoder();
+        ByteArrayOutputStream speech = new ByteArrayOutputStream();
+
+        // when
+        for (int i = 0; i < bitstream.length; i += 100) {
+            Frame res = decoder.process(frame(bitstream, i, 100));
+            speech.write(res.getData(), res.getOffset(), res.getLength());
+        }
+
+        // then
+        assertArrayEquals(expected, speech.toByteArray());
+    }
+
+    @Test
+    public void testSteadyStateDoesNotAllocate() throws Exception {
+        // given
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+            return;
+        }
+        long thread = Thread.currentThread().getId();
+        byte[] speech = load("/test-vector.inp");
+        Encoder encoder = new Encoder();
+        Decoder decoder = new Decoder();
+
+        // warm up the codec and the frame partitions
+        transcode(encoder, decoder, speech);
+        transcode(encoder, decoder, speech);
+
+        // when
+        long before = threads.getThreadAllocatedBytes(thread);
+        int frames = transcode(encoder, decoder, speech);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        // then - less than a byte per frame leaves room for one-off allocations of the runtime only
+        assertTrue(frames + " frames allocated " + allocated + " bytes", allocated < frames);
+    }
+
+    private static int transcode(Encoder encoder, Decoder decoder, byte[] speech) {
+        int frames = 0;
+        for (int i = 0; i < speech.length; i += 160) {
+            Frame input = frame(speech, i, 160);
+            Frame bits = encoder.process(input);
+            Frame output = decoder.process(bits);
+            input.recycle();
+            bits.recycle();
+            output.recycle();
+            frames++;
+        }
+        return frames;
+    }
+
+}
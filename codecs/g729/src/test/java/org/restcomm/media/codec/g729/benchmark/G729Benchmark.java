@@ -0,0 +1,117 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.codec.g729.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.restcomm.media.codec.g729.Decoder;
+import org.restcomm.media.codec.g729.Encoder;
+import org.restcomm.media.spi.memory.Frame;
+import org.restcomm.media.spi.memory.Memory;
+
+/**
+ * Measures the cost of encoding and decoding one 20ms packet with G.729.
+ * <p>
+ * Run the main method with the test classpath of the module, adding <code>-prof gc</code> to the options shows the
+ * allocation rate per operation.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class G729Benchmark {
+
+    private Encoder encoder;
+    private Decoder decoder;
+
+    private byte[] speech;
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        this.encoder = new Encoder();
+        this.decoder = new Decoder();
+
+        // 20ms of a 440Hz tone
+        this.speech = new byte[320];
+        for (int i = 0; i < 160; i++) {
+            short sample = (short) (8000 * Math.sin(2 * Math.PI * 440 * i / 8000));
+            this.speech[2 * i] = (byte) sample;
+            this.speech[2 * i + 1] = (byte) (sample >> 8);
+        }
+
+        this.payload = new byte[20];
+        this.encoder.encode(this.speech, 0, this.payload, 0);
+        this.encoder.encode(this.speech, 160, this.payload, 10);
+    }
+
+    private static Frame frame(byte[] data) {
+        Frame frame = Memory.allocate(data.length);
+        System.arraycopy(data, 0, frame.getData(), 0, data.length);
+        frame.setOffset(0);
+        frame.setLength(data.length);
+        return frame;
+    }
+
+    @Benchmark
+    public int encode() {
+        Frame frame = frame(this.speech);
+        Frame encoded = this.encoder.process(frame);
+        int length = encoded.getLength();
+        frame.recycle();
+        encoded.recycle();
+        return length;
+    }
+
+    @Benchmark
+    public int decode() {
+        Frame frame = frame(this.payload);
+        Frame decoded = this.decoder.process(frame);
+        int length = decoded.getLength();
+        frame.recycle();
+        decoded.recycle();
+        return length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(G729Benchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
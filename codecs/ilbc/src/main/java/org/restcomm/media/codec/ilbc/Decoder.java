@@ -71,20 +71,45 @@ public class Decoder implements Codec {
     private short[] tempMemory=new short[350];
     
     public Frame process(Frame frame) {
-    	
-    	byte[] inputData = frame.getData();    	    	
-    	if(inputData.length==50)
+       Frame res = Memory.allocate(frame.getLength() == 50 ? 480 : 320);
+       int length = decode(frame.getData(), frame.getOffset(), frame.getLength(), res.getData(), 0);
+
+       res.setOffset(0);
+       res.setLength(length);
+       res.setTimestamp(frame.getTimestamp());
+       res.setDuration(frame.getDuration());
+       res.setSequenceNumber(frame.getSequenceNumber());
+       res.setEOM(frame.isEOM());
+       res.setFormat(linear);
+       return res;
+    }
+
+    /**
+     * Decodes one iLBC payload into 16-bit big-endian samples without allocating.
+     * <p>
+     * A 38 bytes payload carries 20ms of audio and a 50 bytes payload carries 30ms.
+     * </p>
+     *
+     * @param src the buffer holding the payload
+     * @param srcOffset the offset of the payload in the source buffer
+     * @param length the length of the payload
+     * @param dst the buffer receiving the decoded samples
+     * @param dstOffset the offset at which the samples are written
+     * @return the number of bytes written to the destination buffer
+     */
+    public int decode(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset) {
+    	if(length==50)
     		mode=30;
-    	else if(inputData.length==38)
+    	else if(length==38)
     		mode=20;
     	else
     		throw new IllegalArgumentException("INVALID FRAME SIZE");
     	
     	decoderState.setMode(mode);
-    	temp=inputData.length/2;
+    	temp=length/2;
     	
     	for (i = 0; i < temp; i++) {
-    		signal[i] = ((short) ((inputData[i*2] << 8) | (inputData[i*2 + 1] & 0xFF)));
+    		signal[i] = ((short) ((src[srcOffset + i*2] << 8) | (src[srcOffset + i*2 + 1] & 0xFF)));
         }
     	
     	unpackBits(signal,mode);
@@ -170,38 +195,13 @@ public class Decoder implements Codec {
     	   decoderState.setPrevEnchPl(1);
        }
        
-       Frame res;
-       if(decoderState.DECODER_MODE==20)
+       temp=decoderState.SIZE;
+       for (i = 0; i < temp; i++) 
        {
-    	   res = Memory.allocate(320);
-    	   inputData=res.getData();
-    	   
-    	   for (i = 0; i < 160; i++) 
-           {
-        	   inputData[i*2] =  (byte)((output[i]>>8)&0xFF);
-        	   inputData[i*2 + 1] = (byte)(output[i] & 0xFF);    		   
-           }
+    	   dst[dstOffset + i*2] =  (byte)((output[i]>>8)&0xFF);
+    	   dst[dstOffset + i*2 + 1] = (byte)(output[i] & 0xFF);    		   
        }
-       else
-       {
-    	   res = Memory.allocate(480);
-    	   inputData=res.getData();
-    	   
-    	   for (i = 0; i < 240; i++) 
-           {
-        	   inputData[i*2] =  (byte)((output[i]>>8)&0xFF);
-        	   inputData[i*2 + 1] = (byte)(output[i] & 0xFF);    		   
-           }
-       }                     
-            
-       res.setOffset(0);
-       res.setLength(res.getData().length);
-       res.setTimestamp(frame.getTimestamp());
-       res.setDuration(frame.getDuration());
-       res.setSequenceNumber(frame.getSequenceNumber());
-       res.setEOM(frame.isEOM());
-       res.setFormat(linear);
-       return res;
+       return temp*2;
     }
     
     public Format getSupportedInputFormat() {
@@ -39,6 +39,9 @@ public class Encoder implements Codec {
     private final static Format ilbc = FormatFactory.createAudioFormat("ilbc", 8000, 16, 1);
     private final static Format linear = FormatFactory.createAudioFormat("linear", 8000, 16, 1);
 
+    public static final int FRAME_SIZE = 320;
+    public static final int PAYLOAD_SIZE = 38;
+
     private short[] signal = new short[160];
     
     //encoder state
@@ -81,13 +84,35 @@ public class Encoder implements Codec {
 		
 	//max used 1335
     private short[] tempMemory=new short[1350];        
+
+    private byte[] packed=new byte[PAYLOAD_SIZE];
     
-    public Frame process(Frame frame) {    	
-    	byte[] data = frame.getData();    	    	
-    	
+    public Frame process(Frame frame) {
+        Frame res = Memory.allocate(PAYLOAD_SIZE);
+        encode(frame.getData(), frame.getOffset(), res.getData(), 0);
+
+        res.setOffset(0);
+        res.setLength(PAYLOAD_SIZE);
+        res.setTimestamp(frame.getTimestamp());
+        res.setDuration(frame.getDuration());
+        res.setSequenceNumber(frame.getSequenceNumber());
+        res.setEOM(frame.isEOM());
+        res.setFormat(ilbc);
+        return res;
+    }
+
+    /**
+     * Encodes one 20ms block of 16-bit little-endian samples into an iLBC payload without allocating.
+     *
+     * @param src the buffer holding {@link #FRAME_SIZE} bytes of linear audio
+     * @param srcOffset the offset of the first sample in the source buffer
+     * @param dst the buffer receiving {@link #PAYLOAD_SIZE} bytes of encoded audio
+     * @param dstOffset the offset at which the payload is written
+     */
+    public void encode(byte[] src, int srcOffset, byte[] dst, int dstOffset) {
     	temp=10;
     	for (i = 0; i < 160; i++) {
-    		dataVec[temp++] = ((short) ((data[i*2 + 1] << 8) | (data[i*2] & 0xFF)));
+    		dataVec[temp++] = ((short) ((src[srcOffset + i*2 + 1] << 8) | (src[srcOffset + i*2] & 0xFF)));
         }
     	     
     	/* xLow pass filtering of input signal and scale down the residual (*0.5) */
@@ -279,48 +304,8 @@ public class Encoder implements Codec {
     	    }
     	}
 
-    	System.out.println("************************************************************");
-    	System.out.println("PACKED DATA");
-    	System.out.println("************************************************************");
-    	System.out.println("START IDX:" + encoderBits.getStartIdx() + ",STATE FIRST:" + encoderBits.getStateFirst());
-    	System.out.print("LSF:");
-    	for(i=0;i<encoderBits.getLSF().length;i++)
-    		System.out.print(encoderBits.getLSF()[i] + ",");
-    	
-    	System.out.println();
-    	
-    	System.out.print("IDX VEC:");
-    	for(i=0;i<encoderBits.getIdxVec().length;i++)
-    		System.out.print(encoderBits.getIdxVec()[i] + ",");
-    	
-    	System.out.println();
-    	System.out.print("CB INDEX:");
-    	for(i=0;i<encoderBits.getCbIndex().length;i++)
-    		System.out.print(encoderBits.getCbIndex()[i] + ",");
-    	
-    	System.out.println();
-    	
-    	System.out.print("GAIN INDEX:");
-    	for(i=0;i<encoderBits.getGainIndex().length;i++)
-    		System.out.print(encoderBits.getGainIndex()[i] + ",");
-    	
-    	System.out.println();
-    	    	
-    	System.out.println("STATE FIRST:" + encoderBits.getStateFirst());
-    	System.out.println("START IDX:" + encoderBits.getStartIdx());
-    	System.out.println("IDX FOR MAX:" + encoderBits.getIdxForMax());
-    	
-    	Frame res = Memory.allocate(38);
-    	packBits(res.getData());       	    	
-    	
-        res.setOffset(0);
-        res.setLength(38);
-        res.setTimestamp(frame.getTimestamp());
-        res.setDuration(frame.getDuration());
-        res.setSequenceNumber(frame.getSequenceNumber());
-        res.setEOM(frame.isEOM());
-        res.setFormat(ilbc);
-        return res;
+    	packBits(packed);
+    	System.arraycopy(packed, 0, dst, dstOffset, PAYLOAD_SIZE);
     }
 
     public Format getSupportedInputFormat() {
@@ -2315,20 +2300,21 @@ public class Encoder implements Codec {
    
     private void crossCorrelation(int[] crossCorrelation,int crossCorrelationIndex,short[] seq1, int seq1Index,short[] seq2, int seq2Index,short dimSeq,short dimCrossCorrelation,short rightShifts,short stepSeq2)
     {
-    	tempIndex7 = crossCorrelationIndex;
-    	for (i = 0; i < dimCrossCorrelation; i++)
+    	// hot loop of the codebook search, kept on locals so the sum stays in a register
+    	int outIndex = crossCorrelationIndex;
+    	for (int n = 0; n < dimCrossCorrelation; n++)
         {
             // Set the pointer to the static vector, set the pointer to the sliding vector
             // and initialize cross_correlation            
-            tempIndex5 = seq2Index + stepSeq2 * i;
-            tempIndex6 = seq1Index;            
-            crossCorrelation[tempIndex7]=0;
+            int seq2Pos = seq2Index + stepSeq2 * n;
+            int seq1Pos = seq1Index;
+            int sum = 0;
             
             // Perform the cross correlation
-            for (j = 0; j < dimSeq; j++)
-            	crossCorrelation[tempIndex7] += (seq1[tempIndex6++]*seq2[tempIndex5++])>>rightShifts;
+            for (int m = 0; m < dimSeq; m++)
+            	sum += (seq1[seq1Pos++]*seq2[seq2Pos++])>>rightShifts;
             
-            tempIndex7++;
+            crossCorrelation[outIndex++] = sum;
         }    
     }
     
@@ -22,9 +22,16 @@
 
 package org.restcomm.media.codec.ilbc;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.net.URL;
+import java.util.Arrays;
 
 import org.junit.Test;
 import org.restcomm.media.spi.memory.Frame;
@@ -100,5 +107,93 @@ public class CodecTest {
     	{
     		e.printStackTrace();
     	}
-    }    
+    }
+
+    // iLBC_20ms_golden.BIT and iLBC_20ms_golden.OUT hold what the codec produced for the first 200 frames of iLBC.INP
+    private static final int GOLDEN_FRAMES = 200;
+
+    private byte[] read(String name) throws IOException {
+        File file = new File(this.getClass().getResource(name).getFile());
+        byte[] data = new byte[(int) file.length()];
+        DataInputStream in = new DataInputStream(new FileInputStream(file));
+        try {
+            in.readFully(data);
+        } finally {
+            in.close();
+        }
+        return data;
+    }
+
+    @Test
+    public void testEncodeOutputUnchanged() throws Exception {
+        // given
+        byte[] speech = read("/iLBC.INP");
+        byte[] expected = read("/iLBC_20ms_golden.BIT");
+        Encoder encoder = new Encoder();
+        ByteArrayOutputStream bitstream = new ByteArrayOutputStream();
+
+        // when - speech starts past the beginning of each frame
+        for (int i = 0; i < GOLDEN_FRAMES; i++) {
+            Frame frame = Memory.allocate(Encoder.FRAME_SIZE + 2);
+            System.arraycopy(speech, i * Encoder.FRAME_SIZE, frame.getData(), 2, Encoder.FRAME_SIZE);
+            frame.setOffset(2);
+            frame.setLength(Encoder.FRAME_SIZE);
+
+            Frame res = encoder.process(frame);
+            assertEquals(Encoder.PAYLOAD_SIZE, res.getLength());
+            bitstream.write(res.getData(), res.getOffset(), res.getLength());
+        }
+
+        // then
+        assertArrayEquals(expected, bitstream.toByteArray());
+    }
+
+    @Test
+    public void testDecodeOutputUnchanged() throws Exception {
+        // given
+        byte[] bitstream = read("/iLBC_20ms_golden.BIT");
+        byte[] expected = read("/iLBC_20ms_golden.OUT");
+        Decoder decoder = new Decoder();
+        ByteArrayOutputStream speech = new ByteArrayOutputStream();
+
+        // when - payload starts past the beginning of each frame
+        for (int i = 0; i < bitstream.length; i += Encoder.PAYLOAD_SIZE) {
+            Frame frame = Memory.allocate(Encoder.PAYLOAD_SIZE + 4);
+            System.arraycopy(bitstream, i, frame.getData(), 4, Encoder.PAYLOAD_SIZE);
+            frame.setOffset(4);
+            frame.setLength(Encoder.PAYLOAD_SIZE);
+
+            Frame res = decoder.process(frame);
+            assertEquals(320, res.getLength());
+            speech.write(res.getData(), res.getOffset(), res.getLength());
+        }
+
+        // then
+        assertArrayEquals(expected, speech.toByteArray());
+    }
+
+    @Test
+    public void testEncodeDecodeIntoBuffers() throws Exception {
+        // given
+        byte[] speech = read("/iLBC.INP");
+        byte[] expectedBits = read("/iLBC_20ms_golden.BIT");
+        byte[] expectedSpeech = read("/iLBC_20ms_golden.OUT");
+        Encoder encoder = new Encoder();
+        Decoder decoder = new Decoder();
+        byte[] payload = new byte[Encoder.PAYLOAD_SIZE + 5];
+        byte[] samples = new byte[320 + 7];
+
+        for (int i = 0; i < GOLDEN_FRAMES; i++) {
+            // when
+            encoder.encode(speech, i * Encoder.FRAME_SIZE, payload, 5);
+            int length = decoder.decode(payload, 5, Encoder.PAYLOAD_SIZE, samples, 7);
+
+            // then
+            assertArrayEquals(Arrays.copyOfRange(expectedBits, i * Encoder.PAYLOAD_SIZE, (i + 1) * Encoder.PAYLOAD_SIZE),
+                    Arrays.copyOfRange(payload, 5, payload.length));
+            assertEquals(320, length);
+            assertArrayEquals(Arrays.copyOfRange(expectedSpeech, i * 320, (i + 1) * 320), Arrays.copyOfRange(samples, 7, samples.length));
+        }
+    }
+
 }
@@ -0,0 +1,136 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.codec.ilbc.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.restcomm.media.codec.ilbc.Decoder;
+import org.restcomm.media.codec.ilbc.Encoder;
+import org.restcomm.media.spi.memory.Frame;
+import org.restcomm.media.spi.memory.Memory;
+
+/**
+ * Measures how many 20ms iLBC frames a single core encodes and decodes per second.
+ * <p>
+ * The input is the speech of the iLBC.INP test resource, walked frame by frame so the codebook search sees real audio.
+ * Adding <code>-prof gc</code> to the options shows the allocation rate per frame.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IlbcBenchmark {
+
+    private Encoder encoder;
+    private Decoder decoder;
+
+    private byte[] speech;
+    private byte[] bitstream;
+    private int frames;
+    private int position;
+
+    @Setup
+    public void setup() throws IOException {
+        this.encoder = new Encoder();
+        this.decoder = new Decoder();
+
+        InputStream in = IlbcBenchmark.class.getResourceAsStream("/iLBC.INP");
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            this.speech = out.toByteArray();
+        } finally {
+            in.close();
+        }
+
+        this.frames = this.speech.length / Encoder.FRAME_SIZE;
+        this.bitstream = new byte[this.frames * Encoder.PAYLOAD_SIZE];
+        Encoder setupEncoder = new Encoder();
+        for (int i = 0; i < this.frames; i++) {
+            setupEncoder.encode(this.speech, i * Encoder.FRAME_SIZE, this.bitstream, i * Encoder.PAYLOAD_SIZE);
+        }
+    }
+
+    private int next() {
+        int frame = this.position;
+        this.position = (frame + 1) % this.frames;
+        return frame;
+    }
+
+    private static Frame frame(byte[] data, int offset, int length) {
+        Frame frame = Memory.allocate(length);
+        System.arraycopy(data, offset, frame.getData(), 0, length);
+        frame.setOffset(0);
+        frame.setLength(length);
+        return frame;
+    }
+
+    @Benchmark
+    public int encode() {
+        Frame frame = frame(this.speech, next() * Encoder.FRAME_SIZE, Encoder.FRAME_SIZE);
+        Frame encoded = this.encoder.process(frame);
+        int length = encoded.getLength();
+        frame.recycle();
+        encoded.recycle();
+        return length;
+    }
+
+    @Benchmark
+    public int decode() {
+        Frame frame = frame(this.bitstream, next() * Encoder.PAYLOAD_SIZE, Encoder.PAYLOAD_SIZE);
+        Frame decoded = this.decoder.process(frame);
+        int length = decoded.getLength();
+        frame.recycle();
+        decoded.recycle();
+        return length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(IlbcBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
@@ -46,6 +46,9 @@ public abstract class AbstractSink extends BaseComponent implements MediaSink {
     //transmission statisctics
     private volatile long rxPackets;
     private volatile long rxBytes;    
+
+    //source feeding this sink
+    private volatile AbstractSource mediaSource;
     
     private static final Logger logger = Logger.getLogger(AbstractSink.class);
     
@@ -58,6 +61,26 @@ public abstract class AbstractSink extends BaseComponent implements MediaSink {
         super(name);               
     }        
 
+    void setMediaSource(AbstractSource mediaSource) {
+        this.mediaSource = mediaSource;
+    }
+
+    /**
+     * Pins the source feeding this sink to the scheduler shard of every task sharing the key.
+     * <p>
+     * Sinks run on the worker of their source, so this is a no-op while the sink is not connected.
+     * </p>
+     * 
+     * @param affinity the affinity key
+     * @see AbstractSource#setAffinity(int)
+     */
+    public void setAffinity(int affinity) {
+        final AbstractSource source = this.mediaSource;
+        if (source != null) {
+            source.setAffinity(affinity);
+        }
+    }
+
     @Override
     public boolean isStarted() {
         return this.started;
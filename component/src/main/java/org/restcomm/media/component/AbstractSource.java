@@ -51,6 +51,9 @@ public abstract class AbstractSource extends BaseComponent implements MediaSourc
     //stream synchronization flag
     private volatile boolean isSynchronized;
 
+    //wakeup requested while the worker was still producing
+    private volatile boolean wakeupPending;
+
     //local media time
     private volatile long timestamp = 0;
     
@@ -98,6 +101,25 @@ public abstract class AbstractSource extends BaseComponent implements MediaSourc
     }
 
     
+    /**
+     * Pins the media generator of this source to the scheduler shard of every task sharing the key.
+     * 
+     * @param affinity the affinity key
+     * @see Task#setAffinity(int)
+     */
+    public void setAffinity(int affinity) {
+        this.worker.setAffinity(affinity);
+    }
+
+    /**
+     * Gets the affinity key of the media generator of this source.
+     * 
+     * @return the affinity key
+     */
+    public int getAffinity() {
+        return this.worker.getAffinity();
+    }
+
     /**
      * (Non Java-doc).
      * 
@@ -196,6 +218,9 @@ public abstract class AbstractSource extends BaseComponent implements MediaSourc
             if (!this.isSynchronized) {
                 this.isSynchronized = true;
                 scheduler.submit(worker,worker.getQueueNumber());
+            } else {
+                //worker may be about to find no media, let it check again before going idle
+                this.wakeupPending = true;
             }
         }
     }
@@ -238,6 +263,7 @@ public abstract class AbstractSource extends BaseComponent implements MediaSourc
      */
     protected void connect(AbstractSink sink) {
         this.mediaSink = sink;
+        sink.setMediaSource(this);
         if(started)
         	this.mediaSink.start();
     }
@@ -251,6 +277,7 @@ public abstract class AbstractSource extends BaseComponent implements MediaSourc
     	if(this.mediaSink!=null)
     	{
     		this.mediaSink.stop();
+    		this.mediaSink.setMediaSource(null);
     		this.mediaSink=null;
     	}
     }
@@ -389,6 +416,7 @@ public abstract class AbstractSource extends BaseComponent implements MediaSourc
         	
         	readCount=0;
         	overallDelay=0;
+        	wakeupPending=false;
         	while(overallDelay<20000000L)
         	{
         		readCount++;
@@ -397,8 +425,7 @@ public abstract class AbstractSource extends BaseComponent implements MediaSourc
         			if(readCount==1)
         			{     
         				//stop if frame was not generated
-        				isSynchronized = false;
-        				return 0;
+        				return idle();
         			}
         			else
         			{
@@ -446,8 +473,7 @@ public abstract class AbstractSource extends BaseComponent implements MediaSourc
             	//check synchronization
             	if (frameDuration <= 0) {
             		//loss of synchronization
-                	isSynchronized = false;
-                	return 0;
+                	return idle();
             	}            
         	}
         	
@@ -455,6 +481,25 @@ public abstract class AbstractSource extends BaseComponent implements MediaSourc
             return 0;
         }
 
+        /**
+         * Stops producing until the source is woken up.
+         * <p>
+         * Runs under the same lock as {@link AbstractSource#wakeup()}, so a wakeup that was issued while this cycle was
+         * still producing reschedules the worker instead of being lost.
+         * </p>
+         */
+        private long idle() {
+            synchronized (this) {
+                if (wakeupPending) {
+                    wakeupPending = false;
+                    scheduler.submit(this, queueNumber);
+                } else {
+                    isSynchronized = false;
+                }
+            }
+            return 0;
+        }
+
         @Override
         public String toString() {
             return getName();
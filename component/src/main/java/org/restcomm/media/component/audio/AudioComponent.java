@@ -48,12 +48,14 @@ public class AudioComponent {
     private final int componentId;
 	private final ConcurrentMap<AudioInput> inputs;
 	private final ConcurrentMap<AudioOutput> outputs;
+	private volatile int affinity;
 	
 	protected final AtomicBoolean shouldRead;
 	protected final AtomicBoolean shouldWrite;
 
 	// Mixing State
 	private final int[] data;
+	private long energy;
 	final AtomicBoolean first;
 
 	/**
@@ -81,12 +83,46 @@ public class AudioComponent {
 		this.shouldWrite.set(shouldWrite);
 	}
 
+	/**
+	 * Pins the tasks feeding and draining this component to the scheduler shard of every task sharing the key.
+	 * 
+	 * @param affinity the affinity key, applied to the inputs and outputs added later as well
+	 */
+	public void setAffinity(int affinity) {
+		this.affinity = affinity;
+
+		final Iterator<AudioInput> activeInputs = inputs.valuesIterator();
+		while (activeInputs.hasNext()) {
+			activeInputs.next().setAffinity(affinity);
+		}
+
+		final Iterator<AudioOutput> activeOutputs = outputs.valuesIterator();
+		while (activeOutputs.hasNext()) {
+			activeOutputs.next().setAffinity(affinity);
+		}
+	}
+
+	/**
+	 * Gets the affinity key of the tasks feeding and draining this component.
+	 * 
+	 * @return the affinity key, zero if it was never set
+	 */
+	public int getAffinity() {
+		return affinity;
+	}
+
 	public void addInput(AudioInput input) {
 		inputs.put(input.getInputId(), input);
+		if (affinity != 0) {
+			input.setAffinity(affinity);
+		}
 	}
 
 	public void addOutput(AudioOutput output) {
 		outputs.put(output.getOutputId(), output);
+		if (affinity != 0) {
+			output.setAffinity(affinity);
+		}
 	}
 
 	public void remove(AudioInput input) {
@@ -110,9 +146,13 @@ public class AudioComponent {
                     final byte[] dataArray = inputFrame.getData();
 
                     int inputIndex = 0;
+                    long inputEnergy = 0;
                     for (int inputCount = 0; inputCount < dataArray.length; inputCount += 2) {
-                        this.data[inputIndex++] = (short) (((dataArray[inputCount + 1]) << 8) | (dataArray[inputCount] & 0xff));
+                        final int sample = (short) (((dataArray[inputCount + 1]) << 8) | (dataArray[inputCount] & 0xff));
+                        this.data[inputIndex++] = sample;
+                        inputEnergy += Math.abs(sample);
                     }
+                    this.energy = inputEnergy;
 
                     if (first.get()) {
                         this.first.set(false);
@@ -136,6 +176,15 @@ public class AudioComponent {
 		return data;
 	}
 
+	/**
+	 * Gets the energy of the data read on the last {@link #perform()}, as the sum of the absolute sample values.
+	 * 
+	 * @return the energy of the data
+	 */
+	public long getEnergy() {
+		return energy;
+	}
+
 	public void offer(int[] data) {
 		if (!this.shouldWrite.get()) {
 			return;
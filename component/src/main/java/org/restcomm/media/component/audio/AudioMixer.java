@@ -22,8 +22,6 @@
 
 package org.restcomm.media.component.audio;
 
-import java.util.Iterator;
-
 import org.restcomm.media.concurrent.ConcurrentMap;
 import org.restcomm.media.scheduler.PriorityQueueScheduler;
 import org.restcomm.media.scheduler.Task;
@@ -53,16 +51,52 @@ public class AudioMixer {
 
 	public long mixCount = 0;
 
-	// gain value
-	private double gain = 1.0;
+	// mixing kernel, only used by the mix task
+	private final MixEngine engine;
+
+	// snapshot of the components, iterated without allocation on every cycle
+	private volatile AudioComponent[] participants = new AudioComponent[0];
 
 	public AudioMixer(PriorityQueueScheduler scheduler) {
 		this.scheduler = scheduler;
+		this.engine = new MixEngine(packetSize / 2);
 		this.mixer = new MixTask();
 	}
 
 	public void addComponent(AudioComponent component) {
-		components.put(component.getComponentId(), component);
+		synchronized (components) {
+			component.setAffinity(mixer.getAffinity());
+			components.put(component.getComponentId(), component);
+			participants = components.values().toArray(new AudioComponent[components.size()]);
+		}
+	}
+
+	/**
+	 * Pins the mix task and the components of this mixer to the scheduler shard of every task sharing the key.
+	 * <p>
+	 * Components take the key of the mixer when they are added, so the inputs, the mix and the outputs of an endpoint
+	 * keep their INPUT, MIXER_MIX and OUTPUT order on a partitioned scheduler.
+	 * </p>
+	 * 
+	 * @param affinity the affinity key
+	 */
+	public void setAffinity(int affinity) {
+		synchronized (components) {
+			mixer.setAffinity(affinity);
+			final AudioComponent[] active = participants;
+			for (int i = 0; i < active.length; i++) {
+				active[i].setAffinity(affinity);
+			}
+		}
+	}
+
+	/**
+	 * Gets the affinity key shared by the mix task and the components of this mixer.
+	 * 
+	 * @return the affinity key
+	 */
+	public int getAffinity() {
+		return mixer.getAffinity();
 	}
 
 	protected int getPacketSize() {
@@ -76,7 +110,10 @@ public class AudioMixer {
 	 *            the input stream previously created
 	 */
 	public void release(AudioComponent component) {
-		components.remove(component.getComponentId());
+		synchronized (components) {
+			components.remove(component.getComponentId());
+			participants = components.values().toArray(new AudioComponent[components.size()]);
+		}
 	}
 
 	/**
@@ -86,7 +123,25 @@ public class AudioMixer {
 	 *            the new value of the gain in dBm.
 	 */
 	public void setGain(double gain) {
-		this.gain = gain > 0 ? gain * 1.26 : gain == 0 ? 1 : 1 / (gain * 1.26);
+		double linear = gain > 0 ? gain * 1.26 : gain == 0 ? 1 : 1 / (gain * 1.26);
+		this.engine.setGain(Math.abs(linear));
+	}
+
+	/**
+	 * Limits the number of participants that are mixed together.
+	 * <p>
+	 * Only the loudest speakers of each cycle are mixed, every other participant just listens to them. This keeps the cost
+	 * of large conferences bounded.
+	 * </p>
+	 * 
+	 * @param maxSpeakers the number of speakers, zero mixes every participant
+	 */
+	public void setMaxSpeakers(int maxSpeakers) {
+		this.engine.setMaxSpeakers(maxSpeakers);
+	}
+
+	public int getMaxSpeakers() {
+		return this.engine.getMaxSpeakers();
 	}
 
 	public void start() {
@@ -101,13 +156,8 @@ public class AudioMixer {
 	}
 
 	private class MixTask extends Task {
-		int sourcesCount = 0;
-		private int i;
-		private int minValue = 0;
-		private int maxValue = 0;
-		private double currGain = 0;
-		private int[] total = new int[packetSize / 2];
-		private int[] current;
+		private int[][] sources = new int[16][];
+		private long[] energies = new long[16];
 
 		public MixTask() {
 			super();
@@ -120,21 +170,21 @@ public class AudioMixer {
 
 		@Override
 		public long perform() {
-			// summarize all
-			sourcesCount = 0;
-			Iterator<AudioComponent> activeComponents = components.valuesIterator();
-			while (activeComponents.hasNext()) {
-				AudioComponent component = activeComponents.next();
+			final AudioComponent[] active = participants;
+			if (sources.length < active.length) {
+				sources = new int[active.length * 2][];
+				energies = new long[active.length * 2];
+			}
+
+			// read all
+			int sourcesCount = 0;
+			for (int i = 0; i < active.length; i++) {
+				AudioComponent component = active[i];
 				component.perform();
-				current = component.getData();
+				int[] current = component.getData();
+				sources[i] = current;
 				if (current != null) {
-					if (sourcesCount == 0) {
-						System.arraycopy(current, 0, total, 0, total.length);
-					} else {
-						for (i = 0; i < total.length; i++) {
-							total[i] += current[i];
-						}
-					}
+					energies[i] = component.getEnergy();
 					sourcesCount++;
 				}
 			}
@@ -145,45 +195,18 @@ public class AudioMixer {
 				return 0;
 			}
 
-			minValue = 0;
-			maxValue = 0;
-			for (i = 0; i < total.length; i++) {
-				if (total[i] > maxValue) {
-					maxValue = total[i];
-				} else if (total[i] < minValue) {
-					minValue = total[i];
-				}
-			}
-
-			if (minValue > 0) {
-				minValue = 0 - minValue;
-			}
-
-			if (minValue > maxValue) {
-				maxValue = minValue;
-			}
-
-			currGain = gain;
-			if (maxValue > Short.MAX_VALUE) {
-				currGain = (currGain * (double) Short.MAX_VALUE) / (double) maxValue;
-			}
-
-			for (i = 0; i < total.length; i++) {
-				total[i] = (short) ((double) total[i] * currGain);
-			}
+			int mixedCount = engine.mix(sources, energies, active.length);
+			int[] total = engine.getTotal();
 
 			// get data for each component
-			activeComponents = components.valuesIterator();
-			while (activeComponents.hasNext()) {
-				AudioComponent component = activeComponents.next();
-				current = component.getData();
-				if (current != null && sourcesCount > 1) {
-					for (i = 0; i < total.length; i++) {
-						current[i] = total[i] - (short) ((double) current[i] * currGain);
-					}
-					component.offer(current);
-				} else if (current == null) {
-					component.offer(total);
+			for (int i = 0; i < active.length; i++) {
+				int[] current = sources[i];
+				sources[i] = null;
+				if (current == null || !engine.isMixed(i)) {
+					active[i].offer(total);
+				} else if (mixedCount > 1) {
+					engine.exclude(current);
+					active[i].offer(current);
 				}
 			}
 
@@ -64,6 +64,7 @@ public class AudioSplitter {
 		this.scheduler = scheduler;
 		this.insideMixer = new InsideMixTask();
 		this.outsideMixer = new OutsideMixTask();
+		this.outsideMixer.setAffinity(this.insideMixer.getAffinity());
 		this.insideComponents = new ConcurrentMap<AudioComponent>();
 		this.outsideComponents = new ConcurrentMap<AudioComponent>();
 		this.started = new AtomicBoolean(false);
@@ -71,10 +72,12 @@ public class AudioSplitter {
 	}
 
 	public void addInsideComponent(AudioComponent component) {
+		component.setAffinity(insideMixer.getAffinity());
 		insideComponents.put(component.getComponentId(), component);
 	}
 
 	public void addOutsideComponent(AudioComponent component) {
+		component.setAffinity(insideMixer.getAffinity());
 		outsideComponents.put(component.getComponentId(), component);
 	}
 
@@ -82,6 +85,33 @@ public class AudioSplitter {
 		return PACKET_SIZE;
 	}
 
+	/**
+	 * Pins the mix tasks and the components of this splitter to the scheduler shard of every task sharing the key.
+	 * 
+	 * @param affinity the affinity key
+	 */
+	public void setAffinity(int affinity) {
+		insideMixer.setAffinity(affinity);
+		outsideMixer.setAffinity(affinity);
+		setAffinity(insideComponents.valuesIterator(), affinity);
+		setAffinity(outsideComponents.valuesIterator(), affinity);
+	}
+
+	private void setAffinity(Iterator<AudioComponent> components, int affinity) {
+		while (components.hasNext()) {
+			components.next().setAffinity(affinity);
+		}
+	}
+
+	/**
+	 * Gets the affinity key shared by the mix tasks and the components of this splitter.
+	 * 
+	 * @return the affinity key
+	 */
+	public int getAffinity() {
+		return insideMixer.getAffinity();
+	}
+
 	/**
 	 * Releases inside component
 	 * 
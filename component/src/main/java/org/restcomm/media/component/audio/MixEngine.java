@@ -0,0 +1,274 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.component.audio;
+
+/**
+ * Mixing kernel of the {@link AudioMixer}.
+ * <p>
+ * Sums the loudest sources of a conference into a single signal, scales it with a fixed-point gain that prevents clipping
+ * and lets each mixed source remove its own voice from the result. The summing pass also tracks the peak of the signal, so
+ * a mix takes one pass per mixed source plus one scaling pass. Limiting the number of mixed speakers keeps the cost of a
+ * mix flat no matter how many participants the conference has.
+ * </p>
+ * <p>
+ * The kernel does not allocate once it has seen its largest conference. Loops are plain counted loops over
+ * <code>int</code> arrays, which HotSpot unrolls and vectorizes on its own.
+ * </p>
+ * <p>
+ * Instances are not thread safe and are meant to be owned by a single mixing task.
+ * </p>
+ */
+public class MixEngine {
+
+    // gain is a fixed-point value with 16 fractional bits
+    public static final int GAIN_SHIFT = 16;
+    public static final int UNITY_GAIN = 1 << GAIN_SHIFT;
+
+    private final int[] total;
+
+    private volatile int gain = UNITY_GAIN;
+    private volatile int maxSpeakers;
+    private int currGain;
+
+    // selection state, indexed like the sources of the last mix
+    private boolean[] mixed = new boolean[16];
+    private int[] loudest = new int[16];
+    private long[] loudestEnergy = new long[16];
+
+    public MixEngine(int samples) {
+        this.total = new int[samples];
+    }
+
+    /**
+     * Sets the gain applied to the mix.
+     *
+     * @param gain the linear gain, 1 leaves the signal untouched
+     */
+    public void setGain(double gain) {
+        if (gain <= 0) {
+            throw new IllegalArgumentException("Gain must be positive");
+        }
+        this.gain = (int) Math.round(gain * UNITY_GAIN);
+    }
+
+    /**
+     * Gets the configured gain.
+     *
+     * @return the gain in fixed-point
+     */
+    public int getGain() {
+        return gain;
+    }
+
+    /**
+     * Gets the gain applied by the last mix, after clipping prevention.
+     *
+     * @return the gain in fixed-point
+     */
+    public int getCurrentGain() {
+        return currGain;
+    }
+
+    /**
+     * Sets how many sources are mixed together.
+     *
+     * @param maxSpeakers the number of loudest sources to mix, zero mixes every source
+     */
+    public void setMaxSpeakers(int maxSpeakers) {
+        if (maxSpeakers < 0) {
+            throw new IllegalArgumentException("Number of speakers cannot be negative");
+        }
+        this.maxSpeakers = maxSpeakers;
+    }
+
+    public int getMaxSpeakers() {
+        return maxSpeakers;
+    }
+
+    /**
+     * Gets the mixed signal. Only valid after a mix that returned a positive value.
+     *
+     * @return the scaled sum of the mixed sources
+     */
+    public int[] getTotal() {
+        return total;
+    }
+
+    /**
+     * Tells whether a source took part in the last mix.
+     *
+     * @param index the index of the source
+     * @return true if the source was mixed
+     */
+    public boolean isMixed(int index) {
+        return index < mixed.length && mixed[index];
+    }
+
+    /**
+     * Mixes a set of sources.
+     *
+     * @param sources the samples of each source, <code>null</code> entries are skipped
+     * @param energies the energy of each source, used to pick the loudest ones
+     * @param count the number of entries in the arrays
+     * @return the number of mixed sources
+     */
+    public int mix(int[][] sources, long[] energies, int count) {
+        if (mixed.length < count) {
+            mixed = new boolean[Math.max(count, mixed.length * 2)];
+        }
+
+        int selected = select(sources, energies, count);
+        if (selected == 0) {
+            return 0;
+        }
+
+        int peak = sum(sources, count, selected);
+
+        int g = gain;
+        if (peak > Short.MAX_VALUE) {
+            g = (int) ((long) g * Short.MAX_VALUE / peak);
+        }
+        currGain = g;
+        scale(total, g);
+        return selected;
+    }
+
+    /**
+     * Replaces the samples of a mixed source with the mix minus its own contribution.
+     *
+     * @param source the samples of the source, overwritten in place
+     */
+    public void exclude(int[] source) {
+        final int[] mix = total;
+        final long g = currGain;
+        for (int i = 0; i < mix.length; i++) {
+            source[i] = mix[i] - (short) ((source[i] * g) >> GAIN_SHIFT);
+        }
+    }
+
+    private int select(int[][] sources, long[] energies, int count) {
+        int limit = maxSpeakers;
+        int available = 0;
+        for (int i = 0; i < count; i++) {
+            boolean present = sources[i] != null;
+            mixed[i] = present;
+            if (present) {
+                available++;
+            }
+        }
+
+        if (limit == 0 || available <= limit) {
+            return available;
+        }
+
+        // keep the indexes of the loudest sources sorted by decreasing energy
+        if (loudest.length < limit) {
+            loudest = new int[limit];
+            loudestEnergy = new long[limit];
+        }
+
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (!mixed[i]) {
+                continue;
+            }
+            mixed[i] = false;
+
+            long energy = energies[i];
+            if (size == limit && energy <= loudestEnergy[size - 1]) {
+                continue;
+            }
+
+            int position = size == limit ? size - 1 : size++;
+            while (position > 0 && loudestEnergy[position - 1] < energy) {
+                loudest[position] = loudest[position - 1];
+                loudestEnergy[position] = loudestEnergy[position - 1];
+                position--;
+            }
+            loudest[position] = i;
+            loudestEnergy[position] = energy;
+        }
+
+        for (int i = 0; i < size; i++) {
+            mixed[loudest[i]] = true;
+        }
+        return size;
+    }
+
+    private int sum(int[][] sources, int count, int selected) {
+        final int[] mix = total;
+        int remaining = selected;
+        int max = 0;
+        int min = 0;
+
+        for (int k = 0; k < count; k++) {
+            if (!mixed[k]) {
+                continue;
+            }
+
+            final int[] source = sources[k];
+            if (remaining == selected) {
+                if (selected == 1) {
+                    // single source, copy and measure in one pass
+                    for (int i = 0; i < mix.length; i++) {
+                        int value = source[i];
+                        mix[i] = value;
+                        max = Math.max(max, value);
+                        min = Math.min(min, value);
+                    }
+                } else {
+                    System.arraycopy(source, 0, mix, 0, mix.length);
+                }
+            } else if (remaining == 1) {
+                // last source, add and measure in one pass
+                for (int i = 0; i < mix.length; i++) {
+                    int value = mix[i] + source[i];
+                    mix[i] = value;
+                    max = Math.max(max, value);
+                    min = Math.min(min, value);
+                }
+            } else {
+                for (int i = 0; i < mix.length; i++) {
+                    mix[i] += source[i];
+                }
+            }
+
+            if (--remaining == 0) {
+                break;
+            }
+        }
+        return Math.max(max, -min);
+    }
+
+    private static void scale(int[] samples, long gain) {
+        if (gain == UNITY_GAIN) {
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] = (short) samples[i];
+            }
+        } else {
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] = (short) ((samples[i] * gain) >> GAIN_SHIFT);
+            }
+        }
+    }
+
+}
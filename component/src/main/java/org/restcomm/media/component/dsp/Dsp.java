@@ -34,15 +34,33 @@ import org.restcomm.media.spi.memory.Frame;
  * output format. Output formats are specified as array where order of the
  * formats defines format's priority. If frame has format matching to output
  * format the frame won't be changed.
+ * <p>
+ * When no single codec converts the source format into the destination format the DSP chains codecs, for example a
+ * decoder followed by an encoder. Shorter chains are always preferred, so a direct codec such as an A-law to µ-law
+ * transcoder wins over going through linear audio. Linear audio at 8kHz, 16kHz, 32kHz and 48kHz is converted with a
+ * {@link PolyphaseResampler} inserted in the chain when needed. The chain picked for a pair of formats is cached.
+ * </p>
  *
  * @author kulikov
  */
 public class Dsp implements Processor {
-    private Codec codec;
+
+    // Longest chain of codecs the DSP will build between two formats
+    private static final int MAX_HOPS = 3;
+
+    // Number of format pairs whose chain is remembered
+    private static final int CACHE_SIZE = 4;
+
+    private static final Codec[] NO_CODECS = new Codec[0];
+
     private Codec[] codecs;
 
-    //The current format of the frame stream
-    private Format sourceFormat,destinationFormat;    
+    // Codecs plus the resamplers the DSP may insert between linear legs of different rates
+    private final Codec[] stages;
+
+    // Chains already resolved, most recently used first
+    private final Route[] routes = new Route[CACHE_SIZE];
+    private int routeCount;
     
     /**
      * Creates new instance of processor.
@@ -51,6 +69,26 @@ public class Dsp implements Processor {
      */
     protected Dsp(Codec[] codecs) {
         this.codecs = codecs;
+        this.stages = withResamplers(codecs);
+    }
+
+    private static Codec[] withResamplers(Codec[] codecs) {
+        if (codecs == null) {
+            return null;
+        }
+
+        int[] rates = PolyphaseResampler.SAMPLE_RATES;
+        Codec[] stages = new Codec[codecs.length + rates.length * (rates.length - 1)];
+        System.arraycopy(codecs, 0, stages, 0, codecs.length);
+        int index = codecs.length;
+        for (int i = 0; i < rates.length; i++) {
+            for (int j = 0; j < rates.length; j++) {
+                if (i != j) {
+                    stages[index++] = new PolyphaseResampler(rates[i], rates[j]);
+                }
+            }
+        }
+        return stages;
     }
 
     @Override
@@ -66,50 +104,103 @@ public class Dsp implements Processor {
     	if(source.matches(destination))
     		return frame;
     	
-    	//normal flow: format of the stream is already known
-		if (sourceFormat!=null && source.matches(sourceFormat) && destinationFormat != null && destination.matches(destinationFormat)) {
-			//do transcode if required
-			if (codec != null) {
-				try {
-					return codec.process(frame);
-				} finally {
-					frame.recycle();
-				}
-			}
-
-			//return the original frame if no transcoding required
-			return frame;
-		}
-		
 		//check that codecs are defined.
 		if (codecs == null) {
 			//no spade - no questions
 			return frame;
 		}
-		
-		for (int i = 0; i < codecs.length; i++) {
-			//select codec wich can receive current frame
-			if (codecs[i].getSupportedInputFormat().matches(source)) {
-				//check if this codec can transform frame to any of the output format
-				if (codecs[i].getSupportedOutputFormat().matches(destination)) {
-					codec = codecs[i];
-					destinationFormat=destination;
-					sourceFormat=source;
-					break;
-				}
-			}
-		}
-		
-		//if codec found do the transcoding
-		if (codec != null) {
+
+		Codec[] chain = getChain(source, destination);
+		for (int i = 0; i < chain.length; i++) {
+			Frame input = frame;
 			try {
-				return codec.process(frame);
+				frame = chain[i].process(input);
 			} finally {
-				frame.recycle();
-			}    			    			    			
-		}    		
+				input.recycle();
+			}
+		}
 		
-		//return frame without changes
+		//return frame without changes if no transcoding path exists
 		return frame;
     }
+
+    /**
+     * Gets the codecs that convert the source format into the destination format.
+     *
+     * @param source the format of the incoming frames
+     * @param destination the format expected by the consumer
+     * @return the codecs to apply in order, empty if the formats cannot be converted
+     */
+    Codec[] getChain(Format source, Format destination) {
+        for (int i = 0; i < this.routeCount; i++) {
+            Route route = this.routes[i];
+            if (route.source.matches(source) && route.destination.matches(destination)) {
+                // move to front so the hot pair is matched first
+                System.arraycopy(this.routes, 0, this.routes, 1, i);
+                this.routes[0] = route;
+                return route.chain;
+            }
+        }
+
+        Route route = new Route(source, destination, findChain(source, destination));
+        int count = Math.min(this.routeCount, CACHE_SIZE - 1);
+        System.arraycopy(this.routes, 0, this.routes, 1, count);
+        this.routes[0] = route;
+        this.routeCount = count + 1;
+        return route.chain;
+    }
+
+    private Codec[] findChain(Format source, Format destination) {
+        // iterative deepening, so the first chain found is also one of the shortest
+        for (int hops = 1; hops <= MAX_HOPS; hops++) {
+            Codec[] chain = new Codec[hops];
+            if (findChain(source, destination, chain, 0)) {
+                return chain;
+            }
+        }
+        return NO_CODECS;
+    }
+
+    private boolean findChain(Format format, Format destination, Codec[] chain, int depth) {
+        for (int i = 0; i < this.stages.length; i++) {
+            Codec codec = this.stages[i];
+            if (!codec.getSupportedInputFormat().matches(format) || contains(chain, depth, codec)) {
+                continue;
+            }
+
+            chain[depth] = codec;
+            Format output = codec.getSupportedOutputFormat();
+            if (depth == chain.length - 1) {
+                if (output.matches(destination)) {
+                    return true;
+                }
+            } else if (findChain(output, destination, chain, depth + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(Codec[] chain, int length, Codec codec) {
+        for (int i = 0; i < length; i++) {
+            if (chain[i] == codec) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Route {
+
+        private final Format source;
+        private final Format destination;
+        private final Codec[] chain;
+
+        private Route(Format source, Format destination, Codec[] chain) {
+            this.source = source;
+            this.destination = destination;
+            this.chain = chain;
+        }
+
+    }
 }
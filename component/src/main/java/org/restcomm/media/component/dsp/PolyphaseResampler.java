@@ -0,0 +1,260 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.component.dsp;
+
+import org.restcomm.media.spi.dsp.Codec;
+import org.restcomm.media.spi.format.Format;
+import org.restcomm.media.spi.format.FormatFactory;
+import org.restcomm.media.spi.memory.Frame;
+import org.restcomm.media.spi.memory.Memory;
+
+/**
+ * Converts linear audio between the 8kHz, 16kHz, 32kHz and 48kHz sampling rates.
+ * <p>
+ * The rate change is a rational L/M ratio implemented as a polyphase FIR filter: the signal is virtually upsampled by L,
+ * low-pass filtered below the lower of the two Nyquist frequencies and decimated by M, computing only the output samples
+ * that are actually kept. The filter banks are windowed-sinc filters in Q15, designed once per ratio when the class is
+ * loaded.
+ * </p>
+ * <p>
+ * The resampler keeps the tail of the previous frame as filter history, so consecutive frames of a stream are converted
+ * without discontinuities. One instance must therefore serve a single stream. Apart from the output frame taken from the
+ * {@link Memory} pool, processing a frame does not allocate.
+ * </p>
+ */
+public class PolyphaseResampler implements Codec {
+
+    /** Sampling rates between which the resampler can convert */
+    public static final int[] SAMPLE_RATES = { 8000, 16000, 32000, 48000 };
+
+    // Filter taps per phase for each unit of the larger of L and M
+    private static final int TAPS_PER_RATIO = 32;
+
+    // Cut-off of the filter as a fraction of the lower Nyquist frequency
+    private static final double CUTOFF = 0.95;
+
+    // Kaiser window shape, about 70dB of stop band attenuation
+    private static final double KAISER_BETA = 7.0;
+
+    // Filter banks indexed by the position of the input and output rates in SAMPLE_RATES
+    private static final FilterBank[][] BANKS = new FilterBank[SAMPLE_RATES.length][SAMPLE_RATES.length];
+
+    static {
+        for (int i = 0; i < SAMPLE_RATES.length; i++) {
+            for (int j = 0; j < SAMPLE_RATES.length; j++) {
+                if (i != j) {
+                    BANKS[i][j] = new FilterBank(SAMPLE_RATES[i], SAMPLE_RATES[j]);
+                }
+            }
+        }
+    }
+
+    private final Format input;
+    private final Format output;
+    private final FilterBank bank;
+
+    // Filter history followed by the samples of the current frame
+    private short[] samples;
+
+    // Position of the next output sample on the upsampled time line, relative to the first sample of the current frame
+    private int position;
+
+    /**
+     * Creates a resampler for one stream.
+     *
+     * @param inputRate the sampling rate of the incoming linear audio in Hertz
+     * @param outputRate the sampling rate of the produced linear audio in Hertz
+     * @throws IllegalArgumentException if one of the rates is not listed in {@link #SAMPLE_RATES} or both are equal
+     */
+    public PolyphaseResampler(int inputRate, int outputRate) {
+        int in = indexOf(inputRate);
+        int out = indexOf(outputRate);
+        if (in < 0 || out < 0 || in == out) {
+            throw new IllegalArgumentException("Cannot resample from " + inputRate + "Hz to " + outputRate + "Hz");
+        }
+
+        this.input = FormatFactory.createAudioFormat("linear", inputRate, 16, 1);
+        this.output = FormatFactory.createAudioFormat("linear", outputRate, 16, 1);
+        this.bank = BANKS[in][out];
+        // the room for the frame itself is only reserved once the stream starts
+        this.samples = new short[this.bank.taps - 1];
+    }
+
+    private static int indexOf(int rate) {
+        for (int i = 0; i < SAMPLE_RATES.length; i++) {
+            if (SAMPLE_RATES[i] == rate) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Format getSupportedInputFormat() {
+        return this.input;
+    }
+
+    @Override
+    public Format getSupportedOutputFormat() {
+        return this.output;
+    }
+
+    @Override
+    public Frame process(Frame frame) {
+        final FilterBank bank = this.bank;
+        final int history = bank.taps - 1;
+        final int count = frame.getLength() / 2;
+
+        if (this.samples.length < history + count) {
+            short[] grown = new short[history + count];
+            System.arraycopy(this.samples, 0, grown, 0, history);
+            this.samples = grown;
+        }
+        final short[] samples = this.samples;
+
+        // append the frame (16 bit little endian) behind the filter history
+        byte[] data = frame.getData();
+        int offset = frame.getOffset();
+        for (int i = 0; i < count; i++) {
+            samples[history + i] = (short) ((data[offset + 2 * i] & 0xff) | (data[offset + 2 * i + 1] << 8));
+        }
+
+        // number of output samples whose position falls within this frame
+        int end = count * bank.up;
+        int produced = this.position < end ? (end - this.position + bank.down - 1) / bank.down : 0;
+
+        Frame res = Memory.allocate(produced * 2);
+        byte[] resData = res.getData();
+        int t = this.position;
+        for (int n = 0; n < produced; n++, t += bank.down) {
+            // the output at t only depends on the input samples at or before t / L
+            short[] coefficients = bank.phases[t % bank.up];
+            int first = t / bank.up;
+
+            long acc = 0;
+            for (int k = 0; k < coefficients.length; k++) {
+                acc += coefficients[k] * samples[first + k];
+            }
+
+            int sample = (int) ((acc + (1 << 14)) >> 15);
+            if (sample > Short.MAX_VALUE) {
+                sample = Short.MAX_VALUE;
+            } else if (sample < Short.MIN_VALUE) {
+                sample = Short.MIN_VALUE;
+            }
+            resData[2 * n] = (byte) sample;
+            resData[2 * n + 1] = (byte) (sample >> 8);
+        }
+        this.position = t - end;
+
+        // keep the tail of the frame as history for the next one
+        System.arraycopy(samples, count, samples, 0, history);
+
+        res.setOffset(0);
+        res.setLength(produced * 2);
+        res.setTimestamp(frame.getTimestamp());
+        res.setDuration(frame.getDuration());
+        res.setSequenceNumber(frame.getSequenceNumber());
+        res.setEOM(frame.isEOM());
+        res.setFormat(this.output);
+        res.setHeader(frame.getHeader());
+        return res;
+    }
+
+    /**
+     * Polyphase decomposition of the anti-aliasing filter for one L/M ratio.
+     */
+    private static final class FilterBank {
+
+        private final int up;
+        private final int down;
+        private final int taps;
+
+        // Coefficients of each phase in Q15, ordered from the oldest to the newest input sample
+        private final short[][] phases;
+
+        private FilterBank(int inputRate, int outputRate) {
+            int gcd = gcd(inputRate, outputRate);
+            this.up = outputRate / gcd;
+            this.down = inputRate / gcd;
+            this.taps = TAPS_PER_RATIO * Math.max(this.up, this.down) / this.up;
+
+            // Kaiser windowed sinc at the upsampled rate, cut just below the lower Nyquist frequency
+            int length = this.taps * this.up;
+            double cutoff = CUTOFF * 0.5 / Math.max(this.up, this.down);
+            double center = (length - 1) / 2.0;
+            double[] prototype = new double[length];
+            for (int i = 0; i < length; i++) {
+                double x = i - center;
+                double sinc = x == 0 ? 1.0 : Math.sin(2 * Math.PI * cutoff * x) / (2 * Math.PI * cutoff * x);
+                double ratio = x / (center + 1);
+                double window = bessel(KAISER_BETA * Math.sqrt(1 - ratio * ratio)) / bessel(KAISER_BETA);
+                prototype[i] = sinc * window;
+            }
+
+            this.phases = new short[this.up][this.taps];
+            for (int p = 0; p < this.up; p++) {
+                // give every phase unity gain at DC so a constant signal stays constant
+                double sum = 0;
+                for (int k = 0; k < this.taps; k++) {
+                    sum += prototype[p + k * this.up];
+                }
+
+                int total = 0;
+                int peak = 0;
+                for (int k = 0; k < this.taps; k++) {
+                    int coefficient = (int) Math.round(prototype[p + k * this.up] / sum * 32768);
+                    coefficient = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, coefficient));
+                    this.phases[p][this.taps - 1 - k] = (short) coefficient;
+                    total += coefficient;
+                    if (coefficient > this.phases[p][peak]) {
+                        peak = this.taps - 1 - k;
+                    }
+                }
+                // absorb the rounding error in the largest tap
+                this.phases[p][peak] += 32768 - total;
+            }
+        }
+
+        // modified Bessel function of the first kind and order zero
+        private static double bessel(double x) {
+            double sum = 1;
+            double term = 1;
+            for (int k = 1; k < 32; k++) {
+                term *= (x / (2 * k)) * (x / (2 * k));
+                sum += term;
+            }
+            return sum;
+        }
+
+        private static int gcd(int a, int b) {
+            while (b != 0) {
+                int r = a % b;
+                a = b;
+                b = r;
+            }
+            return a;
+        }
+
+    }
+
+}
@@ -39,6 +39,7 @@ public class OOBComponent {
     private final int componentId;
 	private final ConcurrentMap<OOBInput> inputs;
 	private final ConcurrentMap<OOBOutput> outputs;
+	private volatile int affinity;
 	private final AtomicBoolean shouldRead;
 	private final AtomicBoolean shouldWrite;
 
@@ -64,12 +65,46 @@ public class OOBComponent {
 		this.shouldWrite.set(shouldWrite);
 	}
 
+	/**
+	 * Pins the tasks feeding and draining this component to the scheduler shard of every task sharing the key.
+	 * 
+	 * @param affinity the affinity key, applied to the inputs and outputs added later as well
+	 */
+	public void setAffinity(int affinity) {
+		this.affinity = affinity;
+
+		final Iterator<OOBInput> activeInputs = inputs.valuesIterator();
+		while (activeInputs.hasNext()) {
+			activeInputs.next().setAffinity(affinity);
+		}
+
+		final Iterator<OOBOutput> activeOutputs = outputs.valuesIterator();
+		while (activeOutputs.hasNext()) {
+			activeOutputs.next().setAffinity(affinity);
+		}
+	}
+
+	/**
+	 * Gets the affinity key of the tasks feeding and draining this component.
+	 * 
+	 * @return the affinity key, zero if it was never set
+	 */
+	public int getAffinity() {
+		return affinity;
+	}
+
 	public void addInput(OOBInput input) {
 		inputs.put(input.getInputId(), input);
+		if (affinity != 0) {
+			input.setAffinity(affinity);
+		}
 	}
 
 	public void addOutput(OOBOutput output) {
 		outputs.put(output.getOutputId(), output);
+		if (affinity != 0) {
+			output.setAffinity(affinity);
+		}
 	}
 
 	public void remove(OOBInput input) {
@@ -59,9 +59,32 @@ public class OOBMixer {
     }
 
 	public void addComponent(OOBComponent component) {
+		component.setAffinity(mixer.getAffinity());
 		components.put(component.getComponentId(), component);
 	}
 
+	/**
+	 * Pins the mix task and the components of this mixer to the scheduler shard of every task sharing the key.
+	 * 
+	 * @param affinity the affinity key
+	 */
+	public void setAffinity(int affinity) {
+		mixer.setAffinity(affinity);
+		final Iterator<OOBComponent> activeComponents = components.valuesIterator();
+		while (activeComponents.hasNext()) {
+			activeComponents.next().setAffinity(affinity);
+		}
+	}
+
+	/**
+	 * Gets the affinity key shared by the mix task and the components of this mixer.
+	 * 
+	 * @return the affinity key
+	 */
+	public int getAffinity() {
+		return mixer.getAffinity();
+	}
+
 	/**
 	 * Releases unused input stream
 	 * 
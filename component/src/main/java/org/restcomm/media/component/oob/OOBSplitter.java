@@ -58,17 +58,47 @@ public class OOBSplitter {
 		this.outsideComponents = new ConcurrentMap<OOBComponent>();
 		this.insideMixer = new InsideMixTask();
 		this.outsideMixer = new OutsideMixTask();
+		this.outsideMixer.setAffinity(this.insideMixer.getAffinity());
 		this.started = new AtomicBoolean(false);
 	}
 
 	public void addInsideComponent(OOBComponent component) {
+		component.setAffinity(insideMixer.getAffinity());
 		insideComponents.put(component.getComponentId(), component);
 	}
 
 	public void addOutsideComponent(OOBComponent component) {
+		component.setAffinity(insideMixer.getAffinity());
 		outsideComponents.put(component.getComponentId(), component);
 	}
 
+	/**
+	 * Pins the mix tasks and the components of this splitter to the scheduler shard of every task sharing the key.
+	 * 
+	 * @param affinity the affinity key
+	 */
+	public void setAffinity(int affinity) {
+		insideMixer.setAffinity(affinity);
+		outsideMixer.setAffinity(affinity);
+		setAffinity(insideComponents.valuesIterator(), affinity);
+		setAffinity(outsideComponents.valuesIterator(), affinity);
+	}
+
+	private void setAffinity(Iterator<OOBComponent> components, int affinity) {
+		while (components.hasNext()) {
+			components.next().setAffinity(affinity);
+		}
+	}
+
+	/**
+	 * Gets the affinity key shared by the mix tasks and the components of this splitter.
+	 * 
+	 * @return the affinity key
+	 */
+	public int getAffinity() {
+		return insideMixer.getAffinity();
+	}
+
 	/**
 	 * Releases inside component
 	 * 
@@ -146,6 +146,21 @@ public class AbstractSourceTest {
         }
     }
     
+    @Test
+    public void testWakeupWhileProducing() throws InterruptedException {
+        // given
+        StarvingSource starving = new StarvingSource(scheduler);
+        starving.connect(sink);
+
+        // when
+        starving.activate();
+        Thread.sleep(500);
+        starving.deactivate();
+
+        // then
+        assertTrue("Wakeup issued before the worker went idle was lost", count > 0);
+    }
+
     /**
      * Test of setDsp method, of class AbstractSource.
      */
@@ -179,6 +194,30 @@ public class AbstractSourceTest {
         }
     }
     
+    /**
+     * Source whose producer gets new media right after the worker found none, before it went idle.
+     */
+    public class StarvingSource extends MyTestSource {
+
+        private static final long serialVersionUID = 2374069853530557245L;
+
+        private boolean starved = false;
+
+        public StarvingSource(PriorityQueueScheduler scheduler) {
+            super(scheduler);
+        }
+
+        @Override
+        public Frame evolve(long timestamp) {
+            if (!starved) {
+                starved = true;
+                wakeup();
+                return null;
+            }
+            return super.evolve(timestamp);
+        }
+    }
+
     private class MyTestSink extends AbstractSink {
         
 		private static final long serialVersionUID = 1877357275120410315L;
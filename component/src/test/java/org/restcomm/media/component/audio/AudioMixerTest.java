@@ -28,6 +28,7 @@
 package org.restcomm.media.component.audio;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 
@@ -43,6 +44,7 @@ import org.restcomm.media.component.audio.SpectraAnalyzer;
 import org.restcomm.media.scheduler.Clock;
 import org.restcomm.media.scheduler.PriorityQueueScheduler;
 import org.restcomm.media.scheduler.WallClock;
+import org.restcomm.media.scheduler.WorkStealingScheduler;
 
 /**
  *
@@ -203,4 +205,39 @@ public class AudioMixerTest {
                 
         testMixing();    	
     }
+
+    @Test
+    public void testMediaPathSharesShard() {
+        // given
+        WorkStealingScheduler partitioned = new WorkStealingScheduler(clock, 4);
+        Sine sine = new Sine(partitioned);
+        SpectraAnalyzer spectra = new SpectraAnalyzer("analyzer", partitioned);
+
+        AudioComponent inputComponent = new AudioComponent(1);
+        inputComponent.addInput(sine.getAudioInput());
+        AudioComponent outputComponent = new AudioComponent(2);
+        outputComponent.addOutput(spectra.getAudioOutput());
+
+        AudioMixer partitionedMixer = new AudioMixer(partitioned);
+        int otherShard = (partitioned.getShard(partitionedMixer.getAffinity()) + 1) % partitioned.getShardCount();
+        sine.setAffinity(otherShard);
+        assertTrue(partitioned.getShard(partitionedMixer.getAffinity()) != partitioned.getShard(sine.getAffinity()));
+
+        // when
+        partitionedMixer.addComponent(inputComponent);
+        partitionedMixer.addComponent(outputComponent);
+
+        // then
+        int shard = partitioned.getShard(partitionedMixer.getAffinity());
+        assertEquals(shard, partitioned.getShard(sine.getAffinity()));
+        assertEquals(shard, partitioned.getShard(spectra.getAudioOutput().getAffinity()));
+
+        // when
+        partitionedMixer.setAffinity(shard + 1);
+
+        // then
+        assertEquals(shard + 1, sine.getAffinity());
+        assertEquals(shard + 1, spectra.getAudioOutput().getAffinity());
+        assertEquals(partitioned.getShard(partitionedMixer.getAffinity()), partitioned.getShard(sine.getAffinity()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.component.audio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class MixEngineTest {
+
+    @Test
+    public void testMixAllSources() {
+        // given
+        MixEngine engine = new MixEngine(4);
+        int[][] sources = { { 1, 2, 3, 4 }, null, { 10, -20, 30, -40 } };
+        long[] energies = { 10, 0, 100 };
+
+        // when
+        int mixed = engine.mix(sources, energies, 3);
+
+        // then
+        assertEquals(2, mixed);
+        assertTrue(engine.isMixed(0));
+        assertFalse(engine.isMixed(1));
+        assertTrue(engine.isMixed(2));
+        assertEquals(MixEngine.UNITY_GAIN, engine.getCurrentGain());
+        assertArrayEquals(new int[] { 11, -18, 33, -36 }, engine.getTotal());
+    }
+
+    @Test
+    public void testExcludeOwnContribution() {
+        // given
+        MixEngine engine = new MixEngine(2);
+        int[][] sources = { { 100, 200 }, { 5, 6 }, { -50, 50 } };
+        long[] energies = { 300, 11, 100 };
+        engine.mix(sources, energies, 3);
+
+        // when
+        engine.exclude(sources[0]);
+
+        // then
+        assertArrayEquals(new int[] { -45, 56 }, sources[0]);
+    }
+
+    @Test
+    public void testMixLoudestSpeakers() {
+        // given
+        MixEngine engine = new MixEngine(1);
+        engine.setMaxSpeakers(2);
+        int[][] sources = { { 1 }, { 8 }, { 2 }, { 4 }, null };
+        long[] energies = { 1, 8, 2, 4, 0 };
+
+        // when
+        int mixed = engine.mix(sources, energies, 5);
+
+        // then
+        assertEquals(2, mixed);
+        assertFalse(engine.isMixed(0));
+        assertTrue(engine.isMixed(1));
+        assertFalse(engine.isMixed(2));
+        assertTrue(engine.isMixed(3));
+        assertFalse(engine.isMixed(4));
+        assertEquals(12, engine.getTotal()[0]);
+    }
+
+    @Test
+    public void testScaleDownToPreventClipping() {
+        // given
+        MixEngine engine = new MixEngine(2);
+        int[][] sources = { { 30000, -30000 }, { 30000, -30000 } };
+        long[] energies = { 60000, 60000 };
+
+        // when
+        engine.mix(sources, energies, 2);
+
+        // then
+        int[] total = engine.getTotal();
+        assertTrue(engine.getCurrentGain() < MixEngine.UNITY_GAIN);
+        assertTrue(Math.abs(total[0] - Short.MAX_VALUE) <= 1);
+        assertTrue(Math.abs(total[1] + Short.MAX_VALUE) <= 1);
+    }
+
+    @Test
+    public void testApplyGain() {
+        // given
+        MixEngine engine = new MixEngine(1);
+        engine.setGain(0.5);
+        int[][] sources = { { 1000 }, { 3000 } };
+        long[] energies = { 1000, 3000 };
+
+        // when
+        engine.mix(sources, energies, 2);
+
+        // then
+        assertEquals(2000, engine.getTotal()[0]);
+    }
+
+}
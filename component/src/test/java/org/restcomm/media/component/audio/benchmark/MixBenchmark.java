@@ -0,0 +1,161 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.component.audio.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.restcomm.media.component.audio.MixEngine;
+
+/**
+ * Measures the cost of one 20ms mixing cycle for conferences of 2, 10, 100 and 500 participants, comparing the previous
+ * four pass mixing loop with the {@link MixEngine}, mixing everybody or only the three loudest speakers.
+ * <p>
+ * Run the main method with the test classpath of the module.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MixBenchmark {
+
+    private static final int SAMPLES = 160;
+
+    @Param({ "2", "10", "100", "500" })
+    public int participants;
+
+    @Param({ "0", "3" })
+    public int speakers;
+
+    private int[][] signals;
+    private int[][] sources;
+    private long[] energies;
+    private int[] total;
+    private MixEngine engine;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        this.signals = new int[participants][SAMPLES];
+        this.sources = new int[participants][SAMPLES];
+        this.energies = new long[participants];
+        for (int k = 0; k < participants; k++) {
+            for (int i = 0; i < SAMPLES; i++) {
+                int sample = (short) (random.nextGaussian() * 4000);
+                this.signals[k][i] = sample;
+                this.energies[k] += Math.abs(sample);
+            }
+        }
+        this.total = new int[SAMPLES];
+        this.engine = new MixEngine(SAMPLES);
+        this.engine.setMaxSpeakers(speakers);
+    }
+
+    private void reload() {
+        for (int k = 0; k < participants; k++) {
+            System.arraycopy(signals[k], 0, sources[k], 0, SAMPLES);
+        }
+    }
+
+    @Benchmark
+    public int[][] engine() {
+        reload();
+        int mixed = engine.mix(sources, energies, participants);
+        if (mixed > 1) {
+            for (int k = 0; k < participants; k++) {
+                if (engine.isMixed(k)) {
+                    engine.exclude(sources[k]);
+                }
+            }
+        }
+        return sources;
+    }
+
+    @Benchmark
+    public int[][] legacy() {
+        reload();
+
+        for (int k = 0; k < participants; k++) {
+            int[] current = sources[k];
+            if (k == 0) {
+                System.arraycopy(current, 0, total, 0, total.length);
+            } else {
+                for (int i = 0; i < total.length; i++) {
+                    total[i] += current[i];
+                }
+            }
+        }
+
+        int minValue = 0;
+        int maxValue = 0;
+        for (int i = 0; i < total.length; i++) {
+            if (total[i] > maxValue) {
+                maxValue = total[i];
+            } else if (total[i] < minValue) {
+                minValue = total[i];
+            }
+        }
+        if (-minValue > maxValue) {
+            maxValue = -minValue;
+        }
+
+        double currGain = 1.0;
+        if (maxValue > Short.MAX_VALUE) {
+            currGain = (currGain * (double) Short.MAX_VALUE) / (double) maxValue;
+        }
+        for (int i = 0; i < total.length; i++) {
+            total[i] = (short) ((double) total[i] * currGain);
+        }
+
+        for (int k = 0; k < participants; k++) {
+            int[] current = sources[k];
+            for (int i = 0; i < total.length; i++) {
+                current[i] = total[i] - (short) ((double) current[i] * currGain);
+            }
+        }
+        return sources;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(MixBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.component.dsp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.restcomm.media.codec.g711.AlawToUlawTranscoder;
+import org.restcomm.media.spi.dsp.Codec;
+import org.restcomm.media.spi.format.Format;
+import org.restcomm.media.spi.format.FormatFactory;
+import org.restcomm.media.spi.memory.Frame;
+import org.restcomm.media.spi.memory.Memory;
+
+public class DspTest {
+
+    private static final Format PCMA = FormatFactory.createAudioFormat("pcma", 8000, 8, 1);
+    private static final Format PCMU = FormatFactory.createAudioFormat("pcmu", 8000, 8, 1);
+    private static final Format GSM = FormatFactory.createAudioFormat("gsm", 8000);
+
+    private static Codec[] g711() {
+        return new Codec[] { new org.restcomm.media.codec.g711.alaw.Decoder(), new org.restcomm.media.codec.g711.alaw.Encoder(),
+                new org.restcomm.media.codec.g711.ulaw.Decoder(), new org.restcomm.media.codec.g711.ulaw.Encoder() };
+    }
+
+    private static Frame alaw() {
+        Frame frame = Memory.allocate(160);
+        byte[] data = frame.getData();
+        for (int i = 0; i < 160; i++) {
+            data[i] = (byte) (i * 3);
+        }
+        frame.setOffset(0);
+        frame.setLength(160);
+        frame.setFormat(PCMA);
+        return frame;
+    }
+
+    @Test
+    public void testChainsDecoderAndEncoder() {
+        // given
+        Codec[] codecs = g711();
+        Dsp dsp = new Dsp(codecs);
+
+        // when
+        Codec[] chain = dsp.getChain(PCMA, PCMU);
+        Frame res = dsp.process(alaw(), PCMA, PCMU);
+
+        // then
+        assertEquals(2, chain.length);
+        assertSame(codecs[0], chain[0]);
+        assertSame(codecs[3], chain[1]);
+        assertEquals(160, res.getLength());
+        assertTrue(PCMU.matches(res.getFormat()));
+    }
+
+    @Test
+    public void testPrefersDirectTranscoder() {
+        // given
+        Codec[] g711 = g711();
+        Codec[] codecs = new Codec[g711.length + 1];
+        System.arraycopy(g711, 0, codecs, 0, g711.length);
+        codecs[g711.length] = new AlawToUlawTranscoder();
+        Dsp dsp = new Dsp(codecs);
+        Frame expected = new Dsp(g711()).process(alaw(), PCMA, PCMU);
+
+        // when
+        Codec[] chain = dsp.getChain(PCMA, PCMU);
+        Frame res = dsp.process(alaw(), PCMA, PCMU);
+
+        // then
+        assertEquals(1, chain.length);
+        assertSame(codecs[g711.length], chain[0]);
+        assertEquals(expected.getLength(), res.getLength());
+        for (int i = 0; i < expected.getLength(); i++) {
+            assertEquals(expected.getData()[expected.getOffset() + i], res.getData()[res.getOffset() + i]);
+        }
+    }
+
+    @Test
+    public void testCachesChainPerFormatPair() {
+        // given
+        Dsp dsp = new Dsp(g711());
+        Codec[] toUlaw = dsp.getChain(PCMA, PCMU);
+        Codec[] toAlaw = dsp.getChain(PCMU, PCMA);
+
+        // when
+        Codec[] toUlawAgain = dsp.getChain(FormatFactory.createAudioFormat("pcma", 8000, 8, 1), PCMU);
+        Codec[] toAlawAgain = dsp.getChain(PCMU, PCMA);
+
+        // then
+        assertSame(toUlaw, toUlawAgain);
+        assertSame(toAlaw, toAlawAgain);
+    }
+
+    @Test
+    public void testUnreachableFormatLeavesFrameUntouched() {
+        // given
+        Dsp dsp = new Dsp(g711());
+        Frame frame = alaw();
+
+        // when
+        Frame res = dsp.process(frame, PCMA, GSM);
+
+        // then
+        assertEquals(0, dsp.getChain(PCMA, GSM).length);
+        assertSame(frame, res);
+    }
+
+    @Test
+    public void testSameFormatPassesThrough() {
+        // given
+        Dsp dsp = new Dsp(g711());
+        Frame frame = alaw();
+
+        // when
+        Frame res = dsp.process(frame, PCMA, FormatFactory.createAudioFormat("pcma", 8000, 8, 1));
+
+        // then
+        assertSame(frame, res);
+    }
+
+    @Test
+    public void testInsertsResamplerForWidebandLinear() {
+        // given
+        Codec[] codecs = g711();
+        Dsp dsp = new Dsp(codecs);
+        Format wideband = FormatFactory.createAudioFormat("linear", 16000, 16, 1);
+        Frame frame = Memory.allocate(640);
+        frame.setOffset(0);
+        frame.setLength(640);
+        frame.setFormat(wideband);
+
+        // when
+        Codec[] chain = dsp.getChain(wideband, PCMU);
+        Frame res = dsp.process(frame, wideband, PCMU);
+
+        // then
+        assertEquals(2, chain.length);
+        assertTrue(chain[0] instanceof PolyphaseResampler);
+        assertSame(codecs[3], chain[1]);
+        assertEquals(160, res.getLength());
+        assertTrue(PCMU.matches(res.getFormat()));
+        assertEquals(4, dsp.getCodecs().length);
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.component.dsp;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.restcomm.media.spi.memory.Frame;
+import org.restcomm.media.spi.memory.Memory;
+
+public class PolyphaseResamplerTest {
+
+    private static short[] tone(int rate, double frequency, int count) {
+        short[] samples = new short[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = (short) (10000 * Math.sin(2 * Math.PI * frequency * i / rate));
+        }
+        return samples;
+    }
+
+    private static Frame frame(short[] samples, int from, int count) {
+        // pad the frame so the resampler has to honour the offset
+        Frame frame = Memory.allocate(count * 2 + 2);
+        byte[] data = frame.getData();
+        for (int i = 0; i < count; i++) {
+            data[2 + 2 * i] = (byte) samples[from + i];
+            data[2 + 2 * i + 1] = (byte) (samples[from + i] >> 8);
+        }
+        frame.setOffset(2);
+        frame.setLength(count * 2);
+        return frame;
+    }
+
+    private static short[] resample(PolyphaseResampler resampler, short[] samples, int frameSize) {
+        short[] out = new short[0];
+        for (int i = 0; i < samples.length; i += frameSize) {
+            Frame res = resampler.process(frame(samples, i, frameSize));
+            short[] grown = new short[out.length + res.getLength() / 2];
+            System.arraycopy(out, 0, grown, 0, out.length);
+            byte[] data = res.getData();
+            for (int j = 0; j < res.getLength() / 2; j++) {
+                grown[out.length + j] = (short) ((data[res.getOffset() + 2 * j] & 0xff) | (data[res.getOffset() + 2 * j + 1] << 8));
+            }
+            out = grown;
+        }
+        return out;
+    }
+
+    private static double rms(short[] samples, int from) {
+        double sum = 0;
+        for (int i = from; i < samples.length; i++) {
+            sum += (double) samples[i] * samples[i];
+        }
+        return Math.sqrt(sum / (samples.length - from));
+    }
+
+    @Test
+    public void testFrameLengths() {
+        // given
+        PolyphaseResampler up = new PolyphaseResampler(8000, 48000);
+        PolyphaseResampler down = new PolyphaseResampler(48000, 8000);
+        PolyphaseResampler fractional = new PolyphaseResampler(32000, 48000);
+
+        // when
+        Frame upsampled = up.process(frame(new short[160], 0, 160));
+        Frame downsampled = down.process(frame(new short[960], 0, 960));
+        Frame converted = fractional.process(frame(new short[640], 0, 640));
+
+        // then
+        assertEquals(1920, upsampled.getLength());
+        assertEquals(320, downsampled.getLength());
+        assertEquals(1920, converted.getLength());
+        assertEquals(48000, ((org.restcomm.media.spi.format.AudioFormat) upsampled.getFormat()).getSampleRate());
+    }
+
+    @Test
+    public void testKeepsPassBandTone() {
+        // given
+        short[] input = tone(16000, 1000, 3200);
+
+        // when
+        short[] output = resample(new PolyphaseResampler(16000, 8000), input, 320);
+
+        // then
+        assertEquals(1600, output.length);
+        double expected = 10000 / Math.sqrt(2);
+        assertEquals(expected, rms(output, 160), expected * 0.03);
+    }
+
+    @Test
+    public void testRejectsToneAboveNyquist() {
+        // given
+        short[] input = tone(16000, 6000, 3200);
+
+        // when
+        short[] output = resample(new PolyphaseResampler(16000, 8000), input, 320);
+
+        // then
+        assertTrue("aliased tone not attenuated by 40dB", rms(output, 160) < 10000 / Math.sqrt(2) / 100);
+    }
+
+    @Test
+    public void testFrameBoundariesAreSeamless() {
+        // given
+        short[] input = tone(48000, 440, 9600);
+
+        // when
+        short[] framed = resample(new PolyphaseResampler(48000, 8000), input, 960);
+        short[] whole = resample(new PolyphaseResampler(48000, 8000), input, 9600);
+
+        // then
+        assertArrayEquals(whole, framed);
+    }
+
+    @Test
+    public void testConstantSignalStaysConstant() {
+        // given
+        short[] input = new short[1600];
+        java.util.Arrays.fill(input, (short) 1000);
+
+        // when
+        short[] output = resample(new PolyphaseResampler(8000, 48000), input, 160);
+
+        // then
+        for (int i = 960; i < output.length; i++) {
+            assertEquals(1000, output[i], 1);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsUnsupportedRate() {
+        new PolyphaseResampler(8000, 11025);
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.concurrent;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Base of the bounded, array backed queues.
+ * <p>
+ * Producer and consumer indexes are free running counters surrounded by padding fields, so threads offering and polling
+ * elements do not invalidate each other's cache lines. The capacity is rounded up to the next power of two so the slot of an
+ * index is found with a mask.
+ * </p>
+ * 
+ * @param <E> The type of the elements held by the queue
+ */
+public abstract class AbstractArrayQueue<E> extends ArrayQueueConsumerPad<E> {
+
+    protected final int capacity;
+    protected final int mask;
+    protected final AtomicReferenceArray<E> buffer;
+
+    protected AbstractArrayQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        if (capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Queue capacity cannot exceed " + (1 << 30));
+        }
+        this.capacity = roundToPowerOfTwo(capacity);
+        this.mask = this.capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    /**
+     * Inserts an element at the tail of the queue, if there is room for it.
+     * 
+     * @param e The element to insert
+     * @return true if the element was queued, false if the queue is full.
+     * @throws NullPointerException If the element is null
+     */
+    public abstract boolean offer(E e);
+
+    /**
+     * Retrieves and removes the head of the queue.
+     * 
+     * @return The head of the queue or null if the queue is empty.
+     */
+    public abstract E poll();
+
+    /**
+     * Gets the maximum number of elements the queue can hold.
+     * 
+     * @return The capacity, which is a power of two.
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Gets an estimate of the number of queued elements.
+     * 
+     * @return The number of elements
+     */
+    public int size() {
+        long consumer = this.consumerIndex;
+        while (true) {
+            long producer = this.producerIndex;
+            long current = this.consumerIndex;
+            if (current == consumer) {
+                long size = producer - current;
+                if (size < 0) {
+                    return 0;
+                }
+                return size > this.capacity ? this.capacity : (int) size;
+            }
+            consumer = current;
+        }
+    }
+
+    public boolean isEmpty() {
+        return this.producerIndex == this.consumerIndex;
+    }
+
+    /**
+     * Removes all elements from the queue.
+     */
+    public void clear() {
+        while (poll() != null) {
+            // discard element
+        }
+    }
+
+    protected final int offsetOf(long index) {
+        return (int) index & this.mask;
+    }
+
+    private static int roundToPowerOfTwo(int value) {
+        return 1 << (32 - Integer.numberOfLeadingZeros(value - 1));
+    }
+
+}
+
+abstract class ArrayQueueHeadPad {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16;
+}
+
+abstract class ArrayQueueProducerIndex extends ArrayQueueHeadPad {
+
+    static final AtomicLongFieldUpdater<ArrayQueueProducerIndex> PRODUCER_INDEX = AtomicLongFieldUpdater
+            .newUpdater(ArrayQueueProducerIndex.class, "producerIndex");
+
+    protected volatile long producerIndex;
+
+    protected final boolean casProducerIndex(long expected, long update) {
+        return PRODUCER_INDEX.compareAndSet(this, expected, update);
+    }
+
+}
+
+abstract class ArrayQueueProducerPad extends ArrayQueueProducerIndex {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+    long p30, p31, p32, p33, p34, p35, p36, p37;
+}
+
+abstract class ArrayQueueConsumerIndex extends ArrayQueueProducerPad {
+
+    static final AtomicLongFieldUpdater<ArrayQueueConsumerIndex> CONSUMER_INDEX = AtomicLongFieldUpdater
+            .newUpdater(ArrayQueueConsumerIndex.class, "consumerIndex");
+
+    protected volatile long consumerIndex;
+
+    protected final boolean casConsumerIndex(long expected, long update) {
+        return CONSUMER_INDEX.compareAndSet(this, expected, update);
+    }
+
+    protected final void lazySetConsumerIndex(long value) {
+        CONSUMER_INDEX.lazySet(this, value);
+    }
+
+}
+
+abstract class ArrayQueueConsumerPad<E> extends ArrayQueueConsumerIndex {
+    long p40, p41, p42, p43, p44, p45, p46, p47;
+    long p50, p51, p52, p53, p54, p55, p56, p57;
+}
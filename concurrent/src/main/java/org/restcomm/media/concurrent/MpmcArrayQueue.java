@@ -0,0 +1,99 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.concurrent;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free queue supporting multiple producers and multiple consumers.
+ * <p>
+ * Based on the algorithm by Dmitry Vyukov: each slot carries a sequence number that tells producers whether the slot is free
+ * for the current lap and consumers whether it has been filled. Threads claim a slot by advancing the shared index with a
+ * CAS, and no memory is allocated once the queue has been created.
+ * </p>
+ * 
+ * @param <E> The type of the elements held by the queue
+ */
+public class MpmcArrayQueue<E> extends AbstractArrayQueue<E> {
+
+    private final AtomicLongArray sequences;
+
+    public MpmcArrayQueue(int capacity) {
+        super(capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+
+        long index;
+        int offset;
+        while (true) {
+            index = this.producerIndex;
+            offset = offsetOf(index);
+            long delta = this.sequences.get(offset) - index;
+            if (delta == 0) {
+                if (casProducerIndex(index, index + 1)) {
+                    break;
+                }
+            } else if (delta < 0) {
+                // slot still holds an element from the previous lap
+                return false;
+            }
+        }
+
+        this.buffer.lazySet(offset, e);
+        this.sequences.lazySet(offset, index + 1);
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        long index;
+        int offset;
+        while (true) {
+            index = this.consumerIndex;
+            offset = offsetOf(index);
+            long delta = this.sequences.get(offset) - (index + 1);
+            if (delta == 0) {
+                if (casConsumerIndex(index, index + 1)) {
+                    break;
+                }
+            } else if (delta < 0) {
+                // slot has not been filled yet
+                return null;
+            }
+        }
+
+        E e = this.buffer.get(offset);
+        this.buffer.lazySet(offset, null);
+        this.sequences.lazySet(offset, index + this.capacity);
+        return e;
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.concurrent;
+
+/**
+ * Bounded, lock-free queue supporting multiple producers and a single consumer.
+ * <p>
+ * Producers claim a slot by advancing the producer index with a CAS and then publish the element into it. The consumer owns
+ * the consumer index and detects published slots by their non-null content, so polling never needs a CAS. No memory is
+ * allocated once the queue has been created.
+ * </p>
+ * <p>
+ * <b>Only one thread may call {@link #poll()} and {@link #clear()}.</b>
+ * </p>
+ * 
+ * @param <E> The type of the elements held by the queue
+ */
+public class MpscArrayQueue<E> extends AbstractArrayQueue<E> {
+
+    public MpscArrayQueue(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+
+        long index;
+        do {
+            index = this.producerIndex;
+            if (index - this.consumerIndex >= this.capacity) {
+                return false;
+            }
+        } while (!casProducerIndex(index, index + 1));
+
+        this.buffer.lazySet(offsetOf(index), e);
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        long index = this.consumerIndex;
+        int offset = offsetOf(index);
+        E e = this.buffer.get(offset);
+        if (e == null) {
+            if (index == this.producerIndex) {
+                return null;
+            }
+            // slot was claimed by a producer that did not publish the element yet
+            do {
+                e = this.buffer.get(offset);
+            } while (e == null);
+        }
+
+        this.buffer.lazySet(offset, null);
+        lazySetConsumerIndex(index + 1);
+        return e;
+    }
+
+}
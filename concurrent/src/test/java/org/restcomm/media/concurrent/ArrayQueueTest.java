@@ -0,0 +1,172 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class ArrayQueueTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int ITEMS = 100000;
+
+    @Test
+    public void testCapacityIsRoundedToPowerOfTwo() {
+        assertEquals(1, new MpmcArrayQueue<Integer>(1).capacity());
+        assertEquals(16, new MpmcArrayQueue<Integer>(10).capacity());
+        assertEquals(16, new MpscArrayQueue<Integer>(16).capacity());
+        assertEquals(32, new MpscArrayQueue<Integer>(17).capacity());
+    }
+
+    @Test
+    public void testMpmcFifoOrderAndBounds() {
+        testFifoOrderAndBounds(new MpmcArrayQueue<Integer>(8));
+    }
+
+    @Test
+    public void testMpscFifoOrderAndBounds() {
+        testFifoOrderAndBounds(new MpscArrayQueue<Integer>(8));
+    }
+
+    private void testFifoOrderAndBounds(AbstractArrayQueue<Integer> queue) {
+        // wrap around the buffer a few times
+        for (int lap = 0; lap < 3; lap++) {
+            assertTrue(queue.isEmpty());
+            assertNull(queue.poll());
+
+            for (int i = 0; i < 8; i++) {
+                assertTrue(queue.offer(i));
+            }
+            assertFalse(queue.offer(8));
+            assertEquals(8, queue.size());
+
+            for (int i = 0; i < 8; i++) {
+                assertEquals(Integer.valueOf(i), queue.poll());
+            }
+            assertNull(queue.poll());
+            assertEquals(0, queue.size());
+        }
+
+        queue.offer(1);
+        queue.offer(2);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOfferNull() {
+        new MpmcArrayQueue<Integer>(4).offer(null);
+    }
+
+    @Test
+    public void testMpmcConcurrentTransfer() throws InterruptedException {
+        final MpmcArrayQueue<Integer> queue = new MpmcArrayQueue<>(1024);
+        final AtomicIntegerArray received = new AtomicIntegerArray(PRODUCERS * ITEMS);
+        final AtomicLong count = new AtomicLong(0);
+        final CountDownLatch done = new CountDownLatch(PRODUCERS * 2);
+
+        startProducers(queue, done);
+        for (int i = 0; i < PRODUCERS; i++) {
+            new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    while (count.get() < PRODUCERS * ITEMS) {
+                        Integer value = queue.poll();
+                        if (value != null) {
+                            received.incrementAndGet(value);
+                            count.incrementAndGet();
+                        }
+                    }
+                    done.countDown();
+                }
+
+            }).start();
+        }
+        done.await();
+
+        assertReceivedOnce(received);
+    }
+
+    @Test
+    public void testMpscConcurrentTransfer() throws InterruptedException {
+        final MpscArrayQueue<Integer> queue = new MpscArrayQueue<>(1024);
+        final AtomicIntegerArray received = new AtomicIntegerArray(PRODUCERS * ITEMS);
+        final CountDownLatch done = new CountDownLatch(PRODUCERS);
+
+        startProducers(queue, done);
+        int count = 0;
+        int[] lastPerProducer = new int[PRODUCERS];
+        for (int i = 0; i < PRODUCERS; i++) {
+            lastPerProducer[i] = -1;
+        }
+        while (count < PRODUCERS * ITEMS) {
+            Integer value = queue.poll();
+            if (value != null) {
+                // elements of a single producer must come out in order
+                int producer = value / ITEMS;
+                assertTrue(value > lastPerProducer[producer]);
+                lastPerProducer[producer] = value;
+                received.incrementAndGet(value);
+                count++;
+            }
+        }
+        done.await();
+
+        assertNull(queue.poll());
+        assertReceivedOnce(received);
+    }
+
+    private void startProducers(final AbstractArrayQueue<Integer> queue, final CountDownLatch done) {
+        for (int i = 0; i < PRODUCERS; i++) {
+            final int first = i * ITEMS;
+            new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    for (int value = first; value < first + ITEMS; value++) {
+                        while (!queue.offer(value)) {
+                            Thread.yield();
+                        }
+                    }
+                    done.countDown();
+                }
+
+            }).start();
+        }
+    }
+
+    private void assertReceivedOnce(AtomicIntegerArray received) {
+        for (int i = 0; i < received.length(); i++) {
+            assertEquals("Value " + i, 1, received.get(i));
+        }
+    }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.concurrent.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.restcomm.media.concurrent.ConcurrentCyclicFIFO;
+import org.restcomm.media.concurrent.MpmcArrayQueue;
+import org.restcomm.media.concurrent.MpscArrayQueue;
+
+/**
+ * Compares the throughput of the queues used on the media path with 1, 4 and 16 producers feeding a single consumer.
+ * <p>
+ * Run the main method with the test classpath of the module.
+ * </p>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark {
+
+    private static final Integer ELEMENT = 1;
+    private static final int CAPACITY = 8192;
+
+    private ConcurrentCyclicFIFO<Integer> fifo;
+    private MpmcArrayQueue<Integer> mpmc;
+    private MpscArrayQueue<Integer> mpsc;
+
+    @Setup
+    public void setup() {
+        this.fifo = new ConcurrentCyclicFIFO<>();
+        this.mpmc = new MpmcArrayQueue<>(CAPACITY);
+        this.mpsc = new MpscArrayQueue<>(CAPACITY);
+    }
+
+    // ConcurrentCyclicFIFO is unbounded: producers back off on size to keep the comparison fair
+
+    private boolean offerFifo() {
+        if (this.fifo.size() >= CAPACITY) {
+            return false;
+        }
+        return this.fifo.offer(ELEMENT);
+    }
+
+    @Benchmark
+    @Group("fifo1")
+    @GroupThreads(1)
+    public boolean fifo1Offer() {
+        return offerFifo();
+    }
+
+    @Benchmark
+    @Group("fifo1")
+    @GroupThreads(1)
+    public Integer fifo1Poll() {
+        return this.fifo.poll();
+    }
+
+    @Benchmark
+    @Group("fifo4")
+    @GroupThreads(4)
+    public boolean fifo4Offer() {
+        return offerFifo();
+    }
+
+    @Benchmark
+    @Group("fifo4")
+    @GroupThreads(1)
+    public Integer fifo4Poll() {
+        return this.fifo.poll();
+    }
+
+    @Benchmark
+    @Group("fifo16")
+    @GroupThreads(16)
+    public boolean fifo16Offer() {
+        return offerFifo();
+    }
+
+    @Benchmark
+    @Group("fifo16")
+    @GroupThreads(1)
+    public Integer fifo16Poll() {
+        return this.fifo.poll();
+    }
+
+    @Benchmark
+    @Group("mpmc1")
+    @GroupThreads(1)
+    public boolean mpmc1Offer() {
+        return this.mpmc.offer(ELEMENT);
+    }
+
+    @Benchmark
+    @Group("mpmc1")
+    @GroupThreads(1)
+    public Integer mpmc1Poll() {
+        return this.mpmc.poll();
+    }
+
+    @Benchmark
+    @Group("mpmc4")
+    @GroupThreads(4)
+    public boolean mpmc4Offer() {
+        return this.mpmc.offer(ELEMENT);
+    }
+
+    @Benchmark
+    @Group("mpmc4")
+    @GroupThreads(1)
+    public Integer mpmc4Poll() {
+        return this.mpmc.poll();
+    }
+
+    @Benchmark
+    @Group("mpmc16")
+    @GroupThreads(16)
+    public boolean mpmc16Offer() {
+        return this.mpmc.offer(ELEMENT);
+    }
+
+    @Benchmark
+    @Group("mpmc16")
+    @GroupThreads(1)
+    public Integer mpmc16Poll() {
+        return this.mpmc.poll();
+    }
+
+    @Benchmark
+    @Group("mpsc1")
+    @GroupThreads(1)
+    public boolean mpsc1Offer() {
+        return this.mpsc.offer(ELEMENT);
+    }
+
+    @Benchmark
+    @Group("mpsc1")
+    @GroupThreads(1)
+    public Integer mpsc1Poll() {
+        return this.mpsc.poll();
+    }
+
+    @Benchmark
+    @Group("mpsc4")
+    @GroupThreads(4)
+    public boolean mpsc4Offer() {
+        return this.mpsc.offer(ELEMENT);
+    }
+
+    @Benchmark
+    @Group("mpsc4")
+    @GroupThreads(1)
+    public Integer mpsc4Poll() {
+        return this.mpsc.poll();
+    }
+
+    @Benchmark
+    @Group("mpsc16")
+    @GroupThreads(16)
+    public boolean mpsc16Offer() {
+        return this.mpsc.offer(ELEMENT);
+    }
+
+    @Benchmark
+    @Group("mpsc16")
+    @GroupThreads(1)
+    public Integer mpsc16Poll() {
+        return this.mpsc.poll();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(QueueBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
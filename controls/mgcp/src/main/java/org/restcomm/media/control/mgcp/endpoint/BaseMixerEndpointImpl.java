@@ -56,6 +56,7 @@ public class BaseMixerEndpointImpl extends BaseEndpointImpl {
 		super.start();
 		audioMixer = new AudioMixer(getScheduler());
 		oobMixer = new OOBMixer(getScheduler());
+		oobMixer.setAffinity(audioMixer.getAffinity());
 	}
 
 	@Override
@@ -56,6 +56,7 @@ public class BaseSplitterEndpointImpl extends BaseEndpointImpl {
 		super.start();
 		audioSplitter = new AudioSplitter(getScheduler());
 		oobSplitter = new OOBSplitter(getScheduler());
+		oobSplitter.setAffinity(audioSplitter.getAffinity());
 	}
 
 	@Override
@@ -40,19 +40,27 @@ public class MgcpMixerEndpointProvider extends AbstractMgcpEndpointProvider<Mgcp
     private final PriorityQueueScheduler mediaScheduler;
     private final MgcpConnectionProvider connectionProvider;
     private final MediaGroupProvider mediaGroupProvider;
+    private final int maxSpeakers;
 
-    public MgcpMixerEndpointProvider(String namespace, String domain, PriorityQueueScheduler mediaScheduler, MgcpConnectionProvider connectionProvider, MediaGroupProvider mediaGroupProvider) {
+    public MgcpMixerEndpointProvider(String namespace, String domain, PriorityQueueScheduler mediaScheduler, MgcpConnectionProvider connectionProvider, MediaGroupProvider mediaGroupProvider, int maxSpeakers) {
         super(namespace, domain);
         this.mediaScheduler = mediaScheduler;
         this.connectionProvider = connectionProvider;
         this.mediaGroupProvider = mediaGroupProvider;
+        this.maxSpeakers = maxSpeakers;
+    }
+
+    public MgcpMixerEndpointProvider(String namespace, String domain, PriorityQueueScheduler mediaScheduler, MgcpConnectionProvider connectionProvider, MediaGroupProvider mediaGroupProvider) {
+        this(namespace, domain, mediaScheduler, connectionProvider, mediaGroupProvider, 0);
     }
 
     @Override
     public MgcpMixerEndpoint provide() {
         final EndpointIdentifier endpointId = new EndpointIdentifier(generateId(), getDomain());
         final AudioMixer audioMixer = new AudioMixer(this.mediaScheduler);
+        audioMixer.setMaxSpeakers(this.maxSpeakers);
         final OOBMixer oobMixer = new OOBMixer(this.mediaScheduler);
+        oobMixer.setAffinity(audioMixer.getAffinity());
         final MediaGroup mediaGroup = this.mediaGroupProvider.provide();
         return new MgcpMixerEndpoint(endpointId, audioMixer, oobMixer, this.connectionProvider, mediaGroup);
     }
@@ -53,6 +53,7 @@ public class MgcpSplitterEndpointProvider extends AbstractMgcpEndpointProvider<M
         final EndpointIdentifier endpointId = new EndpointIdentifier(generateId(), getDomain());
         final AudioSplitter audioSplitter = new AudioSplitter(this.mediaScheduler);
         final OOBSplitter oobSplitter = new OOBSplitter(this.mediaScheduler);
+        oobSplitter.setAffinity(audioSplitter.getAffinity());
         final MediaGroup mediaGroup = this.mediaGroupProvider.provide();
         return new MgcpSplitterEndpoint(endpointId, audioSplitter, oobSplitter, this.connectionProvider, mediaGroup);
     }
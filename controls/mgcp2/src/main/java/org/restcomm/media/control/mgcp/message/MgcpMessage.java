@@ -21,7 +21,7 @@
 
 package org.restcomm.media.control.mgcp.message;
 
-import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 
 import org.restcomm.media.control.mgcp.util.collections.Parameters;
 
@@ -33,14 +33,19 @@ import org.restcomm.media.control.mgcp.util.collections.Parameters;
  */
 public abstract class MgcpMessage {
 
+    private static final Charset SDP_CHARSET = Charset.forName("UTF-8");
+
     protected int transactionId;
     protected final Parameters<MgcpParameterType> parameters;
-    protected final ByteBuffer data;
+
+    // SDP body kept as a slice of the original message until someone reads it
+    private byte[] sdpData;
+    private int sdpOffset;
+    private int sdpLength;
     
     public MgcpMessage() {
         this.transactionId = -1;
         this.parameters = new Parameters<>();
-        this.data = ByteBuffer.allocate(8192);
     }
     
     public int getTransactionId() {
@@ -52,33 +57,75 @@ public abstract class MgcpMessage {
     }
     
     public boolean isSdpDetected() {
-        return this.parameters.containsKey(MgcpParameterType.SDP);
+        return this.sdpData != null || this.parameters.containsKey(MgcpParameterType.SDP);
     }
     
     public Parameters<MgcpParameterType> getParameters() {
+        loadSdp();
         return parameters.clone();
     }
     
     public String getParameter(MgcpParameterType type) {
+        if (MgcpParameterType.SDP.equals(type)) {
+            loadSdp();
+        }
         return this.parameters.getString(type).orNull();
     }
     
     public boolean hasParameter(MgcpParameterType type) {
+        if (MgcpParameterType.SDP.equals(type)) {
+            return isSdpDetected();
+        }
         return this.parameters.containsKey(type);
     }
     
     public void addParameter(MgcpParameterType type, String value) {
+        if (MgcpParameterType.SDP.equals(type)) {
+            this.sdpData = null;
+        }
         this.parameters.put(type, value);
     }
     
+    /**
+     * Sets the SDP body of the message without decoding it.
+     * <p>
+     * The bytes are only turned into text when the SDP parameter is read, so the array must not be modified for as long
+     * as the message is in use.
+     * </p>
+     * 
+     * @param data The buffer holding the SDP
+     * @param offset Where the SDP starts in the buffer
+     * @param length The length of the SDP
+     */
+    public void setSdp(byte[] data, int offset, int length) {
+        this.parameters.remove(MgcpParameterType.SDP);
+        this.sdpData = data;
+        this.sdpOffset = offset;
+        this.sdpLength = length;
+    }
+    
     public void removeParameter(MgcpParameterType type) {
+        if (MgcpParameterType.SDP.equals(type)) {
+            this.sdpData = null;
+        }
         this.parameters.remove(type);
     }
     
     public void removeParameters() {
+        this.sdpData = null;
         this.parameters.clear();
     }
     
+    /**
+     * Decodes the SDP slice, if any, into the SDP parameter.
+     */
+    protected void loadSdp() {
+        if (this.sdpData != null) {
+            this.parameters.put(MgcpParameterType.SDP, new String(this.sdpData, this.sdpOffset, this.sdpLength, SDP_CHARSET));
+            this.sdpData = null;
+        }
+    }
+    
     public abstract boolean isRequest();
     
     @Override
@@ -21,16 +21,32 @@
 
 package org.restcomm.media.control.mgcp.message;
 
+import java.nio.charset.Charset;
+
 import org.restcomm.media.control.mgcp.exception.MgcpParseException;
 
 /**
  * Parses text into MGCP Message objects.
+ * <p>
+ * The parser works straight on the bytes of the datagram and scans them only once. Lines may be terminated either by LF
+ * or CRLF. Strings are only created for the values that are stored in the message, and the SDP body is kept as a slice of
+ * the original buffer that is only decoded when it is read. Hence the buffer must not be reused while the message is in
+ * use.
+ * </p>
  * 
  * @author Henrique Rosa (henrique.rosa@telestax.com)
  *
  */
 public class MgcpMessageParser {
 
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+    private static final MgcpRequestType[] REQUEST_TYPES = MgcpRequestType.values();
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+    private static final byte SP = ' ';
+    private static final byte COLON = ':';
+
     private final LocalConnectionOptionsParser optionsParser;
     
     public MgcpMessageParser() {
@@ -38,41 +54,45 @@ public class MgcpMessageParser {
     }
 
     public MgcpRequest parseRequest(byte[] data, int offset, int length) throws MgcpParseException {
-        return parseRequest(new String(data, offset, length));
-    }
-
-    public MgcpRequest parseRequest(String message) throws MgcpParseException {
         try {
             MgcpRequest request = new MgcpRequest();
-            parseMgcpRequest(message, request);
+            parseMgcpRequest(data, offset, offset + length, request);
             return request;
         } catch (Exception e) {
             throw new MgcpParseException("Could not parse MGCP request.", e);
         }
     }
 
-    private void parseMgcpRequest(String message, MgcpRequest request) throws Exception {
-        String[] lines = message.split(System.lineSeparator());
+    public MgcpRequest parseRequest(String message) throws MgcpParseException {
+        byte[] data = message.getBytes(CHARSET);
+        return parseRequest(data, 0, data.length);
+    }
 
+    private void parseMgcpRequest(byte[] data, int offset, int end, MgcpRequest request) throws Exception {
         // Analyze request header
-        String header = lines[0];
-        String[] headerParams = header.split(" ");
+        int lineEnd = indexOf(data, offset, end, LF);
+        int headerEnd = trimLine(data, offset, lineEnd);
 
         // Set Request type
-        String command = headerParams[0];
-        MgcpRequestType requestType = MgcpRequestType.valueOf(command.toUpperCase());
-        request.setRequestType(requestType);
+        int tokenStart = skipSpaces(data, offset, headerEnd);
+        int tokenEnd = indexOf(data, tokenStart, headerEnd, SP);
+        request.setRequestType(parseRequestType(data, tokenStart, tokenEnd));
 
         // Set transaction ID
-        String transactionId = headerParams[1];
-        request.setTransactionId(Integer.parseInt(transactionId));
+        tokenStart = skipSpaces(data, tokenEnd, headerEnd);
+        tokenEnd = indexOf(data, tokenStart, headerEnd, SP);
+        request.setTransactionId(parseInt(data, tokenStart, tokenEnd));
 
         // Set endpoint ID
-        String endpointId = headerParams[2];
-        request.setEndpointId(endpointId);
+        tokenStart = skipSpaces(data, tokenEnd, headerEnd);
+        tokenEnd = indexOf(data, tokenStart, headerEnd, SP);
+        if (tokenStart == tokenEnd) {
+            throw new IllegalArgumentException("Missing endpoint ID");
+        }
+        request.setEndpointId(new String(data, tokenStart, tokenEnd - tokenStart, CHARSET));
 
         // Set parameters and SDP
-        parseParametersAndSdp(lines, request);
+        parseParametersAndSdp(data, lineEnd + 1, end, request);
         
         // Parse Local Connection Options (if present)
         String lcOptions = request.getParameter(MgcpParameterType.LOCAL_CONNECTION_OPTIONS);
@@ -82,74 +102,153 @@ public class MgcpMessageParser {
     }
 
     public MgcpResponse parseResponse(byte[] data, int offset, int length) throws MgcpParseException {
-        return parseResponse(new String(data, offset, length));
-    }
-
-    public MgcpResponse parseResponse(String message) throws MgcpParseException {
         MgcpResponse response = new MgcpResponse();
         try {
-            parseResponse(message, response);
+            parseResponse(data, offset, offset + length, response);
         } catch (Exception e) {
             throw new MgcpParseException("Could not parse MGCP response", e);
         }
         return response;
     }
 
-    private void parseResponse(String message, MgcpResponse response) throws Exception {
-        String[] lines = message.split(System.lineSeparator());
+    public MgcpResponse parseResponse(String message) throws MgcpParseException {
+        byte[] data = message.getBytes(CHARSET);
+        return parseResponse(data, 0, data.length);
+    }
 
-        // Analyze request header
-        String header = lines[0];
+    private void parseResponse(byte[] data, int offset, int end, MgcpResponse response) throws Exception {
+        // Analyze response header
+        int lineEnd = indexOf(data, offset, end, LF);
+        int headerEnd = trimLine(data, offset, lineEnd);
 
-        // Set Request type
-        int codeSeparator = header.indexOf(" ");
-        String returnCode = header.substring(0, codeSeparator);
-        response.setCode(Integer.parseInt(returnCode));
+        // Set return code
+        int tokenStart = skipSpaces(data, offset, headerEnd);
+        int tokenEnd = indexOf(data, tokenStart, headerEnd, SP);
+        response.setCode(parseInt(data, tokenStart, tokenEnd));
 
         // Set transaction ID
-        int transactionIdSeparator = header.indexOf(" ", codeSeparator + 1);
-        String transactionId = header.substring(codeSeparator + 1, transactionIdSeparator);
-        response.setTransactionId(Integer.parseInt(transactionId));
+        tokenStart = skipSpaces(data, tokenEnd, headerEnd);
+        tokenEnd = indexOf(data, tokenStart, headerEnd, SP);
+        response.setTransactionId(parseInt(data, tokenStart, tokenEnd));
 
-        // Set endpoint ID
-        String returnMessage = header.substring(transactionIdSeparator + 1);
-        response.setMessage(returnMessage);
+        // Set return message
+        tokenStart = Math.min(tokenEnd + 1, headerEnd);
+        response.setMessage(new String(data, tokenStart, headerEnd - tokenStart, CHARSET));
 
         // Set parameters and SDP
-        parseParametersAndSdp(lines, response);
+        parseParametersAndSdp(data, lineEnd + 1, end, response);
+    }
+
+    private void parseParametersAndSdp(byte[] data, int offset, int end, MgcpMessage message) throws Exception {
+        int lineStart = offset;
+        while (lineStart < end) {
+            int lineEnd = indexOf(data, lineStart, end, LF);
+            int contentEnd = trimLine(data, lineStart, lineEnd);
+
+            if (contentEnd == lineStart) {
+                // Empty line separates the SDP from the parameters
+                int sdpStart = Math.min(lineEnd + 1, end);
+                int sdpEnd = end;
+                while (sdpEnd > sdpStart && (data[sdpEnd - 1] == LF || data[sdpEnd - 1] == CR)) {
+                    sdpEnd--;
+                }
+                if (sdpEnd > sdpStart) {
+                    message.setSdp(data, sdpStart, sdpEnd - sdpStart);
+                }
+                return;
+            }
+
+            // Add parameter
+            int separator = indexOf(data, lineStart, contentEnd, COLON);
+            if (separator == contentEnd) {
+                throw new IllegalArgumentException("Parameter has no value separator");
+            }
+            int codeEnd = trimEnd(data, lineStart, separator);
+            MgcpParameterType type = MgcpParameterType.fromCode(data, lineStart, codeEnd - lineStart);
+
+            int valueStart = skipSpaces(data, separator + 1, contentEnd);
+            int valueEnd = trimEnd(data, valueStart, contentEnd);
+            message.addParameter(type, new String(data, valueStart, valueEnd - valueStart, CHARSET));
+
+            lineStart = lineEnd + 1;
+        }
     }
 
-    private void parseParametersAndSdp(String[] lines, MgcpMessage message) throws Exception {
-        // Get MGCP parameters and SDP
-        StringBuilder sdpBuilder = new StringBuilder();
-        boolean sdp = false;
-        int nLines = lines.length;
-        for (int i = 1; i < nLines; i++) {
-            String line = lines[i];
-
-            if (sdp) {
-                // Build SDP description
-                sdpBuilder.append(line);
-                if (i < nLines - 1) {
-                    sdpBuilder.append(System.lineSeparator());
+    private static MgcpRequestType parseRequestType(byte[] data, int start, int end) {
+        int length = end - start;
+        for (MgcpRequestType type : REQUEST_TYPES) {
+            String name = type.name();
+            if (name.length() == length) {
+                boolean matches = true;
+                for (int i = 0; i < length && matches; i++) {
+                    int b = data[start + i];
+                    if (b >= 'a' && b <= 'z') {
+                        b -= 'a' - 'A';
+                    }
+                    matches = (b == name.charAt(i));
                 }
-            } else {
-                if (line.isEmpty()) {
-                    // Set SDP detected
-                    sdp = true;
-                } else {
-                    // Add parameter
-                    int separatorIndex = line.indexOf(":");
-                    MgcpParameterType type = MgcpParameterType.fromCode(line.substring(0, separatorIndex));
-                    message.addParameter(type, line.substring(separatorIndex + 1).trim());
+                if (matches) {
+                    return type;
                 }
             }
         }
+        throw new IllegalArgumentException("Unknown MGCP request type");
+    }
+
+    private static int parseInt(byte[] data, int start, int end) {
+        if (start == end || end - start > 10) {
+            throw new NumberFormatException("Invalid number length: " + (end - start));
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Invalid digit at position " + i);
+            }
+            value = value * 10 + digit;
+        }
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Number is out of range");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Finds the first occurrence of a byte.
+     * 
+     * @return The index of the byte, or end if it was not found.
+     */
+    private static int indexOf(byte[] data, int start, int end, byte b) {
+        for (int i = start; i < end; i++) {
+            if (data[i] == b) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static int skipSpaces(byte[] data, int start, int end) {
+        while (start < end && data[start] <= SP) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(byte[] data, int start, int end) {
+        while (end > start && data[end - 1] <= SP) {
+            end--;
+        }
+        return end;
+    }
 
-        // Set SDP (if present)
-        if (sdp) {
-            message.addParameter(MgcpParameterType.SDP, sdpBuilder.toString());
+    /**
+     * Strips the CR of a CRLF line terminator.
+     */
+    private static int trimLine(byte[] data, int start, int end) {
+        if (end > start && data[end - 1] == CR) {
+            return end - 1;
         }
+        return end;
     }
 
 }
@@ -49,10 +49,14 @@ public enum MgcpParameterType {
     REMOTE_CONNECTION_DESCRIPTION("RC"),
     LOCAL_CONNECTION_DESCRIPTION("LC");
     
+    private static final MgcpParameterType[] VALUES = values();
+
     private final String code;
+    private final byte[] codeBytes;
     
     private MgcpParameterType(String code) {
         this.code = code;
+        this.codeBytes = code.toUpperCase().getBytes();
     }
     
     public String getCode() {
@@ -70,4 +74,35 @@ public enum MgcpParameterType {
         return null;
     }
     
+    /**
+     * Looks up a parameter type straight from the bytes of a message, without creating a String for the code.
+     * 
+     * @param data The buffer holding the code
+     * @param offset Where the code starts
+     * @param length The length of the code
+     * @return The parameter type, or null if the code is unknown.
+     */
+    public static final MgcpParameterType fromCode(byte[] data, int offset, int length) {
+        for (MgcpParameterType type : VALUES) {
+            byte[] expected = type.codeBytes;
+            if (expected.length == length && equalsIgnoreCase(expected, data, offset)) {
+                return type;
+            }
+        }
+        return null;
+    }
+    
+    private static boolean equalsIgnoreCase(byte[] upperCase, byte[] data, int offset) {
+        for (int i = 0; i < upperCase.length; i++) {
+            int b = data[offset + i];
+            if (b >= 'a' && b <= 'z') {
+                b -= 'a' - 'A';
+            }
+            if (b != upperCase[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
 }
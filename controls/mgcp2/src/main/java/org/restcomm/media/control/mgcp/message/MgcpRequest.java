@@ -79,6 +79,7 @@ public class MgcpRequest extends MgcpMessage {
     public String toString() {
         // Reset builder
         this.builder.setLength(0);
+        loadSdp();
 
         // Build header
         this.builder.append(this.requestType.name()).append(" ").append(this.transactionId).append(" ").append(getEndpointId())
@@ -79,6 +79,7 @@ public class MgcpResponse extends MgcpMessage {
     public String toString() {
         // Reset builder
         this.builder.setLength(0);
+        loadSdp();
 
         // Build message
         this.builder.append(this.code).append(" ").append(getTransactionId()).append(" ").append(this.message);
@@ -33,6 +33,7 @@ import org.restcomm.media.control.mgcp.message.MgcpMessageSubject;
 
 import com.google.common.collect.Sets;
 
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 
@@ -42,6 +43,7 @@ import io.netty.channel.SimpleChannelInboundHandler;
  * @author Henrique Rosa (henrique.rosa@telestax.com)
  *
  */
+@Sharable
 public class MgcpChannelInboundHandler extends SimpleChannelInboundHandler<MgcpMessageEnvelope> implements MgcpMessageSubject {
 
     private static final Logger log = Logger.getLogger(MgcpChannelInboundHandler.class);
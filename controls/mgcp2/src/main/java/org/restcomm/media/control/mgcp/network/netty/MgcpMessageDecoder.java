@@ -32,6 +32,7 @@ import org.restcomm.media.control.mgcp.message.MgcpRequest;
 import org.restcomm.media.control.mgcp.message.MgcpResponse;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.socket.DatagramPacket;
 import io.netty.handler.codec.MessageToMessageDecoder;
@@ -40,6 +41,7 @@ import io.netty.handler.codec.MessageToMessageDecoder;
  * @author Henrique Rosa (henrique.rosa@telestax.com)
  *
  */
+@Sharable
 public class MgcpMessageDecoder extends MessageToMessageDecoder<DatagramPacket> {
 
     private static final Logger log = Logger.getLogger(MgcpMessageDecoder.class);
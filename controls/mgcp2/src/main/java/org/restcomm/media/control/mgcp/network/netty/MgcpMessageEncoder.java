@@ -30,6 +30,7 @@ import org.restcomm.media.control.mgcp.message.MgcpMessage;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.DefaultAddressedEnvelope;
 import io.netty.channel.socket.DatagramPacket;
@@ -41,6 +42,7 @@ import io.netty.handler.codec.MessageToMessageEncoder;
  * @author Henrique Rosa (henrique.rosa@telestax.com)
  *
  */
+@Sharable
 public class MgcpMessageEncoder extends MessageToMessageEncoder<DefaultAddressedEnvelope<MgcpMessage, SocketAddress>> {
 
     private static final Logger log = Logger.getLogger(MgcpMessageEncoder.class);
@@ -32,7 +32,18 @@ import io.netty.bootstrap.Bootstrap;
 public class MgcpNetworkManager extends NettyNetworkManager {
 
     public MgcpNetworkManager(Bootstrap bootstrap, MgcpChannelInitializer initializer) {
-        super(bootstrap);
+        this(bootstrap, initializer, 1);
+    }
+
+    /**
+     * Creates an MGCP network manager whose control port is shared by several channels.
+     * 
+     * @param bootstrap The bootstrap that opens channels. Must enable SO_REUSEPORT if fan out is greater than one.
+     * @param initializer The initializer of the MGCP pipeline, shared by all channels.
+     * @param fanOut The number of channels bound to the control port.
+     */
+    public MgcpNetworkManager(Bootstrap bootstrap, MgcpChannelInitializer initializer, int fanOut) {
+        super(bootstrap, fanOut);
         super.bootstrap.handler(initializer);
     }
     
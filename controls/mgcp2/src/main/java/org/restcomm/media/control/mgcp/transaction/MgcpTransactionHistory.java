@@ -0,0 +1,136 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.control.mgcp.transaction;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.restcomm.media.control.mgcp.message.MgcpResponse;
+import org.restcomm.media.scheduler.Clock;
+
+/**
+ * Keeps the responses sent for recent transactions, so that retransmitted requests can be answered without executing them
+ * again.
+ * <p>
+ * As per RFC 3435, section 3.5, responses are remembered for T-HIST seconds. The history is also bounded in size, in which
+ * case the oldest responses are forgotten first.
+ * </p>
+ */
+public class MgcpTransactionHistory {
+
+    /** Default time a response is remembered, in seconds */
+    public static final int T_HIST = 30;
+
+    /** Default maximum number of remembered responses */
+    public static final int CAPACITY = 1000;
+
+    private final Clock clock;
+    private final int capacity;
+    private final long duration;
+
+    // Responses ordered from oldest to newest
+    private final LinkedHashMap<Integer, Entry> responses;
+
+    public MgcpTransactionHistory(Clock clock, int capacity, int duration) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("History capacity must be positive");
+        }
+        this.clock = clock;
+        this.capacity = capacity;
+        this.duration = TimeUnit.SECONDS.toNanos(duration);
+        this.responses = new LinkedHashMap<Integer, Entry>(Math.min(capacity, 512)) {
+
+            private static final long serialVersionUID = 4466457932306463317L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                return size() > MgcpTransactionHistory.this.capacity;
+            }
+
+        };
+    }
+
+    public MgcpTransactionHistory(Clock clock) {
+        this(clock, CAPACITY, T_HIST);
+    }
+
+    /**
+     * Remembers the response sent for a transaction.
+     * 
+     * @param response The response that was sent
+     */
+    public synchronized void put(MgcpResponse response) {
+        long now = this.clock.getTime();
+        expire(now);
+
+        // Re-insert so the entry moves to the tail of the history
+        Integer transactionId = response.getTransactionId();
+        this.responses.remove(transactionId);
+        this.responses.put(transactionId, new Entry(response, now));
+    }
+
+    /**
+     * Gets the response that was sent for a transaction.
+     * 
+     * @param transactionId The transaction ID
+     * @return The response, or null if the transaction is unknown or its response has expired.
+     */
+    public synchronized MgcpResponse get(int transactionId) {
+        expire(this.clock.getTime());
+        Entry entry = this.responses.get(transactionId);
+        return entry == null ? null : entry.response;
+    }
+
+    public synchronized int size() {
+        expire(this.clock.getTime());
+        return this.responses.size();
+    }
+
+    public synchronized void clear() {
+        this.responses.clear();
+    }
+
+    private void expire(long now) {
+        Iterator<Entry> iterator = this.responses.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().timestamp < this.duration) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+
+        private final MgcpResponse response;
+        private final long timestamp;
+
+        private Entry(MgcpResponse response, long timestamp) {
+            this.response = response;
+            this.timestamp = timestamp;
+        }
+
+    }
+
+}
@@ -25,6 +25,7 @@ import java.net.InetSocketAddress;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 import org.restcomm.media.control.mgcp.command.MgcpCommand;
@@ -39,6 +40,8 @@ import org.restcomm.media.control.mgcp.message.MgcpRequest;
 import org.restcomm.media.control.mgcp.message.MgcpResponse;
 import org.restcomm.media.control.mgcp.message.MgcpResponseCode;
 import org.restcomm.media.control.mgcp.util.collections.Parameters;
+import org.restcomm.media.scheduler.Clock;
+import org.restcomm.media.scheduler.WallClock;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.Sets;
@@ -66,17 +69,31 @@ public class SubMgcpTransactionManager implements MgcpTransactionManager {
     // MGCP Transaction Manager (per call agent)
     private final ConcurrentHashMap<Integer, MgcpTransaction> transactions;
     /*
-     * TODO MGCP entities MUST keep in memory a list of the responses that they sent to recent transactions, i.e., a list of all
+     * MGCP entities MUST keep in memory a list of the responses that they sent to recent transactions, i.e., a list of all
      * the responses they sent over the last T-HIST seconds.
      * 
      * The transaction identifiers of incoming commands are compared to the transaction identifiers of the recent responses. If
      * a match is found, the MGCP entity does not execute the transaction, but simply repeats the response.
      */
+    private final MgcpTransactionHistory history;
 
     // Observers
     private final Set<MgcpMessageObserver> observers;
 
+    // Statistics
+    private final AtomicLong replayedResponses;
+    private final AtomicLong duplicatesInProgress;
+
     public SubMgcpTransactionManager(MgcpTransactionNumberspace numberspace, ListeningExecutorService executor) {
+        this(numberspace, executor, new MgcpTransactionHistory(new WallClock()));
+    }
+
+    public SubMgcpTransactionManager(MgcpTransactionNumberspace numberspace, ListeningExecutorService executor, Clock clock,
+            int historyCapacity, int historyDuration) {
+        this(numberspace, executor, new MgcpTransactionHistory(clock, historyCapacity, historyDuration));
+    }
+
+    SubMgcpTransactionManager(MgcpTransactionNumberspace numberspace, ListeningExecutorService executor, MgcpTransactionHistory history) {
         // Concurrency Components
         this.executor = executor;
 
@@ -85,9 +102,14 @@ public class SubMgcpTransactionManager implements MgcpTransactionManager {
 
         // MGCP Transaction Manager
         this.transactions = new ConcurrentHashMap<>(500);
+        this.history = history;
 
         // Observers
         this.observers = Sets.newConcurrentHashSet();
+
+        // Statistics
+        this.replayedResponses = new AtomicLong(0);
+        this.duplicatesInProgress = new AtomicLong(0);
     }
 
     private MgcpTransaction createTransaction(MgcpRequest request) throws DuplicateMgcpTransactionException {
@@ -114,6 +136,7 @@ public class SubMgcpTransactionManager implements MgcpTransactionManager {
 
         // Ensure transaction is not duplicate
         if (old != null) {
+            this.duplicatesInProgress.incrementAndGet();
             throw new DuplicateMgcpTransactionException("Transaction " + transactionId + " already exists.");
         }
 
@@ -124,10 +147,50 @@ public class SubMgcpTransactionManager implements MgcpTransactionManager {
         return this.transactions.containsKey(transactionId);
     }
 
+    /**
+     * Gets how many retransmitted requests were answered with the response of the original transaction, without executing
+     * them again.
+     * 
+     * @return The number of replayed responses
+     */
+    public long getReplayedResponseCount() {
+        return this.replayedResponses.get();
+    }
+
+    /**
+     * Gets how many retransmitted requests were received while the original transaction was still being executed.
+     * 
+     * @return The number of duplicate requests that were rejected with a provisional response
+     */
+    public long getDuplicatesInProgressCount() {
+        return this.duplicatesInProgress.get();
+    }
+
+    /**
+     * Gets how many retransmitted requests were absorbed without executing their command again.
+     * 
+     * @return The number of duplicate requests
+     */
+    public long getDuplicateCount() {
+        return this.replayedResponses.get() + this.duplicatesInProgress.get();
+    }
+
     @Override
     public void process(InetSocketAddress from, InetSocketAddress to, MgcpRequest request, MgcpCommand command, MessageDirection direction) throws DuplicateMgcpTransactionException {
-        // TODO check message direction
-        createTransaction(request);
+        final boolean incoming = MessageDirection.INCOMING.equals(direction);
+
+        // Retransmission of a request that was already answered
+        if (incoming && replay(from, to, request)) {
+            return;
+        }
+
+        MgcpTransaction transaction = createTransaction(request);
+
+        // The original transaction may have been answered between the history lookup and the registration
+        if (incoming && replay(from, to, request)) {
+            this.transactions.remove(transaction.getId(), transaction);
+            return;
+        }
         
         if (log.isDebugEnabled()) {
             String callAgent = MessageDirection.INCOMING.equals(direction) ? from.toString() : to.toString();
@@ -140,18 +203,62 @@ public class SubMgcpTransactionManager implements MgcpTransactionManager {
         }
     }
 
+    private boolean replay(InetSocketAddress from, InetSocketAddress to, MgcpRequest request) {
+        MgcpResponse response = this.history.get(request.getTransactionId());
+        if (response == null) {
+            return false;
+        }
+
+        this.replayedResponses.incrementAndGet();
+        if (log.isDebugEnabled()) {
+            log.debug("Received retransmission of transaction " + request.getTransactionId() + " from " + from.toString()
+                    + ". Replaying response with code " + response.getCode());
+        }
+        notify(this, to, from, response, MessageDirection.OUTGOING);
+        return true;
+    }
+
     @Override
     public void process(InetSocketAddress from, InetSocketAddress to, MgcpResponse response, MessageDirection direction) throws MgcpTransactionNotFoundException {
-     // TODO check message direction
-        MgcpTransaction transaction = this.transactions.remove(response.getTransactionId());
+        final int transactionId = response.getTransactionId();
+        final boolean outgoing = MessageDirection.OUTGOING.equals(direction);
+
+        // Provisional responses do not close the transaction
+        if (outgoing && isProvisional(response)) {
+            if (this.transactions.containsKey(transactionId)) {
+                return;
+            }
+            throw new MgcpTransactionNotFoundException("Could not find transaction " + transactionId);
+        }
+
+        MgcpTransaction transaction = this.transactions.get(transactionId);
         if (transaction == null) {
-            throw new MgcpTransactionNotFoundException("Could not find transaction " + response.getTransactionId());
-        } else {
-            if (log.isDebugEnabled()) {
-                String callAgent = MessageDirection.INCOMING.equals(direction) ? from.toString() : to.toString();
-                log.debug("Closed transaction " + response.getTransactionId() + " for call agent " + callAgent + " with code " + response.getCode());
+            if (outgoing && this.history.get(transactionId) == response) {
+                // Response is being replayed to a retransmitted request
+                return;
             }
+            throw new MgcpTransactionNotFoundException("Could not find transaction " + response.getTransactionId());
+        }
+
+        // Remember responses sent to the call agent so retransmissions can be answered.
+        // Must happen before the transaction is closed, otherwise a retransmission arriving in between finds neither.
+        if (outgoing) {
+            this.history.put(response);
+        }
+
+        if (!this.transactions.remove(transactionId, transaction)) {
+            throw new MgcpTransactionNotFoundException("Could not find transaction " + response.getTransactionId());
         }
+
+        if (log.isDebugEnabled()) {
+            String callAgent = MessageDirection.INCOMING.equals(direction) ? from.toString() : to.toString();
+            log.debug("Closed transaction " + response.getTransactionId() + " for call agent " + callAgent + " with code " + response.getCode());
+        }
+    }
+
+    private static boolean isProvisional(MgcpResponse response) {
+        int code = response.getCode();
+        return code >= 100 && code < 200;
     }
 
     @Override
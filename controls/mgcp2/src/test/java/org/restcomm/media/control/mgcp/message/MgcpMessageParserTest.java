@@ -254,4 +254,101 @@ public class MgcpMessageParserTest {
         assertEquals(builderSdp.toString(), response.getParameter(MgcpParameterType.SDP));
     }
 
+    @Test
+    public void testParseCrcxRequestWithCrlf() throws MgcpParseException {
+        // given
+        String sdp = "v=0\r\no=hrosa 3616 1899 IN IP4 127.0.0.1\r\ns=Talk\r\nc=IN IP4 127.0.0.1\r\nt=0 0\r\nm=audio 7070 RTP/AVP 8 0 101";
+        String message = "CRCX 147483655 mobicents/bridge/1@127.0.0.1:2427 MGCP 1.0\r\nC:1\r\nM: sendrecv\r\nL:webrtc:false\r\n\r\n" + sdp + "\r\n";
+        byte[] data = ("garbage" + message).getBytes();
+        MgcpMessageParser parser = new MgcpMessageParser();
+
+        // when
+        MgcpRequest request = parser.parseRequest(data, 7, data.length - 7);
+
+        // then
+        assertEquals(MgcpRequestType.CRCX, request.getRequestType());
+        assertEquals(147483655, request.getTransactionId());
+        assertEquals("mobicents/bridge/1@127.0.0.1:2427", request.getEndpointId());
+        assertEquals("1", request.getParameter(MgcpParameterType.CALL_ID));
+        assertEquals("sendrecv", request.getParameter(MgcpParameterType.MODE));
+        assertEquals("webrtc:false", request.getParameter(MgcpParameterType.LOCAL_CONNECTION_OPTIONS));
+        assertTrue(request.isSdpDetected());
+        assertEquals(sdp, request.getParameter(MgcpParameterType.SDP));
+    }
+
+    @Test
+    public void testParseResponseWithCrlf() throws MgcpParseException {
+        // given
+        String message = "200 147483653 Successful Transaction\r\nI:1f\r\nz:mobicents/bridge/1@127.0.0.1:2427\r\n";
+        MgcpMessageParser parser = new MgcpMessageParser();
+
+        // when
+        MgcpResponse response = parser.parseResponse(message);
+
+        // then
+        assertEquals(200, response.getCode());
+        assertEquals(147483653, response.getTransactionId());
+        assertEquals("Successful Transaction", response.getMessage());
+        assertEquals("1f", response.getParameter(MgcpParameterType.CONNECTION_ID));
+        assertEquals("mobicents/bridge/1@127.0.0.1:2427", response.getParameter(MgcpParameterType.ENDPOINT_ID));
+        assertFalse(response.isSdpDetected());
+    }
+
+    @Test
+    public void testParseRequestWithLf() throws MgcpParseException {
+        // given
+        String message = "rqnt 12 mobicents/ivr/1@127.0.0.1:2427 MGCP 1.0\nX:1\nR:AU/oc(N),AU/of(N)\n\n";
+        MgcpMessageParser parser = new MgcpMessageParser();
+
+        // when
+        MgcpRequest request = parser.parseRequest(message);
+
+        // then
+        assertEquals(MgcpRequestType.RQNT, request.getRequestType());
+        assertEquals(12, request.getTransactionId());
+        assertEquals("1", request.getParameter(MgcpParameterType.REQUEST_ID));
+        assertEquals("AU/oc(N),AU/of(N)", request.getParameter(MgcpParameterType.REQUESTED_EVENTS));
+        assertFalse(request.isSdpDetected());
+    }
+
+    @Test
+    public void testSdpIsDecodedOnDemand() throws MgcpParseException {
+        // given
+        byte[] data = "MDCX 5 mobicents/ivr/1@127.0.0.1:2427 MGCP 1.0\nI:10\n\nv=0\n".getBytes();
+        MgcpMessageParser parser = new MgcpMessageParser();
+
+        // when
+        MgcpRequest request = parser.parseRequest(data, 0, data.length);
+        boolean detected = request.isSdpDetected();
+        boolean hasSdp = request.hasParameter(MgcpParameterType.SDP);
+        String sdp = request.getParameter(MgcpParameterType.SDP);
+        request.removeParameter(MgcpParameterType.SDP);
+
+        // then
+        assertTrue(detected);
+        assertTrue(hasSdp);
+        assertEquals("v=0", sdp);
+        assertFalse(request.isSdpDetected());
+    }
+
+    @Test(expected = MgcpParseException.class)
+    public void testParseUnknownRequestType() throws MgcpParseException {
+        // given
+        String message = "XXXX 12 mobicents/ivr/1@127.0.0.1:2427 MGCP 1.0\nX:1\n";
+        MgcpMessageParser parser = new MgcpMessageParser();
+
+        // when
+        parser.parseRequest(message);
+    }
+
+    @Test(expected = MgcpParseException.class)
+    public void testParseInvalidTransactionId() throws MgcpParseException {
+        // given
+        String message = "200 12a OK\n";
+        MgcpMessageParser parser = new MgcpMessageParser();
+
+        // when
+        parser.parseResponse(message);
+    }
+
 }
@@ -0,0 +1,199 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.control.mgcp.message.benchmark;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.restcomm.media.control.mgcp.exception.MgcpParseException;
+import org.restcomm.media.control.mgcp.message.MgcpMessage;
+import org.restcomm.media.control.mgcp.message.MgcpMessageParser;
+import org.restcomm.media.control.mgcp.message.MgcpParameterType;
+import org.restcomm.media.control.mgcp.message.MgcpRequest;
+import org.restcomm.media.control.mgcp.message.MgcpRequestType;
+
+/**
+ * Measures the cost of parsing a corpus of CRCX, RQNT and NTFY requests captured from a Restcomm call flow, comparing the
+ * byte level {@link MgcpMessageParser} with the previous String based parser.
+ * <p>
+ * The <code>consumeSdp</code> parameter tells whether the SDP of the CRCX is read after parsing, which forces the lazy
+ * SDP to be decoded. Run the main method with the test classpath of the module.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MgcpMessageParserBenchmark {
+
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+
+    private static final String[] CORPUS = {
+            "CRCX 147483655 mobicents/bridge/$@127.0.0.1:2427 MGCP 1.0\n"
+            + "C:a3c94fe5c9bb4e7d8db2a0b3e4d5f6a7\n"
+            + "M:sendrecv\n"
+            + "N:restcomm@127.0.0.1:2727\n"
+            + "L:webrtc:false\n"
+            + "\n"
+            + "v=0\n"
+            + "o=user1 53655765 2353687637 IN IP4 192.168.1.10\n"
+            + "s=-\n"
+            + "c=IN IP4 192.168.1.10\n"
+            + "t=0 0\n"
+            + "m=audio 6000 RTP/AVP 0 8 101\n"
+            + "a=rtpmap:0 PCMU/8000\n"
+            + "a=rtpmap:8 PCMA/8000\n"
+            + "a=rtpmap:101 telephone-event/8000\n"
+            + "a=fmtp:101 0-15\n"
+            + "a=ptime:20\n"
+            + "a=sendrecv\n",
+            "CRCX 147483656 mobicents/ivr/$@127.0.0.1:2427 MGCP 1.0\n"
+            + "C:a3c94fe5c9bb4e7d8db2a0b3e4d5f6a7\n"
+            + "M:sendrecv\n"
+            + "N:restcomm@127.0.0.1:2727\n"
+            + "Z2:mobicents/bridge/1@127.0.0.1:2427\n",
+            "RQNT 147483657 mobicents/ivr/1@127.0.0.1:2427 MGCP 1.0\n"
+            + "N:restcomm@127.0.0.1:2727\n"
+            + "X:1\n"
+            + "S:AU/pa(an=http://localhost:8080/restcomm/cache/ACae6e420f425248d6a26948c17a9e2acf/35ea210b73dcaa203f471c0e30304811a8b89b94a598aa9c44f1c3a5d8a7ce88.wav it=1)\n"
+            + "R:AU/oc(N),AU/of(N)\n",
+            "RQNT 147483658 mobicents/ivr/1@127.0.0.1:2427 MGCP 1.0\n"
+            + "N:restcomm@127.0.0.1:2727\n"
+            + "X:2\n"
+            + "S:AU/pc(ip=http://localhost:8080/restcomm/audio/prompt.wav mx=1 mn=1 dp=xxxxxxxx eik=# iv=5000 fdt=5000 na=1)\n"
+            + "R:AU/oc(N),AU/of(N)\n",
+            "NTFY 2 restcomm@127.0.0.1:2727 MGCP 1.0\n"
+            + "N:restcomm@127.0.0.1:2727\n"
+            + "O:AU/oc(rc=100 dc=1234#)\n"
+            + "X:2\n",
+            "DLCX 147483659 mobicents/ivr/1@127.0.0.1:2427 MGCP 1.0\n"
+            + "C:a3c94fe5c9bb4e7d8db2a0b3e4d5f6a7\n"
+            + "I:1f\n" };
+
+    @Param({ "LF", "CRLF" })
+    public String terminator;
+
+    @Param({ "false", "true" })
+    public boolean consumeSdp;
+
+    private byte[][] messages;
+    private MgcpMessageParser parser;
+
+    @Setup
+    public void setup() {
+        this.messages = new byte[CORPUS.length][];
+        for (int i = 0; i < CORPUS.length; i++) {
+            String message = "CRLF".equals(terminator) ? CORPUS[i].replace("\n", "\r\n") : CORPUS[i];
+            this.messages[i] = message.getBytes(CHARSET);
+        }
+        this.parser = new MgcpMessageParser();
+    }
+
+    private void consume(MgcpMessage message, Blackhole blackhole) {
+        blackhole.consume(message);
+        if (consumeSdp) {
+            blackhole.consume(message.getParameter(MgcpParameterType.SDP));
+        }
+    }
+
+    @Benchmark
+    public void bytes(Blackhole blackhole) throws MgcpParseException {
+        for (int i = 0; i < messages.length; i++) {
+            byte[] message = messages[i];
+            consume(parser.parseRequest(message, 0, message.length), blackhole);
+        }
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) throws MgcpParseException {
+        for (int i = 0; i < messages.length; i++) {
+            byte[] message = messages[i];
+            consume(legacyParseRequest(message, 0, message.length), blackhole);
+        }
+    }
+
+    /*
+     * Previous implementation of MgcpMessageParser.parseRequest
+     */
+
+    private static MgcpRequest legacyParseRequest(byte[] data, int offset, int length) throws MgcpParseException {
+        try {
+            String message = new String(data, offset, length);
+            String[] lines = message.split(System.lineSeparator());
+
+            String[] headerParams = lines[0].split(" ");
+            MgcpRequest request = new MgcpRequest();
+            request.setRequestType(MgcpRequestType.valueOf(headerParams[0].toUpperCase()));
+            request.setTransactionId(Integer.parseInt(headerParams[1]));
+            request.setEndpointId(headerParams[2]);
+
+            StringBuilder sdpBuilder = new StringBuilder();
+            boolean sdp = false;
+            int nLines = lines.length;
+            for (int i = 1; i < nLines; i++) {
+                String line = lines[i];
+                if (sdp) {
+                    sdpBuilder.append(line);
+                    if (i < nLines - 1) {
+                        sdpBuilder.append(System.lineSeparator());
+                    }
+                } else if (line.isEmpty()) {
+                    sdp = true;
+                } else {
+                    int separatorIndex = line.indexOf(":");
+                    MgcpParameterType type = MgcpParameterType.fromCode(line.substring(0, separatorIndex));
+                    request.addParameter(type, line.substring(separatorIndex + 1).trim());
+                }
+            }
+            if (sdp) {
+                request.addParameter(MgcpParameterType.SDP, sdpBuilder.toString());
+            }
+            return request;
+        } catch (Exception e) {
+            throw new MgcpParseException("Could not parse MGCP request.", e);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(MgcpMessageParserBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.control.mgcp.transaction;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.restcomm.media.control.mgcp.message.MgcpResponse;
+import org.restcomm.media.scheduler.Clock;
+
+public class MgcpTransactionHistoryTest {
+
+    private static MgcpResponse response(int transactionId) {
+        MgcpResponse response = new MgcpResponse();
+        response.setTransactionId(transactionId);
+        response.setCode(200);
+        response.setMessage("Transaction was executed normally");
+        return response;
+    }
+
+    @Test
+    public void testResponsesExpire() {
+        // given
+        final Clock clock = mock(Clock.class);
+        final MgcpTransactionHistory history = new MgcpTransactionHistory(clock, 10, 30);
+        final MgcpResponse first = response(1);
+        final MgcpResponse second = response(2);
+
+        // when
+        when(clock.getTime()).thenReturn(0L);
+        history.put(first);
+        when(clock.getTime()).thenReturn(TimeUnit.SECONDS.toNanos(10));
+        history.put(second);
+
+        // then
+        assertSame(first, history.get(1));
+        assertSame(second, history.get(2));
+
+        // when
+        when(clock.getTime()).thenReturn(TimeUnit.SECONDS.toNanos(30));
+
+        // then
+        assertNull(history.get(1));
+        assertSame(second, history.get(2));
+        assertEquals(1, history.size());
+
+        // when
+        when(clock.getTime()).thenReturn(TimeUnit.SECONDS.toNanos(40));
+
+        // then
+        assertNull(history.get(2));
+        assertEquals(0, history.size());
+    }
+
+    @Test
+    public void testOldestResponsesAreEvictedWhenFull() {
+        // given
+        final Clock clock = mock(Clock.class);
+        final MgcpTransactionHistory history = new MgcpTransactionHistory(clock, 2, 30);
+
+        // when
+        when(clock.getTime()).thenReturn(0L);
+        history.put(response(1));
+        history.put(response(2));
+        history.put(response(3));
+
+        // then
+        assertEquals(2, history.size());
+        assertNull(history.get(1));
+        assertNotNull(history.get(2));
+        assertNotNull(history.get(3));
+    }
+
+}
@@ -27,6 +27,8 @@ import static org.mockito.Mockito.*;
 import java.net.InetSocketAddress;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 import org.mockito.internal.util.reflection.Whitebox;
@@ -39,9 +41,11 @@ import org.restcomm.media.control.mgcp.message.MgcpMessageObserver;
 import org.restcomm.media.control.mgcp.message.MgcpRequest;
 import org.restcomm.media.control.mgcp.message.MgcpRequestType;
 import org.restcomm.media.control.mgcp.message.MgcpResponse;
+import org.restcomm.media.control.mgcp.message.MgcpResponseCode;
 import org.restcomm.media.control.mgcp.transaction.MgcpTransaction;
 import org.restcomm.media.control.mgcp.transaction.MgcpTransactionNumberspace;
 import org.restcomm.media.control.mgcp.transaction.SubMgcpTransactionManager;
+import org.restcomm.media.scheduler.WallClock;
 
 import com.google.common.util.concurrent.AbstractFuture;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -291,4 +295,136 @@ public class SubMgcpTransactionManagerTest {
         assertTrue(transactions.isEmpty());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReplayResponseToRetransmittedRequest() throws DuplicateMgcpTransactionException, MgcpTransactionNotFoundException {
+        // given
+        final int transactionId = 12345;
+        final InetSocketAddress remote = new InetSocketAddress("127.0.0.1", 2727);
+        final InetSocketAddress local = new InetSocketAddress("127.0.0.1", 2427);
+        final MgcpRequest request = mock(MgcpRequest.class);
+        final MgcpResponse response = new MgcpResponse();
+        final MgcpCommand command = mock(MgcpCommand.class);
+        final MgcpMessageObserver observer = mock(MgcpMessageObserver.class);
+        final MgcpTransactionNumberspace numberspace = mock(MgcpTransactionNumberspace.class);
+        final ListeningExecutorService executor = mock(ListeningExecutorService.class);
+        final SubMgcpTransactionManager transactionManager = new SubMgcpTransactionManager(numberspace, executor);
+
+        // when
+        when(executor.submit(command)).thenReturn(mock(ListenableFuture.class));
+        when(request.getTransactionId()).thenReturn(transactionId);
+        response.setTransactionId(transactionId);
+        response.setCode(MgcpResponseCode.TRANSACTION_WAS_EXECUTED.code());
+
+        transactionManager.observe(observer);
+        transactionManager.process(remote, local, request, command, MessageDirection.INCOMING);
+        transactionManager.process(local, remote, response, MessageDirection.OUTGOING);
+        transactionManager.process(remote, local, request, command, MessageDirection.INCOMING);
+
+        // then
+        verify(executor, times(1)).submit(command);
+        verify(observer, times(1)).onMessage(local, remote, response, MessageDirection.OUTGOING);
+        assertFalse(transactionManager.contains(transactionId));
+        assertEquals(1, transactionManager.getReplayedResponseCount());
+        assertEquals(1, transactionManager.getDuplicateCount());
+
+        // when - replayed response goes back through the transaction manager
+        transactionManager.process(local, remote, response, MessageDirection.OUTGOING);
+
+        // then
+        assertFalse(transactionManager.contains(transactionId));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testProvisionalResponseKeepsTransactionOpen() throws DuplicateMgcpTransactionException, MgcpTransactionNotFoundException {
+        // given
+        final int transactionId = 12345;
+        final InetSocketAddress remote = new InetSocketAddress("127.0.0.1", 2727);
+        final InetSocketAddress local = new InetSocketAddress("127.0.0.1", 2427);
+        final MgcpRequest request = mock(MgcpRequest.class);
+        final MgcpResponse provisional = new MgcpResponse();
+        final MgcpCommand command = mock(MgcpCommand.class);
+        final MgcpTransactionNumberspace numberspace = mock(MgcpTransactionNumberspace.class);
+        final ListeningExecutorService executor = mock(ListeningExecutorService.class);
+        final SubMgcpTransactionManager transactionManager = new SubMgcpTransactionManager(numberspace, executor);
+
+        // when
+        when(executor.submit(command)).thenReturn(mock(ListenableFuture.class));
+        when(request.getTransactionId()).thenReturn(transactionId);
+        provisional.setTransactionId(transactionId);
+        provisional.setCode(MgcpResponseCode.TRANSACTION_BEING_EXECUTED.code());
+
+        transactionManager.process(remote, local, request, command, MessageDirection.INCOMING);
+        transactionManager.process(local, remote, provisional, MessageDirection.OUTGOING);
+
+        // then
+        assertTrue(transactionManager.contains(transactionId));
+
+        // when
+        try {
+            transactionManager.process(remote, local, request, command, MessageDirection.INCOMING);
+            fail("Retransmission of ongoing transaction should be rejected");
+        } catch (DuplicateMgcpTransactionException e) {
+            // expected
+        }
+
+        // then
+        verify(executor, times(1)).submit(command);
+        assertEquals(1, transactionManager.getDuplicatesInProgressCount());
+        assertEquals(0, transactionManager.getReplayedResponseCount());
+    }
+
+    @Test
+    public void testRetransmissionWhileTransactionIsClosing() throws DuplicateMgcpTransactionException, MgcpTransactionNotFoundException {
+        // given
+        final int transactionId = 12345;
+        final InetSocketAddress remote = new InetSocketAddress("127.0.0.1", 2727);
+        final InetSocketAddress local = new InetSocketAddress("127.0.0.1", 2427);
+        final MgcpRequest request = mock(MgcpRequest.class);
+        final MgcpResponse response = new MgcpResponse();
+        final MgcpCommand command = mock(MgcpCommand.class);
+        final MgcpTransactionNumberspace numberspace = mock(MgcpTransactionNumberspace.class);
+        final ListeningExecutorService executor = mock(ListeningExecutorService.class);
+        final AtomicReference<SubMgcpTransactionManager> manager = new AtomicReference<>();
+        final AtomicInteger rejected = new AtomicInteger(0);
+        final MgcpTransactionHistory history = new MgcpTransactionHistory(new WallClock()) {
+
+            @Override
+            public synchronized void put(MgcpResponse response) {
+                // retransmissions arriving right before and right after the response is remembered
+                retransmit();
+                super.put(response);
+                retransmit();
+            }
+
+            private void retransmit() {
+                try {
+                    manager.get().process(remote, local, request, command, MessageDirection.INCOMING);
+                } catch (DuplicateMgcpTransactionException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+
+        };
+        final SubMgcpTransactionManager transactionManager = new SubMgcpTransactionManager(numberspace, executor, history);
+        manager.set(transactionManager);
+
+        // when
+        when(executor.submit(command)).thenReturn(mock(ListenableFuture.class));
+        when(request.getTransactionId()).thenReturn(transactionId);
+        response.setTransactionId(transactionId);
+        response.setCode(MgcpResponseCode.TRANSACTION_WAS_EXECUTED.code());
+
+        transactionManager.process(remote, local, request, command, MessageDirection.INCOMING);
+        transactionManager.process(local, remote, response, MessageDirection.OUTGOING);
+
+        // then
+        verify(executor, times(1)).submit(command);
+        assertEquals(1, rejected.get());
+        assertEquals(1, transactionManager.getDuplicatesInProgressCount());
+        assertEquals(1, transactionManager.getReplayedResponseCount());
+        assertFalse(transactionManager.contains(transactionId));
+    }
+
 }
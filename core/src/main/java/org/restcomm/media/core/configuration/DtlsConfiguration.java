@@ -24,6 +24,7 @@ package org.restcomm.media.core.configuration;
 import org.bouncycastle.crypto.tls.ProtocolVersion;
 import org.restcomm.media.rtp.crypto.AlgorithmCertificate;
 import org.restcomm.media.rtp.crypto.CipherSuite;
+import org.restcomm.media.rtp.crypto.SRTPCryptoProvider;
 
 /**
  * @author guilherme.jansen@telestax.com
@@ -36,6 +37,9 @@ public class DtlsConfiguration {
     public static final String CERTIFICATE_PATH = "../conf/dtls/x509-server-ecdsa.pem";
     public static final String KEY_PATH = "../conf/dtls/x509-server-key-ecdsa.pem";
     public static final String ALGORITHM_CERTIFICATE = AlgorithmCertificate.ECDSA.name();
+    public static final int HANDSHAKE_THREADS = 16;
+    public static final int HANDSHAKE_QUEUE_SIZE = 1000;
+    public static final String SRTP_CRYPTO_PROVIDER = SRTPCryptoProvider.BOUNCYCASTLE.name();
 
     private ProtocolVersion minVersion;
     private ProtocolVersion maxVersion;
@@ -43,6 +47,9 @@ public class DtlsConfiguration {
     private String certificatePath;
     private String keyPath;
     private AlgorithmCertificate algorithmCertificate;
+    private int handshakeThreads;
+    private int handshakeQueueSize;
+    private SRTPCryptoProvider srtpCryptoProvider;
 
     public DtlsConfiguration() {
         setMinVersion(MIN_VERSION);
@@ -51,6 +58,9 @@ public class DtlsConfiguration {
         this.certificatePath = CERTIFICATE_PATH;
         this.keyPath = KEY_PATH;
         setAlgorithmCertificate(ALGORITHM_CERTIFICATE);
+        this.handshakeThreads = HANDSHAKE_THREADS;
+        this.handshakeQueueSize = HANDSHAKE_QUEUE_SIZE;
+        setSrtpCryptoProvider(SRTP_CRYPTO_PROVIDER);
     }
 
     public ProtocolVersion getMinVersion() {
@@ -117,4 +127,35 @@ public class DtlsConfiguration {
     public void setAlgorithmCertificate(String algorithmCertificate) {
         this.algorithmCertificate = AlgorithmCertificate.valueOf(algorithmCertificate.toUpperCase());
     }
+
+    public int getHandshakeThreads() {
+        return handshakeThreads;
+    }
+
+    public void setHandshakeThreads(int handshakeThreads) {
+        if (handshakeThreads < 1) {
+            throw new IllegalArgumentException("DTLS handshake threads must be positive.");
+        }
+        this.handshakeThreads = handshakeThreads;
+    }
+
+    public int getHandshakeQueueSize() {
+        return handshakeQueueSize;
+    }
+
+    public void setHandshakeQueueSize(int handshakeQueueSize) {
+        if (handshakeQueueSize < 1) {
+            throw new IllegalArgumentException("DTLS handshake queue size must be positive.");
+        }
+        this.handshakeQueueSize = handshakeQueueSize;
+    }
+
+    public SRTPCryptoProvider getSrtpCryptoProvider() {
+        return srtpCryptoProvider;
+    }
+
+    public void setSrtpCryptoProvider(String srtpCryptoProvider) {
+        this.srtpCryptoProvider = SRTPCryptoProvider.valueOf(srtpCryptoProvider.trim().toUpperCase());
+    }
+
 }
@@ -38,12 +38,20 @@ public class MediaConfiguration {
     public static final int LOW_PORT = 64534;
     public static final int HIGH_PORT = 65534;
     public static final int JITTER_BUFFER_SIZE = 50;
+    public static final boolean JITTER_BUFFER_ADAPTIVE = false;
+    public static final String SCHEDULER_TYPE = "priority";
+    public static final int SCHEDULER_SHARDS = 0;
+    public static final int MIXER_SPEAKERS = 0;
 
     private int maxDuration;
     private int timeout;
     private int lowPort;
     private int highPort;
     private int jitterBufferSize;
+    private boolean jitterBufferAdaptive;
+    private String schedulerType;
+    private int schedulerShards;
+    private int mixerSpeakers;
     private final Set<String> codecs;
 
     public MediaConfiguration() {
@@ -52,6 +60,10 @@ public class MediaConfiguration {
         this.lowPort = LOW_PORT;
         this.highPort = HIGH_PORT;
         this.jitterBufferSize = JITTER_BUFFER_SIZE;
+        this.jitterBufferAdaptive = JITTER_BUFFER_ADAPTIVE;
+        this.schedulerType = SCHEDULER_TYPE;
+        this.schedulerShards = SCHEDULER_SHARDS;
+        this.mixerSpeakers = MIXER_SPEAKERS;
         this.codecs = new HashSet<>(5);
     }
     
@@ -111,6 +123,62 @@ public class MediaConfiguration {
         this.jitterBufferSize = jitterBufferSize;
     }
 
+    /**
+     * Gets whether RTP connections use an adaptive jitter buffer.
+     * 
+     * @return true if the jitter buffer adapts its delay to the network jitter, starting from the configured size.
+     */
+    public boolean isJitterBufferAdaptive() {
+        return jitterBufferAdaptive;
+    }
+
+    public void setJitterBufferAdaptive(boolean jitterBufferAdaptive) {
+        this.jitterBufferAdaptive = jitterBufferAdaptive;
+    }
+
+    public String getSchedulerType() {
+        return schedulerType;
+    }
+
+    public void setSchedulerType(String schedulerType) {
+        if (schedulerType == null || schedulerType.isEmpty()) {
+            throw new IllegalArgumentException("Scheduler type cannot be empty.");
+        }
+        this.schedulerType = schedulerType.toLowerCase();
+    }
+
+    /**
+     * Gets the number of shards used by the work-stealing scheduler.
+     * 
+     * @return The number of shards. Zero means one shard per available processor.
+     */
+    public int getSchedulerShards() {
+        return schedulerShards;
+    }
+
+    public void setSchedulerShards(int schedulerShards) {
+        if (schedulerShards < 0) {
+            throw new IllegalArgumentException("Scheduler shards cannot be negative.");
+        }
+        this.schedulerShards = schedulerShards;
+    }
+
+    /**
+     * Gets how many of the loudest participants of a conference are mixed together.
+     * 
+     * @return The number of speakers. Zero means every participant is mixed.
+     */
+    public int getMixerSpeakers() {
+        return mixerSpeakers;
+    }
+
+    public void setMixerSpeakers(int mixerSpeakers) {
+        if (mixerSpeakers < 0) {
+            throw new IllegalArgumentException("Mixer speakers cannot be negative.");
+        }
+        this.mixerSpeakers = mixerSpeakers;
+    }
+
     public void addCodec(String codec) {
         if (codec == null || codec.isEmpty()) {
             throw new IllegalArgumentException("Codec cannot be empty.");
@@ -34,12 +34,18 @@ public class NetworkConfiguration {
     public static final String NETWORK = "127.0.0.1";
     public static final String SUBNET = "255.255.255.255";
     public static final boolean SBC = false;
+    public static final int BATCH_SIZE = 0;
+    public static final String TRANSPORT = "nio";
+    public static final int REUSE_PORT_CHANNELS = 1;
 
     private String bindAddress;
     private String externalAddress;
     private String network;
     private String subnet;
     private boolean sbc;
+    private int batchSize;
+    private String transport;
+    private int reusePortChannels;
 
     public NetworkConfiguration() {
         this.bindAddress = BIND_ADDRESS;
@@ -47,6 +53,9 @@ public class NetworkConfiguration {
         this.network = NETWORK;
         this.subnet = SUBNET;
         this.sbc = SBC;
+        this.batchSize = BATCH_SIZE;
+        this.transport = TRANSPORT;
+        this.reusePortChannels = REUSE_PORT_CHANNELS;
     }
 
     public String getBindAddress() {
@@ -98,4 +107,47 @@ public class NetworkConfiguration {
         this.sbc = sbc;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 0) {
+            throw new IllegalArgumentException("Batch size cannot be negative.");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the datagram transport of the Netty based network managers.
+     * 
+     * @return The name of the transport: nio or epoll. Epoll falls back to nio where it is not available.
+     */
+    public String getTransport() {
+        return transport;
+    }
+
+    public void setTransport(String transport) {
+        if (transport == null || transport.isEmpty()) {
+            throw new IllegalArgumentException("Transport cannot be empty.");
+        }
+        this.transport = transport.toLowerCase();
+    }
+
+    /**
+     * Gets how many channels share the MGCP control port with SO_REUSEPORT.
+     * 
+     * @return The number of channels. One disables port sharing.
+     */
+    public int getReusePortChannels() {
+        return reusePortChannels;
+    }
+
+    public void setReusePortChannels(int reusePortChannels) {
+        if (reusePortChannels < 1) {
+            throw new IllegalArgumentException("Reuse port channels must be positive.");
+        }
+        this.reusePortChannels = reusePortChannels;
+    }
+
 }
@@ -35,6 +35,14 @@ public class ResourcesConfiguration {
     public static final int DTMF_GENERATOR_TONE_DURATION = 80;
     public static final int PLAYER_CACHE_SIZE = 0;
     public static final boolean PLAYER_CACHE_ENABLED = false;
+    public static final int PROMPT_CACHE_SIZE = 0;
+    public static final boolean PROMPT_CACHE_ENABLED = false;
+    public static final String PROMPT_CACHE_WARM_UP_DIRECTORY = "";
+    public static final int PLAYER_IO_THREADS = 8;
+    public static final int PLAYER_IO_QUEUE_SIZE = 1000;
+    public static final int PLAYER_CONNECT_TIMEOUT = 2000;
+    public static final int PLAYER_READ_TIMEOUT = 5000;
+    public static final int TTS_CACHE_SIZE = 8;
 
     private int dtmfDetectorDbi;
     private int dtmfDetectorToneDuration;
@@ -42,6 +50,13 @@ public class ResourcesConfiguration {
     private int dtmfGeneratorToneDuration;
     private int dtmfDetectorToneInterval;
     private int playerCacheSize;
+    private int promptCacheSize;
+    private String promptCacheWarmUpDirectory;
+    private int playerIoThreads;
+    private int playerIoQueueSize;
+    private int playerConnectTimeout;
+    private int playerReadTimeout;
+    private int ttsCacheSize;
 
     public ResourcesConfiguration() {
         this.dtmfDetectorDbi = DTMF_DETECTOR_DBI;
@@ -50,6 +65,13 @@ public class ResourcesConfiguration {
         this.dtmfGeneratorToneDuration = DTMF_GENERATOR_TONE_DURATION;
         this.dtmfDetectorToneInterval = DTMF_DETECTOR_TONE_INTERVAL;
         this.playerCacheSize = PLAYER_CACHE_SIZE;
+        this.promptCacheSize = PROMPT_CACHE_SIZE;
+        this.promptCacheWarmUpDirectory = PROMPT_CACHE_WARM_UP_DIRECTORY;
+        this.playerIoThreads = PLAYER_IO_THREADS;
+        this.playerIoQueueSize = PLAYER_IO_QUEUE_SIZE;
+        this.playerConnectTimeout = PLAYER_CONNECT_TIMEOUT;
+        this.playerReadTimeout = PLAYER_READ_TIMEOUT;
+        this.ttsCacheSize = TTS_CACHE_SIZE;
     }
 
     public int getDtmfDetectorDbi() {
@@ -126,4 +148,89 @@ public class ResourcesConfiguration {
         return this.playerCacheSize != 0;
     }
 
+    public void setPromptCache(boolean promptCacheEnabled, int promptCacheSize, String warmUpDirectory) {
+        if (!promptCacheEnabled) {
+            this.promptCacheSize = 0;
+            this.promptCacheWarmUpDirectory = PROMPT_CACHE_WARM_UP_DIRECTORY;
+            return;
+        }
+        if (promptCacheSize <= 0) {
+            throw new IllegalArgumentException("Prompt cache size cannot be negative");
+        }
+        this.promptCacheSize = promptCacheSize;
+        this.promptCacheWarmUpDirectory = warmUpDirectory == null ? PROMPT_CACHE_WARM_UP_DIRECTORY : warmUpDirectory.trim();
+    }
+
+    public int getPromptCacheSize() {
+        return promptCacheSize;
+    }
+
+    public boolean getPromptCacheEnabled() {
+        return this.promptCacheSize != 0;
+    }
+
+    public String getPromptCacheWarmUpDirectory() {
+        return promptCacheWarmUpDirectory;
+    }
+
+    public int getPlayerIoThreads() {
+        return playerIoThreads;
+    }
+
+    public void setPlayerIoThreads(int playerIoThreads) {
+        if (playerIoThreads < 1) {
+            throw new IllegalArgumentException("Player I/O threads must be positive");
+        }
+        this.playerIoThreads = playerIoThreads;
+    }
+
+    public int getPlayerIoQueueSize() {
+        return playerIoQueueSize;
+    }
+
+    public void setPlayerIoQueueSize(int playerIoQueueSize) {
+        if (playerIoQueueSize < 1) {
+            throw new IllegalArgumentException("Player I/O queue size must be positive");
+        }
+        this.playerIoQueueSize = playerIoQueueSize;
+    }
+
+    public int getPlayerConnectTimeout() {
+        return playerConnectTimeout;
+    }
+
+    public void setPlayerConnectTimeout(int playerConnectTimeout) {
+        if (playerConnectTimeout < 0) {
+            throw new IllegalArgumentException("Player connect timeout cannot be negative");
+        }
+        this.playerConnectTimeout = playerConnectTimeout;
+    }
+
+    public int getPlayerReadTimeout() {
+        return playerReadTimeout;
+    }
+
+    public void setPlayerReadTimeout(int playerReadTimeout) {
+        if (playerReadTimeout < 0) {
+            throw new IllegalArgumentException("Player read timeout cannot be negative");
+        }
+        this.playerReadTimeout = playerReadTimeout;
+    }
+
+    /**
+     * Gets the maximum size of the synthesized phrases kept in memory.
+     * 
+     * @return the size of the cache, in megabytes. Zero if phrases are not cached.
+     */
+    public int getTtsCacheSize() {
+        return ttsCacheSize;
+    }
+
+    public void setTtsCacheSize(int ttsCacheSize) {
+        if (ttsCacheSize < 0) {
+            throw new IllegalArgumentException("TTS cache size cannot be negative");
+        }
+        this.ttsCacheSize = ttsCacheSize;
+    }
+
 }
@@ -0,0 +1,314 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.network.deprecated;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link PortManager} that keeps track of the even ports it handed out, so it never hands out a port that is still in use.
+ * <p>
+ * Each even port of the range (the odd port above it being reserved for RTCP) is one bit of a bitmap. Ports are allocated
+ * next-fit, starting from the highest port, and must be {@link #release(int) released} once the channel bound to them is
+ * closed. A range of 32k port pairs fits in 4KB and allocation and release are lock free.
+ * </p>
+ * <p>
+ * The manager counts how often the range was exhausted and how long allocations took.
+ * </p>
+ */
+public class BitmapPortManager implements PortManager {
+
+    /**
+     * Returned by {@link #allocate()} when all ports of the range are in use.
+     */
+    public static final int NO_PORT = -1;
+
+    private final int minimum;
+    private final int maximum;
+    private final int capacity;
+
+    private final AtomicLongArray bitmap;
+    private final AtomicInteger cursor;
+    private final AtomicInteger allocated;
+    private volatile int current;
+
+    // Statistics
+    private final AtomicLong allocations;
+    private final AtomicLong exhaustions;
+    private final AtomicLong allocationTime;
+    private final AtomicLong maxAllocationTime;
+
+    /**
+     * Creates a new Port Manager.
+     * 
+     * @param minimum The lowest available port.
+     * @param maximum The highest available port.
+     */
+    public BitmapPortManager(int minimum, int maximum) {
+        this.minimum = (minimum % 2 == 0) ? minimum : minimum + 1;
+        this.maximum = (maximum % 2 == 0) ? maximum : maximum - 1;
+        if (this.maximum < this.minimum) {
+            throw new IllegalArgumentException("Port range [" + minimum + ", " + maximum + "] has no even port.");
+        }
+        this.capacity = (this.maximum - this.minimum) / 2 + 1;
+
+        // bits past the capacity are marked as used so they are never handed out
+        final int words = (this.capacity + 63) >>> 6;
+        this.bitmap = new AtomicLongArray(words);
+        final int spare = (words << 6) - this.capacity;
+        if (spare > 0) {
+            this.bitmap.set(words - 1, -1L << (64 - spare));
+        }
+
+        this.cursor = new AtomicInteger(0);
+        this.allocated = new AtomicInteger(0);
+        this.current = this.maximum;
+
+        this.allocations = new AtomicLong(0);
+        this.exhaustions = new AtomicLong(0);
+        this.allocationTime = new AtomicLong(0);
+        this.maxAllocationTime = new AtomicLong(0);
+    }
+
+    /**
+     * Create a new Port Manager with port range between {@link RtpPortManager#MIN_PORT} and {@link RtpPortManager#MAX_PORT}
+     */
+    public BitmapPortManager() {
+        this(RtpPortManager.MIN_PORT, RtpPortManager.MAX_PORT);
+    }
+
+    @Override
+    public int getLowest() {
+        return this.minimum;
+    }
+
+    @Override
+    public int getHighest() {
+        return this.maximum;
+    }
+
+    /**
+     * Gets the last allocated port.
+     * 
+     * @return The last allocated port, or the highest port if none was allocated yet.
+     */
+    @Override
+    public int current() {
+        return this.current;
+    }
+
+    /**
+     * Peeks into the next free port. Does not allocate it.
+     * 
+     * @return The next free port, or {@link #NO_PORT} if all ports are in use.
+     */
+    @Override
+    public int peek() {
+        final int slot = findFree(this.cursor.get());
+        return slot < 0 ? NO_PORT : toPort(slot);
+    }
+
+    /**
+     * Allocates the next free port.
+     * 
+     * @return The allocated port.
+     * @throws IllegalStateException If all ports of the range are in use.
+     */
+    @Override
+    public int next() {
+        final int port = allocate();
+        if (port == NO_PORT) {
+            throw new IllegalStateException("All ports in range [" + this.minimum + ", " + this.maximum + "] are in use.");
+        }
+        return port;
+    }
+
+    /**
+     * Allocates the next free port.
+     * 
+     * @return The allocated port, or {@link #NO_PORT} if all ports of the range are in use.
+     */
+    public int allocate() {
+        final long start = System.nanoTime();
+        int slot;
+        do {
+            slot = findFree(this.cursor.get());
+            if (slot < 0) {
+                this.exhaustions.incrementAndGet();
+                return NO_PORT;
+            }
+        } while (!mark(slot));
+
+        this.cursor.set(slot + 1 == this.capacity ? 0 : slot + 1);
+        this.allocated.incrementAndGet();
+        final int port = toPort(slot);
+        this.current = port;
+
+        final long elapsed = System.nanoTime() - start;
+        this.allocations.incrementAndGet();
+        this.allocationTime.addAndGet(elapsed);
+        long max = this.maxAllocationTime.get();
+        while (elapsed > max && !this.maxAllocationTime.compareAndSet(max, elapsed)) {
+            max = this.maxAllocationTime.get();
+        }
+        return port;
+    }
+
+    /**
+     * Releases a port so it can be allocated again.
+     * 
+     * @param port The port to release. Ports out of range or not allocated are ignored.
+     * @return true if the port was allocated and is now free, false otherwise.
+     */
+    public boolean release(int port) {
+        final int slot = toSlot(port);
+        if (slot < 0) {
+            return false;
+        }
+
+        final int index = slot >>> 6;
+        final long bit = 1L << (slot & 63);
+        long word;
+        do {
+            word = this.bitmap.get(index);
+            if ((word & bit) == 0) {
+                return false;
+            }
+        } while (!this.bitmap.compareAndSet(index, word, word & ~bit));
+        this.allocated.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * Tells whether a port is currently allocated.
+     * 
+     * @param port The port.
+     * @return true if the port is allocated, false otherwise.
+     */
+    public boolean isAllocated(int port) {
+        final int slot = toSlot(port);
+        return slot >= 0 && (this.bitmap.get(slot >>> 6) & (1L << (slot & 63))) != 0;
+    }
+
+    /**
+     * Gets the number of even ports in the range.
+     * 
+     * @return The number of ports that can be allocated at the same time.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of ports currently in use.
+     * 
+     * @return The number of allocated ports.
+     */
+    public int getAllocated() {
+        return this.allocated.get();
+    }
+
+    /**
+     * Gets the number of successful allocations.
+     * 
+     * @return The number of allocations.
+     */
+    public long getAllocations() {
+        return this.allocations.get();
+    }
+
+    /**
+     * Gets how many allocations failed because all ports were in use.
+     * 
+     * @return The number of times the range was exhausted.
+     */
+    public long getExhaustions() {
+        return this.exhaustions.get();
+    }
+
+    /**
+     * Gets the average time taken by a successful allocation.
+     * 
+     * @return The average allocation time in nanoseconds.
+     */
+    public long getAverageAllocationTime() {
+        final long count = this.allocations.get();
+        return count == 0 ? 0 : this.allocationTime.get() / count;
+    }
+
+    /**
+     * Gets the longest time taken by a successful allocation.
+     * 
+     * @return The maximum allocation time in nanoseconds.
+     */
+    public long getMaxAllocationTime() {
+        return this.maxAllocationTime.get();
+    }
+
+    private int toPort(int slot) {
+        return this.maximum - slot * 2;
+    }
+
+    private int toSlot(int port) {
+        if (port < this.minimum || port > this.maximum || port % 2 != 0) {
+            return -1;
+        }
+        return (this.maximum - port) / 2;
+    }
+
+    /**
+     * Searches the bitmap for a free slot, starting from a slot and wrapping around the range.
+     * 
+     * @param from The slot to start from.
+     * @return The free slot, or -1 if none is free.
+     */
+    private int findFree(int from) {
+        final int words = this.bitmap.length();
+        final int first = from >>> 6;
+
+        // the first word is visited twice: from the cursor onwards, then below the cursor after wrapping around
+        for (int i = 0; i <= words; i++) {
+            final int index = (first + i) % words;
+            long mask = -1L;
+            if (i == 0) {
+                mask = -1L << (from & 63);
+            } else if (i == words) {
+                mask = ~(-1L << (from & 63));
+            }
+
+            final long free = ~this.bitmap.get(index) & mask;
+            if (free != 0) {
+                return (index << 6) + Long.numberOfTrailingZeros(free);
+            }
+        }
+        return -1;
+    }
+
+    private boolean mark(int slot) {
+        final int index = slot >>> 6;
+        final long bit = 1L << (slot & 63);
+        final long word = this.bitmap.get(index);
+        return (word & bit) == 0 && this.bitmap.compareAndSet(index, word, word | bit);
+    }
+
+}
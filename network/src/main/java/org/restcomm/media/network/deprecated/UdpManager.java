@@ -23,6 +23,7 @@
 package org.restcomm.media.network.deprecated;
 
 import java.io.IOException;
+import java.net.BindException;
 import java.net.InetSocketAddress;
 import java.nio.channels.DatagramChannel;
 import java.nio.channels.SelectionKey;
@@ -31,13 +32,17 @@ import java.nio.channels.spi.SelectorProvider;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 import org.restcomm.media.network.deprecated.channel.Channel;
+import org.restcomm.media.network.deprecated.channel.MultiplexedChannel;
 import org.restcomm.media.network.deprecated.channel.NetworkChannel;
 import org.restcomm.media.scheduler.Scheduler;
 import org.restcomm.media.scheduler.ServiceScheduler;
@@ -78,6 +83,7 @@ public class UdpManager {
 
     private Boolean useSbc;
     private int rtpTimeout; // in seconds!
+    private volatile int batchSize;
     private volatile boolean active;
 
     private final Object LOCK;
@@ -85,6 +91,12 @@ public class UdpManager {
     private List<PollTask> pollTasks;
     private List<Future<?>> pollTaskFutures;
     private AtomicInteger currSelectorIndex;
+    private final Map<DatagramChannel, PortAllocation> allocations;
+
+    // Statistics
+    private final AtomicLong wakeups;
+    private final AtomicLong receiveCalls;
+    private final AtomicLong receivedPackets;
 
     public UdpManager(Scheduler scheduler, PortManager portManager, PortManager localPortManager) {
         // Core elements
@@ -109,6 +121,13 @@ public class UdpManager {
         this.pollTasks = new ArrayList<PollTask>(ServiceScheduler.POOL_SIZE);
         this.pollTaskFutures = new ArrayList<Future<?>>(ServiceScheduler.POOL_SIZE);
         this.currSelectorIndex = new AtomicInteger(0);
+        this.allocations = new ConcurrentHashMap<>();
+        this.batchSize = 0;
+
+        // Statistics
+        this.wakeups = new AtomicLong(0);
+        this.receiveCalls = new AtomicLong(0);
+        this.receivedPackets = new AtomicLong(0);
     }
 
     public Scheduler getScheduler() {
@@ -228,10 +247,41 @@ public class UdpManager {
         this.useSbc = useSbc;
     }
 
+    /**
+     * Sets how many datagrams are read from a channel per wakeup.
+     * <p>
+     * A value greater than zero enables the batched transport mode: every selected channel is drained up to the given
+     * number of datagrams. Zero reads one datagram per wakeup.
+     * </p>
+     * <p>
+     * Must be set before the manager is started.
+     * </p>
+     * 
+     * @param batchSize the maximum number of datagrams read per channel and wakeup
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 0) {
+            throw new IllegalArgumentException("Batch size cannot be negative");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public boolean isBatched() {
+        return this.batchSize > 0;
+    }
+
     public PortManager getPortManager() {
         return portManager;
     }
 
+    public PortManager getLocalPortManager() {
+        return localPortManager;
+    }
+
     /**
      * Gets the low boundary of available range.
      * 
@@ -355,60 +405,117 @@ public class UdpManager {
      * @throws IOException
      */
     public void bind(DatagramChannel channel, int port) throws IOException {
+        bind(channel, port, bindAddress, portManager);
+    }
+
+    /**
+     * Binds socket to local bind address and specified port.
+     * 
+     * @param channel the channel
+     * @param port the port to bind to
+     * @throws IOException
+     */
+    public void bindLocal(DatagramChannel channel, int port) throws IOException {
+        bind(channel, port, localBindAddress, localPortManager);
+    }
+
+    private void bind(DatagramChannel channel, int port, String address, PortManager ports) throws IOException {
         // select port if wildcarded
+        boolean allocated = false;
         if (port == PORT_ANY) {
-            port = portManager.next();
+            port = nextPort(ports);
+            allocated = true;
         }
 
         // try bind
         IOException ex = null;
         for (int q = 0; q < 100; q++) {
             try {
-                channel.bind(new InetSocketAddress(bindAddress, port));
+                channel.bind(new InetSocketAddress(address, port));
                 ex = null;
                 break;
             } catch (IOException e) {
                 ex = e;
-                logger.info("Failed trying to bind " + bindAddress + ":" + port);
-                port = portManager.next();
+                logger.info("Failed trying to bind " + address + ":" + port);
+                // port is held by someone else. The allocator moved past it, so it is only tried again after a full round.
+                if (allocated) {
+                    releasePort(ports, port);
+                }
+                port = nextPort(ports);
+                allocated = true;
             }
         }
 
         if (ex != null) {
+            if (allocated) {
+                releasePort(ports, port);
+            }
             throw ex;
         }
+
+        if (allocated && ports instanceof BitmapPortManager) {
+            this.allocations.put(channel, new PortAllocation((BitmapPortManager) ports, port));
+        }
     }
 
     /**
-     * Binds socket to global bind address and specified port.
+     * Releases the port a channel was bound to, so it can be allocated again.
+     * <p>
+     * Must be called once the channel is closed. Only ports allocated by a {@link BitmapPortManager} are tracked, so this
+     * method does nothing for channels bound to an explicit port.
+     * </p>
      * 
      * @param channel the channel
-     * @param port the port to bind to
-     * @throws IOException
      */
-    public void bindLocal(DatagramChannel channel, int port) throws IOException {
-        // select port if wildcarded
-        if (port == PORT_ANY) {
-            port = localPortManager.next();
+    public void unbind(DatagramChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        PortAllocation allocation = this.allocations.remove(channel);
+        if (allocation != null) {
+            allocation.ports.release(allocation.port);
         }
+    }
 
-        // try bind
-        IOException ex = null;
-        for (int q = 0; q < 100; q++) {
-            try {
-                channel.bind(new InetSocketAddress(localBindAddress, port));
-                ex = null;
-                break;
-            } catch (IOException e) {
-                ex = e;
-                logger.info("Failed trying to bind " + localBindAddress + ":" + port);
-                port = localPortManager.next();
+    private int nextPort(PortManager ports) throws IOException {
+        if (!(ports instanceof BitmapPortManager)) {
+            return ports.next();
+        }
+
+        BitmapPortManager bitmap = (BitmapPortManager) ports;
+        int port = bitmap.allocate();
+        if (port == BitmapPortManager.NO_PORT) {
+            // reclaim ports of channels that were closed without being unbound
+            int reclaimed = reclaimPorts();
+            if (reclaimed > 0) {
+                logger.warn("Reclaimed " + reclaimed + " ports of closed channels");
+                port = bitmap.allocate();
             }
         }
+        if (port == BitmapPortManager.NO_PORT) {
+            throw new BindException("All ports in range [" + bitmap.getLowest() + ", " + bitmap.getHighest() + "] are in use");
+        }
+        return port;
+    }
 
-        if (ex != null) {
-            throw ex;
+    private void releasePort(PortManager ports, int port) {
+        if (ports instanceof BitmapPortManager) {
+            ((BitmapPortManager) ports).release(port);
+        }
+    }
+
+    private int reclaimPorts() {
+        int reclaimed = 0;
+        Iterator<Map.Entry<DatagramChannel, PortAllocation>> iterator = this.allocations.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<DatagramChannel, PortAllocation> entry = iterator.next();
+            if (!entry.getKey().isOpen()) {
+                iterator.remove();
+                entry.getValue().ports.release(entry.getValue().port);
+                reclaimed++;
+            }
         }
+        return reclaimed;
     }
 
     private void generateTasks() throws IOException {
@@ -481,6 +588,53 @@ public class UdpManager {
         }
     }
 
+    /**
+     * Gets how many times a selector woke up with channels ready to be read.
+     * 
+     * @return the number of wakeups
+     */
+    public long getWakeupCount() {
+        return this.wakeups.get();
+    }
+
+    /**
+     * Gets how many receive calls were issued on RTP channels, including the ones that found no data.
+     * 
+     * @return the number of receive calls
+     */
+    public long getReceiveCallCount() {
+        return this.receiveCalls.get();
+    }
+
+    /**
+     * Gets how many datagrams were read from RTP channels.
+     * 
+     * @return the number of received datagrams
+     */
+    public long getReceivedCount() {
+        return this.receivedPackets.get();
+    }
+
+    /**
+     * Gets the average number of datagrams read per receive call.
+     * 
+     * @return the number of packets per receive call
+     */
+    public double getPacketsPerReceiveCall() {
+        long calls = this.receiveCalls.get();
+        return calls == 0 ? 0.0 : (double) this.receivedPackets.get() / calls;
+    }
+
+    /**
+     * Gets the average number of datagrams read per selector wakeup.
+     * 
+     * @return the number of packets per wakeup
+     */
+    public double getPacketsPerWakeup() {
+        long count = this.wakeups.get();
+        return count == 0 ? 0.0 : (double) this.receivedPackets.get() / count;
+    }
+
     /**
      * Runnable task for polling UDP channels
      */
@@ -505,6 +659,10 @@ public class UdpManager {
                     logger.error("Could not select channels from Selector!");
                 }
 
+                int limit = batchSize > 0 ? batchSize : 1;
+                long calls = 0;
+                long packets = 0;
+
                 // Iterate over selected channels
                 Iterator<SelectionKey> it = localSelector.selectedKeys().iterator();
                 while (it.hasNext() && active) {
@@ -540,7 +698,14 @@ public class UdpManager {
                             // Perform an operation only if channel is open and key is valid
                             if (udpChannel.isOpen()) {
                                 if (key.isValid()) {
-                                    channel.receive();
+                                    if (channel instanceof MultiplexedChannel) {
+                                        // Drain the channel, the last read of a partial batch finds no data
+                                        int read = ((MultiplexedChannel) channel).receive(limit);
+                                        packets += read;
+                                        calls += (read < limit) ? read + 1 : read;
+                                    } else {
+                                        channel.receive();
+                                    }
 
                                     if (channel.hasPendingData()) {
                                         channel.send();
@@ -568,8 +733,29 @@ public class UdpManager {
                     }
                 }
                 localSelector.selectedKeys().clear();
+
+                wakeups.incrementAndGet();
+                if (calls > 0) {
+                    receiveCalls.addAndGet(calls);
+                    receivedPackets.addAndGet(packets);
+                }
             }
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Port allocated to a channel by a {@link BitmapPortManager}.
+     */
+    private static final class PortAllocation {
+
+        private final BitmapPortManager ports;
+        private final int port;
+
+        PortAllocation(BitmapPortManager ports, int port) {
+            this.ports = ports;
+            this.port = port;
+        }
+
+    }
+
+}
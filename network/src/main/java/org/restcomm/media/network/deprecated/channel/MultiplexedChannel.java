@@ -26,6 +26,7 @@ import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.DatagramChannel;
 import java.nio.channels.SelectionKey;
+import java.util.Arrays;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -49,9 +50,13 @@ public class MultiplexedChannel implements Channel {
 	// Registered protocol handlers. Used for multiplexing.
 	protected final PacketHandlerPipeline handlers;
 
-	// The buffer into which we will read data when it's available
+	// The buffers into which we will read data when it's available.
+	// Datagrams are read into a ring of reusable arrays. A handler may keep the array it was given
+	// until RECEIVE_RING_SIZE - 1 more datagrams were read from the channel.
 	private static final int BUFFER_SIZE = 8192;
-	private final ByteBuffer receiveBuffer;
+	static final int RECEIVE_RING_SIZE = 4;
+	private final ByteBuffer[] receiveRing;
+	private int receiveIndex;
 	
 	// Data that is pending for writing
 	private final Queue<byte[]> pendingData;
@@ -59,7 +64,10 @@ public class MultiplexedChannel implements Channel {
 	public MultiplexedChannel() {
 		this.handlers = new PacketHandlerPipeline();
 		this.pendingData = new ConcurrentLinkedQueue<>();
-		this.receiveBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		this.receiveRing = new ByteBuffer[RECEIVE_RING_SIZE];
+		for (int i = 0; i < RECEIVE_RING_SIZE; i++) {
+			this.receiveRing[i] = ByteBuffer.allocate(BUFFER_SIZE);
+		}
 	}
 	
 	@Override
@@ -139,13 +147,14 @@ public class MultiplexedChannel implements Channel {
 	
     protected void flush() {
         try {
-            this.receiveBuffer.clear();
+            ByteBuffer buffer = this.receiveRing[this.receiveIndex];
+            buffer.clear();
             // lets clear the receiver
             SocketAddress currAddress = null;
             do {
                 if (this.dataChannel != null && this.dataChannel.isOpen()) {
-                    currAddress = this.dataChannel.receive(this.receiveBuffer);
-                    this.receiveBuffer.clear();
+                    currAddress = this.dataChannel.receive(buffer);
+                    buffer.clear();
                 } else {
                     currAddress = null;
                 }
@@ -157,17 +166,40 @@ public class MultiplexedChannel implements Channel {
 	
 	@Override
 	public void receive() throws IOException {
-		// Get buffer ready to read new data
-		this.receiveBuffer.clear();
+		read();
+	}
+
+	/**
+	 * Drains the channel, reading datagrams into the receive ring until there is no more data or the limit is reached.
+	 * 
+	 * @param maxDatagrams The maximum number of datagrams to read
+	 * @return The number of datagrams that were read
+	 * @throws IOException
+	 */
+	public int receive(int maxDatagrams) throws IOException {
+		int count = 0;
+		while (count < maxDatagrams && isOpen()) {
+			if (read() <= 0) {
+				break;
+			}
+			count++;
+		}
+		return count;
+	}
+
+	private int read() throws IOException {
+		// Get the next slot of the ring ready to read new data
+		ByteBuffer buffer = this.receiveRing[this.receiveIndex];
+		buffer.clear();
 
 		// Read data from channel
 		int dataLength = 0;
 		try {
-			SocketAddress remotePeer = dataChannel.receive(this.receiveBuffer);
+			SocketAddress remotePeer = dataChannel.receive(buffer);
 			if (!isConnected() && remotePeer != null) {
 				connect(remotePeer);
 			}
-			dataLength = this.receiveBuffer.position();
+			dataLength = buffer.position();
 		} catch (IOException e) {
 			dataLength = -1;
 		}
@@ -175,27 +207,29 @@ public class MultiplexedChannel implements Channel {
 		// Stop if socket was shutdown or error occurred
 		if (dataLength == -1) {
 			close();
-			return;
+			return dataLength;
 		} else if (dataLength > 0) {
-			// Copy data from buffer so we don't mess with original
-			byte[] dataCopy = new byte[dataLength];
-			this.receiveBuffer.rewind();
-			this.receiveBuffer.get(dataCopy, 0, dataLength);
+			// The slot is handed to the handler, the next datagram goes into the following one
+			byte[] data = buffer.array();
+			this.receiveIndex = (this.receiveIndex + 1) % RECEIVE_RING_SIZE;
 			
 			// Delegate work to the proper handler
-			PacketHandler handler = this.handlers.getHandler(dataCopy);
+			PacketHandler handler = this.handlers.getHandler(data, dataLength, 0);
 			if (handler != null) {
 				try {
 					// Let the handler process the incoming packet.
 					// A response MAY be provided as result.
-					byte[] response = handler.handle(dataCopy, dataLength, 0, (InetSocketAddress) dataChannel.getLocalAddress(), (InetSocketAddress) dataChannel.getRemoteAddress());
+					byte[] response = handler.handle(data, dataLength, 0, (InetSocketAddress) dataChannel.getLocalAddress(), (InetSocketAddress) dataChannel.getRemoteAddress());
 					
 					/*
 					 * If handler intends to send a response to the remote peer,
 					 * queue the data to send it on writing cycle. Only allowed if
 					 * Selection Key is writable!
 					 */
-					if (response != null && response.length > 0) {
+					if (response == data) {
+						// echoed datagram, the slot will be reused before the writing cycle
+						queueData(Arrays.copyOf(data, dataLength));
+					} else if (response != null && response.length > 0) {
 						queueData(response);
 					}
 				} catch (PacketHandlerException e) {
@@ -207,6 +241,7 @@ public class MultiplexedChannel implements Channel {
                 }
 			}
 		}
+		return dataLength;
 	}
 
     @Override
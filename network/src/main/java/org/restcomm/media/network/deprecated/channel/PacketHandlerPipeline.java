@@ -115,10 +115,23 @@ public class PacketHandlerPipeline {
      *         Returns null in case no capable handler exists.
      */
     public PacketHandler getHandler(byte[] packet) {
+        return getHandler(packet, packet.length, 0);
+    }
+
+    /**
+     * Gets the protocol handler capable of processing a packet that occupies part of an array.
+     * 
+     * @param packet The array holding the packet
+     * @param dataLength The length of the packet
+     * @param offset The offset of the packet in the array
+     * @return The protocol handler capable of processing the packet.<br>
+     *         Returns null in case no capable handler exists.
+     */
+    public PacketHandler getHandler(byte[] packet, int dataLength, int offset) {
         synchronized (this.handlers) {
             // Search for the first handler capable of processing the packet
             for (PacketHandler protocolHandler : this.handlers) {
-                if (protocolHandler.canHandle(packet)) {
+                if (protocolHandler.canHandle(packet, dataLength, offset)) {
                     return protocolHandler;
                 }
             }
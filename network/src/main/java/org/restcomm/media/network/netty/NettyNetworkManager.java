@@ -22,9 +22,11 @@
 package org.restcomm.media.network.netty;
 
 import java.io.IOException;
+import java.net.SocketAddress;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.log4j.Logger;
 import org.restcomm.media.network.api.AsynchronousNetworkManager;
 import org.restcomm.media.network.api.SynchronousNetworkManager;
 
@@ -33,14 +35,17 @@ import com.google.common.util.concurrent.FutureCallback;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 
 /**
  * Netty-based Network Manager that features both synchronous and asynchronous API.
+ * <p>
+ * The manager may fan out each bound channel over several event loops: with a transport that supports SO_REUSEPORT,
+ * sibling channels are bound to the same address so the kernel spreads incoming datagrams across them.
+ * </p>
  * 
  * @author Henrique Rosa (henrique.rosa@telestax.com)
  * 
@@ -53,8 +58,11 @@ public class NettyNetworkManager implements SynchronousNetworkManager<Channel>,
     static final long SHUTDOWN_TIMEOUT = 5L;
     static final int N_THREADS = Runtime.getRuntime().availableProcessors();
 
+    private static final Logger log = Logger.getLogger(NettyNetworkManager.class);
+
     protected final EventLoopGroup eventGroup;
     protected final Bootstrap bootstrap;
+    private final int fanOut;
     private final AtomicBoolean open;
 
     public NettyNetworkManager() {
@@ -62,15 +70,43 @@ public class NettyNetworkManager implements SynchronousNetworkManager<Channel>,
     }
 
     public NettyNetworkManager(int threadCount) {
-        this(new Bootstrap().channel(NioDatagramChannel.class).group(new NioEventLoopGroup(threadCount)));
+        this(NettyTransport.NIO, threadCount);
+    }
+
+    public NettyNetworkManager(NettyTransport transport, int threadCount) {
+        this(transport.newBootstrap(transport.newEventLoopGroup(threadCount, null), false));
     }
 
     public NettyNetworkManager(Bootstrap bootstrap) {
+        this(bootstrap, 1);
+    }
+
+    /**
+     * Creates a network manager that fans out bound channels.
+     * 
+     * @param bootstrap The bootstrap that opens channels. Must enable SO_REUSEPORT if fan out is greater than one.
+     * @param fanOut The number of channels bound to each address.
+     * @see NettyTransport#newBootstrap(EventLoopGroup, boolean)
+     */
+    public NettyNetworkManager(Bootstrap bootstrap, int fanOut) {
+        if (fanOut < 1) {
+            throw new IllegalArgumentException("Network manager fan out must be positive.");
+        }
         this.bootstrap = bootstrap;
         this.eventGroup = bootstrap.group();
+        this.fanOut = fanOut;
         this.open = new AtomicBoolean(true);
     }
 
+    /**
+     * Gets the number of channels bound to each address.
+     * 
+     * @return The fan out. One if channels are not shared.
+     */
+    public int getFanOut() {
+        return fanOut;
+    }
+
     /**
      * {@inheritDoc}
      * 
@@ -99,6 +135,69 @@ public class NettyNetworkManager implements SynchronousNetworkManager<Channel>,
         future.addListener(new NetworkManagerChannelFutureCallback(callback));
     }
 
+    /**
+     * Binds a channel opened by this manager to a local address.
+     * <p>
+     * If the manager fans out, sibling channels are bound to the same address once the channel is bound. Siblings share
+     * the pipeline configuration of the channel and are closed along with it.
+     * </p>
+     * 
+     * @param channel The channel to be bound.
+     * @param localAddress The local address.
+     * @return The future of the bind operation of the channel.
+     */
+    public ChannelFuture bindChannel(Channel channel, SocketAddress localAddress) {
+        ChannelFuture future = channel.bind(localAddress);
+        if (this.fanOut > 1) {
+            future.addListener(new ChannelFutureListener() {
+
+                @Override
+                public void operationComplete(ChannelFuture future) throws Exception {
+                    if (future.isSuccess()) {
+                        bindSiblings(future.channel());
+                    }
+                }
+
+            });
+        }
+        return future;
+    }
+
+    private void bindSiblings(Channel channel) {
+        // use the actual address in case an ephemeral port was requested
+        final SocketAddress address = channel.localAddress();
+        final Channel[] siblings = new Channel[this.fanOut - 1];
+        for (int i = 0; i < siblings.length; i++) {
+            ChannelFuture future = this.bootstrap.clone().bind(address);
+            siblings[i] = future.channel();
+            future.addListener(new ChannelFutureListener() {
+
+                @Override
+                public void operationComplete(ChannelFuture future) throws Exception {
+                    if (!future.isSuccess()) {
+                        log.warn("Could not bind sibling channel to " + address, future.cause());
+                    }
+                }
+
+            });
+        }
+
+        channel.closeFuture().addListener(new ChannelFutureListener() {
+
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception {
+                for (Channel sibling : siblings) {
+                    sibling.close();
+                }
+            }
+
+        });
+
+        if (log.isDebugEnabled()) {
+            log.debug("Bound " + siblings.length + " sibling channels to " + address);
+        }
+    }
+
     /**
      * {@inheritDoc}
      * 
@@ -0,0 +1,197 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.network.netty;
+
+import java.util.concurrent.Executor;
+
+import org.apache.log4j.Logger;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+
+/**
+ * Datagram transports the Netty network managers can run on.
+ * <p>
+ * The native epoll transport is only available on Linux, when the native library shipped with Netty can be loaded. It
+ * supports SO_REUSEPORT, which lets several channels bound to the same port be served by different event loops.
+ * </p>
+ * 
+ * @see NettyNetworkManager
+ */
+public enum NettyTransport {
+
+    NIO("nio") {
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public boolean isReusePortSupported() {
+            return false;
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads, Executor executor) {
+            return new NioEventLoopGroup(threads, executor);
+        }
+
+        @Override
+        public Class<? extends DatagramChannel> getDatagramChannelClass() {
+            return NioDatagramChannel.class;
+        }
+
+    },
+
+    EPOLL("epoll") {
+
+        @Override
+        public boolean isAvailable() {
+            return Epoll.isAvailable();
+        }
+
+        @Override
+        Throwable getUnavailabilityCause() {
+            return Epoll.unavailabilityCause();
+        }
+
+        @Override
+        public boolean isReusePortSupported() {
+            return true;
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int threads, Executor executor) {
+            return new EpollEventLoopGroup(threads, executor);
+        }
+
+        @Override
+        public Class<? extends DatagramChannel> getDatagramChannelClass() {
+            return EpollDatagramChannel.class;
+        }
+
+        @Override
+        public Bootstrap newBootstrap(EventLoopGroup group, boolean reusePort) {
+            Bootstrap bootstrap = super.newBootstrap(group, false);
+            if (reusePort) {
+                bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+            }
+            return bootstrap;
+        }
+
+    };
+
+    private static final Logger log = Logger.getLogger(NettyTransport.class);
+
+    private final String name;
+
+    private NettyTransport(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Tells whether the transport can be used on this host.
+     * 
+     * @return true if the transport is available, false otherwise.
+     */
+    public abstract boolean isAvailable();
+
+    Throwable getUnavailabilityCause() {
+        return null;
+    }
+
+    /**
+     * Tells whether several channels of this transport can be bound to the same port with SO_REUSEPORT.
+     * 
+     * @return true if SO_REUSEPORT is supported, false otherwise.
+     */
+    public abstract boolean isReusePortSupported();
+
+    /**
+     * Creates the event loops that serve the channels of this transport.
+     * 
+     * @param threads The number of event loops.
+     * @param executor The executor that runs the event loops. May be null to run each event loop on its own thread.
+     * @return The event loop group.
+     */
+    public abstract EventLoopGroup newEventLoopGroup(int threads, Executor executor);
+
+    public abstract Class<? extends DatagramChannel> getDatagramChannelClass();
+
+    /**
+     * Creates a bootstrap that opens datagram channels of this transport.
+     * 
+     * @param group The event loops created by {@link #newEventLoopGroup(int, Executor)}.
+     * @param reusePort Whether channels are bound with SO_REUSEPORT. Ignored if the transport does not support it.
+     * @return The bootstrap.
+     */
+    public Bootstrap newBootstrap(EventLoopGroup group, boolean reusePort) {
+        return new Bootstrap().channel(getDatagramChannelClass()).group(group);
+    }
+
+    /**
+     * Gets a transport by its name.
+     * 
+     * @param name The name of the transport, case insensitive.
+     * @return The transport.
+     * @throws IllegalArgumentException If no transport has such name.
+     */
+    public static NettyTransport fromName(String name) throws IllegalArgumentException {
+        for (NettyTransport transport : values()) {
+            if (transport.name.equalsIgnoreCase(name)) {
+                return transport;
+            }
+        }
+        throw new IllegalArgumentException("Unknown network transport: " + name);
+    }
+
+    /**
+     * Selects a transport, falling back to NIO if it is not available on this host.
+     * 
+     * @param name The name of the preferred transport.
+     * @return The preferred transport if available, NIO otherwise.
+     * @throws IllegalArgumentException If no transport has such name.
+     */
+    public static NettyTransport select(String name) throws IllegalArgumentException {
+        NettyTransport transport = fromName(name);
+        if (!transport.isAvailable()) {
+            Throwable cause = transport.getUnavailabilityCause();
+            log.warn("Network transport " + transport.name + " is not available" + (cause == null ? "" : " (" + cause.getMessage() + ")")
+                    + ". Falling back to " + NIO.name + ".");
+            return NIO;
+        }
+        return transport;
+    }
+
+}
@@ -22,7 +22,9 @@
 package org.restcomm.media.network.netty.channel;
 
 import org.apache.log4j.Logger;
+import org.restcomm.media.network.api.AsynchronousNetworkManager;
 import org.restcomm.media.network.deprecated.netty.NetworkManager;
+import org.restcomm.media.network.netty.NettyNetworkManager;
 
 import com.google.common.util.concurrent.FutureCallback;
 
@@ -58,7 +60,14 @@ public class AsyncNettyNetworkChannelFsm extends AbstractNettyNetworkChannelFsm
     public void enterBinding(NettyNetworkChannelState from, NettyNetworkChannelState to, NettyNetworkChannelEvent event, NettyNetworkChannelTransitionContext context) {
         // Bind channel to local address
         // A listener will get the response asynchronously
-        final ChannelFuture future = this.globalContext.getChannel().bind(this.globalContext.getLocalAddress());
+        final ChannelFuture future;
+        final AsynchronousNetworkManager<Channel> networkManager = this.globalContext.getNetworkManager();
+        if (networkManager instanceof NettyNetworkManager) {
+            // let the manager fan out the channel over its event loops
+            future = ((NettyNetworkManager) networkManager).bindChannel(this.globalContext.getChannel(), this.globalContext.getLocalAddress());
+        } else {
+            future = this.globalContext.getChannel().bind(this.globalContext.getLocalAddress());
+        }
         future.addListener(new BindCallback(context));
     }
 
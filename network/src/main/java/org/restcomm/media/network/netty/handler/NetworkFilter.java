@@ -23,6 +23,7 @@ package org.restcomm.media.network.netty.handler;
 
 import org.restcomm.media.network.netty.filter.NetworkGuard;
 
+import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.socket.DatagramPacket;
@@ -32,6 +33,7 @@ import io.netty.util.ReferenceCountUtil;
  * @author Henrique Rosa (henrique.rosa@telestax.com)
  *
  */
+@Sharable
 public class NetworkFilter extends SimpleChannelInboundHandler<DatagramPacket> {
 
     private final NetworkGuard guard;
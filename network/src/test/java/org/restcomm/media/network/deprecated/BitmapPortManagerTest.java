@@ -0,0 +1,154 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.network.deprecated;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class BitmapPortManagerTest {
+
+    @Test
+    public void testOddBoundaries() {
+        // when
+        final BitmapPortManager portManager = new BitmapPortManager(1, 11);
+
+        // then
+        assertEquals(2, portManager.getLowest());
+        assertEquals(10, portManager.getHighest());
+        assertEquals(5, portManager.getCapacity());
+    }
+
+    @Test
+    public void testNext() {
+        // given
+        final BitmapPortManager portManager = new BitmapPortManager(2, 10);
+
+        // then
+        assertEquals(10, portManager.next());
+        assertEquals(8, portManager.next());
+        assertEquals(6, portManager.next());
+        assertEquals(4, portManager.next());
+        assertEquals(2, portManager.next());
+        assertEquals(5, portManager.getAllocated());
+        assertEquals(2, portManager.current());
+    }
+
+    @Test
+    public void testExhaustion() {
+        // given
+        final BitmapPortManager portManager = new BitmapPortManager(2, 6);
+        portManager.next();
+        portManager.next();
+        portManager.next();
+
+        // when
+        final int port = portManager.allocate();
+
+        // then
+        assertEquals(BitmapPortManager.NO_PORT, port);
+        assertEquals(BitmapPortManager.NO_PORT, portManager.peek());
+        assertEquals(1, portManager.getExhaustions());
+        assertEquals(3, portManager.getAllocations());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNextWhenExhausted() {
+        // given
+        final BitmapPortManager portManager = new BitmapPortManager(2, 2);
+        portManager.next();
+
+        // when
+        portManager.next();
+    }
+
+    @Test
+    public void testReleasedPortIsReused() {
+        // given
+        final BitmapPortManager portManager = new BitmapPortManager(2, 10);
+        for (int i = 0; i < 5; i++) {
+            portManager.next();
+        }
+
+        // when
+        final boolean released = portManager.release(6);
+
+        // then
+        assertTrue(released);
+        assertFalse(portManager.isAllocated(6));
+        assertFalse(portManager.release(6));
+        assertEquals(6, portManager.peek());
+        assertEquals(6, portManager.next());
+        assertTrue(portManager.isAllocated(6));
+    }
+
+    @Test
+    public void testAllocationSkipsPortsInUse() {
+        // given
+        final BitmapPortManager portManager = new BitmapPortManager(2, 10);
+        portManager.next(); // 10
+        portManager.next(); // 8
+        portManager.next(); // 6
+
+        // when
+        portManager.release(10);
+
+        // then next-fit carries on before wrapping around to the released port
+        assertEquals(4, portManager.next());
+        assertEquals(2, portManager.next());
+        assertEquals(10, portManager.next());
+    }
+
+    @Test
+    public void testReleaseUnknownPort() {
+        // given
+        final BitmapPortManager portManager = new BitmapPortManager(2, 10);
+
+        // then
+        assertFalse(portManager.release(12));
+        assertFalse(portManager.release(7));
+        assertFalse(portManager.release(4));
+    }
+
+    @Test
+    public void testLargeRange() {
+        // given
+        final BitmapPortManager portManager = new BitmapPortManager(1024, 65534);
+        final Set<Integer> ports = new HashSet<Integer>();
+
+        // when
+        for (int i = 0; i < portManager.getCapacity(); i++) {
+            ports.add(portManager.next());
+        }
+
+        // then
+        assertEquals(portManager.getCapacity(), ports.size());
+        assertEquals(portManager.getCapacity(), portManager.getAllocated());
+        assertEquals(BitmapPortManager.NO_PORT, portManager.allocate());
+    }
+
+}
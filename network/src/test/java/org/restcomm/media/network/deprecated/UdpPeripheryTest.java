@@ -27,6 +27,8 @@
 
 package org.restcomm.media.network.deprecated;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -99,6 +101,37 @@ public class UdpPeripheryTest {
         channel.socket().close();
     }
 
+    @Test
+    public void testBindReleasesBusyPortAndUnbindFreesPort() throws Exception {
+        // given
+        final BitmapPortManager portManager = new BitmapPortManager(40000, 40010);
+        final UdpManager udpManager = new UdpManager(scheduler, portManager, new RtpPortManager());
+        final DatagramChannel busy = DatagramChannel.open();
+        busy.bind(new InetSocketAddress("127.0.0.1", 40010));
+        final DatagramChannel channel = DatagramChannel.open();
+
+        try {
+            // when
+            udpManager.bind(channel, -1);
+
+            // then
+            assertEquals(40008, ((InetSocketAddress) channel.getLocalAddress()).getPort());
+            assertFalse(portManager.isAllocated(40010));
+            assertTrue(portManager.isAllocated(40008));
+
+            // when
+            channel.close();
+            udpManager.unbind(channel);
+
+            // then
+            assertFalse(portManager.isAllocated(40008));
+            assertEquals(0, portManager.getAllocated());
+        } finally {
+            channel.close();
+            busy.close();
+        }
+    }
+
     private class TestHandler implements ProtocolHandler {
 
         public void receive(DatagramChannel channel) {
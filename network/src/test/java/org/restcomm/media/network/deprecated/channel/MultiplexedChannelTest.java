@@ -28,6 +28,8 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
 
 import junit.framework.Assert;
 
@@ -131,6 +133,120 @@ public class MultiplexedChannelTest {
 		Assert.assertEquals("received "+msg, new String(sentData));
 	}
 	
+	@Test
+	public void testReceiveBatch() throws IOException {
+		// given
+		DatagramChannel receiver = openChannel();
+		DatagramChannel sender = openChannel();
+		receiver.configureBlocking(false);
+		receiver.connect(sender.getLocalAddress());
+
+		MultiplexedChannel channel = new MultiplexedChannel();
+		channel.handlers.addHandler(new LowPriorityPacketHandlerMock());
+		channel.setTransport(receiver);
+
+		byte[] data = LowPriorityPacketHandlerMock.DATA.getBytes();
+
+		try {
+			// when
+			for (int i = 0; i < 3; i++) {
+				sender.send(ByteBuffer.wrap(data), receiver.getLocalAddress());
+			}
+			int first = channel.receive(2);
+			int second = channel.receive(8);
+			int third = channel.receive(8);
+
+			// then
+			Assert.assertEquals(2, first);
+			Assert.assertEquals(1, second);
+			Assert.assertEquals(0, third);
+			Assert.assertTrue(channel.hasPendingData());
+		} finally {
+			closeChannel(receiver);
+			closeChannel(sender);
+		}
+	}
+
+	@Test
+	public void testReceiveReusesBuffers() throws IOException {
+		// given
+		DatagramChannel receiver = openChannel();
+		DatagramChannel sender = openChannel();
+		receiver.configureBlocking(false);
+		receiver.connect(sender.getLocalAddress());
+
+		final List<byte[]> packets = new ArrayList<byte[]>();
+		MultiplexedChannel channel = new MultiplexedChannel();
+		channel.handlers.addHandler(new LowPriorityPacketHandlerMock() {
+			@Override
+			public byte[] handle(byte[] packet, int dataLength, int offset, InetSocketAddress localPeer, InetSocketAddress remotePeer) throws PacketHandlerException {
+				packets.add(packet);
+				return null;
+			}
+		});
+		channel.setTransport(receiver);
+
+		byte[] data = LowPriorityPacketHandlerMock.DATA.getBytes();
+		int count = MultiplexedChannel.RECEIVE_RING_SIZE + 1;
+
+		try {
+			// when
+			for (int i = 0; i < count; i++) {
+				sender.send(ByteBuffer.wrap(data), receiver.getLocalAddress());
+				channel.receive();
+			}
+
+			// then - consecutive datagrams get their own array, the ring wraps around after that
+			Assert.assertEquals(count, packets.size());
+			for (int i = 1; i < MultiplexedChannel.RECEIVE_RING_SIZE; i++) {
+				Assert.assertNotSame(packets.get(i - 1), packets.get(i));
+			}
+			Assert.assertSame(packets.get(0), packets.get(MultiplexedChannel.RECEIVE_RING_SIZE));
+		} finally {
+			closeChannel(receiver);
+			closeChannel(sender);
+		}
+	}
+
+	@Test
+	public void testEchoedPacketIsCopied() throws IOException {
+		// given
+		DatagramChannel receiver = openChannel();
+		DatagramChannel sender = openChannel();
+		receiver.configureBlocking(false);
+		receiver.connect(sender.getLocalAddress());
+
+		MultiplexedChannel channel = new MultiplexedChannel();
+		channel.handlers.addHandler(new LowPriorityPacketHandlerMock() {
+			@Override
+			public byte[] handle(byte[] packet, int dataLength, int offset, InetSocketAddress localPeer, InetSocketAddress remotePeer) throws PacketHandlerException {
+				// loopback, like the RTP handler does
+				return packet;
+			}
+		});
+		channel.setTransport(receiver);
+
+		byte[] data = LowPriorityPacketHandlerMock.DATA.getBytes();
+
+		try {
+			// when
+			sender.send(ByteBuffer.wrap(data), receiver.getLocalAddress());
+			channel.receive();
+			channel.send();
+
+			// then - only the datagram is echoed, not the whole receive buffer
+			ByteBuffer buffer = ByteBuffer.allocate(30);
+			sender.receive(buffer);
+			buffer.flip();
+			byte[] echoed = new byte[buffer.remaining()];
+			buffer.get(echoed);
+			Assert.assertEquals(LowPriorityPacketHandlerMock.DATA, new String(echoed));
+		} finally {
+			closeChannel(receiver);
+			closeChannel(sender);
+		}
+	}
+
 	/*
 	 * Test Setup
 	 */
@@ -0,0 +1,69 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.network.netty;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+
+public class NettyTransportTest {
+
+    @Test
+    public void testFromName() {
+        // then
+        assertEquals(NettyTransport.NIO, NettyTransport.fromName("nio"));
+        assertEquals(NettyTransport.EPOLL, NettyTransport.fromName("EPOLL"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromUnknownName() {
+        // when
+        NettyTransport.fromName("kqueue");
+    }
+
+    @Test
+    public void testSelectFallsBackToNio() {
+        // when
+        NettyTransport transport = NettyTransport.select("epoll");
+
+        // then
+        assertEquals(Epoll.isAvailable() ? NettyTransport.EPOLL : NettyTransport.NIO, transport);
+        assertTrue(transport.isAvailable());
+    }
+
+    @Test
+    public void testNio() {
+        // given
+        NettyTransport transport = NettyTransport.NIO;
+
+        // then
+        assertTrue(transport.isAvailable());
+        assertFalse(transport.isReusePortSupported());
+        assertEquals(NioDatagramChannel.class, transport.getDatagramChannelClass());
+    }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.network.netty.benchmark;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.restcomm.media.network.netty.NettyTransport;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.DatagramPacket;
+
+/**
+ * Measures how many RTP sized datagrams a {@link NettyTransport} delivers per second between two channels on the loopback
+ * interface.
+ * <p>
+ * Each invocation writes a burst of 172 byte datagrams (12 byte RTP header plus 160 bytes of G.711 payload) from the event
+ * loop of the sender and waits until no more than a window of packets is in flight, so the receiver is never flooded past
+ * its socket buffer. Packets dropped by the kernel are written off after a timeout and reported as the {@code lost}
+ * secondary result of each iteration, next to the {@code sent} datagrams.
+ * </p>
+ * <p>
+ * The epoll run fails on hosts where the native transport is not available. Run the main method with the test classpath
+ * of the module.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatagramTransportBenchmark {
+
+    private static final int PACKET_SIZE = 172;
+    private static final int BURST = 64;
+    private static final int WINDOW = 512;
+    private static final int SOCKET_BUFFER = 1024 * 1024;
+    private static final long LOSS_TIMEOUT = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Param({ "nio", "epoll" })
+    public String transport;
+
+    private EventLoopGroup group;
+    private Channel sender;
+    private Channel receiver;
+    private InetSocketAddress receiverAddress;
+
+    private ByteBuf payload;
+    private Runnable burst;
+
+    private final AtomicLong received = new AtomicLong(0);
+    private long sent;
+    private long lost;
+
+    @Setup
+    public void setup() {
+        NettyTransport nettyTransport = NettyTransport.fromName(transport);
+        if (!nettyTransport.isAvailable()) {
+            throw new IllegalStateException("Transport " + transport + " is not available on this host");
+        }
+
+        this.group = nettyTransport.newEventLoopGroup(2, null);
+        Bootstrap bootstrap = nettyTransport.newBootstrap(group, false).option(ChannelOption.SO_RCVBUF, SOCKET_BUFFER)
+                .option(ChannelOption.SO_SNDBUF, SOCKET_BUFFER);
+
+        this.receiver = bootstrap.clone().handler(new SimpleChannelInboundHandler<DatagramPacket>() {
+
+            @Override
+            protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket msg) throws Exception {
+                received.incrementAndGet();
+            }
+
+        }).bind(new InetSocketAddress("127.0.0.1", 0)).syncUninterruptibly().channel();
+        this.receiverAddress = (InetSocketAddress) receiver.localAddress();
+
+        this.sender = bootstrap.clone().handler(new SimpleChannelInboundHandler<DatagramPacket>() {
+
+            @Override
+            protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket msg) throws Exception {
+                // sender does not expect traffic
+            }
+
+        }).bind(new InetSocketAddress("127.0.0.1", 0)).syncUninterruptibly().channel();
+
+        this.payload = Unpooled.directBuffer(PACKET_SIZE).writeZero(PACKET_SIZE);
+        this.burst = new Runnable() {
+
+            @Override
+            public void run() {
+                for (int i = 0; i < BURST; i++) {
+                    sender.write(new DatagramPacket(payload.retainedDuplicate(), receiverAddress), sender.voidPromise());
+                }
+                sender.flush();
+            }
+
+        };
+
+        this.received.set(0);
+        this.sent = 0;
+        this.lost = 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.sender.close().syncUninterruptibly();
+        this.receiver.close().syncUninterruptibly();
+        this.group.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+        this.payload.release();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void loopback(Datagrams datagrams) {
+        sender.eventLoop().execute(burst);
+        this.sent += BURST;
+        datagrams.sent += BURST;
+
+        long deadline = System.nanoTime() + LOSS_TIMEOUT;
+        while (this.sent - (this.received.get() + this.lost) > WINDOW) {
+            if (System.nanoTime() > deadline) {
+                // Write off the datagrams the kernel dropped
+                long dropped = this.sent - this.received.get() - this.lost;
+                this.lost += dropped;
+                datagrams.lost += dropped;
+                break;
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Datagrams sent and written off during an iteration, reported by JMH as secondary results of {@link #loopback}.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Datagrams {
+
+        public long sent;
+        public long lost;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.sent = 0;
+            this.lost = 0;
+        }
+
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(DatagramTransportBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
@@ -39,6 +39,11 @@ public class AudioPlayerEvent implements PlayerEvent {
         this.eventID = eventID;
         this.player = player;
     }
+
+    public AudioPlayerEvent(Player player, int eventID, int qualifier) {
+        this(player, eventID);
+        this.qualifier = qualifier;
+    }
         
 
     public int getEventID() {
@@ -24,6 +24,9 @@ package org.restcomm.media.resource.player.audio;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.log4j.Logger;
+import org.restcomm.media.resource.player.audio.async.TrackLoader;
+import org.restcomm.media.resource.player.audio.prompt.PromptCache;
+import org.restcomm.media.resource.player.audio.tts.SpeechCache;
 import org.restcomm.media.scheduler.PriorityQueueScheduler;
 import org.restcomm.media.spi.dsp.DspFactory;
 import org.restcomm.media.spi.pooling.PooledObjectFactory;
@@ -43,16 +46,39 @@ public class AudioPlayerFactory implements PooledObjectFactory<AudioPlayerImpl>
     private final PriorityQueueScheduler scheduler;
     private final DspFactory dspFactory;
     private final RemoteStreamProvider remoteStreamProvider;
+    private final PromptCache promptCache;
+    private final TrackLoader trackLoader;
+    private final SpeechCache speechCache;
 
     public AudioPlayerFactory(PriorityQueueScheduler scheduler, DspFactory dspFactory, RemoteStreamProvider remoteStreamProvider) {
+        this(scheduler, dspFactory, remoteStreamProvider, null);
+    }
+
+    public AudioPlayerFactory(PriorityQueueScheduler scheduler, DspFactory dspFactory, RemoteStreamProvider remoteStreamProvider,
+            PromptCache promptCache) {
+        this(scheduler, dspFactory, remoteStreamProvider, promptCache, null);
+    }
+
+    public AudioPlayerFactory(PriorityQueueScheduler scheduler, DspFactory dspFactory, RemoteStreamProvider remoteStreamProvider,
+            PromptCache promptCache, TrackLoader trackLoader) {
+        this(scheduler, dspFactory, remoteStreamProvider, promptCache, trackLoader, null);
+    }
+
+    public AudioPlayerFactory(PriorityQueueScheduler scheduler, DspFactory dspFactory, RemoteStreamProvider remoteStreamProvider,
+            PromptCache promptCache, TrackLoader trackLoader, SpeechCache speechCache) {
         this.scheduler = scheduler;
         this.dspFactory = dspFactory;
         this.remoteStreamProvider = remoteStreamProvider;
+        this.promptCache = promptCache;
+        this.trackLoader = trackLoader;
+        this.speechCache = speechCache;
     }
 
     @Override
     public AudioPlayerImpl produce() {
-        AudioPlayerImpl player = new AudioPlayerImpl("player-" + ID.getAndIncrement(), scheduler, remoteStreamProvider);
+        AudioPlayerImpl player = new AudioPlayerImpl("player-" + ID.getAndIncrement(), scheduler, remoteStreamProvider, promptCache);
+        player.setTrackLoader(this.trackLoader);
+        player.setSpeechCache(this.speechCache);
         try {
             player.setDsp(this.dspFactory.newProcessor());
         } catch (InstantiationException | ClassNotFoundException | IllegalAccessException e) {
@@ -22,19 +22,31 @@
 
 package org.restcomm.media.resource.player.audio;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.log4j.Logger;
 import org.restcomm.media.ComponentType;
 import org.restcomm.media.component.AbstractSource;
 import org.restcomm.media.component.audio.AudioInput;
 import org.restcomm.media.resource.player.Track;
+import org.restcomm.media.resource.player.audio.async.BufferedTrack;
+import org.restcomm.media.resource.player.audio.async.TrackListener;
+import org.restcomm.media.resource.player.audio.async.TrackLoader;
 import org.restcomm.media.resource.player.audio.gsm.GsmTrackImpl;
 import org.restcomm.media.resource.player.audio.mpeg.AMRTrackImpl;
+import org.restcomm.media.resource.player.audio.prompt.PromptCache;
+import org.restcomm.media.resource.player.audio.prompt.PromptTrack;
 import org.restcomm.media.resource.player.audio.tone.ToneTrackImpl;
+import org.restcomm.media.resource.player.audio.tts.SpeechCache;
 import org.restcomm.media.resource.player.audio.tts.TtsTrackImpl;
+import org.restcomm.media.resource.player.audio.wav.MappedWavTrack;
 import org.restcomm.media.resource.player.audio.wav.WavTrackImpl;
 import org.restcomm.media.scheduler.PriorityQueueScheduler;
 import org.restcomm.media.spi.ResourceUnavailableException;
@@ -77,6 +89,20 @@ public class AudioPlayerImpl extends AbstractSource implements Player, TTSEngine
     private final Listeners<PlayerListener> listeners;
 
     private final RemoteStreamProvider remoteStreamProvider;
+    private final PromptCache promptCache;
+    private SpeechCache speechCache;
+
+    // Asynchronous opening of remote tracks
+    private TrackLoader trackLoader;
+    private final Object trackLock = new Object();
+    private PendingTrack pending;
+    private final BufferedTrack.Listener bufferListener = new BufferedTrack.Listener() {
+
+        @Override
+        public void framesAvailable() {
+            wakeup();
+        }
+    };
 
     /**
      * Creates new instance of the Audio player.
@@ -86,11 +112,25 @@ public class AudioPlayerImpl extends AbstractSource implements Player, TTSEngine
      * @param vc the TTS voice cache.
      */
     public AudioPlayerImpl(String name, PriorityQueueScheduler scheduler, RemoteStreamProvider remoteStreamProvider) {
+        this(name, scheduler, remoteStreamProvider, null);
+    }
+
+    /**
+     * Creates new instance of the Audio player that plays recorded announcements from a prompt cache.
+     * 
+     * @param name the name of the AudioPlayer to be created.
+     * @param scheduler EDF job scheduler
+     * @param remoteStreamProvider the provider used to open WAV files
+     * @param promptCache the cache of packetized announcements. May be null.
+     */
+    public AudioPlayerImpl(String name, PriorityQueueScheduler scheduler, RemoteStreamProvider remoteStreamProvider,
+            PromptCache promptCache) {
         super(name, scheduler, PriorityQueueScheduler.INPUT_QUEUE);
         this.input = new AudioInput(ComponentType.PLAYER.getType(), packetSize);
         this.listeners = new Listeners<PlayerListener>();
         this.connect(this.input);
         this.remoteStreamProvider = remoteStreamProvider;
+        this.promptCache = promptCache;
     }
 
     public AudioInput getAudioInput() {
@@ -115,8 +155,41 @@ public class AudioPlayerImpl extends AbstractSource implements Player, TTSEngine
         return this.dsp;
     }
 
+    /**
+     * Assigns the I/O pool that opens remote tracks. When set, remote recordings are fetched and read ahead on the pool and
+     * playback starts once their first frames are available.
+     *
+     * @param trackLoader the I/O pool. May be null to open tracks on the calling thread.
+     */
+    public void setTrackLoader(TrackLoader trackLoader) {
+        this.trackLoader = trackLoader;
+    }
+
+    public TrackLoader getTrackLoader() {
+        return this.trackLoader;
+    }
+
+    /**
+     * Assigns the cache of synthesized phrases. When set, texts are synthesized on the I/O pool and played while being
+     * synthesized, and repeated phrases are played from memory.
+     *
+     * @param speechCache the speech cache. May be null to synthesize texts on the calling thread.
+     */
+    public void setSpeechCache(SpeechCache speechCache) {
+        this.speechCache = speechCache;
+    }
+
+    public SpeechCache getSpeechCache() {
+        return this.speechCache;
+    }
+
     @Override
     public void setURL(String passedURI) throws ResourceUnavailableException, MalformedURLException {
+        // cancel previous track if still opening
+        synchronized (this.trackLock) {
+            this.pending = null;
+        }
+
         // close previous track if was opened
         if (this.track != null) {
             track.close();
@@ -139,22 +212,16 @@ public class AudioPlayerImpl extends AbstractSource implements Player, TTSEngine
         String ext = passedURI.substring(pos + 1).toLowerCase();
         targetURL = new URL(passedURI);
 
+        // remote recordings are fetched on the I/O pool so slow servers do not block the caller,
+        // and so are prompts that must be decoded before they can be played from the cache
+        if (this.trackLoader != null && isRecording(ext) && (isRemote(targetURL) || isPromptMissing(ext, targetURL))) {
+            openAsync(ext, targetURL);
+            return;
+        }
+
         // creating required extension
         try {
-            // check scheme, if its file, we should try to create dirs
-            if (ext.matches(Extension.WAV)) {
-                track = new WavTrackImpl(targetURL, remoteStreamProvider);
-            } else if (ext.matches(Extension.GSM)) {
-                track = new GsmTrackImpl(targetURL);
-            } else if (ext.matches(Extension.TONE)) {
-                track = new ToneTrackImpl(targetURL);
-            } else if (ext.matches(Extension.TXT)) {
-                track = new TtsTrackImpl(targetURL, voiceName, null);
-            } else if (ext.matches(Extension.MOV) || ext.matches(Extension.MP4) || ext.matches(Extension.THREE_GP)) {
-                track = new AMRTrackImpl(targetURL);
-            } else {
-                throw new ResourceUnavailableException("Unknown extension: " + passedURI);
-            }
+            track = openTrack(ext, targetURL);
         } catch (Exception e) {
             throw new ResourceUnavailableException(e);
         }
@@ -163,8 +230,93 @@ public class AudioPlayerImpl extends AbstractSource implements Player, TTSEngine
         this.duration = track.getDuration();
     }
 
+    private Track openTrack(String ext, URL targetURL) throws Exception {
+        final Track track;
+        if (promptCache != null && promptCache.isEnabled() && PromptCache.isCacheable(ext)) {
+            // mixer consumes linear frames, so the cache spares the decoding and transcoding steps
+            track = new PromptTrack(promptCache.getPrompt(targetURL, LINEAR, (int) (period / 1000000L)));
+        } else if (ext.matches(Extension.WAV)) {
+            // local files share a single memory mapping across all players
+            track = isRemote(targetURL) ? new WavTrackImpl(targetURL, remoteStreamProvider) : new MappedWavTrack(targetURL);
+        } else if (ext.matches(Extension.GSM)) {
+            track = new GsmTrackImpl(targetURL);
+        } else if (ext.matches(Extension.TONE)) {
+            track = new ToneTrackImpl(targetURL);
+        } else if (ext.matches(Extension.TXT)) {
+            track = speechCache == null ? new TtsTrackImpl(targetURL, voiceName, null)
+                    : speechCache.getTrack(voiceName, readText(targetURL), bufferListener);
+        } else if (ext.matches(Extension.MOV) || ext.matches(Extension.MP4) || ext.matches(Extension.THREE_GP)) {
+            track = new AMRTrackImpl(targetURL);
+        } else {
+            throw new ResourceUnavailableException("Unknown extension: " + targetURL);
+        }
+        return track;
+    }
+
+    private boolean isPromptMissing(String ext, URL targetURL) {
+        return promptCache != null && promptCache.isEnabled() && PromptCache.isCacheable(ext)
+                && !promptCache.isLoaded(targetURL, LINEAR, (int) (period / 1000000L));
+    }
+
+    private static String readText(URL url) throws IOException {
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        try (InputStream stream = url.openStream()) {
+            byte[] buffer = new byte[4096];
+            int count = stream.read(buffer);
+            while (count != -1) {
+                text.write(buffer, 0, count);
+                count = stream.read(buffer);
+            }
+        }
+        return text.toString("UTF-8");
+    }
+
+    private static boolean isRemote(URL url) {
+        return !"file".equalsIgnoreCase(url.getProtocol());
+    }
+
+    private static boolean isRecording(String ext) {
+        return ext.matches(Extension.WAV) || ext.matches(Extension.GSM) || ext.matches(Extension.MOV)
+                || ext.matches(Extension.MP4) || ext.matches(Extension.THREE_GP);
+    }
+
+    private void openAsync(String ext, URL targetURL) throws ResourceUnavailableException {
+        PendingTrack opening = new PendingTrack(ext, targetURL);
+        synchronized (this.trackLock) {
+            this.pending = opening;
+        }
+
+        try {
+            this.trackLoader.open(opening, opening);
+        } catch (RejectedExecutionException e) {
+            synchronized (this.trackLock) {
+                if (this.pending == opening) {
+                    this.pending = null;
+                }
+            }
+            throw new ResourceUnavailableException("Player I/O pool is full, cannot open " + targetURL, e);
+        }
+    }
+
     @Override
     public void activate() {
+        PendingTrack failed = null;
+        synchronized (this.trackLock) {
+            if (this.pending != null) {
+                if (this.pending.failure == null) {
+                    // playout starts once the track is opened
+                    this.pending.activated = true;
+                    return;
+                }
+                failed = this.pending;
+                this.pending = null;
+            }
+        }
+        if (failed != null) {
+            fireFailed(failed.failure);
+            return;
+        }
+
         if (track == null) {
             throw new IllegalStateException("The media source is not specified");
         }
@@ -175,6 +327,9 @@ public class AudioPlayerImpl extends AbstractSource implements Player, TTSEngine
 
     @Override
     public void deactivate() {
+        synchronized (this.trackLock) {
+            this.pending = null;
+        }
         stop();
         if (track != null) {
             track.close();
@@ -182,6 +337,12 @@ public class AudioPlayerImpl extends AbstractSource implements Player, TTSEngine
         }
     }
 
+    private void fireFailed(Exception e) {
+        log.warn("Could not open track: " + e.getMessage());
+        int qualifier = (e instanceof FileNotFoundException) ? AudioPlayerEvent.FILE_NOT_FOUND : 0;
+        listeners.dispatch(new AudioPlayerEvent(this, AudioPlayerEvent.FAILED, qualifier));
+    }
+
     @Override
     protected void stopped() {
         listeners.dispatch(new AudioPlayerEvent(this, AudioPlayerEvent.STOP));
@@ -258,8 +419,31 @@ public class AudioPlayerImpl extends AbstractSource implements Player, TTSEngine
     }
 
     @Override
-    public void setText(String text) {
-        track = new TtsTrackImpl(text, voiceName, null);
+    public void setText(String text) throws ResourceUnavailableException {
+        // cancel previous track if still opening
+        synchronized (this.trackLock) {
+            this.pending = null;
+        }
+
+        // close previous track if was opened
+        if (this.track != null) {
+            track.close();
+            track = null;
+        }
+
+        if (speechCache == null) {
+            track = new TtsTrackImpl(text, voiceName, null);
+        } else {
+            try {
+                // synthesis runs on the I/O pool so playback starts with the first utterance
+                track = speechCache.getTrack(voiceName, text, bufferListener);
+            } catch (RejectedExecutionException e) {
+                throw new ResourceUnavailableException("Player I/O pool is full, cannot synthesize text", e);
+            }
+        }
+
+        // update duration
+        this.duration = track.getDuration();
     }
 
     @Override
@@ -288,4 +472,74 @@ public class AudioPlayerImpl extends AbstractSource implements Player, TTSEngine
         // TODO Auto-generated method stub
 
     }
+    /**
+     * Track being opened on the I/O pool.
+     */
+    private final class PendingTrack implements Callable<Track>, TrackListener {
+
+        private final String ext;
+        private final URL url;
+
+        // Guarded by trackLock
+        private boolean activated;
+        private Exception failure;
+
+        public PendingTrack(String ext, URL url) {
+            this.ext = ext;
+            this.url = url;
+        }
+
+        @Override
+        public Track call() throws Exception {
+            Track opened = openTrack(this.ext, this.url);
+            if (opened instanceof PromptTrack) {
+                // cached prompts are already in memory
+                return opened;
+            }
+
+            BufferedTrack buffered = new BufferedTrack(opened, trackLoader, bufferListener);
+            buffered.prefetch(BufferedTrack.PREFETCH);
+            return buffered;
+        }
+
+        @Override
+        public void trackOpened(Track opened) {
+            boolean started = false;
+            synchronized (trackLock) {
+                if (pending != this) {
+                    // player was reset while the track was opening
+                    opened.close();
+                    return;
+                }
+                pending = null;
+                track = opened;
+                duration = opened.getDuration();
+                if (this.activated) {
+                    start();
+                    started = true;
+                }
+            }
+            if (started) {
+                listeners.dispatch(new AudioPlayerEvent(AudioPlayerImpl.this, AudioPlayerEvent.START));
+            }
+        }
+
+        @Override
+        public void trackFailed(Exception e) {
+            synchronized (trackLock) {
+                if (pending != this) {
+                    return;
+                }
+                if (!this.activated) {
+                    // reported once the player is activated
+                    this.failure = e;
+                    return;
+                }
+                pending = null;
+            }
+            fireFailed(e);
+        }
+
+    }
+
 }
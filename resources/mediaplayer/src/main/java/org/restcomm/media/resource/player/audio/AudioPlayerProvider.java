@@ -24,6 +24,9 @@ package org.restcomm.media.resource.player.audio;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.log4j.Logger;
+import org.restcomm.media.resource.player.audio.async.TrackLoader;
+import org.restcomm.media.resource.player.audio.prompt.PromptCache;
+import org.restcomm.media.resource.player.audio.tts.SpeechCache;
 import org.restcomm.media.scheduler.PriorityQueueScheduler;
 import org.restcomm.media.spi.dsp.DspFactory;
 import org.restcomm.media.spi.player.Player;
@@ -42,17 +45,40 @@ public class AudioPlayerProvider implements PlayerProvider {
     private final PriorityQueueScheduler scheduler;
     private final RemoteStreamProvider remoteStreamProvider;
     private final AtomicInteger id;
+    private final PromptCache promptCache;
+    private final TrackLoader trackLoader;
+    private final SpeechCache speechCache;
     private DspFactory dsp;
 
     public AudioPlayerProvider(PriorityQueueScheduler scheduler, RemoteStreamProvider remoteStreamProvider, DspFactory dsp) {
+        this(scheduler, remoteStreamProvider, dsp, null);
+    }
+
+    public AudioPlayerProvider(PriorityQueueScheduler scheduler, RemoteStreamProvider remoteStreamProvider, DspFactory dsp,
+            PromptCache promptCache) {
+        this(scheduler, remoteStreamProvider, dsp, promptCache, null);
+    }
+
+    public AudioPlayerProvider(PriorityQueueScheduler scheduler, RemoteStreamProvider remoteStreamProvider, DspFactory dsp,
+            PromptCache promptCache, TrackLoader trackLoader) {
+        this(scheduler, remoteStreamProvider, dsp, promptCache, trackLoader, null);
+    }
+
+    public AudioPlayerProvider(PriorityQueueScheduler scheduler, RemoteStreamProvider remoteStreamProvider, DspFactory dsp,
+            PromptCache promptCache, TrackLoader trackLoader, SpeechCache speechCache) {
         this.scheduler = scheduler;
         this.remoteStreamProvider = remoteStreamProvider;
         this.dsp = dsp;
+        this.promptCache = promptCache;
+        this.trackLoader = trackLoader;
+        this.speechCache = speechCache;
         this.id = new AtomicInteger(0);
     }
 
     public Player provide() {
-        AudioPlayerImpl player = new AudioPlayerImpl(nextId(), this.scheduler, remoteStreamProvider);
+        AudioPlayerImpl player = new AudioPlayerImpl(nextId(), this.scheduler, remoteStreamProvider, promptCache);
+        player.setTrackLoader(this.trackLoader);
+        player.setSpeechCache(this.speechCache);
         try {
             player.setDsp(this.dsp.newProcessor());
         } catch (InstantiationException | ClassNotFoundException | IllegalAccessException e) {
@@ -28,7 +28,19 @@ public class CachedRemoteStreamProvider implements RemoteStreamProvider {
 
     private ByteStreamCache.ISizeChangedListener sizeChangedListener;
 
+    private final RemoteStreamProvider streamProvider;
+
     public CachedRemoteStreamProvider(int size) {
+        this(size, 0, 0);
+    }
+
+    /**
+     * @param size the size of the cache, in megabytes
+     * @param connectTimeout the time to wait for a connection, in milliseconds. Zero waits forever.
+     * @param readTimeout the time to wait for data on an open connection, in milliseconds. Zero waits forever.
+     */
+    public CachedRemoteStreamProvider(int size, int connectTimeout, int readTimeout) {
+        streamProvider = new DirectRemoteStreamProvider(connectTimeout, readTimeout);
         log.info("Create AudioCache with size: " + size + "Mb");
         cacheManager = CacheManagerBuilder.newCacheManagerBuilder()
                 .withCache("preConfigured",
@@ -60,7 +72,7 @@ public class CachedRemoteStreamProvider implements RemoteStreamProvider {
                 stream = exists;
             }
         }
-        return new ByteArrayInputStream(stream.getBytes(uri, sizeChangedListener));
+        return new ByteArrayInputStream(stream.getBytes(uri, streamProvider, sizeChangedListener));
     }
 
     private static class ByteStreamCache {
@@ -70,13 +82,19 @@ public class CachedRemoteStreamProvider implements RemoteStreamProvider {
 
         private volatile byte[] bytes;
 
-        public byte[] getBytes(final URL uri, final ISizeChangedListener listener) throws IOException {
+        public byte[] getBytes(final URL uri, final RemoteStreamProvider streamProvider, final ISizeChangedListener listener) throws IOException {
             if (bytes == null) {
                 lock.lock();
                 try {
                     //need to check twice
                     if (bytes == null) {
-                        bytes = IOUtils.toByteArray(uri.openStream());
+                        // stream is closed so the connection can be reused
+                        InputStream stream = streamProvider.getStream(uri);
+                        try {
+                            bytes = IOUtils.toByteArray(stream);
+                        } finally {
+                            IOUtils.closeQuietly(stream);
+                        }
                         listener.onSizeChanged(uri, this);
                     }
                 } finally {
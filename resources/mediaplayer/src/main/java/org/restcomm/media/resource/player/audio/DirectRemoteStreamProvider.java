@@ -3,14 +3,40 @@ package org.restcomm.media.resource.player.audio;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.net.URLConnection;
 
 /**
  * Created by achikin on 6/7/16.
  */
 public class DirectRemoteStreamProvider implements RemoteStreamProvider {
 
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    /**
+     * Creates a provider that opens streams with the given timeouts.
+     * <p>
+     * HTTP connections are kept alive by the JDK and reused by later requests to the same server once a stream was read to
+     * the end and closed.
+     * </p>
+     *
+     * @param connectTimeout the time to wait for a connection, in milliseconds. Zero waits forever.
+     * @param readTimeout the time to wait for data on an open connection, in milliseconds. Zero waits forever.
+     */
+    public DirectRemoteStreamProvider(int connectTimeout, int readTimeout) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    public DirectRemoteStreamProvider() {
+        this(0, 0);
+    }
+
     @Override
     public InputStream getStream(URL uri) throws IOException {
-        return uri.openStream();
+        URLConnection connection = uri.openConnection();
+        connection.setConnectTimeout(this.connectTimeout);
+        connection.setReadTimeout(this.readTimeout);
+        return connection.getInputStream();
     }
 }
@@ -0,0 +1,275 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.async;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+import org.restcomm.media.resource.player.Track;
+import org.restcomm.media.spi.format.Format;
+import org.restcomm.media.spi.memory.Frame;
+
+/**
+ * Track that reads ahead of playback on the {@link TrackLoader} pool.
+ * <p>
+ * Frames of the underlying track are read into a bounded buffer by pool threads, so the media scheduler only polls frames
+ * that are already in memory and never waits on the network. Long files are streamed progressively: at most
+ * {@link #CAPACITY} frames are buffered at any time, and the buffer is refilled once it drops to half of its capacity.
+ * </p>
+ * <p>
+ * If playback catches up with the reader, {@link #process(long)} returns null and the listener is notified as soon as new
+ * frames are available.
+ * </p>
+ */
+public class BufferedTrack implements Track {
+
+    private static final Logger log = Logger.getLogger(BufferedTrack.class);
+
+    /** Maximum number of frames held in memory (1s of 20ms frames) */
+    public static final int CAPACITY = 50;
+    /** Number of frames read before the track is reported as ready (200ms of 20ms frames) */
+    public static final int PREFETCH = 10;
+
+    private final Track source;
+    private final TrackLoader loader;
+    private final Listener listener;
+    private final int capacity;
+    private final int lowWater;
+
+    private final ConcurrentLinkedQueue<Frame> frames;
+    private final AtomicInteger buffered;
+    private final AtomicBoolean filling;
+    private final AtomicBoolean released;
+    private final Runnable fillTask;
+
+    // Written by the reader only
+    private long position;
+    private volatile boolean ended;
+    private volatile IOException error;
+
+    private volatile boolean starved;
+    private volatile boolean closed;
+
+    public BufferedTrack(Track source, TrackLoader loader, Listener listener, int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Track buffer must hold at least two frames.");
+        }
+        this.source = source;
+        this.loader = loader;
+        this.listener = listener;
+        this.capacity = capacity;
+        this.lowWater = capacity / 2;
+
+        this.frames = new ConcurrentLinkedQueue<>();
+        this.buffered = new AtomicInteger(0);
+        this.filling = new AtomicBoolean(false);
+        this.released = new AtomicBoolean(false);
+        this.fillTask = new Runnable() {
+
+            @Override
+            public void run() {
+                fill(BufferedTrack.this.capacity);
+            }
+        };
+
+        this.position = 0;
+        this.ended = false;
+        this.starved = false;
+        this.closed = false;
+    }
+
+    public BufferedTrack(Track source, TrackLoader loader, Listener listener) {
+        this(source, loader, listener, CAPACITY);
+    }
+
+    /**
+     * Reads the first frames of the track on the calling thread, then schedules the remaining reads on the pool.
+     * <p>
+     * Meant to be called from a pool thread before the track is handed to the player.
+     * </p>
+     * 
+     * @param count The number of frames to read before returning.
+     */
+    public void prefetch(int count) {
+        if (this.filling.compareAndSet(false, true)) {
+            fill(Math.min(count, this.capacity));
+        }
+    }
+
+    /**
+     * Gets the number of frames read but not played yet.
+     * 
+     * @return The number of buffered frames
+     */
+    public int getBufferedCount() {
+        return this.buffered.get();
+    }
+
+    @Override
+    public Format getFormat() {
+        return this.source.getFormat();
+    }
+
+    @Override
+    public long getMediaTime() {
+        return this.source.getMediaTime();
+    }
+
+    @Override
+    public void setMediaTime(long timestamp) {
+        // buffered streams are always played from the start
+    }
+
+    @Override
+    public long getDuration() {
+        return this.source.getDuration();
+    }
+
+    @Override
+    public Frame process(long timestamp) throws IOException {
+        Frame frame = this.frames.poll();
+        if (frame == null) {
+            if (this.ended) {
+                // reader may still be releasing the last frame it read
+                frame = this.frames.poll();
+                if (frame == null) {
+                    if (this.error != null) {
+                        throw this.error;
+                    }
+                    return null;
+                }
+            } else {
+                this.loader.underrun();
+                this.starved = true;
+                requestFill();
+
+                // reader may have buffered a frame before noticing the underrun
+                frame = this.frames.poll();
+                if (frame == null) {
+                    return null;
+                }
+                this.starved = false;
+            }
+        }
+
+        if (this.buffered.decrementAndGet() <= this.lowWater && !this.ended) {
+            requestFill();
+        }
+        return frame;
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+        if (this.filling.compareAndSet(false, true)) {
+            release();
+        }
+    }
+
+    private void requestFill() {
+        if (!this.closed && this.filling.compareAndSet(false, true)) {
+            try {
+                this.loader.execute(this.fillTask);
+            } catch (RejectedExecutionException e) {
+                this.filling.set(false);
+                log.warn("Could not schedule read of buffered track. Player I/O pool is full.");
+            }
+        }
+    }
+
+    private void fill(int limit) {
+        try {
+            while (!this.closed && !this.ended && this.buffered.get() < limit) {
+                Frame frame;
+                try {
+                    frame = this.source.process(this.position);
+                } catch (IOException e) {
+                    this.error = e;
+                    this.ended = true;
+                    break;
+                }
+
+                if (frame == null) {
+                    this.ended = true;
+                    break;
+                }
+
+                this.position += frame.getDuration();
+                if (frame.isEOM()) {
+                    this.ended = true;
+                }
+                this.frames.offer(frame);
+                this.buffered.incrementAndGet();
+
+                if (this.starved) {
+                    this.starved = false;
+                    this.listener.framesAvailable();
+                }
+            }
+        } finally {
+            this.filling.set(false);
+        }
+
+        if (this.closed) {
+            if (this.filling.compareAndSet(false, true)) {
+                release();
+            }
+        } else if (this.ended) {
+            // let a starving player find out the track is over
+            if (this.starved) {
+                this.starved = false;
+                this.listener.framesAvailable();
+            }
+        } else if (this.starved || this.buffered.get() <= this.lowWater) {
+            requestFill();
+        }
+    }
+
+    private void release() {
+        if (this.released.compareAndSet(false, true)) {
+            Frame frame = this.frames.poll();
+            while (frame != null) {
+                frame.recycle();
+                frame = this.frames.poll();
+            }
+            this.buffered.set(0);
+            this.source.close();
+        }
+    }
+
+    /**
+     * Listener notified when a starving buffered track has frames to be played.
+     */
+    public interface Listener {
+
+        /**
+         * Invoked from a pool thread when frames became available after {@link BufferedTrack#process(long)} returned null.
+         */
+        void framesAvailable();
+
+    }
+
+}
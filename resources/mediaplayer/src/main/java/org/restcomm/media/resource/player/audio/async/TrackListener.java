@@ -0,0 +1,45 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.async;
+
+import org.restcomm.media.resource.player.Track;
+
+/**
+ * Listener notified once a track opened by the {@link TrackLoader} is ready to be played.
+ */
+public interface TrackListener {
+
+    /**
+     * Invoked when the track was opened and its first frames are available.
+     * 
+     * @param track The opened track
+     */
+    void trackOpened(Track track);
+
+    /**
+     * Invoked when the track could not be opened.
+     * 
+     * @param e The reason of the failure
+     */
+    void trackFailed(Exception e);
+
+}
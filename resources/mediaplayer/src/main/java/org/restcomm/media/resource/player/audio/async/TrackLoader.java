@@ -0,0 +1,212 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.async;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+import org.restcomm.media.resource.player.Track;
+
+/**
+ * Bounded I/O pool shared by all audio players of the media server.
+ * <p>
+ * Tracks are opened and prefetched on this pool so that slow remote servers never block the thread that handles MGCP
+ * signals nor the media scheduler. Once both the workers and the admission queue are busy, new work is rejected instead
+ * of spawning more threads.
+ * </p>
+ */
+public class TrackLoader {
+
+    private static final Logger LOGGER = Logger.getLogger(TrackLoader.class);
+
+    public static final int THREADS = 8;
+    public static final int QUEUE_SIZE = 1000;
+
+    private static final long KEEP_ALIVE = 60L;
+
+    private final ThreadPoolExecutor executor;
+
+    // Statistics
+    private final AtomicLong opened;
+    private final AtomicLong failed;
+    private final AtomicLong rejected;
+    private final AtomicLong underruns;
+    private final AtomicLong totalOpenTime;
+
+    public TrackLoader(int threads, int queueSize) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Track loader needs at least one thread.");
+        }
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("Track loader queue size must be positive.");
+        }
+
+        this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize), new LoaderThreadFactory());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.opened = new AtomicLong(0);
+        this.failed = new AtomicLong(0);
+        this.rejected = new AtomicLong(0);
+        this.underruns = new AtomicLong(0);
+        this.totalOpenTime = new AtomicLong(0);
+    }
+
+    public TrackLoader() {
+        this(THREADS, QUEUE_SIZE);
+    }
+
+    /**
+     * Opens a track on the pool.
+     * 
+     * @param opener The task that opens the track and reads its first frames.
+     * @param listener The listener to be notified once the track is ready or could not be opened. Invoked from a pool
+     *        thread.
+     * @throws RejectedExecutionException When the admission queue is full.
+     */
+    public void open(final Callable<Track> opener, final TrackListener listener) throws RejectedExecutionException {
+        try {
+            this.executor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    long startedAt = System.nanoTime();
+                    Track track;
+                    try {
+                        track = opener.call();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        listener.trackFailed(e);
+                        return;
+                    }
+                    totalOpenTime.addAndGet(System.nanoTime() - startedAt);
+                    opened.incrementAndGet();
+                    listener.trackOpened(track);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Executes background work of an opened track, such as reads or speech synthesis.
+     * 
+     * @param task The background task.
+     * @throws RejectedExecutionException When the admission queue is full.
+     */
+    public void execute(Runnable task) throws RejectedExecutionException {
+        try {
+            this.executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            this.rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Records that a player asked for a frame that was not read yet.
+     */
+    public void underrun() {
+        this.underruns.incrementAndGet();
+    }
+
+    /**
+     * Stops the pool. Reads in progress are interrupted and queued work is discarded.
+     */
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    public int getThreads() {
+        return this.executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Gets the number of tasks waiting for a worker thread.
+     * 
+     * @return The depth of the admission queue
+     */
+    public int getQueueDepth() {
+        return this.executor.getQueue().size();
+    }
+
+    public long getOpenedCount() {
+        return this.opened.get();
+    }
+
+    public long getFailedCount() {
+        return this.failed.get();
+    }
+
+    public long getRejectedCount() {
+        return this.rejected.get();
+    }
+
+    /**
+     * Gets how many times a player asked for a frame that was not read yet.
+     * 
+     * @return The number of buffer underruns
+     */
+    public long getUnderrunCount() {
+        return this.underruns.get();
+    }
+
+    /**
+     * Gets the average time it took to open a track and read its first frames, excluding the time spent in the admission
+     * queue.
+     * 
+     * @return The average open latency, in milliseconds
+     */
+    public long getAverageOpenTime() {
+        long count = this.opened.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(this.totalOpenTime.get() / count);
+    }
+
+    private static final class LoaderThreadFactory implements ThreadFactory {
+
+        private static final AtomicLong THREAD_COUNTER = new AtomicLong(0);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "Player-IO-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+
+                @Override
+                public void uncaughtException(Thread t, Throwable e) {
+                    LOGGER.error("Player I/O thread " + t.getName() + " terminated unexpectedly.", e);
+                }
+            });
+            return thread;
+        }
+
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.prompt;
+
+import org.restcomm.media.spi.format.AudioFormat;
+
+/**
+ * Announcement that was already decoded, transcoded and packetized.
+ * <p>
+ * Prompts are immutable and shared by every player that plays them, so frames must be copied before being handed to the
+ * media pipeline.
+ * </p>
+ */
+public class Prompt {
+
+    private final String url;
+    private final AudioFormat format;
+    private final int ptime;
+    private final byte[][] frames;
+    private final long size;
+
+    public Prompt(String url, AudioFormat format, int ptime, byte[][] frames) {
+        this.url = url;
+        this.format = format;
+        this.ptime = ptime;
+        this.frames = frames;
+
+        long size = 0;
+        for (int i = 0; i < frames.length; i++) {
+            size += frames[i].length;
+        }
+        this.size = size;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Gets the format the frames are encoded with.
+     * 
+     * @return the format of the frames
+     */
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Gets the duration of each frame.
+     * 
+     * @return the packetization time, in milliseconds
+     */
+    public int getPtime() {
+        return ptime;
+    }
+
+    public int getFrameCount() {
+        return frames.length;
+    }
+
+    /**
+     * Gets the payload of a frame. The returned array must not be modified.
+     * 
+     * @param index the index of the frame
+     * @return the payload of the frame
+     */
+    public byte[] getFrame(int index) {
+        return frames[index];
+    }
+
+    /**
+     * Gets the duration of the announcement.
+     * 
+     * @return the duration, in nanoseconds
+     */
+    public long getDuration() {
+        return frames.length * ptime * 1000000L;
+    }
+
+    /**
+     * Gets the memory taken by the frames.
+     * 
+     * @return the size of the payloads, in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+}
@@ -0,0 +1,390 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.prompt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.log4j.Logger;
+import org.restcomm.media.resource.player.Track;
+import org.restcomm.media.resource.player.audio.Extension;
+import org.restcomm.media.resource.player.audio.RemoteStreamProvider;
+import org.restcomm.media.resource.player.audio.gsm.GsmTrackImpl;
+import org.restcomm.media.resource.player.audio.mpeg.AMRTrackImpl;
+import org.restcomm.media.resource.player.audio.wav.WavTrackImpl;
+import org.restcomm.media.spi.dsp.DspFactory;
+import org.restcomm.media.spi.dsp.Processor;
+import org.restcomm.media.spi.format.AudioFormat;
+import org.restcomm.media.spi.format.Format;
+import org.restcomm.media.spi.format.FormatFactory;
+import org.restcomm.media.spi.memory.Frame;
+import org.restcomm.media.spi.memory.Memory;
+
+/**
+ * Cache of announcements that were already decoded, transcoded and packetized.
+ * <p>
+ * Prompts are keyed by URL, target format and packetization time, so playing a cached announcement costs one copy per frame
+ * instead of reading, parsing and transcoding the file on every playback. The cache is bounded by the size of the payloads
+ * and evicts the least recently played prompts first. A prompt larger than the whole cache is played but not kept, and a
+ * local file that was modified since it was loaded is loaded again.
+ * </p>
+ */
+public class PromptCache {
+
+    private static final Logger log = Logger.getLogger(PromptCache.class);
+
+    public static final AudioFormat LINEAR = FormatFactory.createAudioFormat("linear", 8000, 16, 1);
+
+    private final RemoteStreamProvider remoteStreamProvider;
+    private final DspFactory dspFactory;
+
+    private final SizedLruCache<Entry> entries;
+
+    /**
+     * Creates a new prompt cache.
+     * 
+     * @param size The maximum size of the cached frames, in megabytes. Zero disables the cache.
+     * @param remoteStreamProvider The provider used to open WAV files.
+     * @param dspFactory The factory of the processors used to transcode prompts. May be null if only linear prompts are
+     *        cached.
+     */
+    public PromptCache(int size, RemoteStreamProvider remoteStreamProvider, DspFactory dspFactory) {
+        this.remoteStreamProvider = remoteStreamProvider;
+        this.dspFactory = dspFactory;
+        this.entries = new SizedLruCache<Entry>(size * 1024L * 1024L) {
+
+            @Override
+            protected long sizeOf(Entry entry) {
+                // prompts still being loaded take no room yet
+                Prompt prompt = entry.prompt;
+                return prompt == null ? 0 : prompt.getSize();
+            }
+
+        };
+    }
+
+    public boolean isEnabled() {
+        return this.entries.getCapacity() > 0;
+    }
+
+    /**
+     * Tells whether files with a given extension can be cached.
+     * 
+     * @param extension The extension of the file, in lower case.
+     * @return true if the file is a recorded announcement, false otherwise.
+     */
+    public static boolean isCacheable(String extension) {
+        return Extension.WAV.equals(extension) || Extension.GSM.equals(extension) || Extension.MOV.equals(extension)
+                || Extension.MP4.equals(extension) || Extension.THREE_GP.equals(extension);
+    }
+
+    /**
+     * Gets a packetized announcement, loading it on the first request.
+     * <p>
+     * Concurrent requests for the same prompt wait for a single load. Loading decodes the whole file, so callers on a
+     * latency sensitive thread should check {@link #isLoaded(URL, AudioFormat, int)} first and load missing prompts on an
+     * I/O pool.
+     * </p>
+     * 
+     * @param url The location of the announcement.
+     * @param format The format the frames must be encoded with.
+     * @param ptime The duration of each frame, in milliseconds.
+     * @return The packetized announcement.
+     * @throws IOException When the announcement cannot be read or transcoded.
+     */
+    public Prompt getPrompt(URL url, AudioFormat format, int ptime) throws IOException {
+        final String key = key(url, format, ptime);
+        final long modified = lastModified(url);
+
+        Entry entry = this.entries.get(key);
+        if (entry != null && entry.modified != modified) {
+            // the file changed since it was loaded
+            this.entries.remove(key, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            entry = this.entries.putIfAbsent(key, new Entry(modified));
+        }
+
+        Prompt prompt = entry.prompt;
+        if (prompt != null) {
+            return prompt;
+        }
+
+        entry.lock.lock();
+        try {
+            // need to check twice
+            if (entry.prompt == null) {
+                try {
+                    entry.prompt = load(url, format, ptime);
+                } catch (IOException e) {
+                    this.entries.remove(key, entry);
+                    throw e;
+                }
+                // the entry may have been dropped by a concurrent clear, or be too large to be kept
+                if (!this.entries.refresh(key, entry) && entry.prompt.getSize() > getCapacity()) {
+                    log.warn("Prompt " + url + " takes " + entry.prompt.getSize()
+                            + " bytes, more than the whole prompt cache. It will not be cached.");
+                }
+            }
+            return entry.prompt;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Tells whether an announcement can be played from memory, without reading the file.
+     * 
+     * @param url The location of the announcement.
+     * @param format The format the frames must be encoded with.
+     * @param ptime The duration of each frame, in milliseconds.
+     * @return true if the announcement is cached and up to date, false if it must be loaded.
+     */
+    public boolean isLoaded(URL url, AudioFormat format, int ptime) {
+        Entry entry = this.entries.peek(key(url, format, ptime));
+        return entry != null && entry.prompt != null && entry.modified == lastModified(url);
+    }
+
+    /**
+     * Loads every recorded announcement of a directory into the cache.
+     * 
+     * @param directory The directory that holds the announcements.
+     * @param format The format the frames must be encoded with.
+     * @param ptime The duration of each frame, in milliseconds.
+     * @return The number of announcements that were loaded.
+     */
+    public int warmUp(File directory, AudioFormat format, int ptime) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            log.warn("Cannot warm up prompt cache. " + directory + " is not a directory.");
+            return 0;
+        }
+
+        int count = 0;
+        for (File file : files) {
+            String name = file.getName();
+            int pos = name.lastIndexOf('.');
+            if (!file.isFile() || pos == -1 || !isCacheable(name.substring(pos + 1).toLowerCase())) {
+                continue;
+            }
+
+            try {
+                getPrompt(file.toURI().toURL(), format, ptime);
+                count++;
+            } catch (IOException e) {
+                log.warn("Could not load prompt " + file + " into cache: " + e.getMessage());
+            }
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info("Loaded " + count + " prompts from " + directory + " into cache (" + getSize() + " bytes)");
+        }
+        return count;
+    }
+
+    public long getHitCount() {
+        return this.entries.getHitCount();
+    }
+
+    public long getMissCount() {
+        return this.entries.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return this.entries.getEvictionCount();
+    }
+
+    /**
+     * Gets the number of prompts held by the cache.
+     * 
+     * @return The number of prompts, including the ones being loaded.
+     */
+    public int getCount() {
+        return this.entries.getCount();
+    }
+
+    /**
+     * Gets the memory taken by the cached frames.
+     * 
+     * @return The size of the payloads, in bytes.
+     */
+    public long getSize() {
+        return this.entries.getSize();
+    }
+
+    /**
+     * Gets the maximum memory the cached frames may take.
+     * 
+     * @return The capacity of the cache, in bytes.
+     */
+    public long getCapacity() {
+        return this.entries.getCapacity();
+    }
+
+    public void clear() {
+        this.entries.clear();
+    }
+
+    private static String key(URL url, AudioFormat format, int ptime) {
+        return url.toString() + '|' + format + '|' + ptime;
+    }
+
+    private static long lastModified(URL url) {
+        if (!"file".equalsIgnoreCase(url.getProtocol())) {
+            // remote prompts are expected to be immutable
+            return 0L;
+        }
+        try {
+            return new File(url.toURI()).lastModified();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return 0L;
+        }
+    }
+
+    private Prompt load(URL url, AudioFormat format, int ptime) throws IOException {
+        byte[] pcm = decode(url);
+
+        final int frameSize = ptime * LINEAR.getSampleRate() / 1000 * LINEAR.getSampleSize() / 8;
+        final int count = (pcm.length + frameSize - 1) / frameSize;
+        final long duration = ptime * 1000000L;
+
+        Processor encoder = format.matches(LINEAR) ? null : newProcessor();
+        byte[][] frames = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            int offset = i * frameSize;
+            int length = Math.min(frameSize, pcm.length - offset);
+
+            if (encoder == null) {
+                // last frame is padded with silence
+                frames[i] = new byte[frameSize];
+                System.arraycopy(pcm, offset, frames[i], 0, length);
+                continue;
+            }
+
+            Frame frame = Memory.allocate(frameSize);
+            byte[] data = frame.getData();
+            System.arraycopy(pcm, offset, data, 0, length);
+            for (int j = length; j < frameSize; j++) {
+                data[j] = 0;
+            }
+            frame.setOffset(0);
+            frame.setLength(frameSize);
+            frame.setDuration(duration);
+            frame.setFormat(LINEAR);
+
+            Frame encoded = encoder.process(frame, LINEAR, format);
+            if (encoded == frame || !format.matches(encoded.getFormat())) {
+                encoded.recycle();
+                throw new IOException("Cannot transcode " + url + " to " + format);
+            }
+            frames[i] = new byte[encoded.getLength()];
+            System.arraycopy(encoded.getData(), encoded.getOffset(), frames[i], 0, encoded.getLength());
+            encoded.recycle();
+        }
+        return new Prompt(url.toString(), format, ptime, frames);
+    }
+
+    private byte[] decode(URL url) throws IOException {
+        Track track = open(url);
+        try {
+            Processor decoder = null;
+            ByteArrayOutputStream pcm = new ByteArrayOutputStream();
+
+            Frame frame = track.process(0);
+            while (frame != null) {
+                boolean eom = frame.isEOM();
+                Format source = frame.getFormat();
+                if (source != null && !source.matches(LINEAR)) {
+                    if (decoder == null) {
+                        decoder = newProcessor();
+                    }
+                    Frame decoded = decoder.process(frame, source, LINEAR);
+                    if (decoded == frame) {
+                        frame.recycle();
+                        throw new IOException("Cannot transcode " + url + " from " + source);
+                    }
+                    frame = decoded;
+                }
+                pcm.write(frame.getData(), frame.getOffset(), frame.getLength());
+                frame.recycle();
+
+                frame = eom ? null : track.process(0);
+            }
+            return pcm.toByteArray();
+        } finally {
+            track.close();
+        }
+    }
+
+    private Track open(URL url) throws IOException {
+        String path = url.getPath();
+        int pos = path.lastIndexOf('.');
+        String extension = pos == -1 ? "" : path.substring(pos + 1).toLowerCase();
+
+        try {
+            if (Extension.WAV.equals(extension)) {
+                return new WavTrackImpl(url, this.remoteStreamProvider);
+            } else if (Extension.GSM.equals(extension)) {
+                return new GsmTrackImpl(url);
+            } else if (Extension.MOV.equals(extension) || Extension.MP4.equals(extension)
+                    || Extension.THREE_GP.equals(extension)) {
+                return new AMRTrackImpl(url);
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Cannot open " + url, e);
+        }
+        throw new IOException("Cannot cache " + url + ": unsupported extension");
+    }
+
+    private Processor newProcessor() throws IOException {
+        if (this.dspFactory == null) {
+            throw new IOException("Prompt cache has no DSP to transcode prompts");
+        }
+        try {
+            return this.dspFactory.newProcessor();
+        } catch (InstantiationException | ClassNotFoundException | IllegalAccessException e) {
+            throw new IOException("Cannot create DSP for prompt cache", e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Lock lock;
+        private final long modified;
+        private volatile Prompt prompt;
+
+        private Entry(long modified) {
+            this.lock = new ReentrantLock();
+            this.modified = modified;
+        }
+
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.prompt;
+
+import java.io.IOException;
+
+import org.restcomm.media.resource.player.Track;
+import org.restcomm.media.spi.format.Format;
+import org.restcomm.media.spi.memory.Frame;
+import org.restcomm.media.spi.memory.Memory;
+
+/**
+ * Track that plays a cached {@link Prompt}.
+ * <p>
+ * Each call to {@link #process(long)} copies the next frame into a pooled {@link Frame}, so no file access nor decoding
+ * happens while playing.
+ * </p>
+ */
+public class PromptTrack implements Track {
+
+    private final Prompt prompt;
+    private final long period;
+    private int index;
+    private boolean first;
+
+    public PromptTrack(Prompt prompt) {
+        this.prompt = prompt;
+        this.period = prompt.getPtime() * 1000000L;
+        this.index = 0;
+        this.first = true;
+    }
+
+    @Override
+    public Format getFormat() {
+        return this.prompt.getFormat();
+    }
+
+    @Override
+    public long getMediaTime() {
+        return this.index * this.period;
+    }
+
+    @Override
+    public void setMediaTime(long timestamp) {
+        this.index = (int) Math.min(timestamp / this.period, this.prompt.getFrameCount());
+    }
+
+    @Override
+    public long getDuration() {
+        return this.prompt.getDuration();
+    }
+
+    @Override
+    public Frame process(long timestamp) throws IOException {
+        if (this.first) {
+            if (timestamp > 0) {
+                setMediaTime(timestamp);
+            }
+            this.first = false;
+        }
+
+        final int count = this.prompt.getFrameCount();
+        if (this.index >= count) {
+            return null;
+        }
+
+        byte[] payload = this.prompt.getFrame(this.index++);
+        Frame frame = Memory.allocate(payload.length);
+        System.arraycopy(payload, 0, frame.getData(), 0, payload.length);
+        frame.setOffset(0);
+        frame.setLength(payload.length);
+        frame.setEOM(this.index >= count);
+        frame.setDuration(this.period);
+        frame.setFormat(this.prompt.getFormat());
+        return frame;
+    }
+
+    @Override
+    public void close() {
+        // prompt is shared with other players
+    }
+
+}
@@ -0,0 +1,243 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.prompt;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Least recently used cache bounded by the memory taken by its values.
+ * <p>
+ * Entries that take no memory, such as prompts that are still being loaded, are never evicted. The value that was just
+ * stored is never evicted either, so a value larger than the remaining room pushes older entries out. A value larger than
+ * the whole cache is never stored.
+ * </p>
+ * 
+ * @param <V> The type of the cached values.
+ */
+public abstract class SizedLruCache<V> {
+
+    private final long capacity;
+    private final LinkedHashMap<String, Node<V>> entries;
+    private long size;
+
+    // Statistics
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    /**
+     * Creates a new cache.
+     * 
+     * @param capacity The maximum memory the values may take, in bytes.
+     */
+    protected SizedLruCache(long capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true);
+        this.size = 0;
+        this.hits = new AtomicLong(0);
+        this.misses = new AtomicLong(0);
+        this.evictions = new AtomicLong(0);
+    }
+
+    /**
+     * Measures a value.
+     * 
+     * @param value The cached value.
+     * @return The memory taken by the value, in bytes.
+     */
+    protected abstract long sizeOf(V value);
+
+    /**
+     * Gets a value and marks it as the most recently used.
+     * 
+     * @param key The key of the value.
+     * @return The value, or null if it is not cached.
+     */
+    public synchronized V get(String key) {
+        Node<V> node = this.entries.get(key);
+        if (node == null) {
+            this.misses.incrementAndGet();
+            return null;
+        }
+        this.hits.incrementAndGet();
+        return node.value;
+    }
+
+    /**
+     * Gets a value without counting a hit or a miss.
+     * 
+     * @param key The key of the value.
+     * @return The value, or null if it is not cached.
+     */
+    public synchronized V peek(String key) {
+        Node<V> node = this.entries.get(key);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Stores a value unless the key is already cached.
+     * 
+     * @param key The key of the value.
+     * @param value The value to be stored if the key is not cached.
+     * @return The value cached under the key, which is <code>value</code> if the key was not cached.
+     */
+    public synchronized V putIfAbsent(String key, V value) {
+        Node<V> node = this.entries.get(key);
+        if (node != null) {
+            return node.value;
+        }
+        if (sizeOf(value) <= this.capacity) {
+            store(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Stores a value, replacing the previous value of the key.
+     * 
+     * @param key The key of the value.
+     * @param value The value.
+     * @return false if the value is larger than the cache and was not stored.
+     */
+    public synchronized boolean put(String key, V value) {
+        if (sizeOf(value) > this.capacity) {
+            return false;
+        }
+        store(key, value);
+        return true;
+    }
+
+    /**
+     * Measures again a value whose size changed, typically once it finished loading.
+     * 
+     * @param key The key of the value.
+     * @param value The value.
+     * @return false if the key no longer maps to the value, for example because the cache was cleared, or if the value
+     *         grew larger than the cache and was removed.
+     */
+    public synchronized boolean refresh(String key, V value) {
+        Node<V> node = this.entries.get(key);
+        if (node == null || node.value != value) {
+            return false;
+        }
+        if (sizeOf(value) > this.capacity) {
+            this.entries.remove(key);
+            this.size -= node.size;
+            return false;
+        }
+        store(key, value);
+        return true;
+    }
+
+    /**
+     * Removes a value.
+     * 
+     * @param key The key of the value.
+     * @param value The value expected to be cached under the key.
+     */
+    public synchronized void remove(String key, V value) {
+        Node<V> node = this.entries.get(key);
+        if (node != null && node.value == value) {
+            this.entries.remove(key);
+            this.size -= node.size;
+        }
+    }
+
+    private void store(String key, V value) {
+        Node<V> node = new Node<>(value, sizeOf(value));
+        Node<V> previous = this.entries.put(key, node);
+        if (previous != null) {
+            this.size -= previous.size;
+        }
+        this.size += node.size;
+
+        Iterator<Node<V>> iterator = this.entries.values().iterator();
+        while (this.size > this.capacity && iterator.hasNext()) {
+            Node<V> eldest = iterator.next();
+            if (eldest == node || eldest.size == 0) {
+                continue;
+            }
+            iterator.remove();
+            this.size -= eldest.size;
+            this.evictions.incrementAndGet();
+        }
+    }
+
+    public long getHitCount() {
+        return this.hits.get();
+    }
+
+    public long getMissCount() {
+        return this.misses.get();
+    }
+
+    public long getEvictionCount() {
+        return this.evictions.get();
+    }
+
+    /**
+     * Gets the number of values held by the cache.
+     * 
+     * @return The number of values.
+     */
+    public synchronized int getCount() {
+        return this.entries.size();
+    }
+
+    /**
+     * Gets the memory taken by the cached values.
+     * 
+     * @return The size of the values, in bytes.
+     */
+    public synchronized long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Gets the maximum memory the cached values may take.
+     * 
+     * @return The capacity of the cache, in bytes.
+     */
+    public long getCapacity() {
+        return this.capacity;
+    }
+
+    public synchronized void clear() {
+        this.entries.clear();
+        this.size = 0;
+    }
+
+    private static final class Node<V> {
+
+        private final V value;
+        private final long size;
+
+        private Node(V value, long size) {
+            this.value = value;
+            this.size = size;
+        }
+
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.tts;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.restcomm.media.resource.player.Track;
+import org.restcomm.media.resource.player.audio.async.BufferedTrack;
+import org.restcomm.media.resource.player.audio.async.TrackLoader;
+import org.restcomm.media.resource.player.audio.prompt.Prompt;
+import org.restcomm.media.resource.player.audio.prompt.PromptTrack;
+import org.restcomm.media.resource.player.audio.prompt.SizedLruCache;
+import org.restcomm.media.spi.format.AudioFormat;
+import org.restcomm.media.spi.format.FormatFactory;
+
+/**
+ * Cache of synthesized phrases.
+ * <p>
+ * Phrases are keyed by voice and text and hold the linear frames rendered by a previous synthesis, so repeated prompts are
+ * played without running the speech engine again. Phrases that are not cached are synthesized on the {@link TrackLoader}
+ * pool and played while being synthesized. The cache is bounded by the size of the rendered audio and evicts the least
+ * recently played phrases first.
+ * </p>
+ */
+public class SpeechCache {
+
+    public static final AudioFormat LINEAR = FormatFactory.createAudioFormat("linear", 8000, 16, 1);
+    public static final int PTIME = 20;
+
+    private final VoicesCache voices;
+    private final TrackLoader loader;
+
+    private final SizedLruCache<Prompt> entries;
+
+    /**
+     * Creates a new speech cache.
+     * 
+     * @param size The maximum size of the rendered phrases, in megabytes. Zero disables the cache.
+     * @param voices The pool of voices used to synthesize phrases.
+     * @param loader The pool that runs the synthesis.
+     */
+    public SpeechCache(int size, VoicesCache voices, TrackLoader loader) {
+        this.voices = voices;
+        this.loader = loader;
+        this.entries = new SizedLruCache<Prompt>(size * 1024L * 1024L) {
+
+            @Override
+            protected long sizeOf(Prompt prompt) {
+                return prompt.getSize();
+            }
+
+        };
+    }
+
+    public boolean isEnabled() {
+        return this.entries.getCapacity() > 0;
+    }
+
+    /**
+     * Gets a track that speaks a text.
+     * <p>
+     * Cached phrases are played from memory. Otherwise the synthesis is started on the pool and the returned track plays
+     * the frames as soon as they are rendered; the listener is notified whenever the track ran dry and new frames became
+     * available.
+     * </p>
+     * 
+     * @param voiceName The name of the voice.
+     * @param text The text to be spoken.
+     * @param listener The listener to be notified when frames are available after the track ran dry.
+     * @return The track that plays the phrase.
+     * @throws RejectedExecutionException When the synthesis pool is full.
+     */
+    public Track getTrack(String voiceName, String text, BufferedTrack.Listener listener) throws RejectedExecutionException {
+        Prompt prompt = get(voiceName, text);
+        if (prompt != null) {
+            return new PromptTrack(prompt);
+        }
+
+        StreamingTtsTrack track = new StreamingTtsTrack(text, voiceName, this.voices, this, this.loader, listener);
+        track.start();
+        return track;
+    }
+
+    Prompt get(String voiceName, String text) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        return this.entries.get(key(voiceName, text));
+    }
+
+    /**
+     * Stores a phrase that was fully synthesized.
+     * <p>
+     * Concurrent syntheses of the same phrase replace each other. Phrases larger than the cache are not stored.
+     * </p>
+     */
+    void put(String voiceName, String text, Prompt prompt) {
+        this.entries.put(key(voiceName, text), prompt);
+    }
+
+    private static String key(String voiceName, String text) {
+        return voiceName.toLowerCase() + '|' + text;
+    }
+
+    public long getHitCount() {
+        return this.entries.getHitCount();
+    }
+
+    public long getMissCount() {
+        return this.entries.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return this.entries.getEvictionCount();
+    }
+
+    /**
+     * Gets the number of phrases held by the cache.
+     * 
+     * @return The number of phrases.
+     */
+    public int getCount() {
+        return this.entries.getCount();
+    }
+
+    /**
+     * Gets the memory taken by the rendered phrases.
+     * 
+     * @return The size of the frames, in bytes.
+     */
+    public long getSize() {
+        return this.entries.getSize();
+    }
+
+    /**
+     * Gets the maximum memory the rendered phrases may take.
+     * 
+     * @return The capacity of the cache, in bytes.
+     */
+    public long getCapacity() {
+        return this.entries.getCapacity();
+    }
+
+    public void clear() {
+        this.entries.clear();
+    }
+
+}
@@ -0,0 +1,436 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.tts;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.sound.sampled.AudioFormat.Encoding;
+
+import org.apache.log4j.Logger;
+import org.restcomm.media.component.dsp.PolyphaseResampler;
+import org.restcomm.media.resource.player.Track;
+import org.restcomm.media.resource.player.audio.async.BufferedTrack;
+import org.restcomm.media.resource.player.audio.async.TrackLoader;
+import org.restcomm.media.resource.player.audio.prompt.Prompt;
+import org.restcomm.media.spi.format.Format;
+import org.restcomm.media.spi.memory.Frame;
+import org.restcomm.media.spi.memory.Memory;
+
+import com.sun.speech.freetts.Voice;
+import com.sun.speech.freetts.audio.AudioPlayer;
+
+/**
+ * Track that plays a text while it is being synthesized.
+ * <p>
+ * The speech engine runs on the {@link TrackLoader} pool and renders the text utterance by utterance. Each chunk of audio is
+ * converted to 8kHz little endian linear samples and cut into 20ms frames as soon as it is written, so playback starts with
+ * the first utterance instead of waiting for the whole text.
+ * </p>
+ * <p>
+ * If playback catches up with the synthesis, {@link #process(long)} returns null and the listener is notified as soon as new
+ * frames are available. Once the whole text is rendered the frames are stored in the {@link SpeechCache}.
+ * </p>
+ */
+public class StreamingTtsTrack implements Track {
+
+    private static final Logger log = Logger.getLogger(StreamingTtsTrack.class);
+
+    private static final long PERIOD = SpeechCache.PTIME * 1000000L;
+    private static final int FRAME_SIZE = SpeechCache.PTIME * SpeechCache.LINEAR.getSampleRate() / 1000
+            * SpeechCache.LINEAR.getSampleSize() / 8;
+
+    private final String text;
+    private final String voiceName;
+    private final VoicesCache voices;
+    private final SpeechCache cache;
+    private final TrackLoader loader;
+    private final BufferedTrack.Listener listener;
+    private final Sink sink;
+
+    // Rendered frames. Guarded by itself
+    private final List<byte[]> frames;
+    private int total;
+
+    // Written by the media scheduler only
+    private int index;
+
+    private volatile IOException error;
+    private volatile boolean starved;
+    private volatile boolean closed;
+
+    public StreamingTtsTrack(String text, String voiceName, VoicesCache voices, SpeechCache cache, TrackLoader loader,
+            BufferedTrack.Listener listener) {
+        this.text = text;
+        this.voiceName = voiceName;
+        this.voices = voices;
+        this.cache = cache;
+        this.loader = loader;
+        this.listener = listener;
+        this.sink = new Sink();
+
+        this.frames = new ArrayList<>();
+        this.total = -1;
+        this.index = 0;
+        this.starved = false;
+        this.closed = false;
+    }
+
+    /**
+     * Starts the synthesis on the pool.
+     * 
+     * @throws RejectedExecutionException When the pool is full.
+     */
+    public void start() throws RejectedExecutionException {
+        this.loader.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                synthesize();
+            }
+        });
+    }
+
+    private void synthesize() {
+        Voice voice = null;
+        try {
+            if (!this.closed) {
+                voice = this.voices.allocateVoice(this.voiceName);
+                voice.setAudioPlayer(this.sink);
+                voice.speak(this.text);
+            }
+        } catch (RuntimeException e) {
+            this.error = new IOException("Could not synthesize text with voice " + this.voiceName, e);
+        } finally {
+            if (voice != null) {
+                this.voices.releaseVoice(voice);
+            }
+        }
+        finish();
+    }
+
+    /**
+     * Publishes the last frame and stores the phrase in the cache.
+     */
+    void finish() {
+        Prompt prompt = null;
+        synchronized (this.frames) {
+            this.sink.flush();
+            this.total = this.frames.size();
+            if (this.error == null && !this.closed && this.total > 0 && this.cache != null && this.cache.isEnabled()) {
+                prompt = new Prompt(this.text, SpeechCache.LINEAR, SpeechCache.PTIME,
+                        this.frames.toArray(new byte[this.total][]));
+            }
+        }
+
+        if (prompt != null) {
+            this.cache.put(this.voiceName, this.text, prompt);
+        }
+
+        // let a starving player find out the track is over
+        wakeup();
+    }
+
+    AudioPlayer getSink() {
+        return this.sink;
+    }
+
+    /**
+     * Gets the number of frames rendered but not played yet.
+     * 
+     * @return The number of buffered frames
+     */
+    public int getBufferedCount() {
+        synchronized (this.frames) {
+            return this.frames.size() - this.index;
+        }
+    }
+
+    private void publish(byte[] payload) {
+        synchronized (this.frames) {
+            this.frames.add(payload);
+        }
+        wakeup();
+    }
+
+    private void wakeup() {
+        if (this.starved) {
+            this.starved = false;
+            if (this.listener != null) {
+                this.listener.framesAvailable();
+            }
+        }
+    }
+
+    @Override
+    public Format getFormat() {
+        return SpeechCache.LINEAR;
+    }
+
+    @Override
+    public long getMediaTime() {
+        return this.index * PERIOD;
+    }
+
+    @Override
+    public void setMediaTime(long timestamp) {
+        // synthesized speech is always played from the start
+    }
+
+    @Override
+    public long getDuration() {
+        synchronized (this.frames) {
+            // unknown until the whole text is rendered
+            return this.total < 0 ? -1 : this.total * PERIOD;
+        }
+    }
+
+    @Override
+    public Frame process(long timestamp) throws IOException {
+        byte[] payload = poll();
+        if (payload == null) {
+            if (isEnded()) {
+                if (this.error != null) {
+                    throw this.error;
+                }
+                return null;
+            }
+
+            this.loader.underrun();
+            this.starved = true;
+
+            // synthesis may have rendered a frame before noticing the underrun
+            payload = poll();
+            if (payload == null) {
+                return null;
+            }
+            this.starved = false;
+        }
+
+        Frame frame = Memory.allocate(payload.length);
+        System.arraycopy(payload, 0, frame.getData(), 0, payload.length);
+        frame.setOffset(0);
+        frame.setLength(payload.length);
+        frame.setEOM(isEnded() && isDrained());
+        frame.setDuration(PERIOD);
+        frame.setFormat(SpeechCache.LINEAR);
+        return frame;
+    }
+
+    private byte[] poll() {
+        synchronized (this.frames) {
+            return this.index < this.frames.size() ? this.frames.get(this.index++) : null;
+        }
+    }
+
+    private boolean isEnded() {
+        synchronized (this.frames) {
+            return this.total >= 0;
+        }
+    }
+
+    private boolean isDrained() {
+        synchronized (this.frames) {
+            return this.index >= this.frames.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        // the synthesis stops writing and returns the voice once it notices
+        this.closed = true;
+    }
+
+    /**
+     * Receives the audio rendered by the speech engine and cuts it into 8kHz linear frames.
+     * <p>
+     * A complete frame is only published once the following audio is written, so the last frame of the phrase is published
+     * together with the end of the stream.
+     * </p>
+     */
+    private final class Sink implements AudioPlayer {
+
+        private javax.sound.sampled.AudioFormat fmt;
+        private float volume;
+        private PolyphaseResampler resampler;
+        private boolean unsupported;
+
+        private byte[] current = new byte[FRAME_SIZE];
+        private int filled = 0;
+
+        @Override
+        public void setAudioFormat(javax.sound.sampled.AudioFormat fmt) {
+            final int rate = (int) fmt.getSampleRate();
+            if (!Encoding.PCM_SIGNED.equals(fmt.getEncoding()) || fmt.getSampleSizeInBits() != 16 || fmt.getChannels() != 1) {
+                unsupported("Unsupported speech format " + fmt);
+            } else if (rate == SpeechCache.LINEAR.getSampleRate()) {
+                this.resampler = null;
+            } else if (this.fmt == null || this.fmt.getSampleRate() != fmt.getSampleRate()) {
+                try {
+                    this.resampler = new PolyphaseResampler(rate, SpeechCache.LINEAR.getSampleRate());
+                } catch (IllegalArgumentException e) {
+                    unsupported("Unsupported speech sample rate " + rate + "Hz");
+                }
+            }
+            this.fmt = fmt;
+        }
+
+        private void unsupported(String message) {
+            log.warn(message + " for voice " + voiceName);
+            this.unsupported = true;
+            error = new IOException(message);
+        }
+
+        @Override
+        public javax.sound.sampled.AudioFormat getAudioFormat() {
+            return this.fmt;
+        }
+
+        @Override
+        public void pause() {
+        }
+
+        @Override
+        public void resume() {
+        }
+
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public boolean drain() {
+            return true;
+        }
+
+        @Override
+        public void begin(int size) {
+        }
+
+        @Override
+        public boolean end() {
+            return !closed;
+        }
+
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public float getVolume() {
+            return this.volume;
+        }
+
+        @Override
+        public void setVolume(float volume) {
+            this.volume = volume;
+        }
+
+        @Override
+        public long getTime() {
+            return 0;
+        }
+
+        @Override
+        public void resetTime() {
+        }
+
+        @Override
+        public void startFirstSampleTimer() {
+        }
+
+        @Override
+        public boolean write(byte[] buff) {
+            return write(buff, 0, buff.length);
+        }
+
+        @Override
+        public boolean write(byte[] buff, int off, int len) {
+            if (closed || this.unsupported || this.fmt == null) {
+                return false;
+            }
+
+            Frame chunk = Memory.allocate(len);
+            byte[] data = chunk.getData();
+            if (this.fmt.isBigEndian()) {
+                for (int i = 0; i + 1 < len; i += 2) {
+                    data[i] = buff[off + i + 1];
+                    data[i + 1] = buff[off + i];
+                }
+            } else {
+                System.arraycopy(buff, off, data, 0, len);
+            }
+            chunk.setOffset(0);
+            chunk.setLength(len & ~1);
+
+            if (this.resampler != null) {
+                Frame resampled = this.resampler.process(chunk);
+                chunk.recycle();
+                chunk = resampled;
+            }
+
+            append(chunk.getData(), chunk.getOffset(), chunk.getLength());
+            chunk.recycle();
+            return true;
+        }
+
+        private void append(byte[] data, int offset, int length) {
+            while (length > 0) {
+                if (this.filled == FRAME_SIZE) {
+                    publish(this.current);
+                    this.current = new byte[FRAME_SIZE];
+                    this.filled = 0;
+                }
+
+                int count = Math.min(FRAME_SIZE - this.filled, length);
+                System.arraycopy(data, offset, this.current, this.filled, count);
+                this.filled += count;
+                offset += count;
+                length -= count;
+            }
+        }
+
+        /**
+         * Publishes the pending frame, padded with silence. Called with the frames lock held.
+         */
+        private void flush() {
+            if (this.filled > 0) {
+                // new arrays are zeroed, so the tail is already silent
+                frames.add(this.current);
+                this.current = null;
+                this.filled = 0;
+            }
+        }
+
+        @Override
+        public void showMetrics() {
+        }
+
+    }
+
+}
@@ -19,26 +19,30 @@
  * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
  * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
  */
-
 package org.restcomm.media.resource.player.audio.tts;
 
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import com.sun.speech.freetts.Voice;
 
 /**
  * Class to store voices. It allocates them at start and caches - just like pool.
  * This is required to avoid cost of voice.allocate(); method.
+ * <p>
+ * Voices are borrowed and returned by the synthesis threads concurrently, so the pool is thread safe.
+ * A voice is used by one synthesis at a time.
+ * </p>
  * @author baranowb
  *
  */
 public class VoicesCache {
 
-	private HashMap<String, LinkedList<Voice>> voicePool = new HashMap<String, LinkedList<Voice>>();
+	private final ConcurrentHashMap<String, Queue<Voice>> voicePool = new ConcurrentHashMap<String, Queue<Voice>>();
 	private VoiceManager voiceManager;
 	/**
 	 * 
@@ -50,45 +54,55 @@ public class VoicesCache {
 
 	public Voice allocateVoice(String voiceName)
 	{
-		LinkedList<Voice> voicesList = this.voicePool.get(voiceName);
-		if(voicesList == null)
-		{
-			voicesList = new LinkedList<Voice>();
-			this.voicePool.put(voiceName, voicesList);
-		}
-		
-		if(voicesList.size() == 0)
+		Voice v = getVoices(voiceName).poll();
+		if(v == null)
 		{
-			Voice v = voiceManager.getVoice(voiceName);
+			v = voiceManager.getVoice(voiceName);
+			if(v == null)
+			{
+				throw new IllegalArgumentException("Unknown voice: " + voiceName);
+			}
 			v.allocate();
-			return v;
-		}else
-		{
-			return voicesList.removeFirst();
 		}
-		
-		
-		
+		return v;
 	}
 	
 	public void releaseVoice(Voice v)
 	{
 		v.setAudioPlayer(null);
-		this.voicePool.get(v.getName().toLowerCase()).add(v);
+		getVoices(v.getName()).offer(v);
+	}
+
+	private Queue<Voice> getVoices(String voiceName)
+	{
+		// voices are released under their own name, which may differ in case from the requested one
+		String key = voiceName.toLowerCase();
+		Queue<Voice> voicesList = this.voicePool.get(key);
+		if(voicesList == null)
+		{
+			voicesList = new ConcurrentLinkedQueue<Voice>();
+			Queue<Voice> existing = this.voicePool.putIfAbsent(key, voicesList);
+			if(existing != null)
+			{
+				voicesList = existing;
+			}
+		}
+		return voicesList;
 	}
 	
 	public void clear()
 	{
-		Iterator<Entry<String, LinkedList<Voice>>> it =this.voicePool.entrySet().iterator();
+		Iterator<Entry<String, Queue<Voice>>> it =this.voicePool.entrySet().iterator();
 		while(it.hasNext())
 		{
-			Entry<String, LinkedList<Voice>> entry = it.next();
+			Entry<String, Queue<Voice>> entry = it.next();
 			it.remove();
-			for(Voice v: entry.getValue())
+			Voice v = entry.getValue().poll();
+			while(v != null)
 			{
 				v.deallocate();
+				v = entry.getValue().poll();
 			}
-			entry.getValue().clear();
 		}
 		
 		
@@ -98,14 +112,13 @@ public class VoicesCache {
 		for(String voiceName: voices.keySet())
 		{
 			int voiceCount = voices.get(voiceName);
-			LinkedList<Voice> list = new LinkedList<Voice>();
-			this.voicePool.put(voiceName, list);
+			Queue<Voice> list = getVoices(voiceName);
 			while(voiceCount>0)
 			{
 				
 				Voice v = voiceManager.getVoice(voiceName);
 				v.allocate();
-				list.add(v);
+				list.offer(v);
 				voiceCount--;
 			}
 		}
@@ -0,0 +1,253 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.wav;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.restcomm.media.spi.format.AudioFormat;
+import org.restcomm.media.spi.format.FormatFactory;
+
+/**
+ * Local WAV file mapped read-only into memory and shared by every track that plays it.
+ * <p>
+ * Mappings are registered by canonical path and reference counted: the first {@link #acquire(File)} maps the file, later
+ * calls share the mapping, and the mapping is dropped from the registry once the last holder called {@link #release()}.
+ * A file that was modified since it was mapped is mapped again for new holders, while current holders keep reading the
+ * old mapping.
+ * </p>
+ * <p>
+ * Released mappings are unmapped by the garbage collector. They are never unmapped explicitly because a scheduler thread
+ * may still be reading a frame of a track that is being closed, and touching an unmapped region crashes the JVM.
+ * </p>
+ */
+public class MappedWavFile {
+
+    private static final ConcurrentHashMap<String, MappedWavFile> FILES = new ConcurrentHashMap<>();
+
+    // Padding for different stream types.
+    private final static byte PCM_PADDING_BYTE = 0;
+    private final static byte ALAW_PADDING_BYTE = (byte) 0xD5;
+    private final static byte ULAW_PADDING_BYTE = (byte) 0xFF;
+
+    private final String path;
+    private final long lastModified;
+    private final long fileLength;
+    private final MappedByteBuffer mapping;
+    private final AtomicInteger references;
+
+    private AudioFormat format;
+    private byte paddingByte;
+    private int dataOffset;
+    private int dataLength;
+
+    private MappedWavFile(String path, File file) throws IOException, UnsupportedAudioFileException {
+        this.path = path;
+        this.lastModified = file.lastModified();
+        this.fileLength = file.length();
+        this.references = new AtomicInteger(1);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            // mapping remains valid after the channel is closed
+            this.mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        parseHeader();
+    }
+
+    /**
+     * Gets the shared mapping of a file, mapping it if no track is playing it yet.
+     * 
+     * @param file The WAV file.
+     * @return The mapped file. Must be released once it is not used anymore.
+     * @throws IOException When the file cannot be mapped.
+     * @throws UnsupportedAudioFileException When the file is not a PCM, A-law or u-law WAV file.
+     */
+    public static MappedWavFile acquire(File file) throws IOException, UnsupportedAudioFileException {
+        final String path = file.getCanonicalPath();
+        while (true) {
+            MappedWavFile mapped = FILES.get(path);
+            if (mapped != null) {
+                if (mapped.isStale(file)) {
+                    FILES.remove(path, mapped);
+                } else if (mapped.retain()) {
+                    return mapped;
+                }
+                // mapping is being released, map the file again
+            }
+
+            MappedWavFile created = new MappedWavFile(path, file);
+            if (mapped == null ? FILES.putIfAbsent(path, created) == null : FILES.replace(path, mapped, created)) {
+                return created;
+            }
+            // another track mapped the file first
+        }
+    }
+
+    /**
+     * Gets the number of files currently mapped.
+     * 
+     * @return The number of shared mappings
+     */
+    public static int getMappedCount() {
+        return FILES.size();
+    }
+
+    private boolean isStale(File file) {
+        return file.lastModified() != this.lastModified || file.length() != this.fileLength;
+    }
+
+    private boolean retain() {
+        int count = this.references.get();
+        while (count > 0) {
+            if (this.references.compareAndSet(count, count + 1)) {
+                return true;
+            }
+            count = this.references.get();
+        }
+        return false;
+    }
+
+    /**
+     * Releases the mapping. Once every holder released it, the mapping is dropped from the registry.
+     */
+    public void release() {
+        if (this.references.decrementAndGet() == 0) {
+            FILES.remove(this.path, this);
+        }
+    }
+
+    public int getReferenceCount() {
+        return this.references.get();
+    }
+
+    private void parseHeader() throws UnsupportedAudioFileException {
+        ByteBuffer header = this.mapping.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (header.remaining() < 12 || header.getInt(0) != 0x46464952 || header.getInt(8) != 0x45564157) {
+            // "RIFF" .... "WAVE"
+            throw new UnsupportedAudioFileException("Not a WAV file: " + this.path);
+        }
+
+        final int limit = header.limit();
+        int position = 12;
+        while (position + 8 <= limit) {
+            int chunkId = header.getInt(position);
+            // sizes are unsigned, so every chunk moves the position forward
+            long chunkSize = header.getInt(position + 4) & 0xFFFFFFFFL;
+            int body = position + 8;
+
+            if (chunkId == 0x61746164) {
+                // "data", streamed and truncated files announce more samples than they hold
+                this.dataOffset = body;
+                this.dataLength = (int) Math.min(chunkSize, limit - body);
+                break;
+            }
+
+            if (chunkSize > limit - body) {
+                throw new UnsupportedAudioFileException("WAV chunk at " + position + " overruns the file: " + this.path);
+            }
+
+            if (chunkId == 0x20746d66) {
+                // "fmt "
+                if (chunkSize < 16) {
+                    throw new UnsupportedAudioFileException("Truncated WAV format chunk: " + this.path);
+                }
+                int formatValue = header.getShort(body) & 0xFFFF;
+                int channels = header.getShort(body + 2) & 0xFFFF;
+                int sampleRate = header.getInt(body + 4);
+                int bitsPerSample = header.getShort(body + 14) & 0xFFFF;
+
+                switch (formatValue) {
+                    case 1:
+                        this.format = FormatFactory.createAudioFormat("linear", sampleRate, bitsPerSample, channels);
+                        this.paddingByte = PCM_PADDING_BYTE;
+                        break;
+                    case 6:
+                        this.format = FormatFactory.createAudioFormat("pcma", sampleRate, bitsPerSample, channels);
+                        this.paddingByte = ALAW_PADDING_BYTE;
+                        break;
+                    case 7:
+                        this.format = FormatFactory.createAudioFormat("pcmu", sampleRate, bitsPerSample, channels);
+                        this.paddingByte = ULAW_PADDING_BYTE;
+                        break;
+                    default:
+                        throw new UnsupportedAudioFileException("Unsupported WAV encoding " + formatValue + ": " + this.path);
+                }
+            }
+
+            // chunks are word aligned, the pad byte of the last chunk may be missing
+            long next = body + chunkSize + (chunkSize & 1);
+            if (next <= position) {
+                throw new UnsupportedAudioFileException("WAV chunk at " + position + " does not advance: " + this.path);
+            }
+            position = (int) Math.min(next, limit);
+        }
+
+        if (this.format == null || this.dataOffset == 0) {
+            throw new UnsupportedAudioFileException("Malformed WAV file: " + this.path);
+        }
+    }
+
+    public AudioFormat getFormat() {
+        return this.format;
+    }
+
+    public byte getPaddingByte() {
+        return this.paddingByte;
+    }
+
+    /**
+     * Gets the offset of the first audio sample within the file.
+     * 
+     * @return The offset of the data chunk, in bytes
+     */
+    public int getDataOffset() {
+        return this.dataOffset;
+    }
+
+    /**
+     * Gets the size of the audio samples.
+     * 
+     * @return The length of the data chunk, in bytes
+     */
+    public int getDataLength() {
+        return this.dataLength;
+    }
+
+    /**
+     * Creates a view of the mapping with its own position and limit. The view shares the mapped memory, nothing is copied.
+     * 
+     * @return A read-only view of the whole file
+     */
+    public ByteBuffer view() {
+        return this.mapping.asReadOnlyBuffer();
+    }
+
+}
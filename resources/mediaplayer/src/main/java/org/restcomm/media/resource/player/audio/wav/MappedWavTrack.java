@@ -0,0 +1,153 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.wav;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.restcomm.media.resource.player.Track;
+import org.restcomm.media.spi.format.AudioFormat;
+import org.restcomm.media.spi.format.Format;
+import org.restcomm.media.spi.memory.Frame;
+import org.restcomm.media.spi.memory.Memory;
+
+/**
+ * WAV track of a local file that reads frames from a {@link MappedWavFile} shared by all players of the file.
+ * <p>
+ * Each frame is a single bulk copy out of the mapping into a pooled frame, so playback needs no stream, no read call and
+ * no per-frame allocation. Seeking only moves the read position.
+ * </p>
+ */
+public class MappedWavTrack implements Track {
+
+    private final MappedWavFile file;
+    private final ByteBuffer view;
+    private final AudioFormat format;
+    private final int period = 20;
+    private final int frameSize;
+    private final long duration;
+    private final AtomicBoolean closed;
+
+    // Position within the data chunk, in bytes
+    private int position;
+    private boolean eom;
+    private boolean first;
+
+    public MappedWavTrack(URL url) throws UnsupportedAudioFileException, IOException {
+        File local;
+        try {
+            local = new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new IOException("Not a local file: " + url, e);
+        }
+
+        this.file = MappedWavFile.acquire(local);
+        this.view = this.file.view();
+        this.format = this.file.getFormat();
+        this.frameSize = period * format.getChannels() * format.getSampleSize() * format.getSampleRate() / 8000;
+        if (this.frameSize <= 0) {
+            this.file.release();
+            throw new UnsupportedAudioFileException("Unsupported WAV format " + format + ": " + url);
+        }
+        this.duration = this.file.getDataLength() * period * 1000000L / frameSize;
+        this.closed = new AtomicBoolean(false);
+        this.position = 0;
+        this.eom = false;
+        this.first = true;
+    }
+
+    @Override
+    public Format getFormat() {
+        return this.format;
+    }
+
+    @Override
+    public long getMediaTime() {
+        return this.position / this.frameSize * period * 1000000L;
+    }
+
+    @Override
+    public void setMediaTime(long timestamp) {
+        long offset = this.frameSize * (timestamp / period / 1000000L);
+        this.position = (int) Math.min(Math.max(offset, 0), this.file.getDataLength());
+        this.eom = false;
+    }
+
+    @Override
+    public long getDuration() {
+        return this.duration;
+    }
+
+    @Override
+    public Frame process(long timestamp) throws IOException {
+        if (this.first) {
+            if (timestamp > 0) {
+                setMediaTime(timestamp);
+            }
+            this.first = false;
+        }
+
+        if (this.eom) {
+            return null;
+        }
+
+        final int dataLength = this.file.getDataLength();
+        final int length = Math.min(this.frameSize, dataLength - this.position);
+
+        Frame frame = Memory.allocate(this.frameSize);
+        byte[] data = frame.getData();
+        if (length > 0) {
+            this.view.limit(this.file.getDataOffset() + this.position + length);
+            this.view.position(this.file.getDataOffset() + this.position);
+            this.view.get(data, 0, length);
+            this.position += length;
+        }
+        if (length < this.frameSize) {
+            byte padding = this.file.getPaddingByte();
+            for (int i = Math.max(length, 0); i < this.frameSize; i++) {
+                data[i] = padding;
+            }
+        }
+        this.eom = this.position >= dataLength;
+
+        frame.setOffset(0);
+        frame.setLength(this.frameSize);
+        frame.setEOM(this.eom);
+        frame.setDuration(period * 1000000L);
+        frame.setFormat(this.format);
+        return frame;
+    }
+
+    @Override
+    public void close() {
+        if (this.closed.compareAndSet(false, true)) {
+            this.file.release();
+        }
+    }
+
+}
@@ -0,0 +1,312 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.async;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.restcomm.media.resource.player.Track;
+import org.restcomm.media.spi.format.Format;
+import org.restcomm.media.spi.format.FormatFactory;
+import org.restcomm.media.spi.memory.Frame;
+import org.restcomm.media.spi.memory.Memory;
+
+public class BufferedTrackTest {
+
+    private TrackLoader loader;
+
+    @Before
+    public void before() {
+        this.loader = new TrackLoader(2, 10);
+    }
+
+    @After
+    public void after() {
+        this.loader.shutdown();
+    }
+
+    private Frame poll(BufferedTrack track) throws Exception {
+        for (int i = 0; i < 200; i++) {
+            Frame frame = track.process(0);
+            if (frame != null) {
+                return frame;
+            }
+            Thread.sleep(5);
+        }
+        return null;
+    }
+
+    @Test
+    public void testFramesArePlayedInOrder() throws Exception {
+        // given
+        final FakeTrack source = new FakeTrack(30, null);
+        final BufferedTrack track = new BufferedTrack(source, this.loader, new CountingListener(), 8);
+
+        // when
+        track.prefetch(BufferedTrack.PREFETCH);
+
+        // then
+        assertTrue(track.getBufferedCount() > 0);
+        for (int i = 0; i < 30; i++) {
+            Frame frame = poll(track);
+            assertNotNull(frame);
+            assertEquals(i, frame.getData()[0]);
+            assertEquals(i == 29, frame.isEOM());
+        }
+        assertNull(track.process(0));
+        assertTrue(source.read <= 30);
+    }
+
+    @Test
+    public void testBufferIsBounded() throws Exception {
+        // given
+        final FakeTrack source = new FakeTrack(100, null);
+        final BufferedTrack track = new BufferedTrack(source, this.loader, new CountingListener(), 10);
+
+        // when
+        track.prefetch(BufferedTrack.PREFETCH);
+        Thread.sleep(100);
+
+        // then
+        assertEquals(10, source.read);
+        assertEquals(10, track.getBufferedCount());
+    }
+
+    @Test
+    public void testUnderrunNotifiesListenerWhenFramesArrive() throws Exception {
+        // given
+        final Semaphore permits = new Semaphore(1);
+        final FakeTrack source = new FakeTrack(10, permits);
+        final CountingListener listener = new CountingListener();
+        final BufferedTrack track = new BufferedTrack(source, this.loader, listener, 4);
+        track.prefetch(1);
+
+        // when
+        final Frame first = track.process(0);
+        final Frame starved = track.process(20000000L);
+        permits.release(9);
+
+        // then
+        assertNotNull(first);
+        assertNull(starved);
+        assertTrue(listener.latch.await(1, TimeUnit.SECONDS));
+        assertEquals(1, this.loader.getUnderrunCount());
+        assertNotNull(track.process(40000000L));
+    }
+
+    @Test
+    public void testCloseReleasesSource() throws Exception {
+        // given
+        final FakeTrack source = new FakeTrack(100, null);
+        final BufferedTrack track = new BufferedTrack(source, this.loader, new CountingListener(), 10);
+        track.prefetch(BufferedTrack.PREFETCH);
+
+        // when
+        track.close();
+        Thread.sleep(50);
+
+        // then
+        assertTrue(source.closed);
+        assertEquals(0, track.getBufferedCount());
+        assertNull(track.process(0));
+    }
+
+    @Test
+    public void testReadErrorIsReportedToPlayer() throws Exception {
+        // given
+        final FakeTrack source = new FakeTrack(3, null);
+        source.error = new IOException("connection reset");
+        final BufferedTrack track = new BufferedTrack(source, this.loader, new CountingListener(), 10);
+        track.prefetch(BufferedTrack.PREFETCH);
+
+        // when
+        track.process(0);
+        track.process(0);
+        track.process(0);
+        IOException error = null;
+        try {
+            track.process(0);
+        } catch (IOException e) {
+            error = e;
+        }
+
+        // then
+        assertSame(source.error, error);
+    }
+
+    @Test
+    public void testLoaderReportsOpenedTrack() throws Exception {
+        // given
+        final Track opened = new FakeTrack(1, null);
+        final RecordingListener listener = new RecordingListener();
+
+        // when
+        this.loader.open(new Callable<Track>() {
+
+            @Override
+            public Track call() throws Exception {
+                return opened;
+            }
+        }, listener);
+
+        // then
+        assertTrue(listener.latch.await(1, TimeUnit.SECONDS));
+        assertSame(opened, listener.track.get());
+        assertNull(listener.failure.get());
+        assertEquals(1, this.loader.getOpenedCount());
+    }
+
+    @Test
+    public void testLoaderReportsFailure() throws Exception {
+        // given
+        final RecordingListener listener = new RecordingListener();
+
+        // when
+        this.loader.open(new Callable<Track>() {
+
+            @Override
+            public Track call() throws Exception {
+                throw new FileNotFoundException("http://127.0.0.1/missing.wav");
+            }
+        }, listener);
+
+        // then
+        assertTrue(listener.latch.await(1, TimeUnit.SECONDS));
+        assertNull(listener.track.get());
+        assertTrue(listener.failure.get() instanceof FileNotFoundException);
+        assertEquals(1, this.loader.getFailedCount());
+        assertFalse(this.loader.getOpenedCount() > 0);
+    }
+
+    private static final class CountingListener implements BufferedTrack.Listener {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        @Override
+        public void framesAvailable() {
+            this.latch.countDown();
+        }
+
+    }
+
+    private static final class RecordingListener implements TrackListener {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private final AtomicReference<Track> track = new AtomicReference<>();
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        @Override
+        public void trackOpened(Track track) {
+            this.track.set(track);
+            this.latch.countDown();
+        }
+
+        @Override
+        public void trackFailed(Exception e) {
+            this.failure.set(e);
+            this.latch.countDown();
+        }
+
+    }
+
+    /**
+     * Track of numbered frames whose reads may be throttled.
+     */
+    private static final class FakeTrack implements Track {
+
+        private static final Format LINEAR = FormatFactory.createAudioFormat("linear", 8000, 16, 1);
+
+        private final int count;
+        private final Semaphore permits;
+        private volatile int read;
+        private volatile boolean closed;
+        private IOException error;
+
+        public FakeTrack(int count, Semaphore permits) {
+            this.count = count;
+            this.permits = permits;
+        }
+
+        @Override
+        public Format getFormat() {
+            return LINEAR;
+        }
+
+        @Override
+        public long getMediaTime() {
+            return this.read * 20000000L;
+        }
+
+        @Override
+        public void setMediaTime(long timestamp) {
+        }
+
+        @Override
+        public long getDuration() {
+            return this.count * 20000000L;
+        }
+
+        @Override
+        public Frame process(long timestamp) throws IOException {
+            if (this.permits != null) {
+                this.permits.acquireUninterruptibly();
+            }
+            if (this.read == this.count) {
+                if (this.error != null) {
+                    throw this.error;
+                }
+                return null;
+            }
+
+            Frame frame = Memory.allocate(320);
+            frame.getData()[0] = (byte) this.read;
+            frame.setLength(320);
+            frame.setDuration(20000000L);
+            frame.setFormat(LINEAR);
+            this.read++;
+            frame.setEOM(this.error == null && this.read == this.count);
+            return frame;
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+        }
+
+    }
+
+}
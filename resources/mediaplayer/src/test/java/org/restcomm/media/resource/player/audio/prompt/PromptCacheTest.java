@@ -0,0 +1,274 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.prompt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.restcomm.media.resource.player.audio.DirectRemoteStreamProvider;
+import org.restcomm.media.spi.format.AudioFormat;
+import org.restcomm.media.spi.format.FormatFactory;
+import org.restcomm.media.spi.memory.Frame;
+
+public class PromptCacheTest {
+
+    private static final File PROMPT = new File("src/test/resources/demo-prompt.wav");
+
+    // 3854.625ms of linear audio packetized in 20ms frames
+    private static final int FRAME_COUNT = 193;
+    private static final int FRAME_SIZE = 320;
+
+    private File directory;
+
+    @Before
+    public void before() throws IOException {
+        this.directory = Files.createTempDirectory("prompts").toFile();
+    }
+
+    @After
+    public void after() {
+        File[] files = this.directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        this.directory.delete();
+    }
+
+    private URL copyPrompt(String name) throws IOException {
+        File file = new File(this.directory, name);
+        Files.copy(PROMPT.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return file.toURI().toURL();
+    }
+
+    private static void writeWav(File file, int samples) throws IOException {
+        // 8kHz 16-bit mono PCM
+        ByteBuffer wav = ByteBuffer.allocate(44 + samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes()).putInt(36 + samples * 2).put("WAVE".getBytes());
+        wav.put("fmt ".getBytes()).putInt(16).putShort((short) 1).putShort((short) 1).putInt(8000).putInt(16000)
+                .putShort((short) 2).putShort((short) 16);
+        wav.put("data".getBytes()).putInt(samples * 2);
+        Files.write(file.toPath(), wav.array());
+    }
+
+    @Test
+    public void testPromptIsLoadedOnce() throws IOException {
+        // given
+        final PromptCache cache = new PromptCache(10, new DirectRemoteStreamProvider(), null);
+        final URL url = PROMPT.toURI().toURL();
+
+        // when
+        final Prompt prompt1 = cache.getPrompt(url, PromptCache.LINEAR, 20);
+        final Prompt prompt2 = cache.getPrompt(url, PromptCache.LINEAR, 20);
+        final Prompt prompt3 = cache.getPrompt(url, PromptCache.LINEAR, 10);
+
+        // then
+        assertSame(prompt1, prompt2);
+        assertEquals(FRAME_COUNT, prompt1.getFrameCount());
+        assertEquals(FRAME_COUNT * FRAME_SIZE, prompt1.getSize());
+        assertEquals(FRAME_SIZE / 2, prompt3.getFrame(0).length);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.getCount());
+        assertEquals(prompt1.getSize() + prompt3.getSize(), cache.getSize());
+    }
+
+    @Test
+    public void testPromptTrack() throws IOException {
+        // given
+        final PromptCache cache = new PromptCache(10, new DirectRemoteStreamProvider(), null);
+        final Prompt prompt = cache.getPrompt(PROMPT.toURI().toURL(), PromptCache.LINEAR, 20);
+        final PromptTrack track = new PromptTrack(prompt);
+
+        // when
+        int count = 0;
+        Frame frame = track.process(0);
+        Frame last = null;
+        while (frame != null) {
+            assertEquals(FRAME_SIZE, frame.getLength());
+            assertEquals(PromptCache.LINEAR, frame.getFormat());
+            count++;
+            last = frame;
+            frame = track.process(count * 20000000L);
+        }
+
+        // then
+        assertEquals(FRAME_COUNT, count);
+        assertTrue(last.isEOM());
+        assertEquals(FRAME_COUNT * 20000000L, track.getDuration());
+        assertNull(track.process(0));
+    }
+
+    @Test
+    public void testPromptTrackStartsAtTimestamp() throws IOException {
+        // given
+        final PromptCache cache = new PromptCache(10, new DirectRemoteStreamProvider(), null);
+        final Prompt prompt = cache.getPrompt(PROMPT.toURI().toURL(), PromptCache.LINEAR, 20);
+        final PromptTrack track = new PromptTrack(prompt);
+
+        // when
+        Frame frame = track.process(100000000L);
+
+        // then
+        assertEquals(120000000L, track.getMediaTime());
+        assertFalse(frame.isEOM());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedPromptIsEvicted() throws IOException {
+        // given
+        final PromptCache cache = new PromptCache(1, new DirectRemoteStreamProvider(), null);
+        final int capacity = (int) (cache.getCapacity() / (FRAME_COUNT * FRAME_SIZE));
+        final URL first = copyPrompt("prompt-0.wav");
+        cache.getPrompt(first, PromptCache.LINEAR, 20);
+        for (int i = 1; i < capacity; i++) {
+            cache.getPrompt(copyPrompt("prompt-" + i + ".wav"), PromptCache.LINEAR, 20);
+        }
+        final URL second = copyPrompt("prompt-1.wav");
+
+        // when
+        cache.getPrompt(first, PromptCache.LINEAR, 20);
+        cache.getPrompt(copyPrompt("prompt-" + capacity + ".wav"), PromptCache.LINEAR, 20);
+        cache.getPrompt(first, PromptCache.LINEAR, 20);
+        cache.getPrompt(second, PromptCache.LINEAR, 20);
+
+        // then
+        assertEquals(2, cache.getEvictionCount());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(capacity + 2, cache.getMissCount());
+        assertEquals(capacity, cache.getCount());
+        assertTrue(cache.getSize() <= cache.getCapacity());
+    }
+
+    @Test
+    public void testWarmUp() throws IOException {
+        // given
+        final PromptCache cache = new PromptCache(10, new DirectRemoteStreamProvider(), null);
+        final URL url = copyPrompt("welcome.wav");
+        copyPrompt("goodbye.wav");
+        Files.write(new File(this.directory, "readme.txt").toPath(), "ignored".getBytes());
+        Files.write(new File(this.directory, "broken.wav").toPath(), "corrupted".getBytes());
+
+        // when
+        int loaded = cache.warmUp(this.directory, PromptCache.LINEAR, 20);
+        cache.getPrompt(url, PromptCache.LINEAR, 20);
+
+        // then
+        assertEquals(2, loaded);
+        assertEquals(2, cache.getCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testIsLoadedDoesNotLoad() throws IOException {
+        // given
+        final PromptCache cache = new PromptCache(10, new DirectRemoteStreamProvider(), null);
+        final URL url = PROMPT.toURI().toURL();
+
+        // when
+        boolean before = cache.isLoaded(url, PromptCache.LINEAR, 20);
+        cache.getPrompt(url, PromptCache.LINEAR, 20);
+        boolean after = cache.isLoaded(url, PromptCache.LINEAR, 20);
+
+        // then
+        assertFalse(before);
+        assertTrue(after);
+        assertFalse(cache.isLoaded(url, PromptCache.LINEAR, 10));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testOversizedPromptIsNotCached() throws IOException {
+        // given
+        final PromptCache cache = new PromptCache(1, new DirectRemoteStreamProvider(), null);
+        final File file = new File(this.directory, "large.wav");
+        writeWav(file, (int) (cache.getCapacity() / 2) + 8000);
+        final URL url = file.toURI().toURL();
+
+        // when
+        final Prompt prompt = cache.getPrompt(url, PromptCache.LINEAR, 20);
+
+        // then
+        assertTrue(prompt.getSize() > cache.getCapacity());
+        assertEquals(0, cache.getCount());
+        assertEquals(0, cache.getSize());
+        assertFalse(cache.isLoaded(url, PromptCache.LINEAR, 20));
+    }
+
+    @Test
+    public void testModifiedPromptIsReloaded() throws IOException {
+        // given
+        final PromptCache cache = new PromptCache(10, new DirectRemoteStreamProvider(), null);
+        final URL url = copyPrompt("welcome.wav");
+        final File file = new File(this.directory, "welcome.wav");
+        final Prompt original = cache.getPrompt(url, PromptCache.LINEAR, 20);
+
+        // when
+        final long modified = file.lastModified();
+        writeWav(file, 800);
+        assertTrue(file.setLastModified(modified - 10000L));
+        boolean loaded = cache.isLoaded(url, PromptCache.LINEAR, 20);
+        final Prompt reloaded = cache.getPrompt(url, PromptCache.LINEAR, 20);
+
+        // then
+        assertFalse(loaded);
+        assertNotSame(original, reloaded);
+        assertTrue(reloaded.getFrameCount() < original.getFrameCount());
+        assertEquals(1, cache.getCount());
+        assertEquals(reloaded.getSize(), cache.getSize());
+        assertSame(reloaded, cache.getPrompt(url, PromptCache.LINEAR, 20));
+    }
+
+    @Test(expected = IOException.class)
+    public void testTranscodingRequiresDsp() throws IOException {
+        // given
+        final PromptCache cache = new PromptCache(10, new DirectRemoteStreamProvider(), null);
+        final AudioFormat pcmu = FormatFactory.createAudioFormat("pcmu", 8000, 8, 1);
+
+        // when
+        try {
+            cache.getPrompt(PROMPT.toURI().toURL(), pcmu, 20);
+        } finally {
+            // then
+            assertEquals(0, cache.getCount());
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.tts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.restcomm.media.resource.player.audio.prompt.Prompt;
+
+public class SpeechCacheTest {
+
+    private static final int FRAME_SIZE = 320;
+
+    private static Prompt phrase(String text, int frameCount) {
+        byte[][] frames = new byte[frameCount][FRAME_SIZE];
+        return new Prompt(text, SpeechCache.LINEAR, SpeechCache.PTIME, frames);
+    }
+
+    @Test
+    public void testPhraseIsKeyedByVoiceAndText() {
+        // given
+        final SpeechCache cache = new SpeechCache(1, null, null);
+        final Prompt phrase = phrase("hello", 10);
+
+        // when
+        cache.put("kevin", "hello", phrase);
+
+        // then
+        assertSame(phrase, cache.get("Kevin", "hello"));
+        assertNull(cache.get("alan", "hello"));
+        assertNull(cache.get("kevin", "hello world"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.getCount());
+        assertEquals(10 * FRAME_SIZE, cache.getSize());
+    }
+
+    @Test
+    public void testLeastRecentlyPlayedPhraseIsEvicted() {
+        // given
+        final SpeechCache cache = new SpeechCache(1, null, null);
+        final int frameCount = (int) (cache.getCapacity() / FRAME_SIZE / 3);
+        final Prompt first = phrase("first", frameCount);
+        final Prompt second = phrase("second", frameCount);
+        final Prompt third = phrase("third", frameCount);
+        final Prompt fourth = phrase("fourth", frameCount);
+
+        // when
+        cache.put("kevin", "first", first);
+        cache.put("kevin", "second", second);
+        cache.put("kevin", "third", third);
+        cache.get("kevin", "first");
+        cache.put("kevin", "fourth", fourth);
+
+        // then
+        assertSame(first, cache.get("kevin", "first"));
+        assertNull(cache.get("kevin", "second"));
+        assertSame(third, cache.get("kevin", "third"));
+        assertSame(fourth, cache.get("kevin", "fourth"));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(3, cache.getCount());
+        assertTrue(cache.getSize() <= cache.getCapacity());
+    }
+
+    @Test
+    public void testPhraseLargerThanCacheIsNotStored() {
+        // given
+        final SpeechCache cache = new SpeechCache(1, null, null);
+        final Prompt phrase = phrase("long", (int) (cache.getCapacity() / FRAME_SIZE) + 1);
+
+        // when
+        cache.put("kevin", "long", phrase);
+
+        // then
+        assertEquals(0, cache.getCount());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testDisabledCacheStoresNothing() {
+        // given
+        final SpeechCache cache = new SpeechCache(0, null, null);
+
+        // when
+        cache.put("kevin", "hello", phrase("hello", 1));
+
+        // then
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get("kevin", "hello"));
+        assertEquals(0, cache.getCount());
+    }
+
+}
@@ -0,0 +1,191 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.tts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sound.sampled.AudioFormat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.restcomm.media.resource.player.audio.async.BufferedTrack;
+import org.restcomm.media.resource.player.audio.async.TrackLoader;
+import org.restcomm.media.resource.player.audio.prompt.Prompt;
+import org.restcomm.media.spi.memory.Frame;
+
+import com.sun.speech.freetts.audio.AudioPlayer;
+
+public class StreamingTtsTrackTest {
+
+    private static final int FRAME_SIZE = 320;
+
+    // 16kHz big endian output of the kevin16 voice
+    private static final AudioFormat WIDEBAND = new AudioFormat(16000, 16, 1, true, true);
+    private static final AudioFormat NARROWBAND = new AudioFormat(8000, 16, 1, true, false);
+
+    private TrackLoader loader;
+    private SpeechCache cache;
+    private CountingListener listener;
+
+    @Before
+    public void before() {
+        this.loader = new TrackLoader(1, 10);
+        this.cache = new SpeechCache(1, null, this.loader);
+        this.listener = new CountingListener();
+    }
+
+    @After
+    public void after() {
+        this.loader.shutdown();
+    }
+
+    private static byte[] utterance(int samples, boolean bigEndian) {
+        byte[] data = new byte[samples * 2];
+        for (int i = 0; i < samples; i++) {
+            short sample = (short) (8000 * Math.sin(2 * Math.PI * 400 * i / 16000.0));
+            data[2 * i + (bigEndian ? 1 : 0)] = (byte) sample;
+            data[2 * i + (bigEndian ? 0 : 1)] = (byte) (sample >> 8);
+        }
+        return data;
+    }
+
+    @Test
+    public void testFramesArePlayedBeforeSynthesisEnds() throws Exception {
+        // given
+        final StreamingTtsTrack track = new StreamingTtsTrack("hello", "kevin16", null, this.cache, this.loader, this.listener);
+        final AudioPlayer sink = track.getSink();
+
+        // when
+        sink.setAudioFormat(WIDEBAND);
+        sink.begin(16000);
+        assertTrue(sink.write(utterance(8000, true)));
+        sink.end();
+        final Frame frame = track.process(0);
+
+        // then
+        assertNotNull(frame);
+        assertEquals(FRAME_SIZE, frame.getLength());
+        assertEquals(SpeechCache.LINEAR, frame.getFormat());
+        assertEquals(20000000L, frame.getDuration());
+        assertFalse(frame.isEOM());
+        assertEquals(-1, track.getDuration());
+        assertTrue(track.getBufferedCount() > 0);
+        frame.recycle();
+    }
+
+    @Test
+    public void testUnderrunNotifiesListenerWhenFramesArrive() throws Exception {
+        // given
+        final StreamingTtsTrack track = new StreamingTtsTrack("hello", "kevin", null, this.cache, this.loader, this.listener);
+        final AudioPlayer sink = track.getSink();
+        sink.setAudioFormat(NARROWBAND);
+
+        // when
+        final Frame starved = track.process(0);
+        sink.write(utterance(400, false));
+
+        // then
+        assertNull(starved);
+        assertEquals(1, this.loader.getUnderrunCount());
+        assertEquals(1, this.listener.count.get());
+        assertNotNull(track.process(0));
+    }
+
+    @Test
+    public void testLastFrameIsPaddedAndEndsMedia() throws Exception {
+        // given
+        final StreamingTtsTrack track = new StreamingTtsTrack("hello", "kevin", null, this.cache, this.loader, this.listener);
+        final AudioPlayer sink = track.getSink();
+        sink.setAudioFormat(NARROWBAND);
+
+        // when
+        sink.write(utterance(240, false));
+        track.finish();
+        final Frame first = track.process(0);
+        final Frame last = track.process(20000000L);
+        final Frame after = track.process(40000000L);
+
+        // then
+        assertFalse(first.isEOM());
+        assertTrue(last.isEOM());
+        assertEquals(FRAME_SIZE, last.getLength());
+        assertEquals(0, last.getData()[last.getOffset() + FRAME_SIZE - 1]);
+        assertNull(after);
+        assertEquals(2 * 20000000L, track.getDuration());
+    }
+
+    @Test
+    public void testRenderedPhraseIsCached() throws Exception {
+        // given
+        final StreamingTtsTrack track = new StreamingTtsTrack("hello", "kevin", null, this.cache, this.loader, this.listener);
+        final AudioPlayer sink = track.getSink();
+        sink.setAudioFormat(NARROWBAND);
+
+        // when
+        sink.write(utterance(800, false));
+        sink.write(utterance(800, false));
+        track.finish();
+        final Prompt phrase = this.cache.get("kevin", "hello");
+
+        // then
+        assertNotNull(phrase);
+        assertEquals(10, phrase.getFrameCount());
+        assertEquals(10 * FRAME_SIZE, phrase.getSize());
+    }
+
+    @Test
+    public void testClosedTrackIsNotCached() throws Exception {
+        // given
+        final StreamingTtsTrack track = new StreamingTtsTrack("hello", "kevin", null, this.cache, this.loader, this.listener);
+        final AudioPlayer sink = track.getSink();
+        sink.setAudioFormat(NARROWBAND);
+        sink.write(utterance(800, false));
+
+        // when
+        track.close();
+        final boolean written = sink.write(utterance(800, false));
+        track.finish();
+
+        // then
+        assertFalse(written);
+        assertEquals(0, this.cache.getCount());
+    }
+
+    private static final class CountingListener implements BufferedTrack.Listener {
+
+        private final AtomicInteger count = new AtomicInteger(0);
+
+        @Override
+        public void framesAvailable() {
+            this.count.incrementAndGet();
+        }
+
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.resource.player.audio.wav;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.junit.Test;
+import org.restcomm.media.spi.memory.Frame;
+
+public class MappedWavTrackTest {
+
+    private static final File PROMPT = new File("src/test/resources/demo-prompt.wav");
+
+    // demo-prompt.wav holds a LIST chunk before the samples
+    private static final int DATA_OFFSET = 80;
+    private static final int DATA_LENGTH = 61632;
+
+    @Test
+    public void testFramesAreSlicedFromDataChunk() throws Exception {
+        // given
+        final byte[] file = Files.readAllBytes(PROMPT.toPath());
+        final MappedWavTrack track = new MappedWavTrack(PROMPT.toURI().toURL());
+
+        // when
+        int offset = 0;
+        Frame frame = track.process(0);
+        Frame last = null;
+        while (frame != null) {
+            int length = Math.min(320, DATA_LENGTH - offset);
+            assertEquals(320, frame.getLength());
+            assertArrayEquals(Arrays.copyOfRange(file, DATA_OFFSET + offset, DATA_OFFSET + offset + length),
+                    Arrays.copyOfRange(frame.getData(), 0, length));
+            offset += length;
+            last = frame;
+            frame = track.process(offset / 320 * 20000000L);
+        }
+
+        // then
+        assertEquals(DATA_LENGTH, offset);
+        assertTrue(last.isEOM());
+        assertEquals(3852000000L, track.getDuration());
+        assertEquals("linear", track.getFormat().getName().toString());
+
+        track.close();
+    }
+
+    @Test
+    public void testMappingIsSharedAndReleased() throws Exception {
+        // given
+        final URL url = PROMPT.toURI().toURL();
+        final int mappedCount = MappedWavFile.getMappedCount();
+
+        // when
+        final MappedWavTrack track1 = new MappedWavTrack(url);
+        final MappedWavTrack track2 = new MappedWavTrack(url);
+        final MappedWavFile file = MappedWavFile.acquire(PROMPT);
+
+        // then
+        assertEquals(mappedCount + 1, MappedWavFile.getMappedCount());
+        assertEquals(3, file.getReferenceCount());
+
+        // when
+        track1.close();
+        track1.close();
+        file.release();
+
+        // then
+        assertEquals(1, file.getReferenceCount());
+        assertEquals(mappedCount + 1, MappedWavFile.getMappedCount());
+
+        // when
+        track2.close();
+
+        // then
+        assertEquals(0, file.getReferenceCount());
+        assertEquals(mappedCount, MappedWavFile.getMappedCount());
+    }
+
+    @Test
+    public void testSeek() throws Exception {
+        // given
+        final URL url = PROMPT.toURI().toURL();
+        final MappedWavTrack reference = new MappedWavTrack(url);
+        final MappedWavTrack track = new MappedWavTrack(url);
+        for (int i = 0; i < 50; i++) {
+            reference.process(i * 20000000L).recycle();
+        }
+
+        // when
+        Frame frame = track.process(1000000000L);
+
+        // then
+        assertEquals(1020000000L, track.getMediaTime());
+        assertArrayEquals(Arrays.copyOf(reference.process(0).getData(), 320), Arrays.copyOf(frame.getData(), 320));
+
+        reference.close();
+        track.close();
+    }
+
+    @Test(expected = UnsupportedAudioFileException.class)
+    public void testChunkWithNegativeSizeIsRejected() throws Exception {
+        // given
+        // a signed size of -8 used to point the parser back at the same chunk forever
+        final File file = createWav(0xFFFFFFF8);
+
+        // when
+        try {
+            MappedWavFile.acquire(file);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = UnsupportedAudioFileException.class)
+    public void testChunkOverrunningFileIsRejected() throws Exception {
+        // given
+        final File file = createWav(1024);
+
+        // when
+        try {
+            MappedWavFile.acquire(file);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testOddChunkIsPadded() throws Exception {
+        // given
+        final File file = createWav(3);
+
+        // when
+        final MappedWavFile wav = MappedWavFile.acquire(file);
+
+        // then
+        try {
+            assertEquals(12 + 8 + 4 + 8 + 16 + 8, wav.getDataOffset());
+            assertEquals(4, wav.getDataLength());
+            assertEquals("linear", wav.getFormat().getName().toString());
+        } finally {
+            wav.release();
+            file.delete();
+        }
+    }
+
+    /**
+     * Writes a PCM WAV file holding a "junk" chunk of the given size, with word aligned room for 3 bytes, before its
+     * format and data chunks.
+     */
+    private static File createWav(int junkSize) throws Exception {
+        final ByteBuffer wav = ByteBuffer.allocate(12 + 8 + 4 + 8 + 16 + 8 + 4).order(ByteOrder.LITTLE_ENDIAN);
+        wav.putInt(0x46464952).putInt(wav.capacity() - 8).putInt(0x45564157);
+        wav.putInt(0x6b6e756a).putInt(junkSize).putInt(0);
+        wav.putInt(0x20746d66).putInt(16).putShort((short) 1).putShort((short) 1).putInt(8000).putInt(16000)
+                .putShort((short) 2).putShort((short) 16);
+        wav.putInt(0x61746164).putInt(4).putInt(0);
+
+        final File file = File.createTempFile("mapped-wav", ".wav");
+        Files.write(file.toPath(), wav.array());
+        return file;
+    }
+
+}
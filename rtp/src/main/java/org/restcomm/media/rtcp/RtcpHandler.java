@@ -411,6 +411,10 @@ public class RtcpHandler implements PacketHandler {
             // If channel is secure, convert RTCP packet to SRTCP. WebRTC calls only.
             if (this.secure) {
                 data = this.dtlsHandler.encodeRTCP(data, 0, dataLength);
+                if (data == null) {
+                    logger.warn("Could not encode outgoing SRTCP packet. Dropping it.");
+                    return;
+                }
                 dataLength = data.length;
             }
 
@@ -53,6 +53,7 @@ public class ChannelsManager {
     private PriorityQueueScheduler scheduler;
     
     private int jitterBufferSize=50;
+    private boolean adaptiveJitterBuffer=false;
     
     //channel id generator
     private AtomicInteger channelIndex = new AtomicInteger(100);
@@ -132,6 +133,19 @@ public class ChannelsManager {
     	this.jitterBufferSize=jitterBufferSize;
     }        
     
+    public boolean isAdaptiveJitterBuffer() {
+    	return this.adaptiveJitterBuffer;
+    }
+    
+    /**
+     * Sets whether new RTP channels use an adaptive jitter buffer by default.
+     * 
+     * @param adaptiveJitterBuffer true to use adaptive jitter buffers, false for fixed ones
+     */
+    public void setAdaptiveJitterBuffer(boolean adaptiveJitterBuffer) {
+    	this.adaptiveJitterBuffer=adaptiveJitterBuffer;
+    }
+    
     public UdpManager getUdpManager() {
     	return this.udpManager;
     }    
@@ -142,7 +156,11 @@ public class ChannelsManager {
     }
     
     public RtpChannel getRtpChannel(RtpStatistics statistics, RtpClock clock, RtpClock oobClock) {
-    	return new RtpChannel(channelIndex.incrementAndGet(), jitterBufferSize, statistics, clock, oobClock, scheduler, udpManager, dtlsServerProvider);
+    	return getRtpChannel(statistics, clock, oobClock, adaptiveJitterBuffer);
+    }
+
+    public RtpChannel getRtpChannel(RtpStatistics statistics, RtpClock clock, RtpClock oobClock, boolean adaptiveJitterBuffer) {
+    	return new RtpChannel(channelIndex.incrementAndGet(), jitterBufferSize, adaptiveJitterBuffer, statistics, clock, oobClock, scheduler, udpManager, dtlsServerProvider);
     }
 
     public RtcpChannel getRtcpChannel(RtpStatistics statistics) {
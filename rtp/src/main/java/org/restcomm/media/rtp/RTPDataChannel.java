@@ -410,6 +410,7 @@ public class RTPDataChannel {
 		if (rtcpChannel != null) {
 			rtcpChannel.socket().close();
 		}
+		udpManager.unbind(rtpChannel);
 
 		// System.out.println("RX COUNT:" + rxCount + ",TX COUNT:" + txCount);
 		rxCount = 0;
@@ -118,6 +118,11 @@ public class RtpChannel extends MultiplexedChannel implements DtlsListener, IceE
 
     public RtpChannel(int channelId, int jitterBufferSize, RtpStatistics statistics, RtpClock clock, RtpClock oobClock,
             PriorityQueueScheduler scheduler, UdpManager udpManager, DtlsSrtpServerProvider dtlsServerProvider) {
+        this(channelId, jitterBufferSize, false, statistics, clock, oobClock, scheduler, udpManager, dtlsServerProvider);
+    }
+
+    public RtpChannel(int channelId, int jitterBufferSize, boolean adaptiveJitterBuffer, RtpStatistics statistics, RtpClock clock,
+            RtpClock oobClock, PriorityQueueScheduler scheduler, UdpManager udpManager, DtlsSrtpServerProvider dtlsServerProvider) {
         // Initialize MultiplexedChannel elements
         super();
 
@@ -135,7 +140,7 @@ public class RtpChannel extends MultiplexedChannel implements DtlsListener, IceE
 
         // Protocol Handlers
         this.transmitter = new RtpTransmitter(scheduler, clock, statistics);
-        this.rtpHandler = new RtpHandler(scheduler, clock, oobClock, jitterBufferSize, statistics);
+        this.rtpHandler = new RtpHandler(scheduler, clock, oobClock, jitterBufferSize, adaptiveJitterBuffer, statistics);
         this.rtpHandler.setPipelinePriority(RTP_PRIORITY);
         this.rtcpHandler = new RtcpHandler(this.udpManager.getScheduler(), statistics);
         this.rtpHandler.setPipelinePriority(RTCP_PRIORITY);
@@ -152,6 +157,11 @@ public class RtpChannel extends MultiplexedChannel implements DtlsListener, IceE
         this.oobComponent.addInput(this.rtpHandler.getDtmfInput().getOOBInput());
         this.oobComponent.addOutput(this.transmitter.getDtmfOutput().getOOBOutput());
 
+        // Keep the tasks of the channel on one scheduler shard until its components join a mixer
+        final int affinity = this.rtpHandler.getRtpInput().getAffinity();
+        this.audioComponent.setAffinity(affinity);
+        this.oobComponent.setAffinity(affinity);
+
         // WebRTC
         this.secure = false;
         this.rtcpMux = false;
@@ -509,6 +519,7 @@ public class RtpChannel extends MultiplexedChannel implements DtlsListener, IceE
         }
 
         super.close();
+        this.udpManager.unbind(this.dataChannel);
         reset();
         this.bound = false;
     }
@@ -556,6 +567,12 @@ public class RtpChannel extends MultiplexedChannel implements DtlsListener, IceE
 
     private class HeartBeat extends Task {
 
+        @Override
+        public int getAffinity() {
+            // follow the media of the channel to whatever shard its mixer pinned it
+            return audioComponent.getAffinity();
+        }
+
         public int getQueueNumber() {
             return PriorityQueueScheduler.HEARTBEAT_QUEUE;
         }
@@ -27,6 +27,7 @@ import org.apache.log4j.Logger;
 import org.restcomm.media.network.deprecated.channel.PacketHandler;
 import org.restcomm.media.network.deprecated.channel.PacketHandlerException;
 import org.restcomm.media.rtcp.RtcpHeader;
+import org.restcomm.media.rtp.jitter.AdaptiveJitterBuffer;
 import org.restcomm.media.rtp.jitter.FixedJitterBuffer;
 import org.restcomm.media.rtp.jitter.JitterBuffer;
 import org.restcomm.media.rtp.rfc2833.DtmfInput;
@@ -69,13 +70,27 @@ public class RtpHandler implements PacketHandler {
 	private DtlsHandler dtlsHandler;
 	
 	public RtpHandler(PriorityQueueScheduler scheduler, RtpClock clock, RtpClock oobClock, int jitterBufferSize, RtpStatistics statistics) {
+		this(scheduler, clock, oobClock, jitterBufferSize, false, statistics);
+	}
+	
+	/**
+	 * Creates a new handler.
+	 * 
+	 * @param jitterBufferSize the size of the jitter buffer in milliseconds. Initial target delay if the buffer is adaptive.
+	 * @param adaptiveJitterBuffer whether the jitter buffer adapts its delay to the network jitter
+	 */
+	public RtpHandler(PriorityQueueScheduler scheduler, RtpClock clock, RtpClock oobClock, int jitterBufferSize, boolean adaptiveJitterBuffer, RtpStatistics statistics) {
 		this.pipelinePriority = 0;
 		
 		this.rtpClock = clock;
 		this.oobClock = oobClock;
 		
 		this.jitterBufferSize = jitterBufferSize;
-		this.jitterBuffer = new FixedJitterBuffer(this.rtpClock, this.jitterBufferSize);
+		if (adaptiveJitterBuffer) {
+			this.jitterBuffer = new AdaptiveJitterBuffer(this.rtpClock, this.jitterBufferSize);
+		} else {
+			this.jitterBuffer = new FixedJitterBuffer(this.rtpClock, this.jitterBufferSize);
+		}
 		
 		this.rtpInput = new RTPInput(scheduler, jitterBuffer);
 		this.jitterBuffer.setListener(this.rtpInput);
@@ -122,6 +137,10 @@ public class RtpHandler implements PacketHandler {
 		this.receivable = receivable;
 	}
 	
+	public JitterBuffer getJitterBuffer() {
+		return jitterBuffer;
+	}
+	
 	public void useJitterBuffer(boolean useBuffer) {
 		this.jitterBuffer.setInUse(useBuffer);
 	}
@@ -251,25 +270,16 @@ public class RtpHandler implements PacketHandler {
 			return null;
 		}
 		
-		if(this.secure) {
-			// Decode SRTP packet into RTP. WebRTC calls only.
-			byte[] decoded = this.dtlsHandler.decodeRTP(packet, offset, dataLength);
-			if(decoded == null || decoded.length == 0) {
-				logger.warn("SRTP packet is not valid! Dropping packet.");
-				return null;
-			} else {
-				// Transform incoming data directly into an RTP Packet
-				ByteBuffer buffer = this.rtpPacket.getBuffer();
-				buffer.clear();
-				buffer.put(decoded);
-				buffer.flip();
-			}
-		} else {
-			// Transform incoming data directly into an RTP Packet
-			ByteBuffer buffer = this.rtpPacket.getBuffer();
-			buffer.clear();
-			buffer.put(packet, offset, dataLength);
-			buffer.flip();
+		// Transform incoming data directly into an RTP Packet
+		ByteBuffer buffer = this.rtpPacket.getBuffer();
+		buffer.clear();
+		buffer.put(packet, offset, dataLength);
+		buffer.flip();
+
+		// Decode SRTP packet into RTP in place. WebRTC calls only.
+		if(this.secure && !this.dtlsHandler.decodeRTP(buffer)) {
+			logger.warn("SRTP packet is not valid! Dropping packet.");
+			return null;
 		}
 		
 		// For RTP keep-alive purposes
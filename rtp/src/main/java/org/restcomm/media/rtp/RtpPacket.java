@@ -309,6 +309,19 @@ public class RtpPacket implements Serializable {
     public void getPayload(byte[] buff) {
         getPayload(buff, 0);
     }
+
+    /**
+     * Copies the payload into a buffer, starting at its current position.
+     * <p>
+     * When both buffers are direct the payload never crosses the heap.
+     * </p>
+     *
+     * @param dst the buffer receiving the payload
+     */
+    public void getPayload(ByteBuffer dst) {
+        buffer.position(FIXED_HEADER_SIZE);
+        dst.put(buffer);
+    }
     
     public void wrap(byte[] data) {
         this.buffer.clear();
@@ -329,6 +342,30 @@ public class RtpPacket implements Serializable {
      * @param len the number of bytes
      */
     public void wrap(boolean mark, int payloadType, int seqNumber, long timestamp, long ssrc, byte[] data, int offset, int len) {
+        putHeader(mark, payloadType, seqNumber, timestamp, ssrc);
+        buffer.put(data, offset, len);
+        buffer.flip();
+        buffer.rewind();
+    }
+
+    /**
+     * Encapsulates data into the packet for transmission via RTP.
+     *
+     * @param mark mark field
+     * @param payloadType payload type field.
+     * @param seqNumber sequence number field
+     * @param timestamp timestamp field
+     * @param ssrc synchronization source field
+     * @param data the payload, read from its position up to its limit
+     */
+    public void wrap(boolean mark, int payloadType, int seqNumber, long timestamp, long ssrc, ByteBuffer data) {
+        putHeader(mark, payloadType, seqNumber, timestamp, ssrc);
+        buffer.put(data);
+        buffer.flip();
+        buffer.rewind();
+    }
+
+    private void putHeader(boolean mark, int payloadType, int seqNumber, long timestamp, long ssrc) {
         buffer.clear();
         buffer.rewind();
 
@@ -357,10 +394,6 @@ public class RtpPacket implements Serializable {
          buffer.put((byte) ((ssrc & 0x00FF0000) >> 16));
          buffer.put((byte) ((ssrc & 0x0000FF00) >> 8));
          buffer.put((byte) ((ssrc & 0x000000FF)));
-
-         buffer.put(data, offset, len);
-         buffer.flip();
-         buffer.rewind();
     }
 
     @Override
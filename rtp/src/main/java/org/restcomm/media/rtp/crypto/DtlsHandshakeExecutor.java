@@ -0,0 +1,247 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.crypto;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Bounded pool shared by all DTLS handshakes of the media server.
+ * <p>
+ * Handshakes are admitted into a queue of fixed capacity and executed by a fixed number of worker threads. Once both the
+ * workers and the admission queue are busy, new handshakes are rejected instead of spawning more threads.
+ * </p>
+ * <p>
+ * Worker threads are created on demand and released after being idle for a while, so an unused pool holds no threads.
+ * </p>
+ */
+public class DtlsHandshakeExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(DtlsHandshakeExecutor.class);
+
+    public static final int THREADS = 16;
+    public static final int QUEUE_SIZE = 1000;
+
+    private static final long KEEP_ALIVE = 60L;
+
+    private final ThreadPoolExecutor executor;
+
+    // Statistics
+    private final AtomicInteger active;
+    private final AtomicLong submitted;
+    private final AtomicLong completed;
+    private final AtomicLong failed;
+    private final AtomicLong rejected;
+    private final AtomicLong totalQueueTime;
+    private final AtomicLong totalHandshakeTime;
+    private final AtomicLong maxHandshakeTime;
+
+    public DtlsHandshakeExecutor(int threads, int queueSize) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("DTLS handshake pool needs at least one thread.");
+        }
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("DTLS handshake queue size must be positive.");
+        }
+
+        this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize), new HandshakeThreadFactory());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.active = new AtomicInteger(0);
+        this.submitted = new AtomicLong(0);
+        this.completed = new AtomicLong(0);
+        this.failed = new AtomicLong(0);
+        this.rejected = new AtomicLong(0);
+        this.totalQueueTime = new AtomicLong(0);
+        this.totalHandshakeTime = new AtomicLong(0);
+        this.maxHandshakeTime = new AtomicLong(0);
+    }
+
+    public DtlsHandshakeExecutor() {
+        this(THREADS, QUEUE_SIZE);
+    }
+
+    /**
+     * Admits a handshake into the pool.
+     * 
+     * @param handshake The handshake to execute. Must throw an exception if the handshake fails.
+     * @throws RejectedExecutionException When the admission queue is full.
+     */
+    public void execute(HandshakeTask handshake) throws RejectedExecutionException {
+        this.submitted.incrementAndGet();
+        try {
+            this.executor.execute(new MeasuredHandshake(handshake));
+        } catch (RejectedExecutionException e) {
+            this.submitted.decrementAndGet();
+            this.rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Stops the pool. Handshakes in progress are interrupted and queued handshakes are discarded.
+     */
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    public int getThreads() {
+        return this.executor.getMaximumPoolSize();
+    }
+
+    public int getQueueSize() {
+        return this.executor.getQueue().size() + this.executor.getQueue().remainingCapacity();
+    }
+
+    /**
+     * Gets the number of handshakes waiting for a worker thread.
+     * 
+     * @return The depth of the admission queue
+     */
+    public int getQueueDepth() {
+        return this.executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return this.active.get();
+    }
+
+    public long getSubmittedCount() {
+        return this.submitted.get();
+    }
+
+    public long getCompletedCount() {
+        return this.completed.get();
+    }
+
+    public long getFailedCount() {
+        return this.failed.get();
+    }
+
+    public long getRejectedCount() {
+        return this.rejected.get();
+    }
+
+    /**
+     * Gets the average time handshakes spent in the admission queue.
+     * 
+     * @return The average queue time, in milliseconds
+     */
+    public long getAverageQueueTime() {
+        long finished = this.completed.get() + this.failed.get();
+        return finished == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(this.totalQueueTime.get() / finished);
+    }
+
+    /**
+     * Gets the average duration of a handshake, excluding the time spent in the admission queue.
+     * 
+     * @return The average handshake latency, in milliseconds
+     */
+    public long getAverageHandshakeTime() {
+        long finished = this.completed.get() + this.failed.get();
+        return finished == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(this.totalHandshakeTime.get() / finished);
+    }
+
+    /**
+     * Gets the duration of the slowest handshake, excluding the time spent in the admission queue.
+     * 
+     * @return The maximum handshake latency, in milliseconds
+     */
+    public long getMaxHandshakeTime() {
+        return TimeUnit.NANOSECONDS.toMillis(this.maxHandshakeTime.get());
+    }
+
+    private void updateMax(long duration) {
+        long current = this.maxHandshakeTime.get();
+        while (duration > current && !this.maxHandshakeTime.compareAndSet(current, duration)) {
+            current = this.maxHandshakeTime.get();
+        }
+    }
+
+    /**
+     * Unit of work executed by the pool.
+     */
+    public interface HandshakeTask {
+
+        void handshake() throws Exception;
+
+    }
+
+    private final class MeasuredHandshake implements Runnable {
+
+        private final HandshakeTask task;
+        private final long submittedAt;
+
+        public MeasuredHandshake(HandshakeTask task) {
+            this.task = task;
+            this.submittedAt = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            totalQueueTime.addAndGet(startedAt - this.submittedAt);
+            active.incrementAndGet();
+            try {
+                this.task.handshake();
+                completed.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+            } finally {
+                long duration = System.nanoTime() - startedAt;
+                totalHandshakeTime.addAndGet(duration);
+                updateMax(duration);
+                active.decrementAndGet();
+            }
+        }
+
+    }
+
+    private static final class HandshakeThreadFactory implements ThreadFactory {
+
+        private static final AtomicLong THREAD_COUNTER = new AtomicLong(0);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "DTLS-Server-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+
+                @Override
+                public void uncaughtException(Thread t, Throwable e) {
+                    LOGGER.error("DTLS handshake thread " + t.getName() + " terminated unexpectedly.", e);
+                }
+            });
+            return thread;
+        }
+
+    }
+
+}
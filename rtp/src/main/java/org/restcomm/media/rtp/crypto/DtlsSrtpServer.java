@@ -29,8 +29,11 @@ import org.apache.log4j.Logger;
 import org.bouncycastle.asn1.x509.Certificate;
 import org.bouncycastle.crypto.tls.AlertDescription;
 import org.bouncycastle.crypto.tls.AlertLevel;
+import org.bouncycastle.crypto.params.AsymmetricKeyParameter;
 import org.bouncycastle.crypto.tls.CertificateRequest;
+import org.bouncycastle.crypto.tls.DefaultTlsEncryptionCredentials;
 import org.bouncycastle.crypto.tls.DefaultTlsServer;
+import org.bouncycastle.crypto.tls.DefaultTlsSignerCredentials;
 import org.bouncycastle.crypto.tls.ExporterLabel;
 import org.bouncycastle.crypto.tls.HashAlgorithm;
 import org.bouncycastle.crypto.tls.ProtocolVersion;
@@ -66,6 +69,10 @@ public class DtlsSrtpServer extends DefaultTlsServer {
     private final String keyResource;
     private final AlgorithmCertificate algorithmCertificate;
 
+    // Key material shared across handshakes. Loaded from the resources when not provided.
+    private final org.bouncycastle.crypto.tls.Certificate certificateChain;
+    private final AsymmetricKeyParameter privateKey;
+
 	private String hashFunction = "";
     
     // the server response to the client handshake request
@@ -86,14 +93,48 @@ public class DtlsSrtpServer extends DefaultTlsServer {
 	private final ProtocolVersion maxVersion;
 	private final CipherSuite[] cipherSuites;
 
+	// Primitives used by the SRTP transformers once the handshake completes
+	private final SRTPCryptoProvider srtpCryptoProvider;
+
     public DtlsSrtpServer(ProtocolVersion minVersion, ProtocolVersion maxVersion, CipherSuite[] cipherSuites,
             String[] certificatesPath, String keyPath, AlgorithmCertificate algorithmCertificate) {
+        this(minVersion, maxVersion, cipherSuites, certificatesPath, keyPath, algorithmCertificate, null, null);
+    }
+
+    public DtlsSrtpServer(ProtocolVersion minVersion, ProtocolVersion maxVersion, CipherSuite[] cipherSuites,
+            String[] certificatesPath, String keyPath, AlgorithmCertificate algorithmCertificate,
+            org.bouncycastle.crypto.tls.Certificate certificateChain, AsymmetricKeyParameter privateKey) {
+        this(minVersion, maxVersion, cipherSuites, certificatesPath, keyPath, algorithmCertificate, certificateChain,
+                privateKey, SRTPCryptoProvider.BOUNCYCASTLE);
+    }
+
+    public DtlsSrtpServer(ProtocolVersion minVersion, ProtocolVersion maxVersion, CipherSuite[] cipherSuites,
+            String[] certificatesPath, String keyPath, AlgorithmCertificate algorithmCertificate,
+            org.bouncycastle.crypto.tls.Certificate certificateChain, AsymmetricKeyParameter privateKey,
+            SRTPCryptoProvider srtpCryptoProvider) {
         this.minVersion = minVersion;
         this.maxVersion = maxVersion;
         this.cipherSuites = cipherSuites;
         this.certificateResources = certificatesPath;
         this.keyResource = keyPath;
         this.algorithmCertificate = algorithmCertificate;
+        this.certificateChain = certificateChain;
+        this.privateKey = privateKey;
+        this.srtpCryptoProvider = srtpCryptoProvider;
+    }
+
+    private org.bouncycastle.crypto.tls.Certificate getCertificateChain() throws IOException {
+        if (this.certificateChain != null) {
+            return this.certificateChain;
+        }
+        return TlsUtils.loadCertificateChain(this.certificateResources);
+    }
+
+    private AsymmetricKeyParameter getPrivateKey() throws IOException {
+        if (this.privateKey != null) {
+            return this.privateKey;
+        }
+        return TlsUtils.loadPrivateKeyResource(this.keyResource);
     }
 
 	public void notifyAlertRaised(short alertLevel, short alertDescription, String message, Exception cause) {
@@ -171,12 +212,12 @@ public class DtlsSrtpServer extends DefaultTlsServer {
     
     @Override
     protected TlsSignerCredentials getECDSASignerCredentials() throws IOException {
-        return TlsUtils.loadSignerCredentials(context, certificateResources, keyResource, new SignatureAndHashAlgorithm(HashAlgorithm.sha256, SignatureAlgorithm.ecdsa));
+        return new DefaultTlsSignerCredentials(context, getCertificateChain(), getPrivateKey(), new SignatureAndHashAlgorithm(HashAlgorithm.sha256, SignatureAlgorithm.ecdsa));
     }
     
     @Override
     protected TlsEncryptionCredentials getRSAEncryptionCredentials() throws IOException {
-        return TlsUtils.loadEncryptionCredentials(context, certificateResources, keyResource);
+        return new DefaultTlsEncryptionCredentials(context, getCertificateChain(), getPrivateKey());
     }
 
     @SuppressWarnings("unchecked")
@@ -200,7 +241,7 @@ public class DtlsSrtpServer extends DefaultTlsServer {
                 return null;
             }
         }
-        return TlsUtils.loadSignerCredentials(context, certificateResources, keyResource, signatureAndHashAlgorithm);
+        return new DefaultTlsSignerCredentials(context, getCertificateChain(), getPrivateKey(), signatureAndHashAlgorithm);
     }
     
     @SuppressWarnings("unchecked")
@@ -223,6 +264,7 @@ public class DtlsSrtpServer extends DefaultTlsServer {
     	
     	// set to some reasonable default value
     	int chosenProfile = SRTPProtectionProfile.SRTP_AES128_CM_HMAC_SHA1_80;
+    	int aeadProfile = 0;
     	UseSRTPData clientSrtpData = TlsSRTPUtils.getUseSRTPExtension(newClientExtensions);
     	
     	for (int profile : clientSrtpData.getProtectionProfiles()) {
@@ -233,10 +275,24 @@ public class DtlsSrtpServer extends DefaultTlsServer {
     			case SRTPProtectionProfile.SRTP_NULL_HMAC_SHA1_80:
     				chosenProfile  = profile;
     				break;
+    			case SRTPParameters.SRTP_AEAD_AES_128_GCM_PROFILE:
+    			case SRTPParameters.SRTP_AEAD_AES_256_GCM_PROFILE:
+    				// keep the AEAD profile the client prefers among those the JVM can run
+    				int keyLength = SRTPParameters.getSrtpParametersForProfile(profile).getCipherKeyLength();
+    				if (aeadProfile == 0 && SRTPCipherGCM.isSupported(keyLength)) {
+    					aeadProfile = profile;
+    				}
+    				break;
     			default:
     		}
     	}
     	
+    	// AEAD profiles are preferred whenever the JVM can run AES-GCM
+    	// http://tools.ietf.org/html/rfc7714#section-14.2
+    	if (aeadProfile != 0) {
+    		chosenProfile = aeadProfile;
+    	}
+    	
     	// server chooses a mutually supported SRTP protection profile
     	// http://tools.ietf.org/html/draft-ietf-avt-dtls-srtp-07#section-4.1.2
 		int[] protectionProfiles = { chosenProfile };
@@ -260,6 +316,8 @@ public class DtlsSrtpServer extends DefaultTlsServer {
     	
     	srtpPolicy = srtpParams.getSrtpPolicy();
     	srtcpPolicy = srtpParams.getSrtcpPolicy();
+    	srtpPolicy.setCryptoProvider(srtpCryptoProvider);
+    	srtcpPolicy.setCryptoProvider(srtpCryptoProvider);
     	
         srtpMasterClientKey = new byte[keyLen];
         srtpMasterServerKey = new byte[keyLen];
@@ -336,7 +394,7 @@ public class DtlsSrtpServer extends DefaultTlsServer {
 	public String generateFingerprint(String hashFunction) {
 		try {
 			this.hashFunction = hashFunction;
-			org.bouncycastle.crypto.tls.Certificate chain = TlsUtils.loadCertificateChain(certificateResources);
+			org.bouncycastle.crypto.tls.Certificate chain = getCertificateChain();
 			Certificate certificate = chain.getCertificateAt(0);
 			return TlsUtils.fingerprint(this.hashFunction, certificate);
 		} catch (IOException e) {
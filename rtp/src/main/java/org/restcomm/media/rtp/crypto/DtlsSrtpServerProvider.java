@@ -21,6 +21,11 @@
 
 package org.restcomm.media.rtp.crypto;
 
+import java.io.IOException;
+
+import org.apache.log4j.Logger;
+import org.bouncycastle.crypto.params.AsymmetricKeyParameter;
+import org.bouncycastle.crypto.tls.Certificate;
 import org.bouncycastle.crypto.tls.ProtocolVersion;
 
 /**
@@ -28,27 +33,88 @@ import org.bouncycastle.crypto.tls.ProtocolVersion;
  */
 public class DtlsSrtpServerProvider {
 
+    private static final Logger LOGGER = Logger.getLogger(DtlsSrtpServerProvider.class);
+
     private ProtocolVersion minVersion;
     private ProtocolVersion maxVersion;
     private CipherSuite[] cipherSuites;
     private String[] certificatePaths;
     private String keyPath;
     private AlgorithmCertificate algorithmCertificate;
+    private final DtlsHandshakeExecutor handshakeExecutor;
+    private final SRTPCryptoProvider srtpCryptoProvider;
+
+    // Key material is loaded once and shared by every server
+    private volatile Certificate certificateChain;
+    private volatile AsymmetricKeyParameter privateKey;
 
     public DtlsSrtpServerProvider(ProtocolVersion minVersion, ProtocolVersion maxVersion, CipherSuite[] cipherSuites,
             String certificatePath, String keyPath, AlgorithmCertificate algorithmCertificate) {
+        this(minVersion, maxVersion, cipherSuites, certificatePath, keyPath, algorithmCertificate,
+                new DtlsHandshakeExecutor());
+    }
+
+    public DtlsSrtpServerProvider(ProtocolVersion minVersion, ProtocolVersion maxVersion, CipherSuite[] cipherSuites,
+            String certificatePath, String keyPath, AlgorithmCertificate algorithmCertificate,
+            DtlsHandshakeExecutor handshakeExecutor) {
+        this(minVersion, maxVersion, cipherSuites, certificatePath, keyPath, algorithmCertificate, handshakeExecutor,
+                SRTPCryptoProvider.BOUNCYCASTLE);
+    }
+
+    public DtlsSrtpServerProvider(ProtocolVersion minVersion, ProtocolVersion maxVersion, CipherSuite[] cipherSuites,
+            String certificatePath, String keyPath, AlgorithmCertificate algorithmCertificate,
+            DtlsHandshakeExecutor handshakeExecutor, SRTPCryptoProvider srtpCryptoProvider) {
         this.minVersion = minVersion;
         this.maxVersion = maxVersion;
         this.cipherSuites = cipherSuites;
         this.certificatePaths = new String[] { certificatePath };
         this.keyPath = keyPath;
         this.algorithmCertificate = algorithmCertificate;
+        this.handshakeExecutor = handshakeExecutor;
+        this.srtpCryptoProvider = srtpCryptoProvider;
     }
 
     public DtlsSrtpServer provide() {
+        loadKeyMaterial();
         DtlsSrtpServer server = new DtlsSrtpServer(minVersion, maxVersion, cipherSuites, certificatePaths, keyPath,
-                algorithmCertificate);
+                algorithmCertificate, certificateChain, privateKey, srtpCryptoProvider);
         return server;
     }
 
+    /**
+     * Gets the pool where the handshakes of the provided servers are executed.
+     * 
+     * @return The shared handshake executor
+     */
+    public DtlsHandshakeExecutor getHandshakeExecutor() {
+        return handshakeExecutor;
+    }
+
+    /**
+     * Gets the provider of the primitives used to protect the media of the provided servers.
+     * 
+     * @return The SRTP crypto provider
+     */
+    public SRTPCryptoProvider getSrtpCryptoProvider() {
+        return srtpCryptoProvider;
+    }
+
+    private void loadKeyMaterial() {
+        if (this.certificateChain == null) {
+            synchronized (this) {
+                if (this.certificateChain == null) {
+                    try {
+                        // Certificate chain is written last as it flags the material as loaded
+                        this.privateKey = TlsUtils.loadPrivateKeyResource(this.keyPath);
+                        this.certificateChain = TlsUtils.loadCertificateChain(this.certificatePaths);
+                    } catch (IOException | IllegalArgumentException e) {
+                        // Servers will try to load the material themselves during the handshake
+                        this.privateKey = null;
+                        LOGGER.warn("Could not load DTLS key material: " + e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
 }
@@ -0,0 +1,100 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.crypto;
+
+import java.security.GeneralSecurityException;
+
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.bouncycastle.crypto.CipherParameters;
+import org.bouncycastle.crypto.DataLengthException;
+import org.bouncycastle.crypto.Mac;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+/**
+ * Adapts a JCE HMAC to the Bouncy Castle {@link Mac} interface, so the SRTP crypto contexts can authenticate packets with
+ * either provider.
+ */
+public class JceHMac implements Mac {
+
+    private final javax.crypto.Mac mac;
+
+    /**
+     * @param algorithm the JCE algorithm name, like <code>HmacSHA1</code>
+     */
+    public JceHMac(String algorithm) {
+        try {
+            this.mac = javax.crypto.Mac.getInstance(algorithm);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(algorithm + " is not supported by the JCE provider", e);
+        }
+    }
+
+    @Override
+    public void init(CipherParameters params) throws IllegalArgumentException {
+        if (!(params instanceof KeyParameter)) {
+            throw new IllegalArgumentException("HMAC requires a KeyParameter");
+        }
+        try {
+            this.mac.init(new SecretKeySpec(((KeyParameter) params).getKey(), this.mac.getAlgorithm()));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid HMAC key", e);
+        }
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return this.mac.getAlgorithm();
+    }
+
+    @Override
+    public int getMacSize() {
+        return this.mac.getMacLength();
+    }
+
+    @Override
+    public void update(byte in) throws IllegalStateException {
+        this.mac.update(in);
+    }
+
+    @Override
+    public void update(byte[] in, int inOff, int len) throws DataLengthException, IllegalStateException {
+        this.mac.update(in, inOff, len);
+    }
+
+    @Override
+    public int doFinal(byte[] out, int outOff) throws DataLengthException, IllegalStateException {
+        try {
+            this.mac.doFinal(out, outOff);
+            return this.mac.getMacLength();
+        } catch (ShortBufferException e) {
+            throw new DataLengthException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void reset() {
+        this.mac.reset();
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.crypto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Open addressing hash map keyed by primitive longs.
+ * <p>
+ * Used to lookup crypto contexts by SSRC on every packet without boxing the key nor allocating entries. Only lookups and
+ * insertions are supported, as contexts are released all at once when the transformer is closed.
+ * </p>
+ * <p>
+ * <b>This class is not thread-safe.</b>
+ * </p>
+ * 
+ * @param <V> The type of the mapped values
+ */
+class LongObjectMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    LongObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    LongObjectMap(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, capacity) - 1) << 1;
+        this.keys = new long[slots];
+        this.values = new Object[slots];
+        this.mask = slots - 1;
+        this.size = 0;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int slot = hash(key) & this.mask;
+        Object value = this.values[slot];
+        while (value != null) {
+            if (this.keys[slot] == key) {
+                return (V) value;
+            }
+            slot = (slot + 1) & this.mask;
+            value = this.values[slot];
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+
+        int slot = hash(key) & this.mask;
+        Object current = this.values[slot];
+        while (current != null) {
+            if (this.keys[slot] == key) {
+                this.values[slot] = value;
+                return (V) current;
+            }
+            slot = (slot + 1) & this.mask;
+            current = this.values[slot];
+        }
+
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        this.size++;
+
+        // Keep load factor under 50% so probe sequences stay short
+        if (this.size * 2 > this.keys.length) {
+            rehash(this.keys.length * 2);
+        }
+        return null;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    @SuppressWarnings("unchecked")
+    List<V> values() {
+        List<V> result = new ArrayList<>(this.size);
+        for (int i = 0; i < this.values.length; i++) {
+            if (this.values[i] != null) {
+                result.add((V) this.values[i]);
+            }
+        }
+        return result;
+    }
+
+    void clear() {
+        Arrays.fill(this.values, null);
+        this.size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rehash(int capacity) {
+        long[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.size = 0;
+
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                put(oldKeys[i], (V) oldValues[i]);
+            }
+        }
+    }
+
+}
@@ -7,6 +7,7 @@
  */
 package org.restcomm.media.rtp.crypto;
 
+import java.nio.ByteBuffer;
 
 /**
  * Encapsulate the concept of packet transformation. Given a packet,
@@ -65,6 +66,33 @@ public interface PacketTransformer {
 	 */
 	public byte[] reverseTransform(byte[] pkt, int offset, int length);
 
+	/**
+	 * Transforms a non-secure packet in place, without allocating memory.
+	 * 
+	 * The packet is read between the position and the limit of the buffer.
+	 * On success the limit is moved to the end of the transformed packet,
+	 * which is why the buffer must have room for the authentication tag.
+	 * 
+	 * @param pkt
+	 *            The buffer holding the packet to be secured
+	 * @return Whether the packet was transformed. The contents of the buffer
+	 *         are undefined otherwise.
+	 */
+	public boolean transform(ByteBuffer pkt);
+
+	/**
+	 * Reverse-transforms a packet in place, without allocating memory.
+	 * 
+	 * The packet is read between the position and the limit of the buffer.
+	 * On success the limit is moved to the end of the restored packet.
+	 * 
+	 * @param pkt
+	 *            The buffer holding the packet to be restored
+	 * @return Whether the packet was restored. The contents of the buffer are
+	 *         undefined otherwise.
+	 */
+	public boolean reverseTransform(ByteBuffer pkt);
+
 	/**
 	 * Close the transformer and underlying transform engine.
 	 * 
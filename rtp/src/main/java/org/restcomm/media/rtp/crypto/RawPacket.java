@@ -45,11 +45,22 @@ public class RawPacket {
      */
     private ByteBuffer buffer;
 
+    /**
+     * Buffer owned by this packet, used when wrapping byte arrays
+     */
+    private ByteBuffer ownBuffer;
+
+    /**
+     * Buffer supplied by the caller when transforming in place
+     */
+    private ByteBuffer origin;
+
     /**
      * Initializes a new empty <tt>RawPacket</tt> instance.
      */
     public RawPacket() {
-    	this.buffer = ByteBuffer.allocateDirect(RtpPacket.RTP_PACKET_MAX_SIZE);
+    	this.ownBuffer = ByteBuffer.allocateDirect(RtpPacket.RTP_PACKET_MAX_SIZE);
+    	this.buffer = this.ownBuffer;
     }
 
     /**
@@ -64,11 +75,13 @@ public class RawPacket {
      * constitute the actual data to be represented by the new instance
      */
     public RawPacket(byte[] data, int offset, int length) {
-    	this.buffer = ByteBuffer.allocateDirect(RtpPacket.RTP_PACKET_MAX_SIZE);
+    	this();
         wrap(data, offset, length);
     }
     
     public void wrap(byte[] data, int offset, int length) {
+    	this.origin = null;
+    	this.buffer = this.ownBuffer;
     	this.buffer.clear();
     	this.buffer.rewind();
     	this.buffer.put(data, offset, length);
@@ -76,6 +89,55 @@ public class RawPacket {
     	this.buffer.rewind();
     }
     
+    /**
+     * Makes this packet operate directly on the contents of a buffer, without copying them.
+     * <p>
+     * The packet is read between the position and the limit of the buffer. Any change done to the packet, including
+     * appending or shrinking data, is reflected in the buffer. Call {@link #unwrap()} once done.
+     * </p>
+     * 
+     * @param buffer The buffer holding the packet
+     */
+    public void wrap(ByteBuffer buffer) {
+        this.origin = buffer;
+        if (buffer.position() == 0) {
+            this.buffer = buffer;
+        } else {
+            // Packet methods use absolute indexes, so work on a view starting at the packet
+            int limit = buffer.limit();
+            buffer.limit(buffer.capacity());
+            this.buffer = buffer.slice();
+            this.buffer.limit(limit - buffer.position());
+            buffer.limit(limit);
+        }
+        this.buffer.rewind();
+    }
+
+    /**
+     * Hands a buffer wrapped by {@link #wrap(ByteBuffer)} back to the caller, with its position at the start of the
+     * packet and its limit at the end.
+     */
+    public void unwrap() {
+        if (this.origin != null) {
+            if (this.origin == this.buffer) {
+                this.origin.position(0);
+            } else {
+                this.origin.limit(this.origin.position() + this.buffer.limit());
+            }
+            this.origin = null;
+            this.buffer = this.ownBuffer;
+        }
+    }
+
+    /**
+     * Gets how many bytes can be appended to the packet without growing its buffer.
+     * 
+     * @return The free space after the end of the packet
+     */
+    public int getFreeSpace() {
+        return this.buffer.capacity() - this.buffer.limit();
+    }
+    
     public byte[] getData() {
     	this.buffer.rewind();
     	byte[] data = new byte[this.buffer.limit()];
@@ -292,6 +354,9 @@ public class RawPacket {
 			newBuffer.put(buffer);
 			newBuffer.limit(newLen);
 			// switch to new buffer
+			if (buffer == ownBuffer) {
+				ownBuffer = newBuffer;
+			}
 			buffer = newBuffer;
 		}
 	}
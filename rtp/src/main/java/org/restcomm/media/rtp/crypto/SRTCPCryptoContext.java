@@ -94,6 +94,12 @@ public class SRTCPCryptoContext {
     // implements the counter cipher mode for RTP according to RFC 3711
     private final SRTPCipherCTR cipherCtr = new SRTPCipherCTR();
 
+    // counter cipher mode running on the JCE, when selected by the policy
+    private SRTPCipherCTRJCE cipherCtrJce = null;
+
+    // implements the AEAD cipher mode for RTCP according to RFC 7714
+    private SRTPCipherGCM cipherGcm = null;
+
     // Here some fields that a allocated here or in constructor. The methods
     // use these fields to avoid too many new operations
     
@@ -148,7 +154,8 @@ public class SRTCPCryptoContext {
         policy = policyIn;
         masterKey = new byte[policy.getEncKeyLength()];
         System.arraycopy(masterK, 0, masterKey, 0, masterK.length);
-        masterSalt = new byte[policy.getSaltKeyLength()];
+        // AEAD profiles have a 96 bit salt, zero padded at the end for key derivation
+        masterSalt = new byte[Math.max(policy.getSaltKeyLength(), SRTPCryptoContext.KDF_SALT_LENGTH)];
         System.arraycopy(masterS, 0, masterSalt, 0, masterS.length);
 
         switch (policy.getEncType()) {
@@ -164,6 +171,17 @@ public class SRTCPCryptoContext {
             cipher = new AESFastEngine();
             encKey = new byte[this.policy.getEncKeyLength()];
             saltKey = new byte[this.policy.getSaltKeyLength()];    
+            if (cipherF8 == null && policy.getCryptoProvider() == SRTPCryptoProvider.JCE) {
+                cipherCtrJce = new SRTPCipherCTRJCE();
+            }
+            break;
+
+        case SRTPPolicy.AESGCM_ENCRYPTION:
+            // Bouncy Castle AES is still used for the key derivation
+            cipher = new AESFastEngine();
+            cipherGcm = new SRTPCipherGCM();
+            encKey = new byte[this.policy.getEncKeyLength()];
+            saltKey = new byte[this.policy.getSaltKeyLength()];
             break;
 
         case SRTPPolicy.TWOFISHF8_ENCRYPTION:
@@ -183,7 +201,11 @@ public class SRTCPCryptoContext {
             break;
 
         case SRTPPolicy.HMACSHA1_AUTHENTICATION:
-            mac = new HMac(new SHA1Digest());
+            if (policy.getCryptoProvider() == SRTPCryptoProvider.JCE) {
+                mac = new JceHMac("HmacSHA1");
+            } else {
+                mac = new HMac(new SHA1Digest());
+            }
             authKey = new byte[policy.getAuthKeyLength()];
             tagStore = new byte[mac.getMacSize()];
             break;
@@ -260,8 +282,19 @@ public class SRTCPCryptoContext {
      * method (RTPManager managed transportation) instead.  
      * 
      * @param pkt the RTP packet that is going to be sent out
+     * @return true if the packet was protected, false if it could not be encrypted
      */
-    public void transformPacket(RawPacket pkt) {
+    public boolean transformPacket(RawPacket pkt) {
+        // Encrypt and authenticate the packet using AEAD GCM
+        if (policy.getEncType() == SRTPPolicy.AESGCM_ENCRYPTION) {
+            if (!processPacketAESGCM(pkt, sentIndex | 0x80000000, true)) {
+                return false;
+            }
+            sentIndex++;
+            sentIndex &= ~0x80000000;       // clear possible overflow
+            return true;
+        }
+
         boolean encrypt = false;
         // Encrypt the packet using Counter Mode encryption
         if (policy.getEncType() == SRTPPolicy.AESCM_ENCRYPTION || policy.getEncType() == SRTPPolicy.TWOFISH_ENCRYPTION) {
@@ -293,6 +326,7 @@ public class SRTCPCryptoContext {
         }
         sentIndex++;
         sentIndex &= ~0x80000000;       // clear possible overflow
+        return true;
     }
 
     /**
@@ -315,8 +349,14 @@ public class SRTCPCryptoContext {
      */
     public boolean reverseTransformPacket(RawPacket pkt) {
         boolean decrypt = false;
+        boolean aead = policy.getEncType() == SRTPPolicy.AESGCM_ENCRYPTION;
         int tagLength = policy.getAuthTagLength();
-        int indexEflag = pkt.getSRTCPIndex(tagLength);
+        if (aead && pkt.getLength() < 8 + tagLength + 4) {
+            return false;
+        }
+
+        // AEAD packets carry the index after the tag, see RFC 7714 section 9.1
+        int indexEflag = aead ? pkt.readInt(pkt.getLength() - 4) : pkt.getSRTCPIndex(tagLength);
 
         if ((indexEflag & 0x80000000) == 0x80000000) {
             decrypt = true;
@@ -329,6 +369,15 @@ public class SRTCPCryptoContext {
             return false;
         }
 
+        if (aead) {
+            pkt.shrink(4);
+            if (!processPacketAESGCM(pkt, indexEflag, false)) {
+                return false;
+            }
+            update(index);
+            return true;
+        }
+
         /* Authenticate the packet */
         if (policy.getAuthType() != SRTPPolicy.NULL_AUTHENTICATION) {
             // get original authentication data and store in tempStore
@@ -405,7 +454,84 @@ public class SRTCPCryptoContext {
         // Encrypted part excludes fixed header (8 bytes)  
         final int payloadOffset = 8;
         final int payloadLength = pkt.getLength() - payloadOffset;
-        cipherCtr.process(cipher, pkt.getBuffer(), payloadOffset, payloadLength, ivStore);
+        if (cipherCtrJce != null) {
+            cipherCtrJce.process(pkt.getBuffer(), payloadOffset, payloadLength, ivStore);
+        } else {
+            cipherCtr.process(cipher, pkt.getBuffer(), payloadOffset, payloadLength, ivStore);
+        }
+    }
+
+    /**
+     * Perform AEAD AES-GCM encryption / decryption, see RFC 7714 section 9.
+     * 
+     * The fixed header and the E flag with the SRTCP index are authenticated,
+     * the rest of the packet is encrypted when the E flag is set. On encryption
+     * the tag and the index are appended to the packet, on decryption the index
+     * must have been removed already.
+     * 
+     * @param pkt the RTCP packet to be encrypted / decrypted
+     * @param indexEflag the SRTCP index, with the E flag as most significant bit
+     * @param encrypt whether the packet is encrypted or decrypted
+     * @return false if the packet could not be processed or its tag is not valid
+     */
+    private boolean processPacketAESGCM(RawPacket pkt, int indexEflag, boolean encrypt) {
+        int ssrc = pkt.getRTCPSSRC();
+        int index = indexEflag & ~0x80000000;
+
+        // IV = (00 00 || SSRC || 00 00 || 0 || SRTCP index) XOR salt
+        ivStore[0] = saltKey[0];
+        ivStore[1] = saltKey[1];
+        ivStore[2] = (byte) (((ssrc >> 24) & 0xff) ^ this.saltKey[2]);
+        ivStore[3] = (byte) (((ssrc >> 16) & 0xff) ^ this.saltKey[3]);
+        ivStore[4] = (byte) (((ssrc >> 8) & 0xff) ^ this.saltKey[4]);
+        ivStore[5] = (byte) ((ssrc & 0xff) ^ this.saltKey[5]);
+        ivStore[6] = saltKey[6];
+        ivStore[7] = saltKey[7];
+        ivStore[8] = (byte) (((index >> 24) & 0xff) ^ this.saltKey[8]);
+        ivStore[9] = (byte) (((index >> 16) & 0xff) ^ this.saltKey[9]);
+        ivStore[10] = (byte) (((index >> 8) & 0xff) ^ this.saltKey[10]);
+        ivStore[11] = (byte) ((index & 0xff) ^ this.saltKey[11]);
+
+        rbStore[0] = (byte) (indexEflag >> 24);
+        rbStore[1] = (byte) (indexEflag >> 16);
+        rbStore[2] = (byte) (indexEflag >> 8);
+        rbStore[3] = (byte) indexEflag;
+
+        final int length = pkt.getLength();
+
+        // Without the E flag the whole packet is authenticated only
+        int payloadOffset = 8;
+        if ((indexEflag & 0x80000000) == 0) {
+            payloadOffset = encrypt ? length : length - SRTPCipherGCM.TAG_LENGTH;
+        }
+
+        if (!cipherGcm.start(encrypt, ivStore)) {
+            return false;
+        }
+        if (encrypt) {
+            // The tag and the index follow the payload, grow reallocates
+            // the buffer if its free space cannot hold them
+            pkt.grow(SRTPCipherGCM.TAG_LENGTH + 4);
+        }
+        ByteBuffer buf = pkt.getBuffer();
+        cipherGcm.updateAAD(buf, 0, payloadOffset);
+        cipherGcm.updateAAD(rbStore, 0, 4);
+        int outLength = cipherGcm.finish(buf, payloadOffset, length - payloadOffset);
+        if (outLength < 0) {
+            if (encrypt) {
+                pkt.shrink(SRTPCipherGCM.TAG_LENGTH + 4);
+            }
+            return false;
+        }
+
+        if (encrypt) {
+            buf.position(payloadOffset + outLength);
+            buf.put(rbStore, 0, 4);
+        } else {
+            pkt.shrink(SRTPCipherGCM.TAG_LENGTH);
+        }
+        buf.rewind();
+        return true;
     }
 
     /**
@@ -547,8 +673,8 @@ public class SRTCPCryptoContext {
 	            default:
 	                break;
             }
+            Arrays.fill(authKey, (byte)0);
         }
-        Arrays.fill(authKey, (byte)0);
 
         // compute the session salt
         label = 5;
@@ -560,6 +686,12 @@ public class SRTCPCryptoContext {
         if (cipherF8 != null) {
             SRTPCipherF8.deriveForIV(cipherF8, encKey, saltKey);
         }
+        if (cipherCtrJce != null) {
+            cipherCtrJce.init(encKey);
+        }
+        if (cipherGcm != null) {
+            cipherGcm.init(encKey);
+        }
         encryptionKey = new KeyParameter(encKey);
         cipher.init(true, encryptionKey);
         Arrays.fill(encKey, (byte)0);
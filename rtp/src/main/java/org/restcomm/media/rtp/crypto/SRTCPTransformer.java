@@ -7,9 +7,9 @@
  */
 package org.restcomm.media.rtp.crypto;
 
-import java.util.Hashtable;
-import java.util.Iterator;
-import java.util.Map;
+import java.nio.ByteBuffer;
+
+import org.apache.log4j.Logger;
 
 /**
  * SRTCPTransformer implements PacketTransformer.
@@ -20,13 +20,15 @@ import java.util.Map;
  */
 public class SRTCPTransformer implements PacketTransformer {
 	
+	private static final Logger logger = Logger.getLogger(SRTCPTransformer.class);
+	
 	private final RawPacket packet;
 	
     private SRTPTransformEngine forwardEngine;
     private SRTPTransformEngine reverseEngine;
 
     /** All the known SSRC's corresponding SRTCPCryptoContexts */
-    private Hashtable<Long,SRTCPCryptoContext> contexts;
+    private final LongObjectMap<SRTCPCryptoContext> contexts;
 
     /**
      * Constructs a SRTCPTransformer object.
@@ -51,7 +53,7 @@ public class SRTCPTransformer implements PacketTransformer {
     	this.packet = new RawPacket();
         this.forwardEngine = forwardEngine;
         this.reverseEngine = reverseEngine;
-        this.contexts = new Hashtable<Long,SRTCPCryptoContext>();
+        this.contexts = new LongObjectMap<>();
     }
 
     /**
@@ -69,20 +71,45 @@ public class SRTCPTransformer implements PacketTransformer {
     	this.packet.wrap(pkt, offset, length);
     	
     	// Associate the packet with its encryption context
-        long ssrc = this.packet.getRTCPSSRC();
-        SRTCPCryptoContext context = contexts.get(ssrc);
+        SRTCPCryptoContext context = getForwardContext(this.packet.getRTCPSSRC());
+        
+        // Secure packet into SRTCP format
+        if (!context.transformPacket(packet)) {
+            return null;
+        }
+        return packet.getData();
+    }
+
+    public boolean transform(ByteBuffer pkt) {
+        this.packet.wrap(pkt);
 
+        // Associate the packet with its encryption context
+        SRTCPCryptoContext context = getForwardContext(this.packet.getRTCPSSRC());
+
+        // SRTCP index (4 bytes) and authentication tag are appended to the packet
+        if (this.packet.getFreeSpace() < 4 + context.getAuthTagLength()) {
+            this.packet.unwrap();
+            logger.warn("No room to append SRTCP index and authentication tag to packet.");
+            return false;
+        }
+
+        // Secure packet into SRTCP format
+        boolean transformed = context.transformPacket(this.packet);
+        this.packet.unwrap();
+        return transformed;
+    }
+
+    private SRTCPCryptoContext getForwardContext(long ssrc) {
+        SRTCPCryptoContext context = this.contexts.get(ssrc);
         if (context == null) {
-            context = forwardEngine.getDefaultContextControl().deriveContext(ssrc);
+            context = this.forwardEngine.getDefaultContextControl().deriveContext(ssrc);
             context.deriveSrtcpKeys();
-            contexts.put(ssrc, context);
+            this.contexts.put(ssrc, context);
         }
-        
-        // Secure packet into SRTCP format
-        context.transformPacket(packet);
-        return packet.getData();
+        return context;
     }
 
+
     public byte[] reverseTransform(byte[] pkt) {
     	return reverseTransform(pkt, 0, pkt.length);
     }
@@ -92,14 +119,7 @@ public class SRTCPTransformer implements PacketTransformer {
     	this.packet.wrap(pkt, offset, length);
     	
     	// Associate the packet with its encryption context
-        long ssrc = this.packet.getRTCPSSRC();
-        SRTCPCryptoContext context = this.contexts.get(ssrc);
-
-        if (context == null) {
-            context = reverseEngine.getDefaultContextControl().deriveContext(ssrc);
-            context.deriveSrtcpKeys();
-            contexts.put(new Long(ssrc), context);
-        }
+        SRTCPCryptoContext context = getReverseContext(this.packet.getRTCPSSRC());
         
         // Decode packet to RTCP format
         boolean reversed = context.reverseTransformPacket(packet);
@@ -109,6 +129,28 @@ public class SRTCPTransformer implements PacketTransformer {
         return null;
     }
 
+    public boolean reverseTransform(ByteBuffer pkt) {
+        this.packet.wrap(pkt);
+
+        // Associate the packet with its encryption context
+        SRTCPCryptoContext context = getReverseContext(this.packet.getRTCPSSRC());
+
+        // Decode packet to RTCP format
+        boolean reversed = context.reverseTransformPacket(this.packet);
+        this.packet.unwrap();
+        return reversed;
+    }
+
+    private SRTCPCryptoContext getReverseContext(long ssrc) {
+        SRTCPCryptoContext context = this.contexts.get(ssrc);
+        if (context == null) {
+            context = this.reverseEngine.getDefaultContextControl().deriveContext(ssrc);
+            context.deriveSrtcpKeys();
+            this.contexts.put(ssrc, context);
+        }
+        return context;
+    }
+
     /**
      * Close the transformer and underlying transform engine.
      * 
@@ -121,17 +163,9 @@ public class SRTCPTransformer implements PacketTransformer {
         if (forwardEngine != reverseEngine)
             reverseEngine.close();
 
-        Iterator<Map.Entry<Long, SRTCPCryptoContext>> iter
-            = contexts.entrySet().iterator();
-
-        while (iter.hasNext()) 
-        {
-            Map.Entry<Long, SRTCPCryptoContext> entry = iter.next();
-            SRTCPCryptoContext context = entry.getValue();
-
-            iter.remove();
-            if (context != null)
-                context.close();
+        for (SRTCPCryptoContext context : contexts.values()) {
+            context.close();
         }
+        contexts.clear();
     }
 }
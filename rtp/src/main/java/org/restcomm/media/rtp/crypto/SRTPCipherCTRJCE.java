@@ -0,0 +1,106 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.crypto;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * SRTPCipherCTRJCE implements SRTP Counter Mode AES Encryption (AES-CM) on top of the JCE provider of the JVM.
+ * <p>
+ * Produces the same key stream as {@link SRTPCipherCTR} for any packet shorter than 1MB, since the 16 bit block counter of
+ * RFC3711 never carries into the IV bytes. The session key is expanded once, only the IV changes per packet.
+ * </p>
+ * <p>
+ * <b>This class is not thread-safe.</b>
+ * </p>
+ */
+public class SRTPCipherCTRJCE {
+
+    private static final String TRANSFORMATION = "AES/CTR/NoPadding";
+    private static final int MAX_BUFFER_LENGTH = 10 * 1024;
+
+    private final Cipher cipher;
+    private SecretKeySpec key;
+    private byte[] streamBuf = new byte[1024];
+
+    public SRTPCipherCTRJCE() {
+        try {
+            this.cipher = Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-CTR is not supported by the JCE provider", e);
+        }
+    }
+
+    /**
+     * Sets the session encryption key.
+     * 
+     * @param encKey the AES key
+     */
+    public void init(byte[] encKey) {
+        this.key = new SecretKeySpec(encKey, "AES");
+    }
+
+    /**
+     * Encrypts or decrypts a region of the buffer in place.
+     * 
+     * @param data the buffer holding the packet
+     * @param off absolute offset of the region
+     * @param len length of the region
+     * @param iv the 16 byte initialization vector, with a zeroed block counter
+     */
+    public void process(ByteBuffer data, int off, int len, byte[] iv) {
+        assert off + len <= data.limit();
+
+        try {
+            this.cipher.init(Cipher.ENCRYPT_MODE, this.key, new IvParameterSpec(iv));
+            if (data.hasArray()) {
+                final byte[] array = data.array();
+                final int start = data.arrayOffset() + off;
+                this.cipher.doFinal(array, start, len, array, start);
+            } else {
+                byte[] buffer = this.streamBuf;
+                if (len > buffer.length) {
+                    buffer = new byte[len];
+                    if (len <= MAX_BUFFER_LENGTH) {
+                        this.streamBuf = buffer;
+                    }
+                }
+
+                final int position = data.position();
+                data.position(off);
+                data.get(buffer, 0, len);
+                this.cipher.doFinal(buffer, 0, len, buffer, 0);
+                data.position(off);
+                data.put(buffer, 0, len);
+                data.position(position);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not process AES-CTR payload", e);
+        }
+    }
+
+}
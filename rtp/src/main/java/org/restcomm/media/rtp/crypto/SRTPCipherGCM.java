@@ -0,0 +1,218 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.crypto;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * SRTPCipherGCM implements the AEAD AES-GCM transform of SRTP and SRTCP, as defined in RFC 7714.
+ * <p>
+ * The cipher runs on the JCE provider of the JVM, which uses the AES-NI and CLMUL instructions when the CPU supports them.
+ * Data is processed in place: the cipher text and the 16 byte authentication tag overwrite the plain text on encryption,
+ * the plain text overwrites the cipher text on decryption.
+ * </p>
+ * <p>
+ * <b>This class is not thread-safe.</b>
+ * </p>
+ */
+public class SRTPCipherGCM {
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    /**
+     * Length of the GCM initialization vector, in bytes.
+     */
+    public static final int IV_LENGTH = 12;
+
+    /**
+     * Length of the GCM authentication tag, in bytes.
+     */
+    public static final int TAG_LENGTH = 16;
+
+    private static final boolean SUPPORTED;
+
+    // longest AES key allowed by the crypto policy of the JVM, in bits
+    private static final int MAX_KEY_LENGTH;
+
+    static {
+        boolean supported;
+        int maxKeyLength;
+        try {
+            Cipher.getInstance(TRANSFORMATION);
+            maxKeyLength = Cipher.getMaxAllowedKeyLength("AES");
+            supported = true;
+        } catch (GeneralSecurityException e) {
+            maxKeyLength = 0;
+            supported = false;
+        }
+        SUPPORTED = supported;
+        MAX_KEY_LENGTH = maxKeyLength;
+    }
+
+    private final Cipher cipher;
+    private SecretKeySpec key;
+
+    // the JCE copies the AAD of direct buffers into a fresh array, so the header goes through this one instead
+    private byte[] aadStore = new byte[RawPacket.FIXED_HEADER_SIZE];
+
+    public SRTPCipherGCM() {
+        try {
+            this.cipher = Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES-GCM is not supported by the JCE provider", e);
+        }
+    }
+
+    /**
+     * Checks whether the JCE provider of the JVM offers AES-GCM.
+     * 
+     * @return true if the AEAD profiles can be negotiated
+     * @see #isSupported(int)
+     */
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    /**
+     * Checks whether the JCE provider of the JVM offers AES-GCM with keys of the given length. A restricted crypto policy
+     * may offer AES-GCM but limit AES keys to 128 bits.
+     * 
+     * @param keyLength the length of the AES key, in bytes
+     * @return true if the AEAD profile using such keys can be negotiated
+     */
+    public static boolean isSupported(int keyLength) {
+        return SUPPORTED && keyLength * 8 <= MAX_KEY_LENGTH;
+    }
+
+    /**
+     * Sets the session encryption key.
+     * 
+     * @param encKey the AES key, either 16 or 32 bytes long
+     */
+    public void init(byte[] encKey) {
+        this.key = new SecretKeySpec(encKey, "AES");
+    }
+
+    /**
+     * Starts the processing of a packet.
+     * 
+     * @param encrypt whether the packet is protected or unprotected
+     * @param iv array holding the 12 byte initialization vector at its start
+     * @return false if the cipher could not be initialized
+     */
+    public boolean start(boolean encrypt, byte[] iv) {
+        try {
+            this.cipher.init(encrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, this.key,
+                    new GCMParameterSpec(TAG_LENGTH * 8, iv, 0, IV_LENGTH));
+            return true;
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Adds authenticated but not encrypted data to the packet being processed.
+     * 
+     * @param data the array holding the data
+     * @param off offset of the data
+     * @param len length of the data
+     */
+    public void updateAAD(byte[] data, int off, int len) {
+        this.cipher.updateAAD(data, off, len);
+    }
+
+    /**
+     * Adds authenticated but not encrypted data to the packet being processed.
+     * 
+     * @param data the buffer holding the data, whose position and limit are left untouched
+     * @param off absolute index of the data in the buffer
+     * @param len length of the data
+     */
+    public void updateAAD(ByteBuffer data, int off, int len) {
+        if (data.hasArray()) {
+            updateAAD(data.array(), data.arrayOffset() + off, len);
+        } else {
+            if (this.aadStore.length < len) {
+                this.aadStore = new byte[len];
+            }
+            ByteBuffer aad = data.duplicate();
+            aad.limit(off + len);
+            aad.position(off);
+            aad.get(this.aadStore, 0, len);
+            updateAAD(this.aadStore, 0, len);
+        }
+    }
+
+    /**
+     * Completes the processing of a packet, overwriting the input with the output.
+     * 
+     * @param data the array holding the plain text or the cipher text followed by the tag
+     * @param off offset of the data
+     * @param len length of the data
+     * @return the length of the output, or -1 if the tag did not match or processing failed
+     */
+    public int finish(byte[] data, int off, int len) {
+        try {
+            return this.cipher.doFinal(data, off, len, data, off);
+        } catch (GeneralSecurityException e) {
+            // includes AEADBadTagException when authentication fails
+            return -1;
+        }
+    }
+
+    /**
+     * Completes the processing of a packet, overwriting the input with the output.
+     * <p>
+     * On encryption the caller must leave room for the tag after the data, up to the limit of the buffer.
+     * </p>
+     * 
+     * @param data the buffer holding the plain text or the cipher text followed by the tag, whose position and limit
+     *        are left untouched
+     * @param off absolute index of the data in the buffer
+     * @param len length of the data
+     * @return the length of the output, or -1 if the tag did not match or processing failed
+     */
+    public int finish(ByteBuffer data, int off, int len) {
+        if (data.hasArray()) {
+            return finish(data.array(), data.arrayOffset() + off, len);
+        }
+
+        // Distinct views of the same memory, the provider takes care of the overlap
+        ByteBuffer input = data.duplicate();
+        input.limit(off + len);
+        input.position(off);
+        ByteBuffer output = data.duplicate();
+        output.position(off);
+        try {
+            return this.cipher.doFinal(input, output);
+        } catch (GeneralSecurityException e) {
+            // includes AEADBadTagException when authentication fails
+            return -1;
+        }
+    }
+
+}
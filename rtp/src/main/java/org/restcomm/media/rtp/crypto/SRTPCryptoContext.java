@@ -49,6 +49,11 @@ public class SRTPCryptoContext {
 	 */
 	private static final long REPLAY_WINDOW_SIZE = 64;
 
+	/**
+	 * The key derivation IV is built from a 112 bit master salt
+	 */
+	static final int KDF_SALT_LENGTH = 14;
+
 	/**
 	 * RTP SSRC of this cryptographic context
 	 */
@@ -139,6 +144,16 @@ public class SRTPCryptoContext {
 	 */
 	private final SRTPCipherCTR cipherCtr = new SRTPCipherCTR();
 
+	/**
+	 * counter cipher mode running on the JCE, when selected by the policy
+	 */
+	private SRTPCipherCTRJCE cipherCtrJce = null;
+
+	/**
+	 * implements the AEAD cipher mode for RTP according to RFC 7714
+	 */
+	private SRTPCipherGCM cipherGcm = null;
+
 	/**
 	 * Temp store.
 	 */
@@ -225,7 +240,8 @@ public class SRTPCryptoContext {
 		masterKey = new byte[policy.getEncKeyLength()];
 		System.arraycopy(masterK, 0, masterKey, 0, masterK.length);
 
-		masterSalt = new byte[policy.getSaltKeyLength()];
+		// AEAD profiles have a 96 bit salt, zero padded at the end for key derivation
+		masterSalt = new byte[Math.max(policy.getSaltKeyLength(), KDF_SALT_LENGTH)];
 		System.arraycopy(masterS, 0, masterSalt, 0, masterS.length);
 
 		mac = new HMac(new SHA1Digest());
@@ -244,6 +260,17 @@ public class SRTPCryptoContext {
 			cipher = new AESFastEngine();
 			encKey = new byte[policy.getEncKeyLength()];
 			saltKey = new byte[policy.getSaltKeyLength()];
+			if (cipherF8 == null && policy.getCryptoProvider() == SRTPCryptoProvider.JCE) {
+				cipherCtrJce = new SRTPCipherCTRJCE();
+			}
+			break;
+
+		case SRTPPolicy.AESGCM_ENCRYPTION:
+			// Bouncy Castle AES is still used for the key derivation
+			cipher = new AESFastEngine();
+			cipherGcm = new SRTPCipherGCM();
+			encKey = new byte[policy.getEncKeyLength()];
+			saltKey = new byte[policy.getSaltKeyLength()];
 			break;
 
 		case SRTPPolicy.TWOFISHF8_ENCRYPTION:
@@ -263,7 +290,11 @@ public class SRTPCryptoContext {
 			break;
 
 		case SRTPPolicy.HMACSHA1_AUTHENTICATION:
-			mac = new HMac(new SHA1Digest());
+			if (policy.getCryptoProvider() == SRTPCryptoProvider.JCE) {
+				mac = new JceHMac("HmacSHA1");
+			} else {
+				mac = new HMac(new SHA1Digest());
+			}
 			authKey = new byte[policy.getAuthKeyLength()];
 			tagStore = new byte[mac.getMacSize()];
 			break;
@@ -352,10 +383,16 @@ public class SRTPCryptoContext {
 	 * 
 	 * @param pkt
 	 *            the RTP packet that is going to be sent out
+	 * @return true if the packet was protected, false if it could not be
+	 *         encrypted
 	 */
-	public void transformPacket(RawPacket pkt) {
-		/* Encrypt the packet using Counter Mode encryption */
-		if (policy.getEncType() == SRTPPolicy.AESCM_ENCRYPTION || policy.getEncType() == SRTPPolicy.TWOFISH_ENCRYPTION) {
+	public boolean transformPacket(RawPacket pkt) {
+		if (policy.getEncType() == SRTPPolicy.AESGCM_ENCRYPTION) {
+			/* Encrypt and authenticate the packet using AEAD GCM */
+			if (!processPacketAESGCM(pkt, roc, true)) {
+				return false;
+			}
+		} else if (policy.getEncType() == SRTPPolicy.AESCM_ENCRYPTION || policy.getEncType() == SRTPPolicy.TWOFISH_ENCRYPTION) {
 			processPacketAESCM(pkt);
 		} else if (policy.getEncType() == SRTPPolicy.AESF8_ENCRYPTION || policy.getEncType() == SRTPPolicy.TWOFISHF8_ENCRYPTION) {
 			/* Encrypt the packet using F8 Mode encryption */
@@ -373,6 +410,7 @@ public class SRTPCryptoContext {
 		if (seqNo == 0xFFFF) {
 			roc++;
 		}
+		return true;
 	}
 
 	/**
@@ -443,6 +481,13 @@ public class SRTPCryptoContext {
 			processPacketAESF8(pkt);
 			break;
 
+		case SRTPPolicy.AESGCM_ENCRYPTION:
+			// using AEAD GCM, which also verifies the tag
+			if (!processPacketAESGCM(pkt, guessedROC, false)) {
+				return false;
+			}
+			break;
+
 		default:
 			return false;
 		}
@@ -480,7 +525,73 @@ public class SRTPCryptoContext {
 		final int payloadOffset = pkt.getHeaderLength();
 		final int payloadLength = pkt.getPayloadLength();
 
-		cipherCtr.process(cipher, pkt.getBuffer(), payloadOffset, payloadLength, ivStore);
+		if (cipherCtrJce != null) {
+			cipherCtrJce.process(pkt.getBuffer(), payloadOffset, payloadLength, ivStore);
+		} else {
+			cipherCtr.process(cipher, pkt.getBuffer(), payloadOffset, payloadLength, ivStore);
+		}
+	}
+
+	/**
+	 * Perform AEAD AES-GCM encryption / decryption, see RFC 7714 section 8.
+	 * The RTP header is authenticated, the payload is encrypted and followed
+	 * by the authentication tag.
+	 * 
+	 * @param pkt
+	 *            the RTP packet to be encrypted / decrypted
+	 * @param rocIn
+	 *            Roll-Over-Counter of the packet
+	 * @param encrypt
+	 *            whether the packet is encrypted or decrypted
+	 * @return false if the packet could not be processed or its tag is not
+	 *         valid
+	 */
+	private boolean processPacketAESGCM(RawPacket pkt, int rocIn, boolean encrypt) {
+		long ssrc = pkt.getSSRC();
+		int seqNo = pkt.getSequenceNumber();
+
+		// IV = (00 00 || SSRC || ROC || SEQ) XOR salt
+		ivStore[0] = saltKey[0];
+		ivStore[1] = saltKey[1];
+
+		int i;
+		for (i = 2; i < 6; i++) {
+			ivStore[i] = (byte) ((0xFF & (ssrc >> ((5 - i) * 8))) ^ this.saltKey[i]);
+		}
+
+		for (i = 6; i < 10; i++) {
+			ivStore[i] = (byte) ((0xFF & (rocIn >> ((9 - i) * 8))) ^ this.saltKey[i]);
+		}
+
+		ivStore[10] = (byte) ((0xFF & (seqNo >> 8)) ^ this.saltKey[10]);
+		ivStore[11] = (byte) ((0xFF & seqNo) ^ this.saltKey[11]);
+
+		final int headerLength = pkt.getHeaderLength();
+		final int length = pkt.getLength();
+
+		if (!cipherGcm.start(encrypt, ivStore)) {
+			return false;
+		}
+		if (encrypt) {
+			// The tag is written right after the payload, grow reallocates
+			// the buffer if its free space cannot hold it
+			pkt.grow(SRTPCipherGCM.TAG_LENGTH);
+		}
+		ByteBuffer buf = pkt.getBuffer();
+		cipherGcm.updateAAD(buf, 0, headerLength);
+		int outLength = cipherGcm.finish(buf, headerLength, length - headerLength);
+		if (outLength < 0) {
+			if (encrypt) {
+				pkt.shrink(SRTPCipherGCM.TAG_LENGTH);
+			}
+			return false;
+		}
+
+		if (!encrypt) {
+			pkt.shrink(SRTPCipherGCM.TAG_LENGTH);
+		}
+		pkt.getBuffer().rewind();
+		return true;
 	}
 
 	/**
@@ -523,8 +634,13 @@ public class SRTPCryptoContext {
 		ByteBuffer buf = pkt.getBuffer();
 		buf.rewind();
 		int len = buf.remaining();
-		buf.get(tempBuffer, 0, len);
-		mac.update(tempBuffer, 0, len);
+		if (buf.hasArray()) {
+			// Heap buffers can be authenticated without copying
+			mac.update(buf.array(), buf.arrayOffset(), len);
+		} else {
+			buf.get(tempBuffer, 0, len);
+			mac.update(tempBuffer, 0, len);
+		}
 		rbStore[0] = (byte) (rocIn >> 24);
 		rbStore[1] = (byte) (rocIn >> 16);
 		rbStore[2] = (byte) (rocIn >> 8);
@@ -633,8 +749,8 @@ public class SRTPCryptoContext {
 			default:
 				break;
 			}
+			Arrays.fill(authKey, (byte) 0);
 		}
-		Arrays.fill(authKey, (byte) 0);
 
 		// compute the session salt
 		label = 0x02;
@@ -646,6 +762,12 @@ public class SRTPCryptoContext {
 		if (cipherF8 != null) {
 			SRTPCipherF8.deriveForIV(cipherF8, encKey, saltKey);
 		}
+		if (cipherCtrJce != null) {
+			cipherCtrJce.init(encKey);
+		}
+		if (cipherGcm != null) {
+			cipherGcm.init(encKey);
+		}
 		encryptionKey = new KeyParameter(encKey);
 		cipher.init(true, encryptionKey);
 		Arrays.fill(encKey, (byte) 0);
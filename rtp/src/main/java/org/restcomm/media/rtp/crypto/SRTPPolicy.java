@@ -39,6 +39,12 @@ public class SRTPPolicy
      * F8 Mode TwoFish Cipher
      */
     public final static int TWOFISHF8_ENCRYPTION = 4;
+
+    /**
+     * Galois/Counter Mode AES AEAD Cipher, defined in RFC 7714
+     */
+    public final static int AESGCM_ENCRYPTION = 5;
+
     /**
      * Null Authentication, no authentication
      */
@@ -84,6 +90,11 @@ public class SRTPPolicy
      */
     private int saltKeyLength;
 
+    /**
+     * Provider of the AES and HMAC primitives
+     */
+    private SRTPCryptoProvider cryptoProvider = SRTPCryptoProvider.BOUNCYCASTLE;
+
     /**
      * Construct a SRTPPolicy object based on given parameters.
      * This class acts as a storage class, so all the parameters are passed in
@@ -230,4 +241,25 @@ public class SRTPPolicy
     {
         this.saltKeyLength = keyLength;
     }
+
+    /**
+     * Get the provider of the AES and HMAC primitives
+     *
+     * @return the crypto provider
+     */
+    public SRTPCryptoProvider getCryptoProvider()
+    {
+        return this.cryptoProvider;
+    }
+
+    /**
+     * Set the provider of the AES and HMAC primitives.
+     * AES-GCM is always processed by the JCE.
+     *
+     * @param cryptoProvider the crypto provider
+     */
+    public void setCryptoProvider(SRTPCryptoProvider cryptoProvider)
+    {
+        this.cryptoProvider = cryptoProvider;
+    }
 }
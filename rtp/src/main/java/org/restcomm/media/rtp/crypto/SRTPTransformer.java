@@ -7,7 +7,7 @@
  */
 package org.restcomm.media.rtp.crypto;
 
-import java.util.Hashtable;
+import java.nio.ByteBuffer;
 
 import org.apache.log4j.Logger;
 
@@ -36,7 +36,7 @@ public class SRTPTransformer implements PacketTransformer {
 	/**
 	 * All the known SSRC's corresponding SRTPCryptoContexts
 	 */
-	private Hashtable<Long, SRTPCryptoContext> contexts;
+	private final LongObjectMap<SRTPCryptoContext> contexts;
 
 	/**
 	 * Constructs a SRTPTransformer object.
@@ -62,7 +62,7 @@ public class SRTPTransformer implements PacketTransformer {
 	public SRTPTransformer(SRTPTransformEngine forwardEngine, SRTPTransformEngine reverseEngine) {
 		this.forwardEngine = forwardEngine;
 		this.reverseEngine = reverseEngine;
-		this.contexts = new Hashtable<Long, SRTPCryptoContext>();
+		this.contexts = new LongObjectMap<>();
 		this.rawPacket = new RawPacket();
 	}
 
@@ -75,18 +75,40 @@ public class SRTPTransformer implements PacketTransformer {
 		this.rawPacket.wrap(pkt, offset, length);
 		
 		// Associate packet to a crypto context
-		long ssrc = rawPacket.getSSRC();
-		SRTPCryptoContext context = contexts.get(ssrc);
+		SRTPCryptoContext context = getForwardContext(this.rawPacket.getSSRC());
 
-		if (context == null) {
-			context = forwardEngine.getDefaultContext().deriveContext(ssrc, 0, 0);
-			context.deriveSrtpKeys(0);
-			contexts.put(ssrc, context);
+		// Transform RTP packet into SRTP
+		if (!context.transformPacket(this.rawPacket)) {
+			return null;
+		}
+		return this.rawPacket.getData();
+	}
+
+	public boolean transform(ByteBuffer pkt) {
+		this.rawPacket.wrap(pkt);
+
+		// Associate packet to a crypto context
+		SRTPCryptoContext context = getForwardContext(this.rawPacket.getSSRC());
+		if (this.rawPacket.getFreeSpace() < context.getAuthTagLength()) {
+			this.rawPacket.unwrap();
+			logger.warn("No room to append SRTP authentication tag to packet.");
+			return false;
 		}
 
 		// Transform RTP packet into SRTP
-		context.transformPacket(this.rawPacket);
-		return this.rawPacket.getData();
+		boolean transformed = context.transformPacket(this.rawPacket);
+		this.rawPacket.unwrap();
+		return transformed;
+	}
+
+	private SRTPCryptoContext getForwardContext(long ssrc) {
+		SRTPCryptoContext context = this.contexts.get(ssrc);
+		if (context == null) {
+			context = this.forwardEngine.getDefaultContext().deriveContext(ssrc, 0, 0);
+			context.deriveSrtpKeys(0);
+			this.contexts.put(ssrc, context);
+		}
+		return context;
 	}
 
 	/**
@@ -106,13 +128,7 @@ public class SRTPTransformer implements PacketTransformer {
 		this.rawPacket.wrap(pkt, offset, length);
 		
 		// Associate packet to a crypto context
-		long ssrc = this.rawPacket.getSSRC();
-		SRTPCryptoContext context = this.contexts.get(ssrc);
-		if (context == null) {
-			context = this.reverseEngine.getDefaultContext().deriveContext(ssrc, 0, 0);
-			context.deriveSrtpKeys(this.rawPacket.getSequenceNumber());
-			contexts.put(ssrc, context);
-		}
+		SRTPCryptoContext context = getReverseContext(this.rawPacket.getSSRC());
 
 		boolean reversed = context.reverseTransformPacket(this.rawPacket);
 		if(reversed) {
@@ -121,6 +137,27 @@ public class SRTPTransformer implements PacketTransformer {
 		return null;
 	}
 
+	public boolean reverseTransform(ByteBuffer pkt) {
+		this.rawPacket.wrap(pkt);
+
+		// Associate packet to a crypto context
+		SRTPCryptoContext context = getReverseContext(this.rawPacket.getSSRC());
+
+		boolean reversed = context.reverseTransformPacket(this.rawPacket);
+		this.rawPacket.unwrap();
+		return reversed;
+	}
+
+	private SRTPCryptoContext getReverseContext(long ssrc) {
+		SRTPCryptoContext context = this.contexts.get(ssrc);
+		if (context == null) {
+			context = this.reverseEngine.getDefaultContext().deriveContext(ssrc, 0, 0);
+			context.deriveSrtpKeys(this.rawPacket.getSequenceNumber());
+			this.contexts.put(ssrc, context);
+		}
+		return context;
+	}
+
 	/**
 	 * Close the transformer and underlying transform engine.
 	 * 
@@ -132,13 +169,10 @@ public class SRTPTransformer implements PacketTransformer {
 		if (forwardEngine != reverseEngine) {
 			reverseEngine.close();
 		}
-		for (Long ssrc : contexts.keySet()) {
-			SRTPCryptoContext context = contexts.get(ssrc);
-			if (context != null) {
-				context.close();
-				contexts.remove(ssrc);
-			}
+		for (SRTPCryptoContext context : contexts.values()) {
+			context.close();
 		}
+		contexts.clear();
 	}
 	
 }
@@ -0,0 +1,486 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.jitter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.log4j.Logger;
+import org.restcomm.media.rtp.BufferListener;
+import org.restcomm.media.rtp.RtpClock;
+import org.restcomm.media.rtp.RtpPacket;
+import org.restcomm.media.sdp.format.RTPFormat;
+import org.restcomm.media.spi.memory.Frame;
+import org.restcomm.media.spi.memory.Memory;
+
+/**
+ * Jitter buffer whose playout delay follows the network jitter.
+ * <p>
+ * Frames are stored in a ring indexed by their extended sequence number, so inserting out of order packets and draining the
+ * buffer are constant time operations. Late and duplicate packets are detected from the sequence number alone and dropped
+ * without touching the other frames.
+ * </p>
+ * <p>
+ * The target delay starts at the configured size and, once enough packets were received, is derived from the inter-arrival
+ * jitter estimated as in RFC 3550. It grows at once when the jitter increases or a packet arrives too late, and shrinks
+ * slowly when the network calms down. The buffer is reported as filled when it holds the target delay. While playing,
+ * frames in excess of the target are discarded to bring the delay back down, and an underrun stops playout until the
+ * target delay is buffered again.
+ * </p>
+ * <p>
+ * A new SSRC, an older sequence number carrying newer media, or a run of late packets means the sender restarted its
+ * stream. The buffer then resynchronizes: the new packets are numbered right after the frames already buffered, so playout
+ * goes on without the reader noticing.
+ * </p>
+ * <p>
+ * The buffer expects a single writer (the network thread) and a single reader (the scheduler). They only share the ring,
+ * the highest received sequence number and the next sequence number to play, so no lock is needed. {@link #restart()} must
+ * only be called while the connection is not receiving.
+ * </p>
+ */
+public class AdaptiveJitterBuffer implements JitterBuffer {
+
+    private static final Logger logger = Logger.getLogger(AdaptiveJitterBuffer.class);
+
+    // Size of the ring, 1.28s of 20ms packets
+    static final int CAPACITY = 64;
+    private static final int MASK = CAPACITY - 1;
+
+    // Bounds of the target delay, in milliseconds
+    public static final int MIN_DELAY = 20;
+    public static final int MAX_DELAY = 200;
+
+    // Number of packets used to estimate jitter before adapting the target delay
+    private static final int WARMUP_PACKETS = 16;
+    // Number of frames above the target tolerated before frames are discarded
+    private static final int SHRINK_THRESHOLD = 2;
+    // Number of late packets in a row after which the stream is assumed to have restarted
+    static final int RESYNC_THRESHOLD = CAPACITY / 8;
+
+    private final RtpClock rtpClock;
+    private final int initialDelay;
+    private final AtomicReferenceArray<Frame> ring;
+    private final AtomicBoolean ready;
+
+    private volatile BufferListener listener;
+    private volatile boolean useBuffer;
+
+    // Writer state
+    private RTPFormat format;
+    private long received;
+    private long currentTransit;
+    private long currentJitter;
+    private long highestTimestamp;
+    private int highestSeqNumber;
+    private long ssrc;
+    private long retiredSsrc;
+    private int lateInRow;
+    private int delayBeforeLate;
+    private volatile long highest;
+    private volatile long packetDuration;
+    private volatile int targetDelay;
+
+    // Reader state
+    private volatile long next;
+
+    // Statistics, each one updated by a single thread
+    private volatile long late;
+    private volatile long duplicates;
+    private volatile long overflows;
+    private volatile long lost;
+    private volatile long discarded;
+    private volatile long resyncs;
+
+    public AdaptiveJitterBuffer(RtpClock clock, int initialDelay) {
+        this.rtpClock = clock;
+        this.initialDelay = Math.max(MIN_DELAY, Math.min(MAX_DELAY, initialDelay));
+        this.ring = new AtomicReferenceArray<Frame>(CAPACITY);
+        this.ready = new AtomicBoolean(false);
+        this.useBuffer = true;
+        this.targetDelay = this.initialDelay;
+        this.packetDuration = 20;
+        this.highest = -1;
+        this.retiredSsrc = -1;
+    }
+
+    @Override
+    public void setListener(BufferListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void setInUse(boolean inUse) {
+        this.useBuffer = inUse;
+    }
+
+    public boolean bufferInUse() {
+        return this.useBuffer;
+    }
+
+    private void estimateJitter(RtpPacket packet) {
+        long transit = rtpClock.getLocalRtpTime() - packet.getTimestamp();
+        if (this.received == 1) {
+            this.currentTransit = transit;
+            return;
+        }
+
+        long d = transit - this.currentTransit;
+        if (d < 0) {
+            d = -d;
+        }
+        this.currentTransit = transit;
+        this.currentJitter += d - ((this.currentJitter + 8) >> 4);
+    }
+
+    /**
+     * Gets the inter-arrival jitter, as specified in RFC 3550.
+     * 
+     * @return the jitter in RTP timestamp units
+     */
+    public long getEstimatedJitter() {
+        return this.currentJitter >> 4;
+    }
+
+    /**
+     * Gets the delay the buffer currently aims for.
+     * 
+     * @return the delay in milliseconds
+     */
+    public int getTargetDelay() {
+        return this.targetDelay;
+    }
+
+    /**
+     * Gets the media currently held by the buffer, including missing frames that are still awaited.
+     * 
+     * @return the delay in milliseconds
+     */
+    public long getDelay() {
+        long depth = this.highest - this.next + 1;
+        return depth > 0 ? depth * this.packetDuration : 0;
+    }
+
+    public long getLate() {
+        return late;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getOverflows() {
+        return overflows;
+    }
+
+    public long getLost() {
+        return lost;
+    }
+
+    public long getDiscarded() {
+        return discarded;
+    }
+
+    /**
+     * Gets how many times the buffer followed a restart of the remote stream.
+     * 
+     * @return the number of resynchronizations
+     */
+    public long getResyncs() {
+        return resyncs;
+    }
+
+    /**
+     * Gets the number of received packets that were never played.
+     * 
+     * @return the number of dropped packets
+     */
+    public long getDropped() {
+        return late + duplicates + overflows + discarded;
+    }
+
+    @Override
+    public void write(RtpPacket packet, RTPFormat format) {
+        if (format == null) {
+            if (logger.isTraceEnabled()) {
+                logger.trace("No format specified. Packet dropped!");
+            }
+            return;
+        }
+
+        if (this.format == null || this.format.getID() != format.getID()) {
+            this.format = format;
+            this.rtpClock.setClockRate(format.getClockRate());
+            if (logger.isDebugEnabled()) {
+                logger.debug("Format changed! [" + format.toString() + "]");
+            }
+        }
+
+        if (packet.getSyncSource() == this.retiredSsrc) {
+            // straggler of the stream replaced by the last resynchronization
+            this.late++;
+            return;
+        }
+
+        this.received++;
+        long sequence;
+        if (this.highest < 0) {
+            this.rtpClock.synchronize(packet.getTimestamp());
+            sequence = packet.getSeqNumber();
+            this.next = sequence;
+        } else {
+            // extend the 16 bit sequence number from the highest one received so far
+            long highest = this.highest;
+            sequence = highest + (short) (packet.getSeqNumber() - this.highestSeqNumber);
+            if (isDiscontinuity(packet, sequence)) {
+                sequence = resync(packet, highest);
+            }
+        }
+        this.ssrc = packet.getSyncSource();
+        estimateJitter(packet);
+
+        long next = this.next;
+        if (sequence < next) {
+            // the delay was too short for this packet, grow it right away
+            this.late++;
+            this.targetDelay = (int) Math.min(MAX_DELAY, this.targetDelay + this.packetDuration);
+            return;
+        }
+        this.lateInRow = 0;
+
+        long previous = this.highest;
+        if (sequence - next >= CAPACITY) {
+            // the reader is far behind, it skips the stale frames once this one is published
+            this.overflows++;
+        }
+
+        int index = (int) (sequence & MASK);
+        Frame current = this.ring.get(index);
+        if (current != null && current.getSequenceNumber() == sequence) {
+            this.duplicates++;
+            return;
+        }
+
+        Frame frame = Memory.allocate(packet.getPayloadLength(), Memory.isDirect());
+        frame.setHeader(null);
+        frame.setSequenceNumber(sequence);
+        frame.setTimestamp(this.rtpClock.convertToAbsoluteTime(packet.getTimestamp()));
+        frame.setOffset(0);
+        frame.setLength(packet.getPayloadLength());
+        frame.setFormat(format.getFormat());
+        packet.getPayload(frame.getBuffer());
+
+        if (!this.ring.compareAndSet(index, null, frame)) {
+            // the slot holds a frame the reader skipped, replace it unless the reader just took it
+            current = this.ring.get(index);
+            if (current != null && this.ring.compareAndSet(index, current, frame)) {
+                current.recycle();
+            } else {
+                this.ring.set(index, frame);
+            }
+        }
+
+        // publish the frame to the reader only once it is in the ring
+        if (sequence > previous) {
+            if (previous >= 0 && sequence == previous + 1 && packet.getTimestamp() > this.highestTimestamp) {
+                this.packetDuration = Math.max(1, this.rtpClock.convertToAbsoluteTime(packet.getTimestamp() - this.highestTimestamp));
+            }
+            this.highestTimestamp = packet.getTimestamp();
+            this.highestSeqNumber = packet.getSeqNumber();
+            this.highest = sequence;
+        }
+        adapt();
+        checkReady();
+    }
+
+    private boolean isDiscontinuity(RtpPacket packet, long sequence) {
+        if (packet.getSyncSource() != this.ssrc) {
+            return true;
+        }
+        if (sequence >= this.next) {
+            return false;
+        }
+        // an older sequence number carrying newer media
+        if ((int) (packet.getTimestamp() - this.highestTimestamp) > 0) {
+            return true;
+        }
+        // a longer delay would not have saved that many packets
+        if (this.lateInRow == 0) {
+            this.delayBeforeLate = this.targetDelay;
+        }
+        return ++this.lateInRow >= RESYNC_THRESHOLD;
+    }
+
+    private long resync(RtpPacket packet, long highest) {
+        if (packet.getSyncSource() != this.ssrc) {
+            this.retiredSsrc = this.ssrc;
+        }
+        if (this.lateInRow > 0) {
+            // the packets were not late, undo the delay they added
+            this.targetDelay = this.delayBeforeLate;
+            this.lateInRow = 0;
+        }
+        this.rtpClock.synchronize(packet.getTimestamp());
+        // estimate the jitter of the new stream from scratch
+        this.received = 1;
+        // no packet duration can be derived from the previous stream
+        this.highestTimestamp = packet.getTimestamp();
+        this.resyncs++;
+        if (logger.isDebugEnabled()) {
+            logger.debug("Jitter Buffer resynchronized on remote stream restart [ssrc=" + packet.getSyncSource() + ", seq="
+                    + packet.getSeqNumber() + "]");
+        }
+        return highest + 1;
+    }
+
+    private void adapt() {
+        if (this.received < WARMUP_PACKETS) {
+            return;
+        }
+        long jitter = this.rtpClock.convertToAbsoluteTime(getEstimatedJitter());
+        int target = (int) Math.max(MIN_DELAY, Math.min(MAX_DELAY, this.packetDuration + 4 * jitter));
+
+        // grow at once but shrink by 1ms per packet, so a short calm period does not cause late packets
+        if (target > this.targetDelay) {
+            this.targetDelay = target;
+        } else if (target < this.targetDelay) {
+            this.targetDelay--;
+        }
+    }
+
+    private void checkReady() {
+        if (this.ready.get()) {
+            return;
+        }
+
+        long depth = this.highest - this.next + 1;
+        boolean filled = !this.useBuffer || (depth > 1 && depth * this.packetDuration >= this.targetDelay);
+        if (filled && this.ready.compareAndSet(false, true)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Jitter Buffer is ready! [delay=" + depth * this.packetDuration + "ms, target=" + this.targetDelay + "ms]");
+            }
+            BufferListener listener = this.listener;
+            if (listener != null) {
+                listener.onFill();
+            }
+        }
+    }
+
+    @Override
+    public Frame read(long timestamp) {
+        long last = this.highest;
+        long next = this.next;
+        long duration = this.packetDuration;
+
+        // bring the delay back to the target if the network got better
+        long depth = last - next + 1;
+        long targetFrames = (this.targetDelay + duration - 1) / duration;
+        if (depth > CAPACITY / 2) {
+            next = skip(next, last - targetFrames + 1);
+        } else if (depth > targetFrames + SHRINK_THRESHOLD) {
+            next = skip(next, next + 1);
+        }
+
+        while (next <= last) {
+            long sequence = next++;
+            Frame frame = this.ring.getAndSet((int) (sequence & MASK), null);
+            if (frame == null) {
+                this.lost++;
+                continue;
+            }
+            if (frame.getSequenceNumber() > sequence) {
+                // stored ahead of the reader by a jump that is not published yet, leave it for a later read
+                if (!this.ring.compareAndSet((int) (sequence & MASK), null, frame)) {
+                    frame.recycle();
+                }
+                this.lost++;
+                continue;
+            }
+            if (frame.getSequenceNumber() != sequence) {
+                // left behind by a packet that arrived while the reader was passing by
+                frame.recycle();
+                this.lost++;
+                continue;
+            }
+
+            this.next = next;
+            frame.setDuration(duration * 1000000L);
+            frame.setTimestamp(frame.getTimestamp() * 1000000L);
+            return frame;
+        }
+
+        this.next = next;
+        this.ready.set(false);
+        if (logger.isTraceEnabled()) {
+            logger.trace("Jitter Buffer is empty. Consumer will wait until buffer is filled.");
+        }
+        return null;
+    }
+
+    private long skip(long from, long to) {
+        // each slot is visited once, even after a jump far ahead, and frames at or past the new position are kept
+        for (long sequence = Math.max(from, to - CAPACITY); sequence < to; sequence++) {
+            int index = (int) (sequence & MASK);
+            Frame frame = this.ring.get(index);
+            if (frame != null && frame.getSequenceNumber() < to && this.ring.compareAndSet(index, frame, null)) {
+                frame.recycle();
+                this.discarded++;
+            }
+        }
+        this.next = to;
+        return to;
+    }
+
+    @Override
+    public void restart() {
+        for (int i = 0; i < CAPACITY; i++) {
+            Frame frame = this.ring.getAndSet(i, null);
+            if (frame != null) {
+                frame.recycle();
+            }
+        }
+        this.ready.set(false);
+        this.format = null;
+        this.received = 0;
+        this.currentTransit = 0;
+        this.currentJitter = 0;
+        this.highestTimestamp = 0;
+        this.highestSeqNumber = 0;
+        this.ssrc = 0;
+        this.retiredSsrc = -1;
+        this.lateInRow = 0;
+        this.highest = -1;
+        this.next = 0;
+        this.packetDuration = 20;
+        this.targetDelay = this.initialDelay;
+        this.late = 0;
+        this.duplicates = 0;
+        this.overflows = 0;
+        this.lost = 0;
+        this.discarded = 0;
+        this.resyncs = 0;
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Restarted jitter buffer.");
+        }
+    }
+
+}
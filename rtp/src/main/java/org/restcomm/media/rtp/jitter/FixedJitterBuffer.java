@@ -240,7 +240,7 @@ public class FixedJitterBuffer implements JitterBuffer, Serializable {
             }
         }
 
-        Frame f = Memory.allocate(packet.getPayloadLength());
+        Frame f = Memory.allocate(packet.getPayloadLength(), Memory.isDirect());
         // put packet into buffer irrespective of its sequence number
         f.setHeader(null);
         f.setSequenceNumber(packet.getSeqNumber());
@@ -248,7 +248,7 @@ public class FixedJitterBuffer implements JitterBuffer, Serializable {
         f.setTimestamp(rtpClock.convertToAbsoluteTime(packet.getTimestamp()));
         f.setOffset(0);
         f.setLength(packet.getPayloadLength());
-        packet.getPayload(f.getData(), 0);
+        packet.getPayload(f.getBuffer());
 
         // set format
         f.setFormat(this.format.getFormat());
@@ -0,0 +1,166 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.netty;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import org.restcomm.media.rtp.RtpPacket;
+
+import io.netty.util.IllegalReferenceCountException;
+import io.netty.util.Recycler;
+import io.netty.util.ReferenceCounted;
+
+/**
+ * RTP packet that is recycled once every holder released it.
+ * <p>
+ * Packets are pooled per event loop thread by a Netty {@link Recycler}, so the inbound RTP path does not allocate a packet
+ * for every datagram. The packet copies the datagram, so the network buffer can be released as soon as the packet is built.
+ * </p>
+ * <p>
+ * The packet also carries the time at which the datagram was received and decoded, so handlers down the pipeline can
+ * measure the latency of each stage.
+ * </p>
+ */
+public final class PooledRtpPacket extends RtpPacket implements ReferenceCounted {
+
+    private static final long serialVersionUID = 3479812632417591062L;
+
+    /**
+     * Size of pooled packets. Larger datagrams are decoded into regular packets.
+     */
+    public static final int POOLED_CAPACITY = 1500;
+
+    private static final AtomicIntegerFieldUpdater<PooledRtpPacket> REFERENCES = AtomicIntegerFieldUpdater.newUpdater(PooledRtpPacket.class, "references");
+
+    private static final Recycler<PooledRtpPacket> RECYCLER = new Recycler<PooledRtpPacket>() {
+
+        @Override
+        protected PooledRtpPacket newObject(Handle<PooledRtpPacket> handle) {
+            return new PooledRtpPacket(handle);
+        }
+
+    };
+
+    private final transient Recycler.Handle<PooledRtpPacket> handle;
+    private volatile int references;
+
+    private long receivedOn;
+    private long decodedOn;
+
+    private PooledRtpPacket(Recycler.Handle<PooledRtpPacket> handle) {
+        super(POOLED_CAPACITY, false);
+        this.handle = handle;
+    }
+
+    /**
+     * Takes a packet from the pool of the current thread.
+     * 
+     * @param receivedOn The time, in nanoseconds, at which the datagram was received.
+     * @return The packet, with a reference count of one and an empty buffer.
+     */
+    public static PooledRtpPacket newInstance(long receivedOn) {
+        PooledRtpPacket packet = RECYCLER.get();
+        REFERENCES.set(packet, 1);
+        packet.getBuffer().clear();
+        packet.receivedOn = receivedOn;
+        packet.decodedOn = receivedOn;
+        return packet;
+    }
+
+    /**
+     * Gets the time at which the datagram was received.
+     * 
+     * @return The time in nanoseconds, as given by {@link System#nanoTime()}.
+     */
+    public long getReceivedOn() {
+        return receivedOn;
+    }
+
+    /**
+     * Gets the time at which the datagram was decoded into this packet.
+     * 
+     * @return The time in nanoseconds, as given by {@link System#nanoTime()}.
+     */
+    public long getDecodedOn() {
+        return decodedOn;
+    }
+
+    void setDecodedOn(long decodedOn) {
+        this.decodedOn = decodedOn;
+    }
+
+    @Override
+    public int refCnt() {
+        return this.references;
+    }
+
+    @Override
+    public PooledRtpPacket retain() {
+        return retain(1);
+    }
+
+    @Override
+    public PooledRtpPacket retain(int increment) {
+        for (;;) {
+            int count = this.references;
+            if (count <= 0) {
+                throw new IllegalReferenceCountException(count, increment);
+            }
+            if (REFERENCES.compareAndSet(this, count, count + increment)) {
+                return this;
+            }
+        }
+    }
+
+    @Override
+    public PooledRtpPacket touch() {
+        return this;
+    }
+
+    @Override
+    public PooledRtpPacket touch(Object hint) {
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return release(1);
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        for (;;) {
+            int count = this.references;
+            if (count < decrement) {
+                throw new IllegalReferenceCountException(count, -decrement);
+            }
+            if (REFERENCES.compareAndSet(this, count, count - decrement)) {
+                if (count == decrement) {
+                    this.handle.recycle(this);
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
+
+}
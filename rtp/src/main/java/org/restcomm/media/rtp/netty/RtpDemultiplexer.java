@@ -21,6 +21,8 @@
 
 package org.restcomm.media.rtp.netty;
 
+import java.nio.ByteBuffer;
+
 import org.apache.log4j.Logger;
 import org.restcomm.media.rtcp.RtcpHeader;
 import org.restcomm.media.rtcp.RtcpPacket;
@@ -39,6 +41,10 @@ import io.netty.util.ReferenceCountUtil;
  * <p>
  * Note that RTP Channels may multiplex RTP, RTCP, STUN and DTLS packets for any given call, depending on setup.
  * </p>
+ * <p>
+ * RTP datagrams are copied into a {@link PooledRtpPacket} and the network buffer is released right away. The packet is
+ * returned to the pool once released by the last handler.
+ * </p>
  * 
  * @author Henrique Rosa (henrique.rosa@telestax.com)
  *
@@ -55,7 +61,7 @@ public class RtpDemultiplexer extends SimpleChannelInboundHandler<ByteBuf> {
     protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) throws Exception {
         // Differentiate between RTP, STUN and DTLS packets in the pipeline
         // https://tools.ietf.org/html/rfc5764#section-5.1.2
-        final int offset = msg.arrayOffset();
+        final int offset = msg.readerIndex();
         final byte b0 = msg.getByte(offset);
         final int b0Int = b0 & 0xff;
 
@@ -105,8 +111,10 @@ public class RtpDemultiplexer extends SimpleChannelInboundHandler<ByteBuf> {
     }
 
     private void handleRtpPacket(ChannelHandlerContext ctx, ByteBuf buffer) {
+        final long receivedOn = System.nanoTime();
+
         // Retrieve data from network
-        final int offset = buffer.arrayOffset();
+        final int offset = buffer.readerIndex();
         
         /*
          * When RTP and RTCP packets are multiplexed onto a single port, the RTCP packet type field occupies the same position
@@ -132,24 +140,38 @@ public class RtpDemultiplexer extends SimpleChannelInboundHandler<ByteBuf> {
                 RtcpPacket rtcpPacket = buildRtcpPacket(buffer);
                 ctx.fireChannelRead(rtcpPacket);
             default:
-                RtpPacket rtpPacket = buildRtpPacket(buffer);
+                RtpPacket rtpPacket = buildRtpPacket(buffer, receivedOn);
+                // Packet holds a copy of the datagram
+                ReferenceCountUtil.release(buffer);
                 ctx.fireChannelRead(rtpPacket);
                 break;
         }
     }
 
-    private RtpPacket buildRtpPacket(ByteBuf msg) {
+    private RtpPacket buildRtpPacket(ByteBuf msg, long receivedOn) {
         // Retrieve data from network
-        final byte[] data = msg.array();
         final int length = msg.readableBytes();
-        final int offset = msg.arrayOffset();
 
-        // Wrap data into an RTP packet
-        final RtpPacket rtpPacket = new RtpPacket(length - offset, false);
-        rtpPacket.getBuffer().put(data, offset, length).flip();
+        // Copy data into an RTP packet, taken from the pool unless the datagram does not fit
+        final RtpPacket rtpPacket;
+        if (length <= PooledRtpPacket.POOLED_CAPACITY) {
+            final PooledRtpPacket pooled = PooledRtpPacket.newInstance(receivedOn);
+            copy(msg, pooled.getBuffer(), length);
+            pooled.setDecodedOn(System.nanoTime());
+            rtpPacket = pooled;
+        } else {
+            rtpPacket = new RtpPacket(length, false);
+            copy(msg, rtpPacket.getBuffer(), length);
+        }
         return rtpPacket;
     }
 
+    private void copy(ByteBuf src, ByteBuffer dst, int length) {
+        dst.limit(length);
+        src.getBytes(src.readerIndex(), dst);
+        dst.flip();
+    }
+
     private RtcpPacket buildRtcpPacket(ByteBuf msg) {
         // Retrieve data from network
         final byte[] data = msg.array();
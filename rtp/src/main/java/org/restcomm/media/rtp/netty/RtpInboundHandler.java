@@ -24,15 +24,22 @@ package org.restcomm.media.rtp.netty;
 import org.apache.log4j.Logger;
 import org.restcomm.media.rtp.RTPInput;
 import org.restcomm.media.rtp.RtpPacket;
+import org.restcomm.media.rtp.netty.RtpInboundHandlerMetrics.Stage;
 import org.restcomm.media.rtp.rfc2833.DtmfInput;
 import org.restcomm.media.sdp.format.RTPFormats;
 import org.restcomm.media.spi.ConnectionMode;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.util.ReferenceCountUtil;
 
 /**
  * Handler that processes incoming RTP packets for audio or RFC2833 DTMF.
+ * <p>
+ * The state machine drives activation and deactivation of the handler. Incoming packets bypass it while the handler is
+ * ACTIVATED and are written straight to the jitter buffer, recording the latency of each stage in the
+ * {@link RtpInboundHandlerMetrics}.
+ * </p>
  * 
  * @author Henrique Rosa (henrique.rosa@telestax.com)
  *
@@ -43,10 +50,12 @@ public class RtpInboundHandler extends SimpleChannelInboundHandler<RtpPacket> {
 
     private final RtpInboundHandlerGlobalContext context;
     private final RtpInboundHandlerFsm fsm;
+    private final RtpInboundPacketConsumer consumer;
 
     public RtpInboundHandler(RtpInboundHandlerGlobalContext context) {
         this.context = context;
         this.fsm = RtpInboundHandlerFsmBuilder.INSTANCE.build(context);
+        this.consumer = new RtpInboundPacketConsumer(context);
     }
 
     public void activate() {
@@ -62,7 +71,7 @@ public class RtpInboundHandler extends SimpleChannelInboundHandler<RtpPacket> {
     }
     
     public boolean isActive() {
-        return RtpInboundHandlerState.ACTIVATED.equals(this.fsm.getCurrentState());
+        return this.context.isActive();
     }
     
     public void updateMode(ConnectionMode mode) {
@@ -112,8 +121,14 @@ public class RtpInboundHandler extends SimpleChannelInboundHandler<RtpPacket> {
         return context.getDtmfInput();
     }
 
+    public RtpInboundHandlerMetrics getMetrics() {
+        return context.getMetrics();
+    }
+
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, RtpPacket msg) throws Exception {
+        final long handledOn = System.nanoTime();
+
         // RTP v0 packets are used in some applications. Discarded since we do not handle them.
         int version = msg.getVersion();
         if (version == 0) {
@@ -141,14 +156,33 @@ public class RtpInboundHandler extends SimpleChannelInboundHandler<RtpPacket> {
             return;
         }
 
+        // Check if handler is activated
+        if (!context.isActive()) {
+            if (log.isDebugEnabled()) {
+                log.debug("RTP Channel " + this.context.getStatistics().getSsrc() + " dropped packet because handler is not active.");
+            }
+            return;
+        }
+
         // Process incoming packet
-        RtpInboundHandlerPacketReceivedContext txContext = new RtpInboundHandlerPacketReceivedContext(msg);
-        this.fsm.fire(RtpInboundHandlerEvent.PACKET_RECEIVED, txContext);
+        this.consumer.consume(msg);
+        recordLatency(msg, handledOn, System.nanoTime());
 
         // Send packet back if channel is operating in NETWORK_LOOPBACK mode
         if (context.isLoopable()) {
-            ctx.channel().writeAndFlush(msg);
+            // Packet is released once this method returns, so hold it until it is written
+            ctx.channel().writeAndFlush(ReferenceCountUtil.retain(msg));
+        }
+    }
+
+    private void recordLatency(RtpPacket packet, long handledOn, long consumedOn) {
+        final RtpInboundHandlerMetrics metrics = this.context.getMetrics();
+        if (packet instanceof PooledRtpPacket) {
+            final PooledRtpPacket pooled = (PooledRtpPacket) packet;
+            metrics.record(Stage.DECODE, pooled.getDecodedOn() - pooled.getReceivedOn());
+            metrics.record(Stage.DISPATCH, handledOn - pooled.getDecodedOn());
         }
+        metrics.record(Stage.CONSUME, consumedOn - handledOn);
     }
 
 }
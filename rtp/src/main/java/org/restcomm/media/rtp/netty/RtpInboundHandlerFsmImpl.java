@@ -21,35 +21,31 @@
 
 package org.restcomm.media.rtp.netty;
 
-import org.apache.log4j.Logger;
-import org.restcomm.media.rtp.RtpChannel;
-import org.restcomm.media.rtp.RtpPacket;
-import org.restcomm.media.rtp.statistics.RtpStatistics;
-import org.restcomm.media.sdp.format.RTPFormat;
-
 /**
  * @author Henrique Rosa (henrique.rosa@telestax.com)
  *
  */
 public class RtpInboundHandlerFsmImpl extends AbstractRtpInboundHandlerFsm {
 
-    private static final Logger log = Logger.getLogger(RtpInboundHandlerFsmImpl.class);
-
     private final RtpInboundHandlerGlobalContext context;
+    private final RtpInboundPacketConsumer consumer;
 
     public RtpInboundHandlerFsmImpl(RtpInboundHandlerGlobalContext context) {
         super();
         this.context = context;
+        this.consumer = new RtpInboundPacketConsumer(context);
     }
 
     @Override
     public void enterActivated(RtpInboundHandlerState from, RtpInboundHandlerState to, RtpInboundHandlerEvent event, RtpInboundHandlerTransactionContext context) {
         this.context.getRtpInput().activate();
         this.context.getDtmfInput().activate();
+        this.context.setActive(true);
     }
 
     @Override
     public void enterDeactivated(RtpInboundHandlerState from, RtpInboundHandlerState to, RtpInboundHandlerEvent event, RtpInboundHandlerTransactionContext context) {
+        this.context.setActive(false);
         this.context.getRtpInput().deactivate();
         this.context.getDtmfInput().deactivate();
         this.context.getDtmfInput().reset();
@@ -59,28 +55,7 @@ public class RtpInboundHandlerFsmImpl extends AbstractRtpInboundHandlerFsm {
     @Override
     public void onPacketReceived(RtpInboundHandlerState from, RtpInboundHandlerState to, RtpInboundHandlerEvent event, RtpInboundHandlerTransactionContext context) {
         final RtpInboundHandlerPacketReceivedContext txContext = (RtpInboundHandlerPacketReceivedContext) context;
-        final RtpPacket packet = txContext.getPacket();
-        final int payloadType = packet.getPayloadType();
-        final RTPFormat format = this.context.getFormats().find(payloadType);
-        final RtpStatistics statistics = this.context.getStatistics();
-
-        // RTP keep-alive
-        statistics.setLastHeartbeat(this.context.getClock().getTime());
-        
-        if (format == null) {
-            // Drop packet with unknown format
-            log.warn("RTP Channel " + statistics.getSsrc() + " dropped packet because payload type " + payloadType + " is unknown.");
-        } else {
-            // Consume packet
-            if (RtpChannel.DTMF_FORMAT.matches(format.getFormat())) {
-                this.context.getDtmfInput().write(packet);
-            } else {
-                this.context.getJitterBuffer().write(packet, format);
-            }
-
-            // Update statistics
-            statistics.onRtpReceive(packet);
-        }
+        this.consumer.consume(txContext.getPacket());
     }
 
 }
@@ -50,6 +50,8 @@ public class RtpInboundHandlerGlobalContext {
     private final AtomicReference<RTPFormats> formats;
     private final AtomicBoolean loopable;
     private final AtomicBoolean receivable;
+    private final AtomicBoolean active;
+    private final RtpInboundHandlerMetrics metrics;
 
     RtpInboundHandlerGlobalContext(Clock clock, RtpStatistics statistics, JitterBuffer jitterBuffer, RTPInput rtpInput, DtmfInput dtmfInput) {
         // RTP Components
@@ -64,6 +66,8 @@ public class RtpInboundHandlerGlobalContext {
         this.formats = new AtomicReference<RTPFormats>(new RTPFormats());
         this.loopable = new AtomicBoolean(false);
         this.receivable = new AtomicBoolean(false);
+        this.active = new AtomicBoolean(false);
+        this.metrics = new RtpInboundHandlerMetrics();
     }
 
     Clock getClock() {
@@ -102,6 +106,22 @@ public class RtpInboundHandlerGlobalContext {
         this.receivable.set(receivable);
     }
 
+    /**
+     * Tells whether the handler is ACTIVATED. Mirrors the state of the FSM so the per-packet path can check it without
+     * querying the state machine.
+     */
+    boolean isActive() {
+        return this.active.get();
+    }
+
+    void setActive(boolean active) {
+        this.active.set(active);
+    }
+
+    RtpInboundHandlerMetrics getMetrics() {
+        return metrics;
+    }
+
     RTPFormats getFormats() {
         return this.formats.get();
     }
@@ -0,0 +1,119 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.netty;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency of the stages an incoming RTP packet goes through before it reaches the jitter buffer.
+ * <p>
+ * Metrics are written by the event loop of the RTP channel only, so they are updated with ordered writes instead of atomic
+ * operations. Readers may see a slightly stale but consistent value of each metric.
+ * </p>
+ */
+public class RtpInboundHandlerMetrics {
+
+    public enum Stage {
+        /**
+         * From the reception of the datagram until it is decoded into an RTP packet.
+         */
+        DECODE,
+
+        /**
+         * From the moment the packet is decoded until it reaches the inbound handler.
+         */
+        DISPATCH,
+
+        /**
+         * From the moment the packet reaches the inbound handler until it is written to the jitter buffer or DTMF input.
+         */
+        CONSUME;
+    }
+
+    private static final int STAGES = Stage.values().length;
+
+    private final AtomicLongArray counts;
+    private final AtomicLongArray totals;
+    private final AtomicLongArray maximums;
+
+    public RtpInboundHandlerMetrics() {
+        this.counts = new AtomicLongArray(STAGES);
+        this.totals = new AtomicLongArray(STAGES);
+        this.maximums = new AtomicLongArray(STAGES);
+    }
+
+    void record(Stage stage, long nanos) {
+        final int index = stage.ordinal();
+        this.counts.lazySet(index, this.counts.get(index) + 1);
+        this.totals.lazySet(index, this.totals.get(index) + nanos);
+        if (nanos > this.maximums.get(index)) {
+            this.maximums.lazySet(index, nanos);
+        }
+    }
+
+    /**
+     * Gets how many packets went through a stage.
+     * 
+     * @param stage The stage.
+     * @return The number of packets.
+     */
+    public long getCount(Stage stage) {
+        return this.counts.get(stage.ordinal());
+    }
+
+    /**
+     * Gets the average time packets spent in a stage.
+     * 
+     * @param stage The stage.
+     * @return The average latency in nanoseconds. Zero if no packet went through the stage.
+     */
+    public long getAverageLatency(Stage stage) {
+        final int index = stage.ordinal();
+        final long count = this.counts.get(index);
+        return count == 0 ? 0 : this.totals.get(index) / count;
+    }
+
+    /**
+     * Gets the longest time a packet spent in a stage.
+     * 
+     * @param stage The stage.
+     * @return The maximum latency in nanoseconds.
+     */
+    public long getMaxLatency(Stage stage) {
+        return this.maximums.get(stage.ordinal());
+    }
+
+    /**
+     * Resets all metrics.
+     * <p>
+     * Must be called from the event loop of the channel, or while no packets are received.
+     * </p>
+     */
+    public void reset() {
+        for (int i = 0; i < STAGES; i++) {
+            this.counts.lazySet(i, 0);
+            this.totals.lazySet(i, 0);
+            this.maximums.lazySet(i, 0);
+        }
+    }
+
+}
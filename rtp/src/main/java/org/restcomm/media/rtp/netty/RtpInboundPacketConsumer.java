@@ -0,0 +1,71 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.netty;
+
+import org.apache.log4j.Logger;
+import org.restcomm.media.rtp.RtpChannel;
+import org.restcomm.media.rtp.RtpPacket;
+import org.restcomm.media.rtp.statistics.RtpStatistics;
+import org.restcomm.media.sdp.format.RTPFormat;
+
+/**
+ * Writes incoming RTP packets to the jitter buffer or DTMF input of the channel.
+ * <p>
+ * Shared by the fast path of the {@link RtpInboundHandler} and the PACKET_RECEIVED transition of the
+ * {@link RtpInboundHandlerFsm}.
+ * </p>
+ */
+class RtpInboundPacketConsumer {
+
+    private static final Logger log = Logger.getLogger(RtpInboundPacketConsumer.class);
+
+    private final RtpInboundHandlerGlobalContext context;
+
+    RtpInboundPacketConsumer(RtpInboundHandlerGlobalContext context) {
+        this.context = context;
+    }
+
+    void consume(RtpPacket packet) {
+        final int payloadType = packet.getPayloadType();
+        final RTPFormat format = this.context.getFormats().find(payloadType);
+        final RtpStatistics statistics = this.context.getStatistics();
+
+        // RTP keep-alive
+        statistics.setLastHeartbeat(this.context.getClock().getTime());
+
+        if (format == null) {
+            // Drop packet with unknown format
+            log.warn("RTP Channel " + statistics.getSsrc() + " dropped packet because payload type " + payloadType + " is unknown.");
+        } else {
+            // Consume packet
+            if (RtpChannel.DTMF_FORMAT.matches(format.getFormat())) {
+                this.context.getDtmfInput().write(packet);
+            } else {
+                this.context.getJitterBuffer().write(packet, format);
+            }
+
+            // Update statistics
+            statistics.onRtpReceive(packet);
+        }
+    }
+
+}
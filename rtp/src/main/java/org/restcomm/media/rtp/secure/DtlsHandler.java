@@ -28,17 +28,19 @@ import java.nio.ByteBuffer;
 import java.nio.channels.DatagramChannel;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.log4j.Logger;
 import org.bouncycastle.crypto.tls.DTLSServerProtocol;
 import org.bouncycastle.crypto.tls.DatagramTransport;
 import org.restcomm.media.network.deprecated.channel.PacketHandler;
 import org.restcomm.media.network.deprecated.channel.PacketHandlerException;
+import org.restcomm.media.rtp.crypto.DtlsHandshakeExecutor;
 import org.restcomm.media.rtp.crypto.DtlsSrtpServer;
 import org.restcomm.media.rtp.crypto.DtlsSrtpServerProvider;
 import org.restcomm.media.rtp.crypto.PacketTransformer;
@@ -53,8 +55,6 @@ import org.restcomm.media.rtp.crypto.SRTPTransformEngine;
  */
 public class DtlsHandler implements PacketHandler, DatagramTransport {
 
-    private static final AtomicLong THREAD_COUNTER = new AtomicLong(0);
-
     private static final Logger logger = Logger.getLogger(DtlsHandler.class);
 
     public static final int DEFAULT_MTU = 1500;
@@ -79,12 +79,11 @@ public class DtlsHandler implements PacketHandler, DatagramTransport {
     private volatile boolean handshakeComplete;
     private volatile boolean handshakeFailed;
     private volatile boolean handshaking;
-    private Thread worker;
     private String localHashFunction;
     private String remoteHashFunction;
     private String remoteFingerprint;
     private String localFingerprint;
-    private long startTime;
+    private volatile long startTime;
 
     private final List<DtlsListener> listeners;
 
@@ -287,12 +286,65 @@ public class DtlsHandler implements PacketHandler, DatagramTransport {
         return this.srtcpEncoder.transform(packet, offset, length);
     }
 
+    /**
+     * Decodes an RTP packet in place
+     * 
+     * @param packet The buffer holding the encoded RTP packet, between its position and limit
+     * @return Whether the packet was decoded. The buffer limit is set at the end of the decoded packet.
+     */
+    public boolean decodeRTP(ByteBuffer packet) {
+        return this.srtpDecoder.reverseTransform(packet);
+    }
+
+    /**
+     * Encodes an RTP packet in place
+     * 
+     * @param packet The buffer holding the decoded RTP packet, between its position and limit
+     * @return Whether the packet was encoded. The buffer limit is set at the end of the encoded packet.
+     */
+    public boolean encodeRTP(ByteBuffer packet) {
+        return this.srtpEncoder.transform(packet);
+    }
+
+    /**
+     * Decodes an RTCP packet in place
+     * 
+     * @param packet The buffer holding the encoded RTCP packet, between its position and limit
+     * @return Whether the packet was decoded. The buffer limit is set at the end of the decoded packet.
+     */
+    public boolean decodeRTCP(ByteBuffer packet) {
+        return this.srtcpDecoder.reverseTransform(packet);
+    }
+
+    /**
+     * Encodes an RTCP packet in place
+     * 
+     * @param packet The buffer holding the decoded RTCP packet, between its position and limit
+     * @return Whether the packet was encoded. The buffer limit is set at the end of the encoded packet.
+     */
+    public boolean encodeRTCP(ByteBuffer packet) {
+        return this.srtcpEncoder.transform(packet);
+    }
+
     public void handshake() {
         if (!handshaking && !handshakeComplete) {
             this.handshaking = true;
-            this.startTime = System.currentTimeMillis();
-            this.worker = new Thread(new HandshakeWorker(), "DTLS-Server-" + THREAD_COUNTER.incrementAndGet());
-            this.worker.start();
+            this.rxQueue.clear();
+
+            DtlsHandshakeExecutor executor = this.tlsServerProvider.getHandshakeExecutor();
+            try {
+                executor.execute(new HandshakeWorker());
+            } catch (RejectedExecutionException e) {
+                logger.warn("DTLS handshake rejected. " + executor.getQueueDepth() + " handshakes are already waiting.");
+
+                // Declare handshake as failed
+                this.handshakeComplete = false;
+                this.handshakeFailed = true;
+                this.handshaking = false;
+
+                // Warn listeners handshake failed
+                fireHandshakeFailed(e);
+            }
         }
     }
 
@@ -315,7 +367,7 @@ public class DtlsHandler implements PacketHandler, DatagramTransport {
     }
 
     public void reset() {
-        // XXX try not to create the server every time!
+        // Server holds the state of a single handshake. Key material is shared by the provider.
         this.server = this.tlsServerProvider.provide();
         this.channel = null;
         this.srtcpDecoder = null;
@@ -361,7 +413,8 @@ public class DtlsHandler implements PacketHandler, DatagramTransport {
     @Override
     public byte[] handle(byte[] packet, int dataLength, int offset, InetSocketAddress localPeer, InetSocketAddress remotePeer)
             throws PacketHandlerException {
-        this.rxQueue.offer(ByteBuffer.wrap(packet, offset, dataLength));
+        // the handshake thread reads the record later, while the channel reuses its receive buffers
+        this.rxQueue.offer(ByteBuffer.wrap(Arrays.copyOfRange(packet, offset, offset + dataLength)));
         return null;
     }
 
@@ -438,10 +491,12 @@ public class DtlsHandler implements PacketHandler, DatagramTransport {
         return (System.currentTimeMillis() - this.startTime) > MAX_DELAY;
     }
 
-    private class HandshakeWorker implements Runnable {
+    private class HandshakeWorker implements DtlsHandshakeExecutor.HandshakeTask {
 
-        public void run() {
-            DtlsHandler.this.rxQueue.clear();
+        @Override
+        public void handshake() throws Exception {
+            // Handshake timeout only counts once a worker picked it from the admission queue
+            startTime = System.currentTimeMillis();
             SecureRandom secureRandom = new SecureRandom();
             DTLSServerProtocol serverProtocol = new DTLSServerProtocol(secureRandom);
 
@@ -473,8 +528,9 @@ public class DtlsHandler implements PacketHandler, DatagramTransport {
                 handshakeFailed = true;
                 handshaking = false;
 
-                // Warn listeners handshake completed
+                // Warn listeners handshake failed
                 fireHandshakeFailed(e);
+                throw e;
             }
         }
 
@@ -212,6 +212,18 @@ public class RtpChannelTest {
         scheduler.stop();
     }
 
+    @Test
+    public void testChannelSharesMixerAffinity() {
+        // given
+        final int affinity = audioMixer1.getAffinity();
+
+        // then
+        assertEquals(affinity, channel1.getAudioComponent().getAffinity());
+        assertEquals(affinity, channel1.getTransmitter().getRtpOutput().getAudioOutput().getAffinity());
+        assertEquals(affinity, source1.getAffinity());
+        assertEquals(audioMixer2.getAffinity(), channel2.getAudioComponent().getAffinity());
+    }
+
     @Test
     public void testTransmission() throws Exception {
     	source1.activate();
@@ -0,0 +1,90 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.restcomm.media.rtp.statistics.RtpStatistics;
+import org.restcomm.media.scheduler.PriorityQueueScheduler;
+import org.restcomm.media.scheduler.WallClock;
+import org.restcomm.media.sdp.format.AVProfile;
+import org.restcomm.media.spi.format.FormatFactory;
+import org.restcomm.media.spi.memory.Frame;
+import org.restcomm.media.spi.memory.Memory;
+
+public class RtpTransmitterTest {
+
+    private DatagramChannel localChannel;
+    private DatagramChannel remoteChannel;
+
+    @Before
+    public void before() throws IOException {
+        localChannel = DatagramChannel.open();
+        localChannel.bind(new InetSocketAddress("127.0.0.1", 0));
+        remoteChannel = DatagramChannel.open();
+        remoteChannel.bind(new InetSocketAddress("127.0.0.1", 0));
+        remoteChannel.configureBlocking(false);
+        localChannel.connect(remoteChannel.getLocalAddress());
+    }
+
+    @After
+    public void after() throws IOException {
+        localChannel.close();
+        remoteChannel.close();
+    }
+
+    @Test
+    public void testPacketIsSentBeforeSendReturns() throws Exception {
+        // given
+        WallClock wallClock = new WallClock();
+        PriorityQueueScheduler scheduler = new PriorityQueueScheduler();
+        scheduler.setClock(wallClock);
+        RtpClock clock = new RtpClock(wallClock);
+        RtpTransmitter transmitter = new RtpTransmitter(scheduler, clock, new RtpStatistics(clock));
+        transmitter.setFormatMap(AVProfile.audio);
+        transmitter.setChannel(localChannel);
+
+        Frame frame = Memory.allocate(160);
+        frame.setOffset(0);
+        frame.setLength(160);
+        frame.setTimestamp(20000000L);
+        frame.setFormat(FormatFactory.createAudioFormat("pcmu", 8000, 8, 1));
+
+        // when
+        transmitter.send(frame);
+
+        // then - no scheduler cycle ran, the datagram has to be on the socket already
+        ByteBuffer received = ByteBuffer.allocate(RtpPacket.RTP_PACKET_MAX_SIZE);
+        assertNotNull(remoteChannel.receive(received));
+        assertEquals(RtpPacket.FIXED_HEADER_SIZE + 160, received.position());
+    }
+
+}
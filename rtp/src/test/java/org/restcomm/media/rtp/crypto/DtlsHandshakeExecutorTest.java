@@ -0,0 +1,117 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.crypto;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class DtlsHandshakeExecutorTest {
+
+    private DtlsHandshakeExecutor executor;
+
+    @After
+    public void after() {
+        if (this.executor != null) {
+            this.executor.shutdown();
+            this.executor = null;
+        }
+    }
+
+    @Test
+    public void testHandshakeMetrics() throws Exception {
+        // given
+        this.executor = new DtlsHandshakeExecutor(2, 10);
+        final CountDownLatch done = new CountDownLatch(2);
+
+        // when
+        this.executor.execute(new DtlsHandshakeExecutor.HandshakeTask() {
+
+            @Override
+            public void handshake() throws Exception {
+                Thread.sleep(20);
+                done.countDown();
+            }
+        });
+        this.executor.execute(new DtlsHandshakeExecutor.HandshakeTask() {
+
+            @Override
+            public void handshake() throws Exception {
+                done.countDown();
+                throw new IllegalStateException("handshake failed");
+            }
+        });
+
+        // then
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+        while (this.executor.getActiveCount() > 0) {
+            Thread.sleep(5);
+        }
+        assertEquals(2, this.executor.getSubmittedCount());
+        assertEquals(1, this.executor.getCompletedCount());
+        assertEquals(1, this.executor.getFailedCount());
+        assertEquals(0, this.executor.getRejectedCount());
+        assertEquals(0, this.executor.getQueueDepth());
+        assertTrue(this.executor.getMaxHandshakeTime() >= 20);
+    }
+
+    @Test
+    public void testAdmissionQueueIsBounded() throws Exception {
+        // given
+        this.executor = new DtlsHandshakeExecutor(1, 1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        DtlsHandshakeExecutor.HandshakeTask blocking = new DtlsHandshakeExecutor.HandshakeTask() {
+
+            @Override
+            public void handshake() throws Exception {
+                started.countDown();
+                release.await();
+            }
+        };
+
+        // when
+        this.executor.execute(blocking);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        this.executor.execute(blocking);
+
+        // then
+        assertEquals(1, this.executor.getActiveCount());
+        assertEquals(1, this.executor.getQueueDepth());
+        try {
+            this.executor.execute(blocking);
+            fail("Handshake should have been rejected");
+        } catch (RejectedExecutionException e) {
+            assertEquals(1, this.executor.getRejectedCount());
+            assertEquals(2, this.executor.getSubmittedCount());
+        }
+        release.countDown();
+    }
+
+}
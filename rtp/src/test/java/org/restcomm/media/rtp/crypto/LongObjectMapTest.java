@@ -0,0 +1,88 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.crypto;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class LongObjectMapTest {
+
+    @Test
+    public void testPutAndGet() {
+        // given
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        // when
+        map.put(-1L, "negative");
+        map.put(0L, "zero");
+        map.put(0xFFFFFFFFL, "unsigned");
+        String previous = map.put(0L, "zero again");
+
+        // then
+        assertEquals(3, map.size());
+        assertEquals("zero", previous);
+        assertEquals("zero again", map.get(0L));
+        assertEquals("negative", map.get(-1L));
+        assertEquals("unsigned", map.get(0xFFFFFFFFL));
+        assertNull(map.get(1L));
+    }
+
+    @Test
+    public void testGrow() {
+        // given
+        LongObjectMap<Long> map = new LongObjectMap<>(2);
+        Long[] values = new Long[1000];
+
+        // when
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Long.valueOf(i * 7919L);
+            map.put(values[i], values[i]);
+        }
+
+        // then
+        assertEquals(values.length, map.size());
+        assertEquals(values.length, map.values().size());
+        for (int i = 0; i < values.length; i++) {
+            assertSame(values[i], map.get(i * 7919L));
+        }
+    }
+
+    @Test
+    public void testClear() {
+        // given
+        LongObjectMap<String> map = new LongObjectMap<>();
+        map.put(1L, "one");
+        map.put(2L, "two");
+
+        // when
+        map.clear();
+
+        // then
+        assertEquals(0, map.size());
+        assertNull(map.get(1L));
+        assertEquals(0, map.values().size());
+    }
+
+}
@@ -0,0 +1,283 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.crypto;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+
+import org.bouncycastle.crypto.tls.SRTPProtectionProfile;
+import org.junit.Test;
+
+public class SRTPTransformerTest {
+
+    private static final byte[] MASTER_KEY = { 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08, 0x09, 0x0a, 0x0b, 0x0c, 0x0d,
+            0x0e, 0x0f, 0x10 };
+    private static final byte[] MASTER_SALT = { 0x11, 0x12, 0x13, 0x14, 0x15, 0x16, 0x17, 0x18, 0x19, 0x1a, 0x1b, 0x1c, 0x1d,
+            0x1e };
+
+    private static final byte[] MASTER_KEY_256 = { 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08, 0x09, 0x0a, 0x0b, 0x0c,
+            0x0d, 0x0e, 0x0f, 0x10, 0x11, 0x12, 0x13, 0x14, 0x15, 0x16, 0x17, 0x18, 0x19, 0x1a, 0x1b, 0x1c, 0x1d, 0x1e, 0x1f,
+            0x20 };
+    private static final byte[] MASTER_SALT_96 = { 0x11, 0x12, 0x13, 0x14, 0x15, 0x16, 0x17, 0x18, 0x19, 0x1a, 0x1b, 0x1c };
+
+    private static SRTPTransformer newTransformer() {
+        return newTransformer(SRTPProtectionProfile.SRTP_AES128_CM_HMAC_SHA1_80, SRTPCryptoProvider.BOUNCYCASTLE);
+    }
+
+    private static SRTPTransformEngine newEngine(int profile, SRTPCryptoProvider provider) {
+        SRTPParameters parameters = SRTPParameters.getSrtpParametersForProfile(profile);
+        SRTPPolicy srtpPolicy = parameters.getSrtpPolicy();
+        SRTPPolicy srtcpPolicy = parameters.getSrtcpPolicy();
+        srtpPolicy.setCryptoProvider(provider);
+        srtcpPolicy.setCryptoProvider(provider);
+        byte[] key = parameters.getCipherKeyLength() == 32 ? MASTER_KEY_256 : MASTER_KEY;
+        byte[] salt = parameters.isAead() ? MASTER_SALT_96 : MASTER_SALT;
+        return new SRTPTransformEngine(key, salt, srtpPolicy, srtcpPolicy);
+    }
+
+    private static SRTPTransformer newTransformer(int profile, SRTPCryptoProvider provider) {
+        return new SRTPTransformer(newEngine(profile, provider));
+    }
+
+    private static byte[] rtcpPacket() {
+        // receiver report with a single report block
+        byte[] packet = new byte[32];
+        packet[0] = (byte) 0x81;
+        packet[1] = (byte) 201;
+        packet[3] = 7;
+        packet[4] = 0x12;
+        packet[5] = 0x34;
+        packet[6] = 0x56;
+        packet[7] = 0x78;
+        for (int i = 8; i < packet.length; i++) {
+            packet[i] = (byte) i;
+        }
+        return packet;
+    }
+
+    private static byte[] rtpPacket(int sequence, int payloadLength) {
+        byte[] packet = new byte[12 + payloadLength];
+        packet[0] = (byte) 0x80;
+        packet[2] = (byte) (sequence >> 8);
+        packet[3] = (byte) sequence;
+        packet[7] = (byte) 160;
+        packet[8] = 0x12;
+        packet[9] = 0x34;
+        packet[10] = 0x56;
+        packet[11] = 0x78;
+        for (int i = 12; i < packet.length; i++) {
+            packet[i] = (byte) i;
+        }
+        return packet;
+    }
+
+    @Test
+    public void testInPlaceTransformMatchesArrayTransform() {
+        // given
+        SRTPTransformer arrayTransformer = newTransformer();
+        SRTPTransformer bufferTransformer = newTransformer();
+        byte[] rtp = rtpPacket(1, 160);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1500);
+        buffer.put(rtp).flip();
+
+        // when
+        byte[] expected = arrayTransformer.transform(rtp);
+        boolean transformed = bufferTransformer.transform(buffer);
+
+        // then
+        assertTrue(transformed);
+        assertEquals(0, buffer.position());
+        assertEquals(expected.length, buffer.limit());
+        byte[] actual = new byte[buffer.limit()];
+        buffer.get(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void testInPlaceRoundTrip() {
+        // given
+        SRTPTransformer encoder = newTransformer();
+        SRTPTransformer decoder = newTransformer();
+        byte[] rtp = rtpPacket(2, 80);
+
+        // heap buffer with the packet at a non-zero position
+        ByteBuffer buffer = ByteBuffer.allocate(1500);
+        buffer.position(100);
+        buffer.put(rtp).flip().position(100);
+
+        // when
+        boolean encoded = encoder.transform(buffer);
+        int encodedLength = buffer.remaining();
+        boolean decoded = decoder.reverseTransform(buffer);
+
+        // then
+        assertTrue(encoded);
+        assertEquals(rtp.length + 10, encodedLength);
+        assertTrue(decoded);
+        assertEquals(100, buffer.position());
+        byte[] actual = new byte[buffer.remaining()];
+        buffer.get(actual);
+        assertArrayEquals(rtp, actual);
+    }
+
+    @Test
+    public void testReplayedPacketIsRejected() {
+        // given
+        SRTPTransformer encoder = newTransformer();
+        SRTPTransformer decoder = newTransformer();
+        byte[] srtp = encoder.transform(rtpPacket(3, 160));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1500);
+
+        // when
+        buffer.put(srtp).flip();
+        boolean first = decoder.reverseTransform(buffer);
+        buffer.clear();
+        buffer.put(srtp).flip();
+        boolean replayed = decoder.reverseTransform(buffer);
+
+        // then
+        assertTrue(first);
+        assertFalse(replayed);
+    }
+
+    @Test
+    public void testTransformFailsWithoutRoomForAuthenticationTag() {
+        // given
+        SRTPTransformer encoder = newTransformer();
+        byte[] rtp = rtpPacket(4, 160);
+        ByteBuffer buffer = ByteBuffer.allocate(rtp.length);
+        buffer.put(rtp).flip();
+
+        // when
+        boolean transformed = encoder.transform(buffer);
+
+        // then
+        assertFalse(transformed);
+    }
+
+    @Test
+    public void testJceProviderMatchesBouncyCastle() {
+        // given
+        SRTPTransformer bouncyCastle = newTransformer(SRTPProtectionProfile.SRTP_AES128_CM_HMAC_SHA1_80,
+                SRTPCryptoProvider.BOUNCYCASTLE);
+        SRTPTransformer jce = newTransformer(SRTPProtectionProfile.SRTP_AES128_CM_HMAC_SHA1_80, SRTPCryptoProvider.JCE);
+        byte[] rtp = rtpPacket(5, 160);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1500);
+        buffer.put(rtp).flip();
+
+        // when
+        byte[] expected = bouncyCastle.transform(rtp);
+        boolean transformed = jce.transform(buffer);
+
+        // then
+        assertTrue(transformed);
+        byte[] actual = new byte[buffer.remaining()];
+        buffer.get(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void testAesGcmRoundTrip() {
+        for (int profile : new int[] { SRTPParameters.SRTP_AEAD_AES_128_GCM_PROFILE,
+                SRTPParameters.SRTP_AEAD_AES_256_GCM_PROFILE }) {
+            // given
+            SRTPTransformer encoder = newTransformer(profile, SRTPCryptoProvider.BOUNCYCASTLE);
+            SRTPTransformer decoder = newTransformer(profile, SRTPCryptoProvider.BOUNCYCASTLE);
+            byte[] rtp = rtpPacket(6, 160);
+            ByteBuffer buffer = ByteBuffer.allocate(1500);
+            buffer.put(rtp).flip();
+
+            // when
+            boolean encoded = encoder.transform(buffer);
+            byte[] srtp = new byte[buffer.remaining()];
+            buffer.duplicate().get(srtp);
+            boolean decoded = decoder.reverseTransform(buffer);
+
+            // then
+            assertTrue(encoded);
+            assertEquals(rtp.length + 16, srtp.length);
+            assertArrayEquals(Arrays.copyOf(rtp, 12), Arrays.copyOf(srtp, 12));
+            assertFalse(Arrays.equals(Arrays.copyOfRange(rtp, 12, rtp.length), Arrays.copyOfRange(srtp, 12, rtp.length)));
+            assertTrue(decoded);
+            byte[] actual = new byte[buffer.remaining()];
+            buffer.get(actual);
+            assertArrayEquals(rtp, actual);
+        }
+    }
+
+    @Test
+    public void testAesGcmSupportFollowsCryptoPolicy() throws Exception {
+        // given
+        boolean unlimited = Cipher.getMaxAllowedKeyLength("AES") >= 256;
+
+        // when
+        boolean aes128 = SRTPCipherGCM.isSupported(16);
+        boolean aes256 = SRTPCipherGCM.isSupported(32);
+
+        // then
+        assertEquals(SRTPCipherGCM.isSupported(), aes128);
+        assertEquals(SRTPCipherGCM.isSupported() && unlimited, aes256);
+    }
+
+    @Test
+    public void testAesGcmRejectsTamperedPacket() {
+        // given
+        SRTPTransformer encoder = newTransformer(SRTPParameters.SRTP_AEAD_AES_128_GCM_PROFILE, SRTPCryptoProvider.JCE);
+        SRTPTransformer decoder = newTransformer(SRTPParameters.SRTP_AEAD_AES_128_GCM_PROFILE, SRTPCryptoProvider.JCE);
+        byte[] srtp = encoder.transform(rtpPacket(7, 160));
+
+        // when
+        srtp[1] ^= 0x01;
+        byte[] decoded = decoder.reverseTransform(srtp);
+
+        // then
+        assertNull(decoded);
+    }
+
+    @Test
+    public void testAesGcmSrtcpRoundTrip() {
+        // given
+        SRTCPTransformer encoder = new SRTCPTransformer(
+                newEngine(SRTPParameters.SRTP_AEAD_AES_128_GCM_PROFILE, SRTPCryptoProvider.JCE));
+        SRTCPTransformer decoder = new SRTCPTransformer(
+                newEngine(SRTPParameters.SRTP_AEAD_AES_128_GCM_PROFILE, SRTPCryptoProvider.JCE));
+        byte[] rtcp = rtcpPacket();
+
+        // when
+        byte[] srtcp = encoder.transform(rtcp);
+        byte[] decoded = decoder.reverseTransform(srtcp);
+
+        // then
+        assertEquals(rtcp.length + 16 + 4, srtcp.length);
+        assertEquals(0x80, srtcp[srtcp.length - 4] & 0xff);
+        assertArrayEquals(rtcp, decoded);
+    }
+
+}
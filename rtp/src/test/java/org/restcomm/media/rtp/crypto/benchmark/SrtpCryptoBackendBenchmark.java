@@ -0,0 +1,161 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.crypto.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.crypto.tls.SRTPProtectionProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.restcomm.media.rtp.RtpPacket;
+import org.restcomm.media.rtp.crypto.PacketTransformer;
+import org.restcomm.media.rtp.crypto.SRTPCryptoProvider;
+import org.restcomm.media.rtp.crypto.SRTPParameters;
+import org.restcomm.media.rtp.crypto.SRTPPolicy;
+import org.restcomm.media.rtp.crypto.SRTPTransformEngine;
+
+/**
+ * Compares the SRTP crypto backends when protecting G.711 packets in place at 20ms and 10ms packetization: AES-CM with
+ * HMAC-SHA1-80 on Bouncy Castle and on the JCE, and the AEAD AES-GCM profiles on the JCE.
+ * <p>
+ * Run the main method with the test classpath of the module. JCE results depend on the AES-NI and CLMUL intrinsics of the
+ * JVM, check them with <code>-XX:+PrintFlagsFinal</code>.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SrtpCryptoBackendBenchmark {
+
+    private static final int HEADER_LENGTH = 12;
+
+    private static final byte[] MASTER_KEY = { 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08, 0x09, 0x0a, 0x0b, 0x0c, 0x0d,
+            0x0e, 0x0f, 0x10, 0x11, 0x12, 0x13, 0x14, 0x15, 0x16, 0x17, 0x18, 0x19, 0x1a, 0x1b, 0x1c, 0x1d, 0x1e, 0x1f, 0x20 };
+    private static final byte[] MASTER_SALT = { 0x11, 0x12, 0x13, 0x14, 0x15, 0x16, 0x17, 0x18, 0x19, 0x1a, 0x1b, 0x1c, 0x1d,
+            0x1e };
+
+    public enum Backend {
+        AES_CM_BOUNCYCASTLE(SRTPProtectionProfile.SRTP_AES128_CM_HMAC_SHA1_80, SRTPCryptoProvider.BOUNCYCASTLE),
+        AES_CM_JCE(SRTPProtectionProfile.SRTP_AES128_CM_HMAC_SHA1_80, SRTPCryptoProvider.JCE),
+        AEAD_AES_128_GCM(SRTPParameters.SRTP_AEAD_AES_128_GCM_PROFILE, SRTPCryptoProvider.JCE),
+        AEAD_AES_256_GCM(SRTPParameters.SRTP_AEAD_AES_256_GCM_PROFILE, SRTPCryptoProvider.JCE);
+
+        private final int profile;
+        private final SRTPCryptoProvider provider;
+
+        private Backend(int profile, SRTPCryptoProvider provider) {
+            this.profile = profile;
+            this.provider = provider;
+        }
+    }
+
+    @Param
+    public Backend backend;
+
+    /**
+     * Packetization time, in milliseconds. G.711 carries 8 bytes of payload per millisecond.
+     */
+    @Param({ "20", "10" })
+    public int ptime;
+
+    private byte[] template;
+    private ByteBuffer buffer;
+    private PacketTransformer encoder;
+    private PacketTransformer decoder;
+    private int sequence;
+
+    @Setup
+    public void setup() {
+        this.template = new byte[HEADER_LENGTH + ptime * 8];
+        this.template[0] = (byte) 0x80;
+        this.template[8] = 0x12;
+        this.template[9] = 0x34;
+        this.template[10] = 0x56;
+        this.template[11] = 0x78;
+        for (int i = HEADER_LENGTH; i < this.template.length; i++) {
+            this.template[i] = (byte) (i * 31);
+        }
+
+        this.buffer = ByteBuffer.allocateDirect(RtpPacket.RTP_PACKET_MAX_SIZE);
+        this.encoder = newEngine(this.backend).getRTPTransformer();
+        this.decoder = newEngine(this.backend).getRTPTransformer();
+        this.sequence = 0;
+    }
+
+    private static SRTPTransformEngine newEngine(Backend backend) {
+        SRTPParameters parameters = SRTPParameters.getSrtpParametersForProfile(backend.profile);
+        SRTPPolicy srtpPolicy = parameters.getSrtpPolicy();
+        SRTPPolicy srtcpPolicy = parameters.getSrtcpPolicy();
+        srtpPolicy.setCryptoProvider(backend.provider);
+        srtcpPolicy.setCryptoProvider(backend.provider);
+
+        byte[] key = new byte[parameters.getCipherKeyLength()];
+        byte[] salt = new byte[parameters.getCipherSaltLength()];
+        System.arraycopy(MASTER_KEY, 0, key, 0, key.length);
+        System.arraycopy(MASTER_SALT, 0, salt, 0, salt.length);
+        return new SRTPTransformEngine(key, salt, srtpPolicy, srtcpPolicy);
+    }
+
+    private void nextPacket() {
+        this.sequence = (this.sequence + 1) & 0xFFFF;
+        this.buffer.clear();
+        this.buffer.put(this.template);
+        this.buffer.put(2, (byte) (this.sequence >> 8));
+        this.buffer.put(3, (byte) this.sequence);
+        this.buffer.flip();
+    }
+
+    @Benchmark
+    public boolean protect() {
+        nextPacket();
+        return this.encoder.transform(this.buffer);
+    }
+
+    @Benchmark
+    public boolean roundTrip() {
+        nextPacket();
+        return this.encoder.transform(this.buffer) && this.decoder.reverseTransform(this.buffer);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(SrtpCryptoBackendBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,316 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.jitter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.restcomm.media.rtp.BufferListener;
+import org.restcomm.media.rtp.MockWallClock;
+import org.restcomm.media.rtp.RtpClock;
+import org.restcomm.media.rtp.RtpPacket;
+import org.restcomm.media.rtp.jitter.JitterBufferSimulator.Arrival;
+import org.restcomm.media.rtp.jitter.JitterBufferSimulator.Result;
+import org.restcomm.media.sdp.format.AVProfile;
+import org.restcomm.media.sdp.format.RTPFormat;
+import org.restcomm.media.spi.memory.Frame;
+
+public class AdaptiveJitterBufferTest {
+
+    private static final RTPFormat PCMA = AVProfile.audio.find(8);
+
+    private MockWallClock wallClock;
+    private RtpClock rtpClock;
+    private AdaptiveJitterBuffer jitterBuffer;
+    private int fills;
+
+    @Before
+    public void setUp() {
+        this.wallClock = new MockWallClock();
+        this.rtpClock = new RtpClock(wallClock);
+        this.rtpClock.setClockRate(8000);
+        this.jitterBuffer = new AdaptiveJitterBuffer(rtpClock, 40);
+        this.fills = 0;
+        this.jitterBuffer.setListener(new BufferListener() {
+            @Override
+            public void onFill() {
+                fills++;
+            }
+        });
+    }
+
+    private RtpPacket packet(int sequence) {
+        return packet(sequence, 160L * sequence, 123);
+    }
+
+    private RtpPacket packet(int sequence, long timestamp, long ssrc) {
+        RtpPacket packet = new RtpPacket(172, false);
+        packet.wrap(false, 8, sequence & 0xFFFF, timestamp, ssrc, new byte[160], 0, 160);
+        return packet;
+    }
+
+    private long read() {
+        Frame frame = jitterBuffer.read(wallClock.getTime());
+        if (frame == null) {
+            return -1;
+        }
+        frame.recycle();
+        return frame.getSequenceNumber();
+    }
+
+    @Test
+    public void testFillsAtTargetDelay() {
+        // given
+        jitterBuffer.write(packet(1), PCMA);
+
+        // when
+        int filledAfterFirst = fills;
+        jitterBuffer.write(packet(2), PCMA);
+
+        // then
+        assertEquals(0, filledAfterFirst);
+        assertEquals(1, fills);
+        assertEquals(40, jitterBuffer.getDelay());
+    }
+
+    @Test
+    public void testReorder() {
+        // given
+        jitterBuffer.write(packet(1), PCMA);
+        jitterBuffer.write(packet(2), PCMA);
+        jitterBuffer.write(packet(4), PCMA);
+        jitterBuffer.write(packet(3), PCMA);
+
+        // when, then
+        assertEquals(1, read());
+        assertEquals(2, read());
+        assertEquals(3, read());
+        assertEquals(4, read());
+        assertEquals(-1, read());
+    }
+
+    @Test
+    public void testDuplicateAndLatePackets() {
+        // given
+        jitterBuffer.write(packet(1), PCMA);
+        jitterBuffer.write(packet(2), PCMA);
+        jitterBuffer.write(packet(2), PCMA);
+        jitterBuffer.write(packet(4), PCMA);
+
+        // when
+        long first = read();
+        long second = read();
+        long third = read();
+        jitterBuffer.write(packet(3), PCMA);
+
+        // then
+        assertEquals(1, first);
+        assertEquals(2, second);
+        assertEquals(4, third);
+        assertEquals(1, jitterBuffer.getDuplicates());
+        assertEquals(1, jitterBuffer.getLost());
+        assertEquals(1, jitterBuffer.getLate());
+        assertEquals(-1, read());
+    }
+
+    @Test
+    public void testSequenceNumberWrap() {
+        // given
+        jitterBuffer.write(packet(65534), PCMA);
+        jitterBuffer.write(packet(65535), PCMA);
+        jitterBuffer.write(packet(65536), PCMA);
+
+        // when, then
+        assertEquals(65534, read());
+        assertEquals(65535, read());
+        assertEquals(65536, read());
+    }
+
+    @Test
+    public void testDiscardsExcessDelay() {
+        // given
+        for (int i = 1; i <= 10; i++) {
+            jitterBuffer.write(packet(i), PCMA);
+        }
+
+        // when
+        long first = read();
+
+        // then
+        assertEquals(2, first);
+        assertEquals(1, jitterBuffer.getDiscarded());
+    }
+
+    @Test
+    public void testForwardJumpKeepsFrame() {
+        // given
+        jitterBuffer.write(packet(1), PCMA);
+        jitterBuffer.write(packet(2), PCMA);
+        read();
+        read();
+
+        // when
+        int jump = 2 + AdaptiveJitterBuffer.CAPACITY + 10;
+        jitterBuffer.write(packet(jump), PCMA);
+        jitterBuffer.write(packet(jump + 1), PCMA);
+
+        // then
+        // both packets arrived past the reader's window
+        assertEquals(2, jitterBuffer.getOverflows());
+        assertEquals(jump, read());
+        assertEquals(jump + 1, read());
+    }
+
+    @Test
+    public void testResyncOnSsrcChange() {
+        // given
+        jitterBuffer.write(packet(1000), PCMA);
+        jitterBuffer.write(packet(1001), PCMA);
+        read();
+        read();
+
+        // when
+        jitterBuffer.write(packet(10, 50000, 456), PCMA);
+        jitterBuffer.write(packet(11, 50160, 456), PCMA);
+        jitterBuffer.write(packet(1002), PCMA);
+
+        // then
+        assertEquals(1, jitterBuffer.getResyncs());
+        assertEquals(1, jitterBuffer.getLate());
+        assertEquals(40, jitterBuffer.getTargetDelay());
+        assertEquals(1002, read());
+        assertEquals(1003, read());
+        assertEquals(-1, read());
+    }
+
+    @Test
+    public void testResyncOnSequenceResetWithNewerMedia() {
+        // given
+        jitterBuffer.write(packet(1000), PCMA);
+        jitterBuffer.write(packet(1001), PCMA);
+        read();
+        read();
+
+        // when
+        jitterBuffer.write(packet(10, 160L * 1002, 123), PCMA);
+        jitterBuffer.write(packet(11, 160L * 1003, 123), PCMA);
+
+        // then
+        assertEquals(1, jitterBuffer.getResyncs());
+        assertEquals(0, jitterBuffer.getLate());
+        assertEquals(1002, read());
+        assertEquals(1003, read());
+    }
+
+    @Test
+    public void testResyncAfterLatePacketsInARow() {
+        // given
+        jitterBuffer.write(packet(1000), PCMA);
+        jitterBuffer.write(packet(1001), PCMA);
+        read();
+        read();
+
+        // when
+        // a sequence reset whose timestamps went back as well looks like late packets at first
+        for (int i = 0; i < AdaptiveJitterBuffer.RESYNC_THRESHOLD + 1; i++) {
+            jitterBuffer.write(packet(10 + i), PCMA);
+        }
+
+        // then
+        assertEquals(1, jitterBuffer.getResyncs());
+        assertEquals(AdaptiveJitterBuffer.RESYNC_THRESHOLD - 1, jitterBuffer.getLate());
+        assertEquals(40, jitterBuffer.getTargetDelay());
+        assertEquals(1002, read());
+        assertEquals(1003, read());
+        assertEquals(-1, read());
+    }
+
+    @Test
+    public void testRestart() {
+        // given
+        jitterBuffer.write(packet(1), PCMA);
+        jitterBuffer.write(packet(2), PCMA);
+
+        // when
+        jitterBuffer.restart();
+        jitterBuffer.write(packet(100), PCMA);
+
+        // then
+        assertEquals(100, read());
+        assertNull(jitterBuffer.read(wallClock.getTime()));
+    }
+
+    @Test
+    public void testGrowsDelayWithJitter() {
+        // given
+        List<Arrival> trace = JitterBufferSimulator.synthetic(1500, 0.0, 80, 1);
+        JitterBufferSimulator fixed = new JitterBufferSimulator(false, 20);
+        JitterBufferSimulator adaptive = new JitterBufferSimulator(true, 20);
+
+        // when
+        Result fixedResult = fixed.run(trace);
+        Result adaptiveResult = adaptive.run(trace);
+
+        // then
+        assertTrue(((AdaptiveJitterBuffer) adaptive.getBuffer()).getTargetDelay() > 20);
+        assertTrue(adaptiveResult.underruns <= fixedResult.underruns);
+        assertTrue(adaptiveResult.getPlayedRatio() > 0.95);
+    }
+
+    @Test
+    public void testShrinksDelayWithoutJitter() {
+        // given
+        List<Arrival> trace = JitterBufferSimulator.synthetic(1500, 0.01, 2, 2);
+        JitterBufferSimulator fixed = new JitterBufferSimulator(false, 150);
+        JitterBufferSimulator adaptive = new JitterBufferSimulator(true, 150);
+
+        // when
+        Result fixedResult = fixed.run(trace);
+        Result adaptiveResult = adaptive.run(trace);
+
+        // then
+        assertTrue(adaptiveResult.getAverageDelay() < fixedResult.getAverageDelay());
+        assertTrue(adaptiveResult.getPlayedRatio() > 0.95);
+    }
+
+    @Test
+    public void testReplayDelaySpikes() throws Exception {
+        // given
+        InputStream input = getClass().getResourceAsStream("/jitter/spikes.trace");
+        List<Arrival> trace = JitterBufferSimulator.load(input);
+        JitterBufferSimulator adaptive = new JitterBufferSimulator(true, 50);
+
+        // when
+        Result result = adaptive.run(trace);
+
+        // then
+        assertTrue(result.toString(), result.getPlayedRatio() > 0.85);
+        assertTrue(result.toString(), result.maxDelay <= 20 + 300 + AdaptiveJitterBuffer.MAX_DELAY);
+    }
+
+}
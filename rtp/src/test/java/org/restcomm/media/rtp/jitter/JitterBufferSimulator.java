@@ -0,0 +1,227 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.jitter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.restcomm.media.rtp.BufferListener;
+import org.restcomm.media.rtp.MockWallClock;
+import org.restcomm.media.rtp.RtpClock;
+import org.restcomm.media.rtp.RtpPacket;
+import org.restcomm.media.sdp.format.AVProfile;
+import org.restcomm.media.sdp.format.RTPFormat;
+import org.restcomm.media.spi.memory.Frame;
+
+/**
+ * Replays a network trace against a jitter buffer and measures the resulting playout.
+ * <p>
+ * A trace lists, for each packet that reached the server, its sequence number and its arrival time in milliseconds. Packet
+ * <code>n</code> is sent at <code>n * 20ms</code>, missing sequence numbers are lost packets. The reader behaves like
+ * {@link org.restcomm.media.rtp.RTPInput}: it starts reading every 20ms once the buffer reports it is filled and stops at
+ * the first empty read.
+ * </p>
+ */
+public class JitterBufferSimulator implements BufferListener {
+
+    private static final int PERIOD = 20;
+    private static final int SAMPLES = 160;
+    private static final RTPFormat FORMAT = AVProfile.audio.find(8);
+
+    private final MockWallClock wallClock;
+    private final RtpClock rtpClock;
+    private final JitterBuffer buffer;
+
+    private boolean filled;
+
+    public JitterBufferSimulator(boolean adaptive, int size) {
+        this.wallClock = new MockWallClock();
+        this.rtpClock = new RtpClock(this.wallClock);
+        this.rtpClock.setClockRate(8000);
+        this.buffer = adaptive ? new AdaptiveJitterBuffer(this.rtpClock, size) : new FixedJitterBuffer(this.rtpClock, size);
+        this.buffer.setListener(this);
+    }
+
+    public JitterBuffer getBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public void onFill() {
+        this.filled = true;
+    }
+
+    /**
+     * Replays a trace.
+     * 
+     * @param trace the packets ordered by arrival time
+     * @return the playout statistics
+     */
+    public Result run(List<Arrival> trace) {
+        Result result = new Result();
+        if (trace.isEmpty()) {
+            return result;
+        }
+
+        RtpPacket packet = new RtpPacket(RtpPacket.RTP_PACKET_MAX_SIZE, false);
+        byte[] payload = new byte[SAMPLES];
+
+        boolean playing = false;
+        long nextRead = 0;
+        int index = 0;
+        long end = trace.get(trace.size() - 1).arrival + 1000;
+
+        for (long now = 0; now <= end; now++) {
+            while (index < trace.size() && trace.get(index).arrival == now) {
+                int sequence = trace.get(index++).sequence;
+                packet.wrap(false, 8, sequence & 0xFFFF, (long) sequence * SAMPLES, 1234, payload, 0, payload.length);
+                this.buffer.write(packet, FORMAT);
+            }
+
+            if (!playing && this.filled) {
+                playing = true;
+                nextRead = now;
+            }
+
+            if (playing && now == nextRead) {
+                Frame frame = this.buffer.read(this.wallClock.getTime());
+                if (frame == null) {
+                    playing = false;
+                    this.filled = false;
+                    result.underruns++;
+                } else {
+                    long sent = (frame.getSequenceNumber() & 0xFFFF) * PERIOD;
+                    result.played++;
+                    result.totalDelay += now - sent;
+                    result.maxDelay = Math.max(result.maxDelay, now - sent);
+                    frame.recycle();
+                    nextRead = now + PERIOD;
+                }
+            }
+            this.wallClock.tick(1000000L);
+        }
+        result.sent = trace.get(trace.size() - 1).sequence + 1;
+        return result;
+    }
+
+    /**
+     * Builds a trace with random loss and delay.
+     * 
+     * @param count the number of packets sent
+     * @param lossRate the probability of a packet being lost
+     * @param jitter the maximum delay added to the 20ms path delay, in milliseconds
+     * @param seed the seed of the random generator
+     * @return the trace
+     */
+    public static List<Arrival> synthetic(int count, double lossRate, int jitter, long seed) {
+        Random random = new Random(seed);
+        List<Arrival> trace = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (random.nextDouble() < lossRate) {
+                continue;
+            }
+            long delay = PERIOD + (jitter > 0 ? random.nextInt(jitter + 1) : 0);
+            trace.add(new Arrival(i, i * PERIOD + delay));
+        }
+        sort(trace);
+        return trace;
+    }
+
+    /**
+     * Reads a trace made of <code>sequence arrival</code> lines. Empty lines and lines starting with <code>#</code> are
+     * ignored.
+     * 
+     * @param input the trace
+     * @return the trace
+     * @throws IOException if the trace cannot be read
+     */
+    public static List<Arrival> load(InputStream input) throws IOException {
+        List<Arrival> trace = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\s+");
+                trace.add(new Arrival(Integer.parseInt(fields[0]), Long.parseLong(fields[1])));
+            }
+        } finally {
+            reader.close();
+        }
+        sort(trace);
+        return trace;
+    }
+
+    private static void sort(List<Arrival> trace) {
+        Collections.sort(trace, new Comparator<Arrival>() {
+            @Override
+            public int compare(Arrival a, Arrival b) {
+                return a.arrival < b.arrival ? -1 : a.arrival > b.arrival ? 1 : a.sequence - b.sequence;
+            }
+        });
+    }
+
+    public static class Arrival {
+
+        final int sequence;
+        final long arrival;
+
+        public Arrival(int sequence, long arrival) {
+            this.sequence = sequence;
+            this.arrival = arrival;
+        }
+    }
+
+    public static class Result {
+
+        int sent;
+        int played;
+        int underruns;
+        long totalDelay;
+        long maxDelay;
+
+        public double getPlayedRatio() {
+            return sent == 0 ? 0 : (double) played / sent;
+        }
+
+        public double getAverageDelay() {
+            return played == 0 ? 0 : (double) totalDelay / played;
+        }
+
+        @Override
+        public String toString() {
+            return "sent=" + sent + ", played=" + played + ", underruns=" + underruns + ", average delay="
+                    + getAverageDelay() + "ms, max delay=" + maxDelay + "ms";
+        }
+    }
+
+}
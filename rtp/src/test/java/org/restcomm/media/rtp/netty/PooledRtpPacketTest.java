@@ -0,0 +1,77 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.rtp.netty;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.netty.util.IllegalReferenceCountException;
+
+public class PooledRtpPacketTest {
+
+    @Test
+    public void testReferenceCounting() {
+        // given
+        final PooledRtpPacket packet = PooledRtpPacket.newInstance(1L);
+
+        // when
+        packet.retain();
+
+        // then
+        assertEquals(2, packet.refCnt());
+        assertFalse(packet.release());
+        assertTrue(packet.release());
+        assertEquals(0, packet.refCnt());
+    }
+
+    @Test(expected = IllegalReferenceCountException.class)
+    public void testReleaseRecycledPacket() {
+        // given
+        final PooledRtpPacket packet = PooledRtpPacket.newInstance(1L);
+        packet.release();
+
+        // when
+        packet.release();
+    }
+
+    @Test
+    public void testNewInstanceIsReset() {
+        // given
+        final PooledRtpPacket used = PooledRtpPacket.newInstance(1L);
+        used.wrap(false, 0, 1, 160, 1234L, new byte[160], 0, 160);
+        used.release();
+
+        // when
+        final PooledRtpPacket packet = PooledRtpPacket.newInstance(5L);
+
+        // then
+        assertEquals(1, packet.refCnt());
+        assertEquals(0, packet.getBuffer().position());
+        assertEquals(PooledRtpPacket.POOLED_CAPACITY, packet.getBuffer().limit());
+        assertEquals(5L, packet.getReceivedOn());
+        assertEquals(5L, packet.getDecodedOn());
+    }
+
+}
@@ -109,6 +109,38 @@ public class RtpDemultiplexerTest {
         assertEquals((long) 0x3E6E7CB5, rtpPacket.getSyncSource());
     }
 
+    @Test
+    public void testRtpPacketRecognitionFromDirectBuffer() throws Exception {
+        // given
+        final URL pcapUrl = RtpDemultiplexer.class.getResource("rtp-packet.pcap");
+        this.pcapFile = new PcapFile(pcapUrl);
+        final RtpDemultiplexer demultiplexer = new RtpDemultiplexer();
+        final EmbeddedChannel channel = new EmbeddedChannel(demultiplexer);
+
+        // when
+        pcapFile.open();
+        final Packet pcapPacket = pcapFile.read();
+        byte[] data = (byte[]) pcapPacket.get(GenericPcapReader.PAYLOAD);
+
+        final ByteBuf buffer = Unpooled.directBuffer(data.length + 4);
+        buffer.writeInt(0);
+        buffer.writeBytes(data);
+        buffer.skipBytes(4);
+        final boolean wrote = channel.writeInbound(buffer);
+        final Object packet = channel.readInbound();
+
+        // then
+        assertTrue(wrote);
+        assertTrue(packet instanceof RtpPacket);
+        assertEquals(0, buffer.refCnt());
+
+        RtpPacket rtpPacket = (RtpPacket) packet;
+        assertEquals(2, rtpPacket.getVersion());
+        assertEquals(1023, rtpPacket.getSeqNumber());
+        assertEquals(163680L, rtpPacket.getTimestamp());
+        assertEquals((long) 0x3E6E7CB5, rtpPacket.getSyncSource());
+    }
+
     @Test
     public void testRtcpPacketRecognition() throws Exception {
         // given
@@ -21,6 +21,9 @@
         
 package org.restcomm.media.rtp.netty;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -33,6 +36,7 @@ import org.junit.Test;
 import org.restcomm.media.rtp.RTPInput;
 import org.restcomm.media.rtp.RtpPacket;
 import org.restcomm.media.rtp.jitter.JitterBuffer;
+import org.restcomm.media.rtp.netty.RtpInboundHandlerMetrics.Stage;
 import org.restcomm.media.rtp.rfc2833.DtmfInput;
 import org.restcomm.media.rtp.statistics.RtpStatistics;
 import org.restcomm.media.scheduler.Clock;
@@ -248,4 +252,67 @@ public class RtpInboundHandlerTest {
         verify(statistics, never()).onRtpReceive(packet);
     }
 
+    @Test
+    public void testReadPooledPacket() {
+        // given
+        final Clock clock = mock(Clock.class);
+        final RtpStatistics statistics = mock(RtpStatistics.class);
+        final JitterBuffer jitterBuffer = mock(JitterBuffer.class);
+        final RTPInput rtpInput = mock(RTPInput.class);
+        final DtmfInput dtmfInput = mock(DtmfInput.class);
+        final RtpInboundHandlerGlobalContext context = new RtpInboundHandlerGlobalContext(clock, statistics, jitterBuffer, rtpInput, dtmfInput);
+        this.handler = new RtpInboundHandler(context);
+        final EmbeddedChannel channel = new EmbeddedChannel(this.handler);
+
+        final PooledRtpPacket packet = PooledRtpPacket.newInstance(System.nanoTime());
+        packet.wrap(false, 0, 1, 160, 1234L, new byte[160], 0, 160);
+        packet.setDecodedOn(System.nanoTime());
+
+        // when
+        handler.activate();
+        handler.updateMode(ConnectionMode.RECV_ONLY);
+        handler.setFormatMap(AVProfile.audio);
+        channel.writeInbound(packet);
+
+        // then
+        verify(jitterBuffer).write(eq(packet), eq(AVProfile.audio.find(0)));
+        verify(statistics).onRtpReceive(any(RtpPacket.class));
+        assertEquals(0, packet.refCnt());
+
+        final RtpInboundHandlerMetrics metrics = handler.getMetrics();
+        assertEquals(1, metrics.getCount(Stage.DECODE));
+        assertEquals(1, metrics.getCount(Stage.DISPATCH));
+        assertEquals(1, metrics.getCount(Stage.CONSUME));
+    }
+
+    @Test
+    public void testReadPacketWhenHandlerIsDeactivated() {
+        // given
+        final Clock clock = mock(Clock.class);
+        final RtpStatistics statistics = mock(RtpStatistics.class);
+        final JitterBuffer jitterBuffer = mock(JitterBuffer.class);
+        final RTPInput rtpInput = mock(RTPInput.class);
+        final DtmfInput dtmfInput = mock(DtmfInput.class);
+        final RtpInboundHandlerGlobalContext context = new RtpInboundHandlerGlobalContext(clock, statistics, jitterBuffer, rtpInput, dtmfInput);
+        this.handler = new RtpInboundHandler(context);
+        final EmbeddedChannel channel = new EmbeddedChannel(this.handler);
+
+        final RtpPacket packet = mock(RtpPacket.class);
+        when(packet.getVersion()).thenReturn(RtpPacket.VERSION);
+        when(packet.getPayloadType()).thenReturn(0);
+        when(packet.getLength()).thenReturn(256);
+
+        // when
+        handler.activate();
+        handler.updateMode(ConnectionMode.RECV_ONLY);
+        handler.setFormatMap(AVProfile.audio);
+        handler.deactivate();
+        channel.writeInbound(packet);
+
+        // then
+        verify(jitterBuffer, never()).write(packet, AVProfile.audio.find(0));
+        verify(statistics, never()).onRtpReceive(packet);
+        assertEquals(0, handler.getMetrics().getCount(Stage.CONSUME));
+    }
+
 }
@@ -27,7 +27,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
 
 import org.apache.log4j.Logger;
-import org.restcomm.media.concurrent.ConcurrentCyclicFIFO;
+import org.restcomm.media.concurrent.MpmcArrayQueue;
 
 /**
  * Implements scheduler with multi-level priority queue.
@@ -79,11 +79,19 @@ public class PriorityQueueScheduler  {
 
     private Logger logger = Logger.getLogger(PriorityQueueScheduler.class) ;
     
-    private ConcurrentCyclicFIFO<Task> waitingTasks=new ConcurrentCyclicFIFO<Task>();
-    private ConcurrentCyclicFIFO<Task> criticalTasks=new ConcurrentCyclicFIFO<Task>();
+    //maximum number of tasks dispatched to workers at once
+    private static final int DISPATCH_CAPACITY=16384;
+    
+    private MpmcArrayQueue<Task> waitingTasks=new MpmcArrayQueue<Task>(DISPATCH_CAPACITY);
+    private MpmcArrayQueue<Task> criticalTasks=new MpmcArrayQueue<Task>(DISPATCH_CAPACITY);
     
     private WorkerThread[] workerThreads;
     private CriticalWorkerThread[] criticalWorkerThreads;
+    private final int poolSize;
+    
+    //timing measurements
+    private final SchedulerStatistics statistics = new SchedulerStatistics();
+    private volatile SchedulerMonitor monitor;
 
     /**
      * Creates new instance of scheduler.
@@ -111,15 +119,32 @@ public class PriorityQueueScheduler  {
         for(int i=0;i<criticalWorkerThreads.length;i++) {
             criticalWorkerThreads[i] = new CriticalWorkerThread("scheduler-critical-worker-" + i);
         }
+        poolSize = workerThreads.length;
     }
     
     public PriorityQueueScheduler() {
         this(null);
     }
 
+    /**
+     * Creates new instance of scheduler without the central dispatcher and worker threads.
+     * <p>
+     * Meant for subclasses that provide their own execution model on top of the queue definitions.
+     * </p>
+     *
+     * @param clock the clock used for time measurement.
+     * @param poolSize the number of threads the subclass will run tasks on.
+     */
+    protected PriorityQueueScheduler(Clock clock, int poolSize) {
+        this.clock = clock;
+        this.workerThreads = new WorkerThread[0];
+        this.criticalWorkerThreads = new CriticalWorkerThread[0];
+        this.poolSize = poolSize;
+    }
+
     public int getPoolSize()
     {
-    	return workerThreads.length;
+    	return poolSize;
     }
     
     /**
@@ -229,14 +254,61 @@ public class PriorityQueueScheduler  {
     /**
      * Shows the miss rate.
      * 
-     * @return the miss rate value;
+     * @return the ratio of cycles that overran the 20ms budget;
      */
     public double getMissRate() {
-        return 0;
+        return statistics.getMissRate();
     }
 
+    /**
+     * Gets the longest cycle duration.
+     * 
+     * @return the duration in nanoseconds
+     */
     public long getWorstExecutionTime() {
-        return 0;
+        return statistics.getWorstCycleTime();
+    }
+
+    /**
+     * Gets the timing statistics collected by this scheduler.
+     * 
+     * @return the statistics
+     */
+    public SchedulerStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Registers a monitor that receives every timing measurement, on top of the built-in statistics.
+     * 
+     * @param monitor the monitor. Use null to unregister.
+     */
+    public void setMonitor(SchedulerMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    protected void cycleCompleted(long duration) {
+        statistics.cycleCompleted(duration);
+        SchedulerMonitor current = this.monitor;
+        if (current != null) {
+            current.cycleCompleted(duration);
+        }
+    }
+
+    protected void queueCompleted(int queue, long duration) {
+        statistics.queueCompleted(queue, duration);
+        SchedulerMonitor current = this.monitor;
+        if (current != null) {
+            current.queueCompleted(queue, duration);
+        }
+    }
+
+    protected void taskCompleted(Task task, long duration) {
+        statistics.taskCompleted(task, duration);
+        SchedulerMonitor current = this.monitor;
+        if (current != null) {
+            current.taskCompleted(task, duration);
+        }
     }
 
     /**
@@ -275,28 +347,20 @@ public class PriorityQueueScheduler  {
         		currQueue=MANAGEMENT_QUEUE;
         		while(currQueue<=OUTPUT_QUEUE)
     			{    		
-        			executeQueue(taskQueues[currQueue]);
-					while(activeTasksCount.get()!=0)
-						LockSupport.park();
-					
+        			runQueue(taskQueues[currQueue], currQueue);
 					currQueue++;															
     			}				        		
         		
-        		executeQueue(taskQueues[MANAGEMENT_QUEUE]);
-        		while(activeTasksCount.get()!=0)
-					LockSupport.park();					
+        		runQueue(taskQueues[MANAGEMENT_QUEUE], MANAGEMENT_QUEUE);
         		
         		runIndex=(runIndex+1)%5;        		
-    			executeQueue(heartBeatQueue[runIndex]);
-        		while(activeTasksCount.get()!=0)
-					LockSupport.park();
+        		runQueue(heartBeatQueue[runIndex], HEARTBEAT_QUEUE);
         		
-        		executeQueue(taskQueues[MANAGEMENT_QUEUE]);
-        		while(activeTasksCount.get()!=0)
-					LockSupport.park();	
+        		runQueue(taskQueues[MANAGEMENT_QUEUE], MANAGEMENT_QUEUE);
         		
         		//sleep till next cycle
         		cycleDuration=clock.getTime() - cycleStart;
+        		cycleCompleted(cycleDuration);
         		if(cycleDuration<20000000L)
         			try  {                                               
         				sleep(20L-cycleDuration/1000000L,(int)((20000000L-cycleDuration)%1000000L));
@@ -310,6 +374,15 @@ public class PriorityQueueScheduler  {
         	}
         }
         
+        private void runQueue(OrderedTaskQueue queue, int index)
+        {
+        	long queueStart=clock.getTime();
+        	executeQueue(queue);
+        	while(activeTasksCount.get()!=0)
+        		LockSupport.park();
+        	queueCompleted(index, clock.getTime() - queueStart);
+        }
+        
         private void executeQueue(OrderedTaskQueue currQueue)
         {
         	Task t;        	
@@ -320,9 +393,23 @@ public class PriorityQueueScheduler  {
             while(t!=null)
             {
             	activeTasksCount.incrementAndGet();
-            	waitingTasks.offer(t);
+            	while(!waitingTasks.offer(t))
+            	{
+            		//dispatch queue is full, let the workers drain it
+            		wakeWorkers();
+            		Thread.yield();
+            	}
             	t = currQueue.poll();
-            }            
+            }
+            
+            if(!waitingTasks.isEmpty())
+            	wakeWorkers();
+        }
+        
+        private void wakeWorkers()
+        {
+        	for(int i=0;i<workerThreads.length;i++)
+        		LockSupport.unpark(workerThreads[i]);
         }
 
         /**
@@ -363,13 +450,8 @@ public class PriorityQueueScheduler  {
         	
         	while(active)
         	{
-        		executeQueue(taskQueues[RECEIVER_QUEUE]);
-        		while(activeTasksCount.get()!=0)
-					LockSupport.park();	
-        		
-        		executeQueue(taskQueues[SENDER_QUEUE]);
-        		while(activeTasksCount.get()!=0)
-					LockSupport.park();
+        		runQueue(taskQueues[RECEIVER_QUEUE], RECEIVER_QUEUE);
+        		runQueue(taskQueues[SENDER_QUEUE], SENDER_QUEUE);
         		
         		//sleep till next cycle
         		cycleDuration=clock.getTime() - cycleStart;
@@ -386,6 +468,15 @@ public class PriorityQueueScheduler  {
         	}
         }
         
+        private void runQueue(OrderedTaskQueue queue, int index)
+        {
+        	long queueStart=clock.getTime();
+        	executeQueue(queue);
+        	while(activeTasksCount.get()!=0)
+        		LockSupport.park();
+        	queueCompleted(index, clock.getTime() - queueStart);
+        }
+        
         private void executeQueue(OrderedTaskQueue currQueue)
         {
         	Task t;        	
@@ -396,9 +487,23 @@ public class PriorityQueueScheduler  {
             while(t!=null)
             {
             	activeTasksCount.incrementAndGet();
-            	criticalTasks.offer(t);
+            	while(!criticalTasks.offer(t))
+            	{
+            		//dispatch queue is full, let the workers drain it
+            		wakeWorkers();
+            		Thread.yield();
+            	}
             	t = currQueue.poll();
-            }            
+            }
+            
+            if(!criticalTasks.isEmpty())
+            	wakeWorkers();
+        }
+        
+        private void wakeWorkers()
+        {
+        	for(int i=0;i<criticalWorkerThreads.length;i++)
+        		LockSupport.unpark(criticalWorkerThreads[i]);
         }
 
         /**
@@ -420,19 +525,16 @@ public class PriorityQueueScheduler  {
     	public void run() {
     		while(active)
     		{
-    			current=null;
-    			while(current==null)
+    			current=waitingTasks.poll();
+    			if(current==null)
     			{
-    				try
-    				{
-    					current=waitingTasks.take();
-    				}
-    				catch(Exception ex)
-    				{
-    					logger.warn("Could not poll waiting task in timely fashion. Will keep trying.");
-    				}    				
+    				//core thread wakes up workers once it dispatches a queue
+    				LockSupport.park();
+    				continue;
     			}
+    			long taskStart=clock.getTime();
     			current.run();
+    			taskCompleted(current, clock.getTime() - taskStart);
     			coreThread.notifyCompletion();    			
     		}
     	}
@@ -447,6 +549,7 @@ public class PriorityQueueScheduler  {
          */
         private void shutdown() {
             this.active = false;
+            LockSupport.unpark(this);
         }
     }
     
@@ -462,19 +565,16 @@ public class PriorityQueueScheduler  {
     	public void run() {
     		while(active)
     		{
-    			current=null;
-    			while(current==null)
+    			current=criticalTasks.poll();
+    			if(current==null)
     			{
-    				try
-    				{
-    					current=criticalTasks.take();
-    				}
-    				catch(Exception ex)
-    				{
-    					
-    				}    				
+    				//critical thread wakes up workers once it dispatches a queue
+    				LockSupport.park();
+    				continue;
     			}
+    			long taskStart=clock.getTime();
     			current.run();
+    			taskCompleted(current, clock.getTime() - taskStart);
     			criticalThread.notifyCompletion();
     		}
     	}
@@ -489,6 +589,7 @@ public class PriorityQueueScheduler  {
          */
         private void shutdown() {
             this.active = false;
+            LockSupport.unpark(this);
         }
     }
 }
@@ -0,0 +1,56 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.scheduler;
+
+/**
+ * Receives timing measurements from the media scheduler.
+ * <p>
+ * Methods are invoked from the scheduler threads on every cycle, so implementations must be thread-safe, must not block and
+ * should not allocate memory.
+ * </p>
+ */
+public interface SchedulerMonitor {
+
+    /**
+     * Invoked when a 20ms cycle has completed.
+     * 
+     * @param duration The time spent executing the cycle, in nanoseconds.
+     */
+    void cycleCompleted(long duration);
+
+    /**
+     * Invoked when all tasks of a queue have been executed.
+     * 
+     * @param queue The queue index. {@link PriorityQueueScheduler#HEARTBEAT_QUEUE} for the heartbeat queue.
+     * @param duration The time spent executing the queue, in nanoseconds.
+     */
+    void queueCompleted(int queue, long duration);
+
+    /**
+     * Invoked when a task has been executed.
+     * 
+     * @param task The executed task.
+     * @param duration The time spent executing the task, in nanoseconds.
+     */
+    void taskCompleted(Task task, long duration);
+
+}
@@ -0,0 +1,277 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free collector of the media scheduler timings.
+ * <p>
+ * Durations are kept in logarithmic histograms where bucket <i>n</i> counts durations lower than 2<sup>n</sup>
+ * microseconds, the last bucket being open-ended. Recording only touches pre-allocated atomic counters; the only
+ * allocation happens the first time a given Task class is observed.
+ * </p>
+ */
+public class SchedulerStatistics implements SchedulerMonitor {
+
+    public static final long CYCLE_BUDGET = 20000000L;
+    public static final int BUCKETS = 24;
+
+    // Slot of the heartbeat queue in the per-queue counters
+    private static final int HEARTBEAT_SLOT = 7;
+    private static final int QUEUE_SLOTS = 8;
+
+    private final AtomicLong cycles;
+    private final AtomicLong overruns;
+    private final AtomicLong totalCycleTime;
+    private final AtomicLong worstCycleTime;
+    private final AtomicLongArray cycleHistogram;
+
+    private final AtomicLongArray queueHistograms;
+    private final AtomicLongArray worstQueueTimes;
+
+    private final ConcurrentHashMap<Class<?>, AtomicLong> worstTaskTimes;
+
+    public SchedulerStatistics() {
+        this.cycles = new AtomicLong(0);
+        this.overruns = new AtomicLong(0);
+        this.totalCycleTime = new AtomicLong(0);
+        this.worstCycleTime = new AtomicLong(0);
+        this.cycleHistogram = new AtomicLongArray(BUCKETS);
+        this.queueHistograms = new AtomicLongArray(QUEUE_SLOTS * BUCKETS);
+        this.worstQueueTimes = new AtomicLongArray(QUEUE_SLOTS);
+        this.worstTaskTimes = new ConcurrentHashMap<>(64);
+    }
+
+    @Override
+    public void cycleCompleted(long duration) {
+        this.cycles.incrementAndGet();
+        this.totalCycleTime.addAndGet(duration);
+        if (duration > CYCLE_BUDGET) {
+            this.overruns.incrementAndGet();
+        }
+        updateMax(this.worstCycleTime, duration);
+        this.cycleHistogram.incrementAndGet(bucketOf(duration));
+    }
+
+    @Override
+    public void queueCompleted(int queue, long duration) {
+        int slot = slotOf(queue);
+        this.queueHistograms.incrementAndGet(slot * BUCKETS + bucketOf(duration));
+
+        long worst = this.worstQueueTimes.get(slot);
+        while (duration > worst && !this.worstQueueTimes.compareAndSet(slot, worst, duration)) {
+            worst = this.worstQueueTimes.get(slot);
+        }
+    }
+
+    @Override
+    public void taskCompleted(Task task, long duration) {
+        final Class<?> type = task.getClass();
+        AtomicLong worst = this.worstTaskTimes.get(type);
+        if (worst == null) {
+            AtomicLong created = new AtomicLong(0);
+            worst = this.worstTaskTimes.putIfAbsent(type, created);
+            if (worst == null) {
+                worst = created;
+            }
+        }
+        updateMax(worst, duration);
+    }
+
+    /**
+     * Gets the number of completed cycles.
+     * 
+     * @return The cycle count
+     */
+    public long getCycleCount() {
+        return this.cycles.get();
+    }
+
+    /**
+     * Gets the number of cycles that took longer than {@link #CYCLE_BUDGET}.
+     * 
+     * @return The overrun count
+     */
+    public long getOverrunCount() {
+        return this.overruns.get();
+    }
+
+    /**
+     * Gets the ratio of cycles that took longer than {@link #CYCLE_BUDGET}.
+     * 
+     * @return The miss rate, between 0 and 1.
+     */
+    public double getMissRate() {
+        long count = this.cycles.get();
+        return count == 0 ? 0 : (double) this.overruns.get() / count;
+    }
+
+    /**
+     * Gets the longest cycle duration.
+     * 
+     * @return The duration, in nanoseconds.
+     */
+    public long getWorstCycleTime() {
+        return this.worstCycleTime.get();
+    }
+
+    /**
+     * Gets the average cycle duration.
+     * 
+     * @return The duration, in nanoseconds.
+     */
+    public long getAverageCycleTime() {
+        long count = this.cycles.get();
+        return count == 0 ? 0 : this.totalCycleTime.get() / count;
+    }
+
+    /**
+     * Gets the histogram of cycle durations.
+     * 
+     * @return A copy of the {@link #BUCKETS} counters.
+     */
+    public long[] getCycleHistogram() {
+        long[] histogram = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = this.cycleHistogram.get(i);
+        }
+        return histogram;
+    }
+
+    /**
+     * Gets the histogram of execution times of a queue.
+     * 
+     * @param queue The queue index. {@link PriorityQueueScheduler#HEARTBEAT_QUEUE} for the heartbeat queue.
+     * @return A copy of the {@link #BUCKETS} counters.
+     */
+    public long[] getQueueHistogram(int queue) {
+        int offset = slotOf(queue) * BUCKETS;
+        long[] histogram = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = this.queueHistograms.get(offset + i);
+        }
+        return histogram;
+    }
+
+    /**
+     * Gets the longest execution time of a queue.
+     * 
+     * @param queue The queue index. {@link PriorityQueueScheduler#HEARTBEAT_QUEUE} for the heartbeat queue.
+     * @return The duration, in nanoseconds.
+     */
+    public long getWorstQueueTime(int queue) {
+        return this.worstQueueTimes.get(slotOf(queue));
+    }
+
+    /**
+     * Gets the Task classes with the longest execution times.
+     * 
+     * @param limit The maximum number of classes to return
+     * @return The class names mapped to their worst execution time in nanoseconds, slowest first.
+     */
+    public Map<String, Long> getSlowestTasks(int limit) {
+        List<Map.Entry<Class<?>, AtomicLong>> entries = new ArrayList<>(this.worstTaskTimes.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<Class<?>, AtomicLong>>() {
+
+            @Override
+            public int compare(Map.Entry<Class<?>, AtomicLong> o1, Map.Entry<Class<?>, AtomicLong> o2) {
+                long t1 = o1.getValue().get();
+                long t2 = o2.getValue().get();
+                return t1 < t2 ? 1 : (t1 == t2 ? 0 : -1);
+            }
+
+        });
+
+        Map<String, Long> slowest = new LinkedHashMap<>(limit);
+        for (int i = 0; i < entries.size() && i < limit; i++) {
+            Map.Entry<Class<?>, AtomicLong> entry = entries.get(i);
+            slowest.put(entry.getKey().getName(), entry.getValue().get());
+        }
+        return slowest;
+    }
+
+    /**
+     * Clears all collected statistics.
+     */
+    public void reset() {
+        this.cycles.set(0);
+        this.overruns.set(0);
+        this.totalCycleTime.set(0);
+        this.worstCycleTime.set(0);
+        for (int i = 0; i < this.cycleHistogram.length(); i++) {
+            this.cycleHistogram.set(i, 0);
+        }
+        for (int i = 0; i < this.queueHistograms.length(); i++) {
+            this.queueHistograms.set(i, 0);
+        }
+        for (int i = 0; i < this.worstQueueTimes.length(); i++) {
+            this.worstQueueTimes.set(i, 0);
+        }
+        this.worstTaskTimes.clear();
+    }
+
+    /**
+     * Gets the histogram bucket of a duration.
+     * 
+     * @param duration The duration, in nanoseconds.
+     * @return The bucket index
+     */
+    public static int bucketOf(long duration) {
+        long micros = duration / 1000L;
+        if (micros <= 0) {
+            return 0;
+        }
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return bucket < BUCKETS ? bucket : BUCKETS - 1;
+    }
+
+    /**
+     * Gets the exclusive upper bound of a histogram bucket.
+     * 
+     * @param bucket The bucket index
+     * @return The upper bound, in nanoseconds. {@link Long#MAX_VALUE} for the last bucket.
+     */
+    public static long upperBoundOf(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) * 1000L;
+    }
+
+    private static int slotOf(int queue) {
+        return queue < 0 ? HEARTBEAT_SLOT : queue;
+    }
+
+    private static void updateMax(AtomicLong max, long value) {
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+}
@@ -48,8 +48,36 @@ public abstract class Task implements Runnable {
     
     protected int taskId;
     
+    //key used by partitioned schedulers to keep related tasks on the same worker
+    private volatile int affinity;
+    
     public Task() {
     	taskId=id.incrementAndGet();
+    	affinity=taskId;
+    }
+
+    /**
+     * Gets the key used by partitioned schedulers to pick the worker of this task.
+     * 
+     * @return the affinity key. Defaults to the task id.
+     */
+    public int getAffinity()
+    {
+    	return affinity;
+    }
+
+    /**
+     * Pins this task to the same worker as every other task sharing the affinity key.
+     * <p>
+     * Tasks that exchange data within one cycle (inputs, mixer and outputs of an endpoint)
+     * should share the key so their INPUT, MIXER_MIX and OUTPUT phases run in order.
+     * </p>
+     * 
+     * @param affinity the affinity key
+     */
+    public void setAffinity(int affinity)
+    {
+    	this.affinity = affinity;
     }
 
     public void storedInQueue0()
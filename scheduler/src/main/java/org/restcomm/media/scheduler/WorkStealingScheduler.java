@@ -0,0 +1,361 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.scheduler;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Partitioned implementation of the media scheduler.
+ * <p>
+ * Tasks are sharded by their {@link Task#getAffinity() affinity} onto one worker per core. Each shard owns its own set of
+ * queues and runs the cycle on its own clock, so there is no central dispatcher and no global barrier between queues: the
+ * INPUT, MIXER_MIX and OUTPUT ordering is kept per shard.
+ * </p>
+ * <p>
+ * When a shard has drained its own phase it steals pending tasks from the phases other shards are currently running. A
+ * stolen task is still accounted to its owner shard, so the owner only moves to its next phase once every one of its tasks
+ * completed, no matter which worker executed it.
+ * </p>
+ * <p>
+ * The legacy RECEIVER and SENDER queues are executed at the start of every 20ms cycle instead of on a dedicated 4ms cycle.
+ * </p>
+ */
+public class WorkStealingScheduler extends PriorityQueueScheduler {
+
+    private static final Logger logger = Logger.getLogger(WorkStealingScheduler.class);
+
+    private static final long CYCLE_DURATION = 20000000L;
+    private static final int HEARTBEAT_SLOTS = 5;
+
+    // Order in which queues are executed within a cycle
+    private static final int[] CYCLE_PHASES = { RECEIVER_QUEUE, SENDER_QUEUE, MANAGEMENT_QUEUE, UDP_MANAGER_QUEUE,
+            INPUT_QUEUE, MIXER_MIX_QUEUE, OUTPUT_QUEUE, MANAGEMENT_QUEUE, HEARTBEAT_QUEUE, MANAGEMENT_QUEUE };
+
+    private final Shard[] shards;
+    private volatile boolean active;
+
+    public WorkStealingScheduler(Clock clock, int shardCount) {
+        super(clock, shardCount);
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Scheduler needs at least one shard");
+        }
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = new Shard(i);
+        }
+    }
+
+    public WorkStealingScheduler(Clock clock) {
+        this(clock, Runtime.getRuntime().availableProcessors());
+    }
+
+    private Shard shardOf(Task task) {
+        return this.shards[getShard(task.getAffinity())];
+    }
+
+    @Override
+    public void submit(Task task, Integer index) {
+        task.activate(false);
+        shardOf(task).queues[index].accept(task);
+    }
+
+    @Override
+    public void submitHeatbeat(Task task) {
+        task.activate(true);
+        Shard shard = shardOf(task);
+        shard.heartbeats[shard.heartbeatIndex].accept(task);
+    }
+
+    @Override
+    public void start() {
+        if (this.active) {
+            return;
+        }
+
+        if (getClock() == null) {
+            throw new IllegalStateException("Clock is not set");
+        }
+
+        this.active = true;
+        logger.info("Starting " + this.shards.length + " scheduler shards");
+
+        long cycleStart = getClock().getTime();
+        for (int i = 0; i < this.shards.length; i++) {
+            this.shards[i].activate(cycleStart);
+        }
+        logger.info("Started ");
+    }
+
+    @Override
+    public void stop() {
+        if (!this.active) {
+            return;
+        }
+        this.active = false;
+
+        for (int i = 0; i < this.shards.length; i++) {
+            this.shards[i].shutdown();
+        }
+
+        try {
+            Thread.sleep(40);
+        } catch (InterruptedException e) {
+        }
+
+        for (int i = 0; i < this.shards.length; i++) {
+            this.shards[i].clear();
+        }
+    }
+
+    /**
+     * Gets the number of shards tasks are partitioned on.
+     *
+     * @return the shard count
+     */
+    public int getShardCount() {
+        return this.shards.length;
+    }
+
+    /**
+     * Gets the shard the tasks sharing an affinity key are partitioned on.
+     *
+     * @param affinity the affinity key
+     * @return the index of the shard owning the tasks
+     */
+    public int getShard(int affinity) {
+        return (affinity & Integer.MAX_VALUE) % this.shards.length;
+    }
+
+    /**
+     * Gets how many cycles a shard completed.
+     *
+     * @param shard the index of the shard
+     * @return the number of cycles
+     */
+    public long getCycleCount(int shard) {
+        return this.shards[shard].cycles;
+    }
+
+    /**
+     * Gets how many tasks a shard executed on behalf of other shards.
+     *
+     * @param shard the index of the shard
+     * @return the number of stolen tasks
+     */
+    public long getStolenCount(int shard) {
+        return this.shards[shard].stolen;
+    }
+
+    /**
+     * Worker thread that owns a partition of the tasks.
+     * <p>
+     * Each phase is published as an array of tasks plus a cursor that packs the batch size (high 32 bits) and the next
+     * unclaimed index (low 32 bits). The owner and any thief claim tasks by advancing the cursor with a CAS, so the batch is
+     * shared without locks. The owner only republishes once the pending counter of the previous batch reached zero, which
+     * guarantees every claimed slot has already been read.
+     * </p>
+     */
+    private final class Shard extends Thread {
+
+        private final int index;
+        private final OrderedTaskQueue[] queues;
+        private final OrderedTaskQueue[] heartbeats;
+        private volatile int heartbeatIndex;
+
+        private volatile Task[] batch;
+        private final AtomicLong cursor;
+        private final AtomicInteger pending;
+
+        // Statistics are written by the owner thread only
+        private volatile long cycles;
+        private volatile long stolen;
+
+        private volatile boolean running;
+        private long cycleStart;
+        private int victim;
+
+        public Shard(int index) {
+            super("scheduler-shard-" + index);
+            this.index = index;
+            this.queues = new OrderedTaskQueue[7];
+            for (int i = 0; i < this.queues.length; i++) {
+                this.queues[i] = new OrderedTaskQueue();
+            }
+            this.heartbeats = new OrderedTaskQueue[HEARTBEAT_SLOTS];
+            for (int i = 0; i < this.heartbeats.length; i++) {
+                this.heartbeats[i] = new OrderedTaskQueue();
+            }
+            this.batch = new Task[64];
+            this.cursor = new AtomicLong(0);
+            this.pending = new AtomicInteger(0);
+            this.victim = index;
+        }
+
+        public void activate(long cycleStart) {
+            this.cycleStart = cycleStart;
+            this.running = true;
+            this.start();
+        }
+
+        public void shutdown() {
+            this.running = false;
+        }
+
+        public void clear() {
+            for (int i = 0; i < this.queues.length; i++) {
+                this.queues[i].clear();
+            }
+            for (int i = 0; i < this.heartbeats.length; i++) {
+                this.heartbeats[i].clear();
+            }
+        }
+
+        @Override
+        public void run() {
+            final Clock clock = getClock();
+            while (this.running) {
+                for (int i = 0; i < CYCLE_PHASES.length; i++) {
+                    int phase = CYCLE_PHASES[i];
+                    long phaseStart = clock.getTime();
+                    boolean executed;
+                    if (phase == HEARTBEAT_QUEUE) {
+                        this.heartbeatIndex = (this.heartbeatIndex + 1) % HEARTBEAT_SLOTS;
+                        executed = runPhase(this.heartbeats[this.heartbeatIndex]);
+                    } else {
+                        executed = runPhase(this.queues[phase]);
+                    }
+                    if (executed) {
+                        queueCompleted(phase, clock.getTime() - phaseStart);
+                    }
+                }
+
+                long cycleDuration = clock.getTime() - this.cycleStart;
+                this.cycles++;
+                cycleCompleted(cycleDuration);
+
+                // Help shards that are late before going to sleep
+                while (steal()) {
+                    // keep stealing
+                }
+
+                long remaining = this.cycleStart + CYCLE_DURATION - clock.getTime();
+                if (remaining > 0) {
+                    LockSupport.parkNanos(remaining);
+                }
+                this.cycleStart += CYCLE_DURATION;
+            }
+        }
+
+        private boolean runPhase(OrderedTaskQueue queue) {
+            if (!publish(queue)) {
+                return false;
+            }
+
+            Task task = claim();
+            while (task != null) {
+                execute(task);
+                this.pending.decrementAndGet();
+                task = claim();
+            }
+
+            // Other shards may still be executing tasks stolen from this phase
+            while (this.pending.get() > 0) {
+                if (!steal()) {
+                    Thread.yield();
+                }
+            }
+            return true;
+        }
+
+        private void execute(Task task) {
+            long taskStart = getClock().getTime();
+            task.run();
+            taskCompleted(task, getClock().getTime() - taskStart);
+        }
+
+        private boolean publish(OrderedTaskQueue queue) {
+            Task[] tasks = this.batch;
+            int count = 0;
+
+            queue.changePool();
+            Task task = queue.poll();
+            while (task != null) {
+                if (count == tasks.length) {
+                    tasks = Arrays.copyOf(tasks, count * 2);
+                }
+                tasks[count++] = task;
+                task = queue.poll();
+            }
+
+            if (count == 0) {
+                return false;
+            }
+
+            this.batch = tasks;
+            this.pending.set(count);
+            this.cursor.set(((long) count) << 32);
+            return true;
+        }
+
+        private Task claim() {
+            long current;
+            int next;
+            do {
+                current = this.cursor.get();
+                next = (int) current;
+                if (next >= (int) (current >>> 32)) {
+                    return null;
+                }
+            } while (!this.cursor.compareAndSet(current, current + 1));
+
+            Task[] tasks = this.batch;
+            Task task = tasks[next];
+            tasks[next] = null;
+            return task;
+        }
+
+        private boolean steal() {
+            for (int i = 1; i < shards.length; i++) {
+                this.victim = (this.victim + 1) % shards.length;
+                if (this.victim == this.index) {
+                    this.victim = (this.victim + 1) % shards.length;
+                }
+
+                Shard shard = shards[this.victim];
+                Task task = shard.claim();
+                if (task != null) {
+                    execute(task);
+                    shard.pending.decrementAndGet();
+                    this.stolen++;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.scheduler;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.junit.Test;
+
+public class SchedulerStatisticsTest {
+
+    @Test
+    public void testCycleOverruns() {
+        // given
+        SchedulerStatistics statistics = new SchedulerStatistics();
+
+        // when
+        statistics.cycleCompleted(5000000L);
+        statistics.cycleCompleted(15000000L);
+        statistics.cycleCompleted(20000000L);
+        statistics.cycleCompleted(25000000L);
+
+        // then
+        assertEquals(4, statistics.getCycleCount());
+        assertEquals(1, statistics.getOverrunCount());
+        assertEquals(0.25, statistics.getMissRate(), 0.0);
+        assertEquals(25000000L, statistics.getWorstCycleTime());
+        assertEquals(16250000L, statistics.getAverageCycleTime());
+    }
+
+    @Test
+    public void testBuckets() {
+        assertEquals(0, SchedulerStatistics.bucketOf(0));
+        assertEquals(0, SchedulerStatistics.bucketOf(999));
+        assertEquals(1, SchedulerStatistics.bucketOf(1000));
+        assertEquals(2, SchedulerStatistics.bucketOf(3999));
+        assertEquals(15, SchedulerStatistics.bucketOf(20000000L));
+        assertEquals(SchedulerStatistics.BUCKETS - 1, SchedulerStatistics.bucketOf(Long.MAX_VALUE));
+
+        for (int i = 0; i < SchedulerStatistics.BUCKETS - 1; i++) {
+            assertEquals(i + 1, SchedulerStatistics.bucketOf(SchedulerStatistics.upperBoundOf(i)));
+        }
+    }
+
+    @Test
+    public void testQueueHistograms() {
+        // given
+        SchedulerStatistics statistics = new SchedulerStatistics();
+
+        // when
+        statistics.queueCompleted(PriorityQueueScheduler.INPUT_QUEUE, 1500);
+        statistics.queueCompleted(PriorityQueueScheduler.INPUT_QUEUE, 1800);
+        statistics.queueCompleted(PriorityQueueScheduler.HEARTBEAT_QUEUE, 500);
+
+        // then
+        long[] expected = new long[SchedulerStatistics.BUCKETS];
+        expected[1] = 2;
+        assertArrayEquals(expected, statistics.getQueueHistogram(PriorityQueueScheduler.INPUT_QUEUE));
+        assertEquals(1800, statistics.getWorstQueueTime(PriorityQueueScheduler.INPUT_QUEUE));
+        assertEquals(500, statistics.getWorstQueueTime(PriorityQueueScheduler.HEARTBEAT_QUEUE));
+        assertEquals(0, statistics.getWorstQueueTime(PriorityQueueScheduler.OUTPUT_QUEUE));
+    }
+
+    @Test
+    public void testSlowestTasks() {
+        // given
+        SchedulerStatistics statistics = new SchedulerStatistics();
+        Task fast = new FastTask();
+        Task slow = new SlowTask();
+
+        // when
+        statistics.taskCompleted(fast, 100);
+        statistics.taskCompleted(slow, 300);
+        statistics.taskCompleted(fast, 200);
+        statistics.taskCompleted(slow, 250);
+
+        // then
+        Map<String, Long> slowest = statistics.getSlowestTasks(5);
+        assertEquals(2, slowest.size());
+        Iterator<Entry<String, Long>> iterator = slowest.entrySet().iterator();
+        Entry<String, Long> first = iterator.next();
+        assertEquals(SlowTask.class.getName(), first.getKey());
+        assertEquals(Long.valueOf(300), first.getValue());
+        Entry<String, Long> second = iterator.next();
+        assertEquals(FastTask.class.getName(), second.getKey());
+        assertEquals(Long.valueOf(200), second.getValue());
+        assertEquals(1, statistics.getSlowestTasks(1).size());
+    }
+
+    private static class FastTask extends Task {
+
+        @Override
+        public int getQueueNumber() {
+            return PriorityQueueScheduler.INPUT_QUEUE;
+        }
+
+        @Override
+        public long perform() {
+            return 0;
+        }
+
+    }
+
+    private static class SlowTask extends Task {
+
+        @Override
+        public int getQueueNumber() {
+            return PriorityQueueScheduler.MIXER_MIX_QUEUE;
+        }
+
+        @Override
+        public long perform() {
+            return 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,218 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.restcomm.media.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class WorkStealingSchedulerTest {
+
+    private WorkStealingScheduler scheduler;
+
+    @After
+    public void after() {
+        if (this.scheduler != null) {
+            this.scheduler.stop();
+        }
+    }
+
+    @Test
+    public void testTaskIsStolenWhenItsShardIsBusy() throws InterruptedException {
+        // given
+        this.scheduler = new WorkStealingScheduler(new WallClock(), 2);
+        final CountDownLatch running = new CountDownLatch(2);
+        final List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+        // both tasks belong to shard 0 and can only complete while the other one is running
+        Task first = new RendezvousTask(running, threads);
+        Task second = new RendezvousTask(running, threads);
+        first.setAffinity(0);
+        second.setAffinity(0);
+        submit(first);
+        submit(second);
+
+        // when
+        this.scheduler.start();
+
+        // then
+        assertTrue(running.await(2, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 2000L;
+        while (this.scheduler.getStolenCount(1) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(2, threads.size());
+        assertTrue(threads.contains("scheduler-shard-0"));
+        assertTrue(threads.contains("scheduler-shard-1"));
+        assertEquals(0, this.scheduler.getStolenCount(0));
+        assertEquals(1, this.scheduler.getStolenCount(1));
+    }
+
+    @Test
+    public void testInputRunsBeforeOutput() throws InterruptedException {
+        // given
+        this.scheduler = new WorkStealingScheduler(new WallClock(), 1);
+        final CountDownLatch done = new CountDownLatch(3);
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        // submitted in reverse order, within the same cycle
+        submit(new RecordingTask(PriorityQueueScheduler.OUTPUT_QUEUE, order, done));
+        submit(new RecordingTask(PriorityQueueScheduler.MIXER_MIX_QUEUE, order, done));
+        submit(new RecordingTask(PriorityQueueScheduler.INPUT_QUEUE, order, done));
+
+        // when
+        this.scheduler.start();
+
+        // then
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(3, order.size());
+        assertEquals(Integer.valueOf(PriorityQueueScheduler.INPUT_QUEUE), order.get(0));
+        assertEquals(Integer.valueOf(PriorityQueueScheduler.MIXER_MIX_QUEUE), order.get(1));
+        assertEquals(Integer.valueOf(PriorityQueueScheduler.OUTPUT_QUEUE), order.get(2));
+    }
+
+    @Test
+    public void testOverrunIsCountedOnce() throws InterruptedException {
+        // given
+        final JumpingClock clock = new JumpingClock();
+        this.scheduler = new WorkStealingScheduler(clock, 1);
+        final CountDownLatch done = new CountDownLatch(1);
+        submit(new Task() {
+
+            @Override
+            public int getQueueNumber() {
+                return PriorityQueueScheduler.INPUT_QUEUE;
+            }
+
+            @Override
+            public long perform() {
+                // the cycle of this task lasts 25ms
+                clock.jump(25000000L);
+                done.countDown();
+                return 0;
+            }
+        });
+
+        // when
+        this.scheduler.start();
+
+        // then
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        awaitCycles(3);
+        assertEquals(1, this.scheduler.getStatistics().getOverrunCount());
+        assertTrue(this.scheduler.getStatistics().getWorstCycleTime() >= 25000000L);
+    }
+
+    private void submit(Task task) {
+        this.scheduler.submit(task, task.getQueueNumber());
+    }
+
+    private void awaitCycles(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000L;
+        while (this.scheduler.getStatistics().getCycleCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(this.scheduler.getStatistics().getCycleCount() >= count);
+    }
+
+    /**
+     * Wall clock that can be moved forward to simulate a long task.
+     */
+    private static class JumpingClock extends WallClock {
+
+        private final AtomicLong offset = new AtomicLong(0);
+
+        public void jump(long nanos) {
+            this.offset.addAndGet(nanos);
+        }
+
+        @Override
+        public long getTime() {
+            return super.getTime() + this.offset.get();
+        }
+
+    }
+
+    private static class RendezvousTask extends Task {
+
+        private final CountDownLatch running;
+        private final List<String> threads;
+
+        public RendezvousTask(CountDownLatch running, List<String> threads) {
+            this.running = running;
+            this.threads = threads;
+        }
+
+        @Override
+        public int getQueueNumber() {
+            return PriorityQueueScheduler.INPUT_QUEUE;
+        }
+
+        @Override
+        public long perform() {
+            this.threads.add(Thread.currentThread().getName());
+            this.running.countDown();
+            try {
+                this.running.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 0;
+        }
+
+    }
+
+    private static class RecordingTask extends Task {
+
+        private final int queue;
+        private final List<Integer> order;
+        private final CountDownLatch done;
+
+        public RecordingTask(int queue, List<Integer> order, CountDownLatch done) {
+            this.queue = queue;
+            this.order = order;
+            this.done = done;
+        }
+
+        @Override
+        public int getQueueNumber() {
+            return this.queue;
+        }
+
+        @Override
+        public long perform() {
+            this.order.add(this.queue);
+            this.done.countDown();
+            return 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.spi.memory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Frame whose payload is a slice of an off-heap slab owned by its partition.
+ * <p>
+ * Components that work on {@link #getBuffer()} move the payload between direct buffers without touching the heap. For
+ * components that still use {@link #getData()} the payload is copied once into a heap array owned by the frame and from
+ * then on the frame behaves as a heap frame until it is recycled, which drops the copy.
+ * </p>
+ * <p>
+ * The slice may be larger than the requested size, up to the size class of the partition. The buffer is limited to the
+ * requested size and the heap copy has exactly that length.
+ * </p>
+ */
+public class DirectFrame extends Frame {
+
+    private final ByteBuffer payload;
+    private int size;
+
+    // heap copy handed out to codecs that were not migrated yet
+    private byte[] heap;
+    private ByteBuffer heapBuffer;
+    private volatile boolean promoted;
+
+    protected DirectFrame(Partition partition, ByteBuffer payload) {
+        super(partition, null);
+        this.payload = payload;
+        this.size = payload.capacity();
+    }
+
+    /**
+     * Sets the size requested by the holder of the frame, at most the capacity of the slice.
+     */
+    void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Gets the payload as a heap array.
+     * <p>
+     * The first call after allocation copies the payload out of the slab and moves the frame to the heap, so writes to the
+     * returned array are visible through {@link #getBuffer()} as well.
+     * </p>
+     */
+    @Override
+    public byte[] getData() {
+        if (!promoted) {
+            if (heap == null) {
+                heap = new byte[size];
+                heapBuffer = ByteBuffer.wrap(heap);
+            }
+            int offset = getOffset();
+            int length = getLength();
+            if (length > 0) {
+                payload.clear();
+                payload.limit(size);
+                payload.position(offset);
+                payload.get(heap, offset, length);
+            }
+            promoted = true;
+        }
+        return heap;
+    }
+
+    @Override
+    public ByteBuffer getBuffer() {
+        if (promoted) {
+            heapBuffer.clear();
+            return heapBuffer;
+        }
+        payload.clear();
+        payload.limit(size);
+        return payload;
+    }
+
+    @Override
+    public boolean isDirect() {
+        return !promoted;
+    }
+
+    @Override
+    int capacity() {
+        return payload.capacity();
+    }
+
+    @Override
+    void recycled() {
+        // the next holder may never need the heap copy, do not keep it attached to the pooled frame
+        promoted = false;
+        heap = null;
+        heapBuffer = null;
+    }
+
+    @Override
+    public Frame clone() {
+        Frame frame = Memory.allocateDirect(size);
+        int offset = getOffset();
+        int length = getLength();
+
+        ByteBuffer source = getBuffer();
+        source.position(offset);
+        source.limit(offset + length);
+        ByteBuffer target = frame.getBuffer();
+        target.position(offset);
+        target.put(source);
+
+        copyAttributes(frame);
+        return frame;
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.spi.memory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Partition of {@link DirectFrame direct frames}.
+ * <p>
+ * Frames are carved out of large direct slabs instead of allocating one direct buffer per frame, which is slow and
+ * wastes native memory. A slab is released to the garbage collector once none of its frames is referenced anymore.
+ * The size of the partition is a size class, every payload size up to it is served by the same frames.
+ * </p>
+ */
+class DirectPartition extends Partition {
+
+    static final int SLAB_SIZE = 256 * 1024;
+
+    private final int framesPerSlab;
+    private ByteBuffer slab;
+    private int carved;
+
+    DirectPartition(int size, int capacity) {
+        super(size, capacity);
+        this.framesPerSlab = size == 0 ? 1 : Math.max(1, SLAB_SIZE / size);
+        this.carved = this.framesPerSlab;
+    }
+
+    Frame allocate(int payloadSize) {
+        DirectFrame frame = (DirectFrame) allocate();
+        frame.setSize(payloadSize);
+        return frame;
+    }
+
+    @Override
+    protected synchronized Frame newFrame() {
+        if (carved == framesPerSlab) {
+            slab = ByteBuffer.allocateDirect(framesPerSlab * size);
+            carved = 0;
+        }
+
+        slab.limit((carved + 1) * size);
+        slab.position(carved * size);
+        carved++;
+        return new DirectFrame(this, slab.slice());
+    }
+
+    @Override
+    public boolean isDirect() {
+        return true;
+    }
+
+}
@@ -22,6 +22,7 @@
 
 package org.restcomm.media.spi.memory;
 
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.restcomm.media.spi.format.Format;
@@ -33,6 +34,7 @@ import org.restcomm.media.spi.format.Format;
 public class Frame {
     private Partition partition;
     private byte[] data;
+    private ByteBuffer buffer;
 
     private volatile int offset;
     private volatile int length;
@@ -47,6 +49,9 @@ public class Frame {
     
     protected AtomicBoolean inPartition=new AtomicBoolean(false);
     
+    //allocation site, only set while leak detection is enabled
+    volatile LeakDetector.Trace trace;
+    
     protected Frame(Partition partition, byte[] data) {
         this.partition = partition;
         this.data = data;
@@ -87,6 +92,39 @@ public class Frame {
         return data;
     }
 
+    /**
+     * Gets the size of the backing storage without materializing it, unlike {@link #getData()} on direct frames.
+     */
+    int capacity() {
+        return data.length;
+    }
+
+    /**
+     * Gets the payload of the frame as a buffer.
+     * <p>
+     * The buffer is cleared on every call, the payload lies between {@link #getOffset()} and {@link #getOffset()} +
+     * {@link #getLength()}. Heap frames return a buffer wrapping {@link #getData()}.
+     * </p>
+     *
+     * @return the payload buffer
+     */
+    public ByteBuffer getBuffer() {
+        if (buffer == null) {
+            buffer = ByteBuffer.wrap(data);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Tells whether the payload currently lives off-heap.
+     *
+     * @return true if {@link #getBuffer()} is a direct buffer
+     */
+    public boolean isDirect() {
+        return false;
+    }
+
     public long getTimestamp() {
         return timestamp;
     }
@@ -131,10 +169,21 @@ public class Frame {
         partition.recycle(this);
     }
 
+    /**
+     * Invoked by the partition before the frame is pooled again.
+     */
+    void recycled() {
+    }
+
     @Override
     public Frame clone() {
         Frame frame = Memory.allocate(data.length);
         System.arraycopy(data, offset, frame.data, offset, length);
+        copyAttributes(frame);
+        return frame;
+    }
+
+    void copyAttributes(Frame frame) {
         frame.offset = offset;
         frame.length = length;
         frame.duration = duration;
@@ -143,6 +192,5 @@ public class Frame {
         frame.format = format;
         frame.timestamp = timestamp;
         frame.header = header;
-        return frame;
     }
 }
@@ -0,0 +1,103 @@
+/*
+ * TeleStax, Open Source Cloud Communications
+ * Copyright 2011-2017, Telestax Inc and individual contributors
+ * by the @authors tag.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.restcomm.media.spi.memory;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Debugging aid that reports frames that were garbage collected without being recycled.
+ * <p>
+ * Every allocated frame is tracked by a weak reference that remembers where the frame was allocated. Recycling the frame
+ * discards the reference, so any reference enqueued by the garbage collector belongs to a leaked frame. Capturing the
+ * allocation site is expensive, so detection is meant for troubleshooting only.
+ * </p>
+ */
+class LeakDetector {
+
+    private static final Logger logger = Logger.getLogger(LeakDetector.class);
+
+    private final ReferenceQueue<Frame> collected;
+    private final Set<Trace> traces;
+    private final AtomicLong leaks;
+
+    LeakDetector() {
+        this.collected = new ReferenceQueue<Frame>();
+        this.traces = Collections.newSetFromMap(new ConcurrentHashMap<Trace, Boolean>());
+        this.leaks = new AtomicLong(0);
+    }
+
+    void track(Frame frame) {
+        report();
+        Trace trace = new Trace(frame, this);
+        frame.trace = trace;
+        this.traces.add(trace);
+    }
+
+    static void untrack(Frame frame) {
+        Trace trace = frame.trace;
+        frame.trace = null;
+        if (trace != null) {
+            trace.detector.traces.remove(trace);
+            trace.clear();
+        }
+    }
+
+    /**
+     * Logs the allocation site of every leaked frame collected since last call.
+     */
+    void report() {
+        Trace trace = (Trace) this.collected.poll();
+        while (trace != null) {
+            if (this.traces.remove(trace)) {
+                this.leaks.incrementAndGet();
+                logger.warn("Frame of " + trace.size + " bytes was garbage collected without being recycled", trace.site);
+            }
+            trace = (Trace) this.collected.poll();
+        }
+    }
+
+    long getLeaks() {
+        return this.leaks.get();
+    }
+
+    static final class Trace extends WeakReference<Frame> {
+
+        private final LeakDetector detector;
+        private final Throwable site;
+        private final int size;
+
+        Trace(Frame frame, LeakDetector detector) {
+            super(frame, detector.collected);
+            this.detector = detector;
+            this.site = new Throwable("Frame allocation site");
+            this.size = frame.capacity();
+        }
+    }
+
+}
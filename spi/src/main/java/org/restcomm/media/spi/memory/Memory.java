@@ -22,27 +22,235 @@
 
 package org.restcomm.media.spi.memory;
 
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import org.restcomm.media.concurrent.ConcurrentMap;
 
 /**
+ * Pool of frames, partitioned by frame size.
+ * <p>
+ * The number of idle frames kept by each partition is bounded by the partition capacity, which can be set through the
+ * <code>mms.memory.capacity</code> system property. Setting <code>mms.memory.leakDetection</code> to true logs the
+ * allocation site of frames that are garbage collected without being recycled.
+ * </p>
+ * <p>
+ * Frames may also keep their payload off-heap, see {@link #allocateDirect(int)}. Components that support both kinds use
+ * {@link #allocate(int, boolean)} together with {@link #isDirect()}, which is set through the <code>mms.memory.direct</code>
+ * system property.
+ * </p>
+ * <p>
+ * Heap frames are pooled by exact size because their array is the payload and codecs rely on its length. Direct frames
+ * are pooled by power-of-two size class: their slab slice is rounded up to the class while the buffer and the heap copy
+ * keep the requested size, so odd payload sizes share a partition.
+ * </p>
  *
  * @author oifa yulian
  */
 public class Memory 
 {
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    //smallest slice carved for a direct frame
+    private static final int MIN_SIZE_CLASS = 16;
+
+    //heap frames smaller than this are looked up without boxing their size
+    private static final int LOOKUP_SIZE = 8192;
+
     private static ConcurrentMap<Partition> partitions = new ConcurrentMap<Partition>();
+    private static final AtomicReferenceArray<Partition> heapLookup = new AtomicReferenceArray<Partition>(LOOKUP_SIZE);
+    private static final AtomicReferenceArray<Partition> directLookup = new AtomicReferenceArray<Partition>(Integer.SIZE);
+    
+    private static volatile int capacity = Integer.getInteger("mms.memory.capacity", DEFAULT_CAPACITY);
+    private static volatile boolean direct = Boolean.getBoolean("mms.memory.direct");
+    static volatile LeakDetector leakDetector = Boolean.getBoolean("mms.memory.leakDetection") ? new LeakDetector() : null;
     
     public static Frame allocate(int size) 
     {
-    	Partition currPartition=partitions.get(size);
+    	boolean cached = size >= 0 && size < LOOKUP_SIZE;
+    	Partition currPartition = cached ? heapLookup.get(size) : null;
     	if(currPartition==null)
     	{
-    		currPartition=new Partition(size);
-    		Partition oldPartition=partitions.putIfAbsent(size,currPartition);
-    		if(oldPartition!=null)
-    			currPartition=oldPartition;		
+    		currPartition=partitions.get(size);
+    		if(currPartition==null)
+    		{
+    			currPartition=new Partition(size, capacity);
+    			Partition oldPartition=partitions.putIfAbsent(size,currPartition);
+    			if(oldPartition!=null)
+    				currPartition=oldPartition;
+    		}
+    		if(cached)
+    			heapLookup.set(size, currPartition);
     	}
     	
     	return currPartition.allocate();
     }
+
+    /**
+     * Allocates a frame whose payload is a slice of a pooled off-heap slab.
+     *
+     * @param size the size of the payload
+     * @return the frame
+     * @see DirectFrame
+     */
+    public static Frame allocateDirect(int size)
+    {
+    	//direct partitions are stored along the heap ones under a negative key
+    	int slice = sizeClass(size);
+    	boolean cached = Integer.bitCount(slice) == 1;
+    	int index = Integer.numberOfTrailingZeros(slice);
+    	Partition currPartition = cached ? directLookup.get(index) : null;
+    	if(currPartition==null)
+    	{
+    		int key = ~slice;
+    		currPartition=partitions.get(key);
+    		if(currPartition==null)
+    		{
+    			currPartition=new DirectPartition(slice, capacity);
+    			Partition oldPartition=partitions.putIfAbsent(key,currPartition);
+    			if(oldPartition!=null)
+    				currPartition=oldPartition;
+    		}
+    		if(cached)
+    			directLookup.set(index, currPartition);
+    	}
+
+    	return ((DirectPartition) currPartition).allocate(size);
+    }
+
+    /**
+     * Rounds a payload size up to the power of two direct frames of that size are carved with.
+     *
+     * @param size the size of the payload
+     * @return the size of the slab slice
+     */
+    static int sizeClass(int size)
+    {
+    	if(size <= MIN_SIZE_CLASS)
+    		return MIN_SIZE_CLASS;
+    	int rounded = Integer.highestOneBit(size - 1) << 1;
+    	//sizes above 2^30 cannot be rounded
+    	return rounded > 0 ? rounded : size;
+    }
+
+    public static Frame allocate(int size, boolean direct)
+    {
+    	return direct ? allocateDirect(size) : allocate(size);
+    }
+
+    /**
+     * Sets whether components that support off-heap payloads should allocate direct frames.
+     *
+     * @param enabled whether direct frames are preferred
+     */
+    public static void setDirect(boolean enabled)
+    {
+    	direct = enabled;
+    }
+
+    public static boolean isDirect()
+    {
+    	return direct;
+    }
+
+    /**
+     * Sets the maximum number of idle frames kept by partitions created from now on.
+     *
+     * @param frames the capacity of each partition
+     */
+    public static void setCapacity(int frames)
+    {
+    	if(frames < 1)
+    		throw new IllegalArgumentException("Partition capacity must be positive");
+    	capacity = frames;
+    }
+
+    public static int getCapacity()
+    {
+    	return capacity;
+    }
+
+    /**
+     * Enables or disables tracking of frames that are never recycled.
+     *
+     * @param enabled whether leak detection is enabled
+     */
+    public static void setLeakDetection(boolean enabled)
+    {
+    	if(enabled && leakDetector==null)
+    		leakDetector = new LeakDetector();
+    	else if(!enabled)
+    		leakDetector = null;
+    }
+
+    public static boolean isLeakDetectionEnabled()
+    {
+    	return leakDetector != null;
+    }
+
+    /**
+     * Gets the number of leaked frames detected so far.
+     *
+     * @return the number of frames, zero if detection is disabled
+     */
+    public static long getLeakCount()
+    {
+    	LeakDetector detector = leakDetector;
+    	if(detector == null)
+    		return 0;
+    	detector.report();
+    	return detector.getLeaks();
+    }
+
+    /**
+     * Releases idle frames of all partitions.
+     *
+     * @return the number of released frames
+     * @see Partition#trim()
+     */
+    public static int trim()
+    {
+    	int released = 0;
+    	Iterator<Partition> iterator = partitions.valuesIterator();
+    	while(iterator.hasNext())
+    		released += iterator.next().trim();
+    	return released;
+    }
+
+    public static Iterator<Partition> getPartitions()
+    {
+    	return partitions.valuesIterator();
+    }
+
+    public static long getHitCount()
+    {
+    	long hits = 0;
+    	Iterator<Partition> iterator = partitions.valuesIterator();
+    	while(iterator.hasNext())
+    		hits += iterator.next().getHits();
+    	return hits;
+    }
+
+    public static long getMissCount()
+    {
+    	long misses = 0;
+    	Iterator<Partition> iterator = partitions.valuesIterator();
+    	while(iterator.hasNext())
+    		misses += iterator.next().getMisses();
+    	return misses;
+    }
+
+    /**
+     * Gets the memory owned by all partitions and their clients.
+     *
+     * @return the footprint in bytes
+     */
+    public static long getFootprint()
+    {
+    	long footprint = 0;
+    	Iterator<Partition> iterator = partitions.valuesIterator();
+    	while(iterator.hasNext())
+    		footprint += iterator.next().getFootprint();
+    	return footprint;
+    }
 }
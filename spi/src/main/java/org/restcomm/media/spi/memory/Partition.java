@@ -22,30 +22,87 @@
 
 package org.restcomm.media.spi.memory;
 
-import org.restcomm.media.concurrent.ConcurrentCyclicFIFO;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.restcomm.media.concurrent.MpmcArrayQueue;
 
 /**
+ * Pool of frames of a given size.
+ * <p>
+ * Every thread allocates from and recycles into its own magazine, a small stack of frames that needs no synchronization.
+ * Magazines exchange frames in batches with a shared, bounded depot: an empty magazine is refilled from the depot and a full
+ * magazine flushes half of its frames into it. Frames that do not fit in the depot are left to the garbage collector, and
+ * {@link #trim()} releases the frames that stayed idle in the depot since the previous trim. Trimming also returns the
+ * magazines of terminated threads to the depot.
+ * </p>
  *
  * @author oifa yulian
  */
 public class Partition {
 
+    //number of frames cached by each thread
+    static final int MAGAZINE_SIZE = 32;
+
     protected int size;
-    private ConcurrentCyclicFIFO<Frame> heap = new ConcurrentCyclicFIFO<Frame>();
+    private final int capacity;
+    private final MpmcArrayQueue<Frame> depot;
+
+    private final ThreadLocal<Magazine> magazine;
+    private final List<Magazine> magazines;
+
+    //lowest number of frames seen in the depot since last trim
+    private volatile int idle;
+
+    private final AtomicLong created;
+    private final AtomicLong dropped;
 
-    protected Partition(int size) {
+    //statistics of the magazines of terminated threads
+    private final AtomicLong retiredHits;
+    private final AtomicLong retiredMisses;
+
+    protected Partition(int size, int capacity) {
         this.size = size;
+        this.capacity = capacity;
+        this.depot = new MpmcArrayQueue<Frame>(capacity);
+        this.magazines = new CopyOnWriteArrayList<Magazine>();
+        this.magazine = new ThreadLocal<Magazine>() {
+            @Override
+            protected Magazine initialValue() {
+                Magazine magazine = new Magazine(Thread.currentThread());
+                magazines.add(magazine);
+                return magazine;
+            }
+        };
+        this.created = new AtomicLong(0);
+        this.dropped = new AtomicLong(0);
+        this.retiredHits = new AtomicLong(0);
+        this.retiredMisses = new AtomicLong(0);
     }
-    
+
     protected Frame allocate() {
-    	//if (true) return new Frame(this, new byte[size]);
-    	Frame result=heap.poll();    	
-    	
-        if (result==null) {
-            return new Frame(this, new byte[size]);
-        }
-        
-        result.inPartition.set(false);
+        Magazine local = magazine.get();
+        Frame result = local.pop();
+
+        if (result == null) {
+            refill(local);
+            result = local.pop();
+        }
+
+        if (result == null) {
+            local.misses++;
+            created.incrementAndGet();
+            result = newFrame();
+        } else {
+            local.hits++;
+            result.inPartition.set(false);
+        }
+
+        if (Memory.leakDetector != null) {
+            Memory.leakDetector.track(result);
+        }
         return result;
     }
 
@@ -54,11 +111,216 @@ public class Partition {
     		//dont add duplicate,otherwise may be reused in different places
     		return;
     	}
+
+        if (frame.trace != null) {
+            LeakDetector.untrack(frame);
+        }
+
         frame.setHeader(null);
         frame.setDuration(Long.MAX_VALUE);
-        frame.setEOM(false);        
-        heap.offer(frame);
-        //queue.offer(frame, frame.getDelay(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        frame.setEOM(false);
+        frame.recycled();
+
+        Magazine local = magazine.get();
+        if (local.count == MAGAZINE_SIZE) {
+            flush(local);
+        }
+        local.push(frame);
+    }
+
+    protected Frame newFrame() {
+        return new Frame(this, new byte[size]);
+    }
+
+    private void refill(Magazine local) {
+        Frame frame;
+        for (int i = 0; i < MAGAZINE_SIZE / 2; i++) {
+            frame = depot.poll();
+            if (frame == null) {
+                break;
+            }
+            local.push(frame);
+        }
+
+        int remaining = depot.size();
+        if (remaining < idle) {
+            idle = remaining;
+        }
+    }
+
+    private void flush(Magazine local) {
+        for (int i = 0; i < MAGAZINE_SIZE / 2; i++) {
+            Frame frame = local.pop();
+            if (!depot.offer(frame)) {
+                //depot reached its capacity, let the garbage collector reclaim the frame
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Releases the frames that were not needed since the previous trim.
+     * <p>
+     * The magazines of terminated threads are drained into the depot first, so their frames are reused or released by a
+     * later trim instead of leaking with the magazine.
+     * </p>
+     *
+     * @return the number of released frames
+     */
+    public int trim() {
+        reclaim();
+
+        int excess = idle;
+        int released = 0;
+        while (released < excess && depot.poll() != null) {
+            released++;
+        }
+        dropped.addAndGet(released);
+        idle = depot.size();
+        return released;
+    }
+
+    private void reclaim() {
+        for (Magazine local : magazines) {
+            //owner is gone, only the trim that unregisters the magazine touches it
+            if (local.isOwnerAlive() || !magazines.remove(local)) {
+                continue;
+            }
+            retiredHits.addAndGet(local.hits);
+            retiredMisses.addAndGet(local.misses);
+
+            Frame frame = local.pop();
+            while (frame != null) {
+                if (!depot.offer(frame)) {
+                    dropped.incrementAndGet();
+                }
+                frame = local.pop();
+            }
+        }
+    }
+
+    /**
+     * Gets the size of the frames of this partition.
+     *
+     * @return the size in bytes
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Tells whether frames of this partition keep their payload off-heap.
+     *
+     * @return true if frames are {@link DirectFrame direct}
+     */
+    public boolean isDirect() {
+        return false;
+    }
+
+    /**
+     * Gets the maximum number of idle frames kept in the shared depot.
+     *
+     * @return the number of frames
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets how many allocations were served by a pooled frame.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        long hits = retiredHits.get();
+        for (Magazine local : magazines) {
+            hits += local.hits;
+        }
+        return hits;
+    }
+
+    /**
+     * Gets how many allocations required a new frame.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        long misses = retiredMisses.get();
+        for (Magazine local : magazines) {
+            misses += local.misses;
+        }
+        return misses;
+    }
+
+    /**
+     * Gets how many frames were released to the garbage collector by this partition.
+     *
+     * @return the number of frames
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the number of idle frames held by the depot and the thread magazines.
+     *
+     * @return the number of frames
+     */
+    public int getPooled() {
+        int pooled = depot.size();
+        for (Magazine local : magazines) {
+            pooled += local.count;
+        }
+        return pooled;
+    }
+
+    /**
+     * Gets the memory owned by this partition and its clients, that is every frame it created and did not release yet.
+     *
+     * @return the footprint in bytes
+     */
+    public long getFootprint() {
+        return (created.get() - dropped.get()) * size;
+    }
+
+    /**
+     * Per thread stack of frames. Only the owner thread modifies it, so statistics read from other threads are approximate.
+     * <p>
+     * The owner is weakly referenced so the magazine does not keep a terminated thread reachable.
+     * </p>
+     */
+    private static final class Magazine {
+
+        private final WeakReference<Thread> owner;
+        private final Frame[] frames = new Frame[MAGAZINE_SIZE];
+        private int count;
+        private long hits;
+        private long misses;
+
+        private Magazine(Thread owner) {
+            this.owner = new WeakReference<Thread>(owner);
+        }
+
+        private boolean isOwnerAlive() {
+            Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+
+        private Frame pop() {
+            if (count == 0) {
+                return null;
+            }
+            int index = count - 1;
+            Frame frame = frames[index];
+            frames[index] = null;
+            count = index;
+            return frame;
+        }
+
+        private void push(Frame frame) {
+            frames[count] = frame;
+            count++;
+        }
     }
 
 }
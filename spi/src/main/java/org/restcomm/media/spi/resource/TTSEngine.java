@@ -22,6 +22,8 @@
 
 package org.restcomm.media.spi.resource;
 
+import org.restcomm.media.spi.ResourceUnavailableException;
+
 /**
  *
  * @author kulikov
@@ -59,6 +61,7 @@ public interface TTSEngine {
      * Sets text to speech.
      * 
      * @param text the text to speech.
+     * @throws ResourceUnavailableException if the text cannot be synthesized.
      */
-    public void setText(String text);
+    public void setText(String text) throws ResourceUnavailableException;
 }
@@ -27,6 +27,15 @@
 
 package org.restcomm.media.spi.memory;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -84,6 +93,254 @@ public class MemoryTest {
 */
     }
 
+    @Test
+    public void testRecycledFrameIsReused() {
+        Partition partition = new Partition(1001, 64);
+
+        Frame frame = partition.allocate();
+        assertEquals(1001, frame.getData().length);
+        assertEquals(0, partition.getHits());
+        assertEquals(1, partition.getMisses());
+
+        frame.recycle();
+        // duplicate recycle must not pool the frame twice
+        frame.recycle();
+        assertEquals(1, partition.getPooled());
+
+        Frame reused = partition.allocate();
+        assertSame(frame, reused);
+        assertNotSame(frame, partition.allocate());
+        assertEquals(1, partition.getHits());
+        assertEquals(2, partition.getMisses());
+        assertEquals(2 * 1001, partition.getFootprint());
+    }
+
+    @Test
+    public void testCapacityAndTrim() {
+        Partition partition = new Partition(1002, 16);
+        int count = 200;
+        Frame[] frames = new Frame[count];
+        for (int i = 0; i < count; i++) {
+            frames[i] = partition.allocate();
+        }
+        for (int i = 0; i < count; i++) {
+            frames[i].recycle();
+        }
+
+        // depot is bounded, frames beyond its capacity are released
+        assertTrue(partition.getPooled() <= 16 + Partition.MAGAZINE_SIZE);
+        assertEquals(count - partition.getPooled(), partition.getDropped());
+
+        // first trim only records the idle frames, second trim releases them
+        assertEquals(0, partition.trim());
+        int released = partition.trim();
+        assertTrue(released > 0);
+        assertEquals(0, partition.trim());
+        assertEquals(count - partition.getPooled(), partition.getDropped());
+        assertEquals(partition.getPooled() * 1002L, partition.getFootprint());
+    }
+
+    @Test
+    public void testTrimReclaimsMagazinesOfTerminatedThreads() throws InterruptedException {
+        // given
+        final Partition partition = new Partition(1004, 64);
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Frame[] frames = new Frame[8];
+                for (int i = 0; i < frames.length; i++) {
+                    frames[i] = partition.allocate();
+                }
+                for (int i = 0; i < frames.length; i++) {
+                    frames[i].recycle();
+                }
+            }
+        });
+
+        // when
+        worker.start();
+        worker.join();
+
+        // then
+        assertEquals(8, partition.getPooled());
+        assertEquals(8, partition.getMisses());
+
+        // when
+        assertEquals(0, partition.trim());
+
+        // then - frames of the dead thread are back in the depot and reused by others
+        assertEquals(8, partition.getPooled());
+        assertEquals(8, partition.getMisses());
+        Frame frame = partition.allocate();
+        assertEquals(1, partition.getHits());
+        frame.recycle();
+
+        // when
+        partition.trim();
+        partition.trim();
+
+        // then - every frame created is either pooled or released, none is stranded in a dead magazine
+        assertEquals(partition.getPooled() * 1004L, partition.getFootprint());
+        assertEquals(8, partition.getDropped() + partition.getPooled());
+    }
+
+    @Test
+    public void testMemoryStatistics() {
+        Frame frame = Memory.allocate(1003);
+        frame.recycle();
+        Memory.allocate(1003);
+
+        boolean found = false;
+        Iterator<Partition> partitions = Memory.getPartitions();
+        while (partitions.hasNext()) {
+            Partition partition = partitions.next();
+            if (partition.getSize() == 1003) {
+                found = true;
+                assertEquals(1, partition.getHits());
+                assertEquals(1, partition.getMisses());
+            }
+        }
+        assertTrue(found);
+        assertTrue(Memory.getHitCount() >= 1);
+        assertTrue(Memory.getMissCount() >= 1);
+    }
+
+    @Test
+    public void testLeakDetection() throws InterruptedException {
+        Memory.setLeakDetection(true);
+        try {
+            Memory.allocate(1004).recycle();
+            Memory.allocate(1005);
+
+            long leaks = 0;
+            for (int i = 0; i < 50 && leaks == 0; i++) {
+                System.gc();
+                Thread.sleep(20);
+                leaks = Memory.getLeakCount();
+            }
+            assertEquals(1, leaks);
+        } finally {
+            Memory.setLeakDetection(false);
+        }
+    }
+
+    @Test
+    public void testLeakDetectionKeepsDirectFramesDirect() {
+        Memory.setLeakDetection(true);
+        try {
+            // when
+            Frame frame = Memory.allocate(1009, true);
+
+            // then
+            assertTrue(frame.isDirect());
+            assertTrue(frame.getBuffer().isDirect());
+            frame.recycle();
+        } finally {
+            Memory.setLeakDetection(false);
+        }
+    }
+
+    @Test
+    public void testDirectFrame() {
+        // given
+        Frame frame = Memory.allocateDirect(1006);
+        frame.setOffset(2);
+        frame.setLength(3);
+        ByteBuffer buffer = frame.getBuffer();
+        buffer.position(2);
+        buffer.put(new byte[] { 1, 2, 3 });
+
+        // when
+        boolean direct = frame.isDirect();
+        byte[] data = frame.getData();
+
+        // then
+        assertTrue(direct);
+        assertTrue(buffer.isDirect());
+        assertEquals(1006, buffer.limit());
+        assertEquals(1024, buffer.capacity());
+        assertFalse(frame.isDirect());
+        assertEquals(1006, data.length);
+        assertEquals(1, data[2]);
+        assertEquals(3, data[4]);
+
+        // writes through the heap array are visible through the buffer
+        data[3] = 7;
+        assertEquals(7, frame.getBuffer().get(3));
+    }
+
+    @Test
+    public void testRecycledDirectFrameIsDirectAgain() {
+        // given
+        Frame frame = Memory.allocateDirect(1007);
+        byte[] data = frame.getData();
+
+        // when
+        frame.recycle();
+        Frame reused = Memory.allocateDirect(1007);
+
+        // then
+        assertSame(frame, reused);
+        assertTrue(reused.isDirect());
+        assertNotSame(data, reused.getData());
+        assertNotSame(reused, Memory.allocate(1007));
+        assertFalse(Memory.allocate(1007).isDirect());
+    }
+
+    @Test
+    public void testDirectSizesShareSizeClass() {
+        // given
+        Frame frame = Memory.allocateDirect(1500);
+        frame.recycle();
+
+        // when
+        Frame reused = Memory.allocateDirect(1700);
+
+        // then
+        assertSame(frame, reused);
+        assertEquals(1700, reused.getBuffer().limit());
+        assertEquals(2048, reused.getBuffer().capacity());
+        assertEquals(1700, reused.getData().length);
+
+        boolean found = false;
+        Iterator<Partition> partitions = Memory.getPartitions();
+        while (partitions.hasNext()) {
+            Partition partition = partitions.next();
+            found |= partition instanceof DirectPartition && partition.getSize() == 2048;
+            assertFalse(partition instanceof DirectPartition && partition.getSize() == 1700);
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void testSizeClass() {
+        assertEquals(16, Memory.sizeClass(1));
+        assertEquals(16, Memory.sizeClass(16));
+        assertEquals(32, Memory.sizeClass(17));
+        assertEquals(1024, Memory.sizeClass(1024));
+        assertEquals(2048, Memory.sizeClass(1025));
+    }
+
+    @Test
+    public void testCloneDirectFrame() {
+        // given
+        Frame frame = Memory.allocateDirect(1008);
+        frame.setOffset(1);
+        frame.setLength(2);
+        frame.setSequenceNumber(5);
+        frame.getBuffer().put(1, (byte) 9).put(2, (byte) 8);
+
+        // when
+        Frame clone = frame.clone();
+
+        // then
+        assertTrue(clone.isDirect());
+        assertNotSame(frame, clone);
+        assertEquals(5, clone.getSequenceNumber());
+        assertEquals(9, clone.getBuffer().get(1));
+        assertEquals(8, clone.getBuffer().get(2));
+    }
+
     //@Test
     public void testGC() throws InterruptedException {
         for (int i = 0; i < 5000; i++) {